@@ -169,4 +169,18 @@ public interface RegistryClientConfig {
      * @return the boolean
      */
     boolean isEventBusEnable();
+
+    /**
+     * Gets max requests waiting for response at the same time.
+     *
+     * @return the max inflight requests
+     */
+    int getMaxInflightRequests();
+
+    /**
+     * Gets max registers sent in one batch request, 1 disables batch.
+     *
+     * @return the register batch size
+     */
+    int getRegisterBatchSize();
 }
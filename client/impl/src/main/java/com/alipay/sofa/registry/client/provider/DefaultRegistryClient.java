@@ -140,6 +140,8 @@ public class DefaultRegistryClient implements RegistryClient {
                 .setObserverThreadQueueLength(registryClientConfig.getObserverThreadQueueLength())
                 .setObserverCallbackTimeout(registryClientConfig.getObserverCallbackTimeout())
                 .setSyncConfigRetryInterval(registryClientConfig.getSyncConfigRetryInterval())
+                .setMaxInflightRequests(registryClientConfig.getMaxInflightRequests())
+                .setRegisterBatchSize(registryClientConfig.getRegisterBatchSize())
                 .setAccessKey(registryClientConfig.getAccessKey())
                 .setSecretKey(registryClientConfig.getSecretKey()).build();
         }
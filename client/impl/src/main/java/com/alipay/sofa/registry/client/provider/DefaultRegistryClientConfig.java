@@ -89,6 +89,12 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
     /** */
     private boolean eventBusEnable;
 
+    /** */
+    private int     maxInflightRequests;
+
+    /** */
+    private int     registerBatchSize;
+
     /**
      * Instantiates a new Default registry client config.
      *
@@ -112,6 +118,9 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
      * @param secretKey the secret key 
      * @param algorithm the algorithm 
      * @param authCacheInterval the auth cache interval
+     * @param eventBusEnable the event bus enable
+     * @param maxInflightRequests the max inflight requests
+     * @param registerBatchSize the register batch size
      */
     public DefaultRegistryClientConfig(String env, String instanceId, String zone,
                                        String registryEndpoint, int registryEndpointPort,
@@ -121,7 +130,8 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
                                        int observerThreadQueueLength, int observerCallbackTimeout,
                                        int syncConfigRetryInterval, String accessKey,
                                        String secretKey, String algorithm, long authCacheInterval,
-                                       boolean eventBusEnable) {
+                                       boolean eventBusEnable, int maxInflightRequests,
+                                       int registerBatchSize) {
         this.env = env;
         this.instanceId = instanceId;
         this.zone = zone;
@@ -143,6 +153,8 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
         this.algorithm = algorithm;
         this.authCacheInterval = authCacheInterval;
         this.eventBusEnable = eventBusEnable;
+        this.maxInflightRequests = maxInflightRequests;
+        this.registerBatchSize = registerBatchSize;
     }
 
     /**
@@ -382,6 +394,44 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
         this.eventBusEnable = eventBusEnable;
     }
 
+    /**
+     * Getter method for property <tt>maxInflightRequests</tt>.
+     *
+     * @return property value of maxInflightRequests
+     */
+    @Override
+    public int getMaxInflightRequests() {
+        return maxInflightRequests;
+    }
+
+    /**
+     * Setter method for property <tt>maxInflightRequests</tt>.
+     *
+     * @param maxInflightRequests value to be assigned to property maxInflightRequests
+     */
+    public void setMaxInflightRequests(int maxInflightRequests) {
+        this.maxInflightRequests = maxInflightRequests;
+    }
+
+    /**
+     * Getter method for property <tt>registerBatchSize</tt>.
+     *
+     * @return property value of registerBatchSize
+     */
+    @Override
+    public int getRegisterBatchSize() {
+        return registerBatchSize;
+    }
+
+    /**
+     * Setter method for property <tt>registerBatchSize</tt>.
+     *
+     * @param registerBatchSize value to be assigned to property registerBatchSize
+     */
+    public void setRegisterBatchSize(int registerBatchSize) {
+        this.registerBatchSize = registerBatchSize;
+    }
+
     /**
      * Equals boolean.
      *
@@ -457,6 +507,7 @@ public class DefaultRegistryClientConfig implements RegistryClientConfig {
                + ", syncConfigRetryInterval=" + syncConfigRetryInterval + ", accessKey='"
                + accessKey + '\'' + ", secretKey='" + secretKey + '\'' + ", algorithm='"
                + algorithm + '\'' + ", authCacheInterval=" + authCacheInterval
-               + ", eventBusEnable=" + eventBusEnable + '}';
+               + ", eventBusEnable=" + eventBusEnable + ", maxInflightRequests="
+               + maxInflightRequests + ", registerBatchSize=" + registerBatchSize + '}';
     }
 }
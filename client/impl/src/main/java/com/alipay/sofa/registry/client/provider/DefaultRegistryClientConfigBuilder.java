@@ -47,6 +47,8 @@ public class DefaultRegistryClientConfigBuilder {
     private String  algorithm                 = "HmacSHA256";
     private long    authCacheInterval         = 5 * 60 * 1000;
     private boolean eventBusEnable            = true;
+    private int     maxInflightRequests       = 16;
+    private int     registerBatchSize         = 100;
 
     /**
      * Start default registry client config builder.
@@ -278,6 +280,26 @@ public class DefaultRegistryClientConfigBuilder {
         return this;
     }
 
+    /**
+     * Setter method for property <tt>maxInflightRequests</tt>.
+     *
+     * @param maxInflightRequests value to be assigned to property maxInflightRequests
+     */
+    public DefaultRegistryClientConfigBuilder setMaxInflightRequests(int maxInflightRequests) {
+        this.maxInflightRequests = maxInflightRequests;
+        return this;
+    }
+
+    /**
+     * Setter method for property <tt>registerBatchSize</tt>.
+     *
+     * @param registerBatchSize value to be assigned to property registerBatchSize
+     */
+    public DefaultRegistryClientConfigBuilder setRegisterBatchSize(int registerBatchSize) {
+        this.registerBatchSize = registerBatchSize;
+        return this;
+    }
+
     /**
      * Create default registry client config default registry client config.
      *
@@ -288,6 +310,7 @@ public class DefaultRegistryClientConfigBuilder {
             registryEndpointPort, dataCenter, appName, connectTimeout, socketTimeout,
             invokeTimeout, recheckInterval, observerThreadCoreSize, observerThreadMaxSize,
             observerThreadQueueLength, observerCallbackTimeout, syncConfigRetryInterval, accessKey,
-            secretKey, algorithm, authCacheInterval, eventBusEnable);
+            secretKey, algorithm, authCacheInterval, eventBusEnable, maxInflightRequests,
+            registerBatchSize);
     }
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -51,15 +52,12 @@ public class TaskQueue implements Iterable<TaskEvent> {
      * Delete the completed task, return task queue size.
      */
     public void cleanCompletedTasks() {
-        List<String> taskList = new ArrayList<String>(taskMap.keySet());
-        for (String key : taskList) {
-            TaskEvent event = taskMap.get(key);
-            AbstractInternalRegister r = (AbstractInternalRegister) event.getSource();
+        for (Map.Entry<String, TaskEvent> entry : taskMap.entrySet()) {
+            AbstractInternalRegister r = (AbstractInternalRegister) entry.getValue().getSource();
             if (r.isDone()) {
-                taskMap.remove(key, event);
+                taskMap.remove(entry.getKey(), entry.getValue());
             }
         }
-        taskMap.size();
     }
 
     /**
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.client.task;
 
+import com.alipay.remoting.InvokeCallback;
 import com.alipay.sofa.registry.client.api.Register;
 import com.alipay.sofa.registry.client.api.RegistryClientConfig;
 import com.alipay.sofa.registry.client.log.LoggerFactory;
@@ -23,31 +24,60 @@ import com.alipay.sofa.registry.client.provider.AbstractInternalRegister;
 import com.alipay.sofa.registry.client.provider.AbstractInternalRegister.SyncTask;
 import com.alipay.sofa.registry.client.provider.RegisterCache;
 import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
 import com.alipay.sofa.registry.core.model.RegisterResponse;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The type Worker thread.
+ *
+ * Registers are sent asynchronously, at most maxInflightRequests requests wait for response at
+ * the same time. Registers ready in one round are packed into BatchRegisterRequest of at most
+ * registerBatchSize registers, a server without batch support makes it fall back to single
+ * requests. A register is not sent again before the response of its in flight request.
+ *
  * @author zhuoyu.sjw
  * @version $Id : WorkerThread.java, v 0.1 2018-03-01 11:51 zhuoyu.sjw Exp $$
  */
 public class WorkerThread extends AbstractWorkerThread {
-    private static final Logger  LOGGER       = LoggerFactory.getLogger(WorkerThread.class);
+    private static final Logger  LOGGER             = LoggerFactory.getLogger(WorkerThread.class);
+
+    private static final int     IDLE_WAIT_INTERVAL = 100;
+
+    private static final String  NO_PROCESSOR       = "No user processor found for request";
 
     /**
      * Task queue
      */
-    protected final TaskQueue    requestQueue = new TaskQueue();
+    protected final TaskQueue    requestQueue       = new TaskQueue();
 
     private RegistryClientConfig config;
 
     private RegisterCache        registerCache;
 
-    private AtomicBoolean        inited       = new AtomicBoolean(false);
+    private AtomicBoolean        inited             = new AtomicBoolean(false);
+
+    /**
+     * RegistId of registers waiting for response
+     */
+    private final Set<String>    inflightRegistIds  = Collections
+                                                        .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final Semaphore      sendWindow;
+
+    private volatile boolean     batchSupported     = true;
 
     /**
      * Instantiates a new Worker thread.
@@ -59,6 +89,7 @@ public class WorkerThread extends AbstractWorkerThread {
         super(client);
         this.config = config;
         this.registerCache = registerCache;
+        this.sendWindow = new Semaphore(Math.max(1, config.getMaxInflightRequests()));
         this.setName("RegistryWorkerThread");
         this.setDaemon(true);
     }
@@ -88,6 +119,7 @@ public class WorkerThread extends AbstractWorkerThread {
             this.start();
         }
         requestQueue.putAll(events);
+        signal();
     }
 
     /**
@@ -99,19 +131,25 @@ public class WorkerThread extends AbstractWorkerThread {
         while (true) {
             try {
                 // check connection status, try to reconnect to the server when connection lose
-                client.ensureConnected();
+                ensureConnected();
 
                 if (requestQueue.isEmpty()) {
                     await(config.getRecheckInterval());
                     continue;
                 }
 
+                int batchSize = batchSupported ? Math.max(1, config.getRegisterBatchSize()) : 1;
+                List<SyncRequest> batch = new ArrayList<SyncRequest>(batchSize);
+                int sent = 0;
+
                 Iterator<TaskEvent> lt = requestQueue.iterator();
 
                 while (lt.hasNext()) {
-                    client.ensureConnected();
                     TaskEvent ev = lt.next();
-                    lt.remove();
+                    Register register = ev.getSource();
+                    if (register != null && inflightRegistIds.contains(register.getRegistId())) {
+                        continue;
+                    }
                     int sendCount = ev.incSendCount();
 
                     // Resent needs delay when task event is not the first time to send.
@@ -119,45 +157,180 @@ public class WorkerThread extends AbstractWorkerThread {
                         continue;
                     }
 
-                    handleTask(ev);
+                    SyncRequest syncRequest = prepare(ev);
+                    if (syncRequest == null) {
+                        continue;
+                    }
+                    batch.add(syncRequest);
+                    if (batch.size() >= batchSize) {
+                        ensureConnected();
+                        send(batch);
+                        sent += batch.size();
+                        batch = new ArrayList<SyncRequest>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    ensureConnected();
+                    send(batch);
+                    sent += batch.size();
                 }
 
                 // Cleaning completed task, it will take more time when the registration number is large.
                 requestQueue.cleanCompletedTasks();
+
+                if (sent == 0) {
+                    // all waiting for response or resent delay, woken up by response or new task
+                    await(IDLE_WAIT_INTERVAL);
+                }
             } catch (Throwable e) {
                 LOGGER.error("[send] handle data error!", e);
             }
         }
     }
 
-    private void handleTask(TaskEvent event) {
-        if (null == event) {
+    /**
+     * A reconnected server may be another one, batch register is tried again on it.
+     */
+    private void ensureConnected() throws InterruptedException {
+        if (client.isConnected()) {
             return;
         }
+        client.ensureConnected();
+        batchSupported = true;
+    }
+
+    private SyncRequest prepare(TaskEvent event) {
+        if (null == event) {
+            return null;
+        }
 
-        try {
-            event.setTriggerTime(System.currentTimeMillis());
-            Register register = event.getSource();
+        event.setTriggerTime(System.currentTimeMillis());
+        Register register = event.getSource();
+
+        if (!(register instanceof AbstractInternalRegister)) {
+            LOGGER.warn("[register] register type unknown, {}", register);
+            return null;
+        }
 
-            if (!(register instanceof AbstractInternalRegister)) {
-                LOGGER.warn("[register] register type unknown, {}", register);
+        AbstractInternalRegister abstractInternalRegister = (AbstractInternalRegister) register;
+
+        SyncTask syncTask = abstractInternalRegister.assemblySyncTask();
+
+        if (syncTask.isDone()) {
+            LOGGER.info("[register] register already sync succeeded, {}", register);
+            return null;
+        }
+        return new SyncRequest(abstractInternalRegister, syncTask);
+    }
+
+    private void send(List<SyncRequest> syncRequests) throws InterruptedException {
+        if (syncRequests.size() == 1) {
+            sendSingle(syncRequests.get(0));
+            return;
+        }
+
+        List<BaseRegister> registers = new ArrayList<BaseRegister>(syncRequests.size());
+        for (SyncRequest syncRequest : syncRequests) {
+            if (!(syncRequest.syncTask.getRequest() instanceof BaseRegister)) {
+                // not a register request, it can not be batched
+                for (SyncRequest single : syncRequests) {
+                    sendSingle(single);
+                }
                 return;
             }
+            registers.add((BaseRegister) syncRequest.syncTask.getRequest());
+        }
+        sendBatch(syncRequests, new BatchRegisterRequest(registers));
+    }
 
-            AbstractInternalRegister abstractInternalRegister = (AbstractInternalRegister) register;
+    private void sendSingle(final SyncRequest syncRequest) throws InterruptedException {
+        final Object request = syncRequest.syncTask.getRequest();
+        invoke(Collections.singletonList(syncRequest), request, new Callback() {
+            @Override
+            void handle(Object result) {
+                handleResponse(syncRequest, result);
+            }
 
-            SyncTask syncTask = abstractInternalRegister.assemblySyncTask();
-            String requestId = syncTask.getRequestId();
+            @Override
+            void onFailure(Throwable e) {
+                LOGGER.error("[send] handle request failed, {}", request, e);
+            }
+        });
+    }
 
-            if (syncTask.isDone()) {
-                LOGGER.info("[register] register already sync succeeded, {}", register);
-                return;
+    private void sendBatch(final List<SyncRequest> syncRequests, final BatchRegisterRequest request)
+                                                                                                    throws InterruptedException {
+        invoke(syncRequests, request, new Callback() {
+            @Override
+            void handle(Object result) {
+                if (!(result instanceof BatchRegisterResponse)) {
+                    LOGGER.warn("[register] batch result type is wrong, {}", result);
+                    return;
+                }
+                List<RegisterResponse> responses = ((BatchRegisterResponse) result).getResponses();
+                if (responses == null || responses.size() != syncRequests.size()) {
+                    LOGGER.warn("[register] batch result size is wrong, {}", result);
+                    return;
+                }
+                for (int i = 0; i < responses.size(); i++) {
+                    handleResponse(syncRequests.get(i), responses.get(i));
+                }
             }
 
-            Object request = syncTask.getRequest();
+            @Override
+            void onFailure(Throwable e) {
+                if (isNoProcessor(e)) {
+                    // server without batch register processor, registers will be resent one by one
+                    batchSupported = false;
+                    LOGGER
+                        .warn(
+                            "[send] batch register not supported by server, fall back to single request, {}",
+                            e.getMessage());
+                } else {
+                    LOGGER.error("[send] handle batch request failed, size: {}",
+                        syncRequests.size(), e);
+                }
+            }
+        });
+    }
 
-            Object result = client.invokeSync(request);
+    /**
+     * Whether the server has no processor for the request, the message of the server error is
+     * carried by the exception or by its cause depending on the bolt version.
+     */
+    static boolean isNoProcessor(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains(NO_PROCESSOR)) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
 
+    private void invoke(List<SyncRequest> syncRequests, Object request, Callback callback)
+                                                                                          throws InterruptedException {
+        sendWindow.acquire();
+        List<String> registIds = new ArrayList<String>(syncRequests.size());
+        for (SyncRequest syncRequest : syncRequests) {
+            registIds.add(syncRequest.register.getRegistId());
+        }
+        inflightRegistIds.addAll(registIds);
+        callback.registIds = registIds;
+        try {
+            client.invokeWithCallback(request, callback);
+        } catch (Throwable e) {
+            callback.onException(e);
+        }
+    }
+
+    private void handleResponse(SyncRequest syncRequest, Object result) {
+        AbstractInternalRegister register = syncRequest.register;
+        String requestId = syncRequest.syncTask.getRequestId();
+        Object request = syncRequest.syncTask.getRequest();
+        try {
             if (!(result instanceof RegisterResponse)) {
                 LOGGER.warn("[register] result type is wrong, {}", result);
                 return;
@@ -169,8 +342,8 @@ public class WorkerThread extends AbstractWorkerThread {
                 return;
             }
 
-            boolean syncOK = abstractInternalRegister.syncOK(requestId, response.getVersion(),
-                response.isRefused());
+            boolean syncOK = register
+                .syncOK(requestId, response.getVersion(), response.isRefused());
             if (!syncOK) {
                 LOGGER.info("[register] requestId has expired, ignore this response, {}, {}, {}",
                     requestId, request, response);
@@ -189,8 +362,69 @@ public class WorkerThread extends AbstractWorkerThread {
                     request, response);
             }
         } catch (Exception e) {
-            LOGGER.error("[send] handle request failed, {}", event, e);
+            LOGGER.error("[send] handle response failed, {}", request, e);
+        }
+    }
+
+    /**
+     * The register and the sync task sent for it.
+     */
+    private static final class SyncRequest {
+        private final AbstractInternalRegister register;
+
+        private final SyncTask                 syncTask;
+
+        SyncRequest(AbstractInternalRegister register, SyncTask syncTask) {
+            this.register = register;
+            this.syncTask = syncTask;
         }
     }
 
+    /**
+     * Releases the send window and the in flight registers once the request completes.
+     */
+    private abstract class Callback implements InvokeCallback {
+        private List<String>        registIds = Collections.emptyList();
+
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+
+        @Override
+        public void onException(Throwable e) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                onFailure(e);
+            } finally {
+                complete();
+            }
+        }
+
+        @Override
+        public void onResponse(Object result) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                handle(result);
+            } finally {
+                complete();
+            }
+        }
+
+        abstract void handle(Object result);
+
+        abstract void onFailure(Throwable e);
+
+        @Override
+        public Executor getExecutor() {
+            return null;
+        }
+
+        private void complete() {
+            inflightRegistIds.removeAll(registIds);
+            sendWindow.release();
+            signal();
+        }
+    }
 }
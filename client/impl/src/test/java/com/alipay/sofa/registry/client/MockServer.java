@@ -21,6 +21,8 @@ import com.alipay.remoting.rpc.RpcServer;
 import com.alipay.remoting.rpc.protocol.SyncUserProcessor;
 import com.alipay.sofa.registry.core.constants.EventTypeConstants;
 import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
 import com.alipay.sofa.registry.core.model.ConfiguratorRegister;
 import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.PublisherRegister;
@@ -30,9 +32,11 @@ import com.alipay.sofa.registry.core.model.SubscriberRegister;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The type Mock server.
@@ -51,9 +55,13 @@ public class MockServer {
 
     private int                               port            = 9600;
 
-    private Map<String, PublisherRegister>    publisherMap    = new HashMap<String, PublisherRegister>();
-    private Map<String, SubscriberRegister>   subscriberMap   = new HashMap<String, SubscriberRegister>();
-    private Map<String, ConfiguratorRegister> configuratorMap = new HashMap<String, ConfiguratorRegister>();
+    private Map<String, PublisherRegister>    publisherMap    = new ConcurrentHashMap<String, PublisherRegister>();
+    private Map<String, SubscriberRegister>   subscriberMap   = new ConcurrentHashMap<String, SubscriberRegister>();
+    private Map<String, ConfiguratorRegister> configuratorMap = new ConcurrentHashMap<String, ConfiguratorRegister>();
+
+    private boolean                           batchEnabled    = true;
+
+    private AtomicInteger                     batchCount      = new AtomicInteger();
 
     /**
      * Start.
@@ -63,6 +71,9 @@ public class MockServer {
         rpcServer.registerUserProcessor(new MockSubscriberRegisterProcessor());
         rpcServer.registerUserProcessor(new MockPublisherRegisterProcessor());
         rpcServer.registerUserProcessor(new MockConfiguratorRegisterProcesor());
+        if (batchEnabled) {
+            rpcServer.registerUserProcessor(new MockBatchRegisterProcessor());
+        }
         rpcServer.start(ip);
     }
 
@@ -119,6 +130,24 @@ public class MockServer {
         return publisherMap.get(registId);
     }
 
+    /**
+     * Setter method for property <tt>batchEnabled</tt>.
+     *
+     * @param batchEnabled value to be assigned to property batchEnabled
+     */
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    /**
+     * Count of batch register requests handled.
+     *
+     * @return count of batch register requests
+     */
+    public int getBatchCount() {
+        return batchCount.get();
+    }
+
     /**
      * Query subscriber by registId
      *
@@ -221,4 +250,40 @@ public class MockServer {
             return ConfiguratorRegister.class.getName();
         }
     }
+
+    class MockBatchRegisterProcessor extends SyncUserProcessor<BatchRegisterRequest> {
+
+        private MockPublisherRegisterProcessor   publisherProcessor    = new MockPublisherRegisterProcessor();
+
+        private MockSubscriberRegisterProcessor  subscriberProcessor   = new MockSubscriberRegisterProcessor();
+
+        private MockConfiguratorRegisterProcesor configuratorProcessor = new MockConfiguratorRegisterProcesor();
+
+        @Override
+        public Object handleRequest(BizContext bizCtx, BatchRegisterRequest request)
+                                                                                    throws Exception {
+            batchCount.incrementAndGet();
+            List<RegisterResponse> responses = new ArrayList<RegisterResponse>();
+            for (BaseRegister register : request.getRegisters()) {
+                Object response;
+                if (register instanceof PublisherRegister) {
+                    response = publisherProcessor.handleRequest(bizCtx,
+                        (PublisherRegister) register);
+                } else if (register instanceof SubscriberRegister) {
+                    response = subscriberProcessor.handleRequest(bizCtx,
+                        (SubscriberRegister) register);
+                } else {
+                    response = configuratorProcessor.handleRequest(bizCtx,
+                        (ConfiguratorRegister) register);
+                }
+                responses.add((RegisterResponse) response);
+            }
+            return new BatchRegisterResponse(responses);
+        }
+
+        @Override
+        public String interest() {
+            return BatchRegisterRequest.class.getName();
+        }
+    }
 }
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.After;
@@ -36,6 +37,7 @@ import com.alipay.sofa.registry.client.api.SubscriberDataObserver;
 import com.alipay.sofa.registry.client.api.model.UserData;
 import com.alipay.sofa.registry.client.api.registration.PublisherRegistration;
 import com.alipay.sofa.registry.client.api.registration.SubscriberRegistration;
+import com.alipay.sofa.registry.client.MockServer;
 import com.alipay.sofa.registry.client.base.BaseTest;
 import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.PublisherRegister;
@@ -222,4 +224,48 @@ public class RegisterOrderTest extends BaseTest {
         assertTrue(((AbstractInternalRegister) subscriber).isRefused());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void publishManyInBatch() throws InterruptedException {
+
+        String data = "publishManyInBatch";
+
+        List<Publisher> publishers = new ArrayList<Publisher>();
+        for (int i = 0; i < 500; i++) {
+            publishers.add(registryClient.register(new PublisherRegistration(dataId + "-" + i),
+                data));
+        }
+
+        Thread.sleep(2000L);
+
+        for (Publisher publisher : publishers) {
+            assertTrue(((AbstractInternalRegister) publisher).isDone());
+            assertNotNull(mockServer.queryPubliser(publisher.getRegistId()));
+        }
+        assertTrue(mockServer.getBatchCount() > 0);
+    }
+
+    @Test
+    public void publishWithoutBatchSupport() throws InterruptedException {
+
+        mockServer.stop();
+        mockServer = new MockServer();
+        mockServer.setBatchEnabled(false);
+        mockServer.start();
+
+        String data = "publishWithoutBatchSupport";
+
+        List<Publisher> publishers = new ArrayList<Publisher>();
+        for (int i = 0; i < 50; i++) {
+            publishers.add(registryClient.register(new PublisherRegistration(dataId + "-" + i),
+                data));
+        }
+
+        Thread.sleep(3000L);
+
+        // server without batch processor, registers are resent one by one
+        for (Publisher publisher : publishers) {
+            assertNotNull(mockServer.queryPubliser(publisher.getRegistId()));
+        }
+        assertEquals(0, mockServer.getBatchCount());
+    }
+}
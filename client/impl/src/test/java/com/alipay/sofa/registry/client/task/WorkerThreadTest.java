@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.task;
+
+import com.alipay.remoting.rpc.exception.InvokeServerException;
+import com.alipay.remoting.rpc.exception.RpcServerException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @version $Id: WorkerThreadTest.java, v 0.1 2026-10-18 23:49 agent Exp $
+ */
+public class WorkerThreadTest {
+
+    private static final String NO_PROCESSOR_MSG = "No user processor found for request: com.alipay.sofa.registry.core.model.BatchRegisterRequest";
+
+    @Test
+    public void testIsNoProcessor() {
+        // server error message in the cause
+        Assert.assertTrue(WorkerThread.isNoProcessor(new InvokeServerException(
+            "Server exception! ServerErrorMsg:null", new RpcServerException(NO_PROCESSOR_MSG))));
+        // server error message in the exception
+        Assert.assertTrue(WorkerThread.isNoProcessor(new InvokeServerException(
+            "Server exception! ServerErrorMsg:" + NO_PROCESSOR_MSG)));
+
+        // other server errors keep batch register
+        Assert.assertFalse(WorkerThread.isNoProcessor(new InvokeServerException(
+            "Server exception! ServerErrorMsg:null", new RpcServerException(
+                "java.lang.NullPointerException"))));
+        Assert.assertFalse(WorkerThread.isNoProcessor(new InvokeServerException(
+            "Server exception! ServerErrorMsg:null")));
+        Assert.assertFalse(WorkerThread.isNoProcessor(null));
+    }
+}
@@ -18,28 +18,65 @@ package com.alipay.sofa.registry.common.model;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
 
 import com.alipay.sofa.registry.common.model.store.Publisher;
 
 /**
+ * Publishers of a connectId held by one data node. A large snapshot is sent in chunks sharing a
+ * snapshotId, numbered from 0, and committed by the last chunk: the data node removes the
+ * publishers of the connectId not seen in any chunk only then. A snapshot without snapshotId is
+ * a single whole one.
+ *
+ * In digest mode the first chunks carry the digests of the publishers instead, and the data node
+ * answers the registerIds whose publisher it lacks or holds a different one of, so only those are
+ * sent.
  *
  * @author shangyu.wh
  * @version $Id: DatumSnapshotRequest.java, v 0.1 2019-05-30 11:09 shangyu.wh Exp $
  */
 public class DatumSnapshotRequest implements Serializable {
 
-    private static final long     serialVersionUID = 2193212935059863551L;
+    private static final long                                                  serialVersionUID = 2193212935059863551L;
+
+    private final String                                                       connectId;
+
+    private final String                                                       dataServerIp;
+
+    private final List<Publisher>                                              publishers;
 
-    private final String          connectId;
+    private final String                                                       snapshotId;
 
-    private final String          dataServerIp;
+    private final int                                                          chunkIndex;
 
-    private final List<Publisher> publishers;
+    private final boolean                                                      last;
+
+    private final Map<String/*dataInfoId*/, Map<String/*registerId*/, Long>> digests;
 
     public DatumSnapshotRequest(String connectId, String dataServerIp, List<Publisher> publishers) {
+        this(connectId, dataServerIp, publishers, null, 0, true, null);
+    }
+
+    /**
+     * constructor of a chunk
+     * @param connectId
+     * @param dataServerIp
+     * @param publishers
+     * @param snapshotId
+     * @param chunkIndex
+     * @param last
+     * @param digests
+     */
+    public DatumSnapshotRequest(String connectId, String dataServerIp, List<Publisher> publishers,
+                                String snapshotId, int chunkIndex, boolean last,
+                                Map<String, Map<String, Long>> digests) {
         this.connectId = connectId;
         this.dataServerIp = dataServerIp;
         this.publishers = publishers;
+        this.snapshotId = snapshotId;
+        this.chunkIndex = chunkIndex;
+        this.last = last;
+        this.digests = digests;
     }
 
     /**
@@ -69,6 +106,42 @@ public class DatumSnapshotRequest implements Serializable {
         return publishers;
     }
 
+    /**
+     * Getter method for property <tt>snapshotId</tt>.
+     *
+     * @return property value of snapshotId
+     */
+    public String getSnapshotId() {
+        return snapshotId;
+    }
+
+    /**
+     * Getter method for property <tt>chunkIndex</tt>.
+     *
+     * @return property value of chunkIndex
+     */
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    /**
+     * Getter method for property <tt>last</tt>.
+     *
+     * @return property value of last
+     */
+    public boolean isLast() {
+        return last;
+    }
+
+    /**
+     * Getter method for property <tt>digests</tt>.
+     *
+     * @return property value of digests
+     */
+    public Map<String, Map<String, Long>> getDigests() {
+        return digests;
+    }
+
     /**
      * @see Object#toString()
      */
@@ -77,7 +150,13 @@ public class DatumSnapshotRequest implements Serializable {
         final StringBuilder sb = new StringBuilder("DatumSnapshotRequest{");
         sb.append("connectId='").append(connectId).append('\'');
         sb.append(", dataServerIp='").append(dataServerIp).append('\'');
-        sb.append(", publishers.size=").append(publishers.size());
+        sb.append(", publishers.size=").append(publishers == null ? 0 : publishers.size());
+        if (snapshotId != null) {
+            sb.append(", snapshotId='").append(snapshotId).append('\'');
+            sb.append(", chunkIndex=").append(chunkIndex);
+            sb.append(", last=").append(last);
+            sb.append(", digests.size=").append(digests == null ? 0 : digests.size());
+        }
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * request to get datums of many dataInfoIds in one dataCenter, used to move datums to a new data
+ * node. The answer is bounded by the publisher count, see DatumChunk
+ *
+ * @author agent
+ * @version $Id: BatchGetDataRequest.java, v 0.1 2026-10-18 21:50 agent Exp $
+ */
+public class BatchGetDataRequest implements Serializable {
+
+    private static final long serialVersionUID = -4377063937581373427L;
+
+    private String            dataCenter;
+
+    private List<String>      dataInfoIds;
+
+    /**
+     * publishers answered at most, the first datum is answered even if it is larger
+     */
+    private int               maxPublishers;
+
+    /**
+     * constructor
+     */
+    public BatchGetDataRequest() {
+    }
+
+    /**
+     * constructor
+     * @param dataCenter
+     * @param dataInfoIds
+     * @param maxPublishers
+     */
+    public BatchGetDataRequest(String dataCenter, List<String> dataInfoIds, int maxPublishers) {
+        this.dataCenter = dataCenter;
+        this.dataInfoIds = dataInfoIds;
+        this.maxPublishers = maxPublishers;
+    }
+
+    /**
+     * Getter method for property <tt>dataCenter</tt>.
+     *
+     * @return property value of dataCenter
+     */
+    public String getDataCenter() {
+        return dataCenter;
+    }
+
+    /**
+     * Setter method for property <tt>dataCenter</tt>.
+     *
+     * @param dataCenter  value to be assigned to property dataCenter
+     */
+    public void setDataCenter(String dataCenter) {
+        this.dataCenter = dataCenter;
+    }
+
+    /**
+     * Getter method for property <tt>dataInfoIds</tt>.
+     *
+     * @return property value of dataInfoIds
+     */
+    public List<String> getDataInfoIds() {
+        return dataInfoIds;
+    }
+
+    /**
+     * Setter method for property <tt>dataInfoIds</tt>.
+     *
+     * @param dataInfoIds  value to be assigned to property dataInfoIds
+     */
+    public void setDataInfoIds(List<String> dataInfoIds) {
+        this.dataInfoIds = dataInfoIds;
+    }
+
+    /**
+     * Getter method for property <tt>maxPublishers</tt>.
+     *
+     * @return property value of maxPublishers
+     */
+    public int getMaxPublishers() {
+        return maxPublishers;
+    }
+
+    /**
+     * Setter method for property <tt>maxPublishers</tt>.
+     *
+     * @param maxPublishers  value to be assigned to property maxPublishers
+     */
+    public void setMaxPublishers(int maxPublishers) {
+        this.maxPublishers = maxPublishers;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("[BatchGetDataRequest] dataCenter=").append(dataCenter)
+            .append(", dataInfoIds=").append(dataInfoIds == null ? 0 : dataInfoIds.size())
+            .append(", maxPublishers=").append(maxPublishers).toString();
+    }
+}
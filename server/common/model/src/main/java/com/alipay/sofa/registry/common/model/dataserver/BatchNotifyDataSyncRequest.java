@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * NotifyDataSyncRequests to one data node sent in one request
+ *
+ * @author agent
+ * @version $Id: BatchNotifyDataSyncRequest.java, v 0.1 2026-10-18 22:00 agent Exp $
+ */
+public class BatchNotifyDataSyncRequest implements Serializable {
+
+    private static final long           serialVersionUID = 3640282917712548205L;
+
+    private List<NotifyDataSyncRequest> requests;
+
+    /**
+     * constructor
+     */
+    public BatchNotifyDataSyncRequest() {
+    }
+
+    /**
+     * constructor
+     * @param requests
+     */
+    public BatchNotifyDataSyncRequest(List<NotifyDataSyncRequest> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Getter method for property <tt>requests</tt>.
+     *
+     * @return property value of requests
+     */
+    public List<NotifyDataSyncRequest> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Setter method for property <tt>requests</tt>.
+     *
+     * @param requests  value to be assigned to property requests
+     */
+    public void setRequests(List<NotifyDataSyncRequest> requests) {
+        this.requests = requests;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("[BatchNotifyDataSyncRequest] requests=").append(
+            requests == null ? 0 : requests.size()).toString();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * datums answered to BatchGetDataRequest, dataInfoIds not answered because of the size bound of
+ * the chunk are left to the next request
+ *
+ * @author agent
+ * @version $Id: DatumChunk.java, v 0.1 2026-10-18 21:50 agent Exp $
+ */
+public class DatumChunk implements Serializable {
+
+    private static final long                 serialVersionUID  = 2785431086522140571L;
+
+    private Map<String/*dataInfoId*/, Datum> datums            = new LinkedHashMap<>();
+
+    private List<String/*dataInfoId*/>       unsentDataInfoIds = new ArrayList<>();
+
+    /**
+     * Getter method for property <tt>datums</tt>.
+     *
+     * @return property value of datums
+     */
+    public Map<String, Datum> getDatums() {
+        return datums;
+    }
+
+    /**
+     * Setter method for property <tt>datums</tt>.
+     *
+     * @param datums  value to be assigned to property datums
+     */
+    public void setDatums(Map<String, Datum> datums) {
+        this.datums = datums;
+    }
+
+    /**
+     * Getter method for property <tt>unsentDataInfoIds</tt>.
+     *
+     * @return property value of unsentDataInfoIds
+     */
+    public List<String> getUnsentDataInfoIds() {
+        return unsentDataInfoIds;
+    }
+
+    /**
+     * Setter method for property <tt>unsentDataInfoIds</tt>.
+     *
+     * @param unsentDataInfoIds  value to be assigned to property unsentDataInfoIds
+     */
+    public void setUnsentDataInfoIds(List<String> unsentDataInfoIds) {
+        this.unsentDataInfoIds = unsentDataInfoIds;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("[DatumChunk] datums=").append(datums.size()).append(", unsent=")
+            .append(unsentDataInfoIds.size()).toString();
+    }
+}
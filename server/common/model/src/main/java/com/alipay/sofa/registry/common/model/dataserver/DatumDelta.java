@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alipay.sofa.registry.common.model.store.Publisher;
+
+/**
+ * publishers of one datum changed between two versions, returned by GetDataRequest with the
+ * version already known by the caller instead of the whole datum
+ *
+ * @author agent
+ * @version $Id: DatumDelta.java, v 0.1 2026-10-18 21:32 agent Exp $
+ */
+public class DatumDelta implements Serializable {
+
+    private static final long                     serialVersionUID   = -3591208747542017825L;
+
+    private String                                dataInfoId;
+
+    private String                                dataCenter;
+
+    private long                                  fromVersion;
+
+    private long                                  version;
+
+    private Map<String/*registerId*/, Publisher> updatedPubs        = new HashMap<>();
+
+    private List<String/*registerId*/>           removedRegisterIds = new ArrayList<>();
+
+    /**
+     * constructor
+     */
+    public DatumDelta() {
+    }
+
+    /**
+     * constructor
+     * @param dataInfoId
+     * @param dataCenter
+     * @param fromVersion
+     * @param version
+     */
+    public DatumDelta(String dataInfoId, String dataCenter, long fromVersion, long version) {
+        this.dataInfoId = dataInfoId;
+        this.dataCenter = dataCenter;
+        this.fromVersion = fromVersion;
+        this.version = version;
+    }
+
+    /**
+     * apply delta to a copy of the datum of fromVersion, publishers not changed are shared with it
+     *
+     * @param datum
+     * @return datum of version
+     */
+    public Datum applyTo(Datum datum) {
+        if (datum.getVersion() != fromVersion) {
+            throw new IllegalArgumentException(String.format(
+                "Delta of %s from version %s can not apply to version %s", dataInfoId,
+                fromVersion, datum.getVersion()));
+        }
+        Datum result = new Datum(datum.getDataInfoId(), datum.getDataCenter());
+        result.setDataId(datum.getDataId());
+        result.setInstanceId(datum.getInstanceId());
+        result.setGroup(datum.getGroup());
+        result.setVersion(version);
+        Map<String, Publisher> pubMap = result.getPubMap();
+        if (datum.getPubMap() != null) {
+            pubMap.putAll(datum.getPubMap());
+        }
+        for (String registerId : removedRegisterIds) {
+            pubMap.remove(registerId);
+        }
+        updatedPubs.forEach((registerId, publisher) -> {
+            publisher.setRegisterId(registerId);
+            pubMap.put(registerId, Publisher.internPublisher(publisher));
+        });
+        return result;
+    }
+
+    /**
+     * Getter method for property <tt>dataInfoId</tt>.
+     *
+     * @return property value of dataInfoId
+     */
+    public String getDataInfoId() {
+        return dataInfoId;
+    }
+
+    /**
+     * Setter method for property <tt>dataInfoId</tt>.
+     *
+     * @param dataInfoId  value to be assigned to property dataInfoId
+     */
+    public void setDataInfoId(String dataInfoId) {
+        this.dataInfoId = dataInfoId;
+    }
+
+    /**
+     * Getter method for property <tt>dataCenter</tt>.
+     *
+     * @return property value of dataCenter
+     */
+    public String getDataCenter() {
+        return dataCenter;
+    }
+
+    /**
+     * Setter method for property <tt>dataCenter</tt>.
+     *
+     * @param dataCenter  value to be assigned to property dataCenter
+     */
+    public void setDataCenter(String dataCenter) {
+        this.dataCenter = dataCenter;
+    }
+
+    /**
+     * Getter method for property <tt>fromVersion</tt>.
+     *
+     * @return property value of fromVersion
+     */
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    /**
+     * Setter method for property <tt>fromVersion</tt>.
+     *
+     * @param fromVersion  value to be assigned to property fromVersion
+     */
+    public void setFromVersion(long fromVersion) {
+        this.fromVersion = fromVersion;
+    }
+
+    /**
+     * Getter method for property <tt>version</tt>.
+     *
+     * @return property value of version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter method for property <tt>version</tt>.
+     *
+     * @param version  value to be assigned to property version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Getter method for property <tt>updatedPubs</tt>.
+     *
+     * @return property value of updatedPubs
+     */
+    public Map<String, Publisher> getUpdatedPubs() {
+        return updatedPubs;
+    }
+
+    /**
+     * Setter method for property <tt>updatedPubs</tt>.
+     *
+     * @param updatedPubs  value to be assigned to property updatedPubs
+     */
+    public void setUpdatedPubs(Map<String, Publisher> updatedPubs) {
+        this.updatedPubs = updatedPubs;
+    }
+
+    /**
+     * Getter method for property <tt>removedRegisterIds</tt>.
+     *
+     * @return property value of removedRegisterIds
+     */
+    public List<String> getRemovedRegisterIds() {
+        return removedRegisterIds;
+    }
+
+    /**
+     * Setter method for property <tt>removedRegisterIds</tt>.
+     *
+     * @param removedRegisterIds  value to be assigned to property removedRegisterIds
+     */
+    public void setRemovedRegisterIds(List<String> removedRegisterIds) {
+        this.removedRegisterIds = removedRegisterIds;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("[DatumDelta] dataInfoId=").append(dataInfoId)
+            .append(", dataCenter=").append(dataCenter).append(", fromVersion=")
+            .append(fromVersion).append(", version=").append(version).append(", updated=")
+            .append(updatedPubs.size()).append(", removed=").append(removedRegisterIds.size())
+            .toString();
+    }
+}
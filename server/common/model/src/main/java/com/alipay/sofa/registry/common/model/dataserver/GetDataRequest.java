@@ -35,6 +35,12 @@ public class GetDataRequest implements Serializable {
      */
     private String            dataCenter;
 
+    /**
+     * datum version already known by the caller, if set with a dataCenter the changed publishers
+     * since it may be returned as DatumDelta instead of the whole datum
+     */
+    private Long              version;
+
     /**
      * constructor
      */
@@ -87,9 +93,28 @@ public class GetDataRequest implements Serializable {
         this.dataCenter = dataCenter;
     }
 
+    /**
+     * Getter method for property <tt>version</tt>.
+     *
+     * @return property value of version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter method for property <tt>version</tt>.
+     *
+     * @param version  value to be assigned to property version
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return new StringBuilder("[GetDataRequest] dataCenter=").append(this.dataCenter)
-            .append(", dataInfoId=").append(this.dataInfoId).toString();
+            .append(", dataInfoId=").append(this.dataInfoId).append(", version=")
+            .append(this.version).toString();
     }
 }
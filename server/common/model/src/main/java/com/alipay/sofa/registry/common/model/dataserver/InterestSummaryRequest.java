@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * request to report dataInfoIds subscribed on one session server, data node only notifies the
+ * session of changes it is interested in
+ *
+ * dataInfoIds are reported as sorted hash codes, a hash collision only costs an unneeded
+ * notification. Without hashes the request just refreshes the summary of the same version.
+ *
+ * @author agent
+ * @version $Id: InterestSummaryRequest.java, v 0.1 2026-10-18 21:16 agent Exp $
+ */
+public class InterestSummaryRequest implements Serializable {
+
+    private static final long serialVersionUID = 6286587164421312462L;
+
+    private String            sessionProcessId;
+
+    private long              version;
+
+    /**
+     * sorted hash codes of dataInfoIds, null when summary of version is unchanged
+     */
+    private int[]             dataInfoIdHashes;
+
+    /**
+     * constructor
+     */
+    public InterestSummaryRequest() {
+    }
+
+    /**
+     * constructor
+     * @param sessionProcessId
+     * @param version
+     * @param dataInfoIdHashes
+     */
+    public InterestSummaryRequest(String sessionProcessId, long version, int[] dataInfoIdHashes) {
+        this.sessionProcessId = sessionProcessId;
+        this.version = version;
+        this.dataInfoIdHashes = dataInfoIdHashes;
+    }
+
+    /**
+     * hash codes of dataInfoIds in the order data node searches them
+     * @param dataInfoIds
+     * @return
+     */
+    public static int[] toHashes(Collection<String> dataInfoIds) {
+        int[] hashes = new int[dataInfoIds.size()];
+        int i = 0;
+        for (String dataInfoId : dataInfoIds) {
+            if (i == hashes.length) {
+                break;
+            }
+            hashes[i++] = hashOf(dataInfoId);
+        }
+        hashes = i == hashes.length ? hashes : Arrays.copyOf(hashes, i);
+        Arrays.sort(hashes);
+        return hashes;
+    }
+
+    /**
+     * verify dataInfoId is contained in hashes built by toHashes
+     * @param hashes
+     * @param dataInfoId
+     * @return
+     */
+    public static boolean contains(int[] hashes, String dataInfoId) {
+        return Arrays.binarySearch(hashes, hashOf(dataInfoId)) >= 0;
+    }
+
+    private static int hashOf(String dataInfoId) {
+        return dataInfoId.hashCode();
+    }
+
+    /**
+     * Getter method for property <tt>sessionProcessId</tt>.
+     *
+     * @return property value of sessionProcessId
+     */
+    public String getSessionProcessId() {
+        return sessionProcessId;
+    }
+
+    /**
+     * Setter method for property <tt>sessionProcessId</tt>.
+     *
+     * @param sessionProcessId  value to be assigned to property sessionProcessId
+     */
+    public void setSessionProcessId(String sessionProcessId) {
+        this.sessionProcessId = sessionProcessId;
+    }
+
+    /**
+     * Getter method for property <tt>version</tt>.
+     *
+     * @return property value of version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter method for property <tt>version</tt>.
+     *
+     * @param version  value to be assigned to property version
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Getter method for property <tt>dataInfoIdHashes</tt>.
+     *
+     * @return property value of dataInfoIdHashes
+     */
+    public int[] getDataInfoIdHashes() {
+        return dataInfoIdHashes;
+    }
+
+    /**
+     * Setter method for property <tt>dataInfoIdHashes</tt>.
+     *
+     * @param dataInfoIdHashes  value to be assigned to property dataInfoIdHashes
+     */
+    public void setDataInfoIdHashes(int[] dataInfoIdHashes) {
+        this.dataInfoIdHashes = dataInfoIdHashes;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("[InterestSummaryRequest] sessionProcessId=")
+            .append(sessionProcessId).append(", version=").append(version).append(", size=")
+            .append(dataInfoIdHashes == null ? "unchanged" : dataInfoIdHashes.length).toString();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.sessionserver;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * data changes buffered by data server and sent to one session server together
+ *
+ * @author agent
+ * @version $Id: BatchDataChangeRequest.java, v 0.1 2026-10-18 20:51 agent Exp $
+ */
+public class BatchDataChangeRequest implements Serializable {
+
+    private static final long       serialVersionUID = 2683429165870129431L;
+
+    private List<DataChangeRequest> changes;
+
+    public BatchDataChangeRequest() {
+    }
+
+    public BatchDataChangeRequest(List<DataChangeRequest> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Getter method for property <tt>changes</tt>.
+     *
+     * @return property value of changes
+     */
+    public List<DataChangeRequest> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Setter method for property <tt>changes</tt>.
+     *
+     * @param changes  value to be assigned to property changes
+     */
+    public void setChanges(List<DataChangeRequest> changes) {
+        this.changes = changes;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchDataChangeRequest{");
+        sb.append("changes=").append(changes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.common.model.sessionserver;
 
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 
 import java.io.Serializable;
@@ -36,6 +37,11 @@ public class DataChangeRequest implements Serializable {
 
     private long              version;
 
+    /**
+     * datum of dataInfoId carried when it is small, session needs not fetch it again
+     */
+    private Datum             datum;
+
     /**
      * constructor
      */
@@ -108,12 +114,33 @@ public class DataChangeRequest implements Serializable {
         this.version = version;
     }
 
+    /**
+     * Getter method for property <tt>datum</tt>.
+     *
+     * @return property value of datum
+     */
+    public Datum getDatum() {
+        return datum;
+    }
+
+    /**
+     * Setter method for property <tt>datum</tt>.
+     *
+     * @param datum  value to be assigned to property datum
+     */
+    public void setDatum(Datum datum) {
+        this.datum = datum;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("DataChangeRequest{");
         sb.append("dataInfoId='").append(dataInfoId).append('\'');
         sb.append(", dataCenter='").append(dataCenter).append('\'');
         sb.append(", version=").append(version);
+        if (datum != null) {
+            sb.append(", datumVersion=").append(datum.getVersion());
+        }
         sb.append('}');
         return sb.toString();
     }
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.common.model.store;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -59,7 +60,8 @@ public abstract class BaseInfo implements Serializable, StoreData<String> {
 
     private long                clientRegisterTimestamp;
 
-    private Map<String, String> attributes       = new HashMap<>();
+    /** allocated only when the client registers with attributes, most of them do not */
+    private Map<String, String> attributes;
 
     /**
      * ClientVersion Enum
@@ -172,7 +174,7 @@ public abstract class BaseInfo implements Serializable, StoreData<String> {
      * @param sourceAddress  value to be assigned to property sourceAddress
      */
     public void setSourceAddress(URL sourceAddress) {
-        this.sourceAddress = sourceAddress;
+        this.sourceAddress = SourceAddressCache.getInstance().getSourceAddress(sourceAddress);
     }
 
     /**
@@ -181,7 +183,7 @@ public abstract class BaseInfo implements Serializable, StoreData<String> {
      * @return property value of attributes
      */
     public Map<String, String> getAttributes() {
-        return attributes;
+        return attributes == null ? Collections.emptyMap() : attributes;
     }
 
     /**
@@ -190,11 +192,13 @@ public abstract class BaseInfo implements Serializable, StoreData<String> {
      * @param attributes  value to be assigned to property attributes
      */
     public void setAttributes(Map<String, String> attributes) {
-        Map<String, String> newAttributes = new HashMap<>();
-        if (attributes != null && !attributes.isEmpty()) {
-            attributes.forEach((key, value) -> newAttributes
-                    .put(key, value));
+        if (attributes == null || attributes.isEmpty()) {
+            this.attributes = null;
+            return;
         }
+        Map<String, String> newAttributes = new HashMap<>(attributes.size() * 4 / 3 + 1);
+        attributes.forEach((key, value) -> newAttributes.put(WordCache.getInstance().getWordCache(key),
+                WordCache.getInstance().getWordCache(value)));
         this.attributes = newAttributes;
     }
 
@@ -380,7 +384,7 @@ public abstract class BaseInfo implements Serializable, StoreData<String> {
         sb.append(", registerTimestamp=").append(registerTimestamp);
         sb.append(", clientRegisterTimestamp=").append(clientRegisterTimestamp);
         sb.append(", otherInfo=").append(getOtherInfo());
-        sb.append(", attributes=").append(attributes);
+        sb.append(", attributes=").append(getAttributes());
         sb.append('}');
         return sb.toString();
     }
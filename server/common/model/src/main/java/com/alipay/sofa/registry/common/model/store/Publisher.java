@@ -100,6 +100,8 @@ public class Publisher extends BaseInfo {
         publisher.setCell(publisher.getCell());
         publisher.setProcessId(publisher.getProcessId());
         publisher.setAppName(publisher.getAppName());
+        publisher.setSourceAddress(publisher.getSourceAddress());
+        publisher.setAttributes(publisher.getAttributes());
 
         return publisher;
     }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shares one source address among all registrations from the same client connection. Publishers
+ * and subscribers are decoded one by one, each with its own copy of the URL of the connection they
+ * came from, so without sharing every registration keeps the address strings and URL object of its
+ * own. URL is immutable once built, the shared instance is held weakly and goes away with the last
+ * registration referencing it.
+ *
+ * @author agent
+ * @version $Id: SourceAddressCache.java, v 0.1 2026-10-18 23:08 agent Exp $
+ */
+public class SourceAddressCache {
+
+    private static volatile SourceAddressCache instance;
+
+    /**
+     * get SourceAddressCache instance
+     * @return
+     */
+    public static SourceAddressCache getInstance() {
+        if (instance == null) {
+            synchronized (SourceAddressCache.class) {
+                if (instance == null) {
+                    instance = new SourceAddressCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * URL has no equals, shared instances are keyed by all of its fields
+     */
+    private final Cache<String, URL> urls = CacheBuilder.newBuilder().weakValues().build();
+
+    /**
+     * get the shared URL equal to the given one, the given one becomes shared if there is none
+     * @param url
+     * @return URL
+     */
+    public URL getSourceAddress(URL url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            return urls.get(keyOf(url), () -> url);
+        } catch (ExecutionException e) {
+            return url;
+        }
+    }
+
+    /**
+     * shared URL count, for test and monitoring
+     * @return
+     */
+    public long size() {
+        urls.cleanUp();
+        return urls.size();
+    }
+
+    private static String keyOf(URL url) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(url.getProtocol()).append('#').append(url.getIpAddress()).append(URL.COLON)
+            .append(url.getPort()).append('#').append(url.getSerializerIndex()).append('#')
+            .append(url.getHost()).append('#').append(url.getPath()).append('#')
+            .append(url.getParameters());
+        return sb.toString();
+    }
+}
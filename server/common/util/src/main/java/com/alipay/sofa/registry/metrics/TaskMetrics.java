@@ -70,4 +70,14 @@ public class TaskMetrics {
                 (Gauge<Long>) executor::getTaskCount);
 
     }
+
+    /**
+     * register gauge,replace the existing one with same name
+     * @param name
+     * @param gauge
+     */
+    public void registerGauge(String name, Gauge<?> gauge) {
+        metrics.remove(name);
+        metrics.register(name, gauge);
+    }
 }
\ No newline at end of file
@@ -17,16 +17,22 @@
 package com.alipay.sofa.registry.consistency.hash;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Consistent hash implementation, use {@link HashNode} as physical node.
+ *
+ * The ring is immutable after construction, virtual nodes are kept in a sorted int array and
+ * located by binary search, so lookups do not allocate. Build a new instance when nodes change.
  * @param <T> hash node
  * @author zhuoyu.sjw
  * @version $Id : ConsistentHash.java, v 0.1 2016-08-24 11:10 zhuoyu.sjw Exp $$ 
@@ -34,19 +40,25 @@ import java.util.TreeMap;
 public class ConsistentHash<T extends HashNode> {
 
     /** character used to separate virtual nodes */
-    private static final char           SIGN   = '#';
+    private static final char    SIGN = '#';
 
     /** number of virtual nodes for one real node */
-    private final int                   numberOfReplicas;
+    private final int            numberOfReplicas;
 
     /** real nodes */
-    private Set<HashNode>               realNodes;
+    private final Set<HashNode>  realNodes;
 
     /** hash function */
-    private final HashFunction          hashFunction;
+    private final HashFunction   hashFunction;
+
+    /** sorted hash of virtual nodes */
+    private final int[]          ring;
 
-    /** */
-    private final SortedMap<Integer, T> circle = new TreeMap<>();
+    /** ringNodes[i] is the real node of virtual node ring[i] */
+    private final HashNode[]     ringNodes;
+
+    /** key -> node memo of getNodeFor, null if disabled */
+    private final Map<Object, T> nodeCache;
 
     /**
      * Instantiates a new Consistent hash.
@@ -66,21 +78,46 @@ public class ConsistentHash<T extends HashNode> {
      * @param nodes the nodes
      */
     public ConsistentHash(HashFunction hashFunction, int numberOfReplicas, Collection<T> nodes) {
+        this(hashFunction, numberOfReplicas, nodes, false);
+    }
+
+    /**
+     * Instantiates a new Consistent hash.
+     *
+     * @param hashFunction the hash function
+     * @param numberOfReplicas the number of replicas
+     * @param nodes the nodes
+     * @param cacheable memoize the result of getNodeFor, only for a bounded key space such as dataInfoId
+     */
+    public ConsistentHash(HashFunction hashFunction, int numberOfReplicas, Collection<T> nodes,
+                          boolean cacheable) {
         this.realNodes = new HashSet<>();
         this.hashFunction = hashFunction;
         this.numberOfReplicas = numberOfReplicas;
+
+        SortedMap<Integer, T> circle = new TreeMap<>();
         for (T node : nodes) {
-            addNode(node);
+            addNode(circle, node);
+        }
+        this.ring = new int[circle.size()];
+        this.ringNodes = new HashNode[circle.size()];
+        int i = 0;
+        for (Map.Entry<Integer, T> entry : circle.entrySet()) {
+            ring[i] = entry.getKey();
+            ringNodes[i] = entry.getValue();
+            i++;
         }
+        this.nodeCache = cacheable ? new ConcurrentHashMap<>() : null;
     }
 
     /**
      * Add a new node to the consistent hash
      *
      * This is not thread safe.
+     * @param circle the circle under construction
      * @param node the node
      */
-    private void addNode(T node) {
+    private void addNode(SortedMap<Integer, T> circle, T node) {
         realNodes.add(node);
         for (int i = 0; i < numberOfReplicas; i++) {
             // The string addition forces each replica to have different hash
@@ -96,17 +133,16 @@ public class ConsistentHash<T extends HashNode> {
      * @return node for
      */
     public T getNodeFor(Object key) {
-        if (circle.isEmpty()) {
+        if (ring.length == 0) {
             return null;
         }
-        int hash = hashFunction.hash(key);
-        T node = circle.get(hash);
-
+        if (nodeCache == null) {
+            return nodeAt(indexFor(hashFunction.hash(key)));
+        }
+        T node = nodeCache.get(key);
         if (node == null) {
-            // inexact match -- find the next value in the circle
-            SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-            hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-            node = circle.get(hash);
+            node = nodeAt(indexFor(hashFunction.hash(key)));
+            nodeCache.put(key, node);
         }
         return node;
     }
@@ -121,7 +157,7 @@ public class ConsistentHash<T extends HashNode> {
      * @return the n unique nodes for
      */
     public List<T> getNUniqueNodesFor(Object key, int n) {
-        if (circle.isEmpty()) {
+        if (ring.length == 0) {
             return Collections.emptyList();
         }
 
@@ -130,21 +166,16 @@ public class ConsistentHash<T extends HashNode> {
         }
 
         List<T> list = new ArrayList<>(n);
-        int hash = hashFunction.hash(key);
+        int index = indexFor(hashFunction.hash(key));
         for (int i = 0; i < n; i++) {
-            if (!circle.containsKey(hash)) {
-                // go to next element.
-                SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-                hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-            }
-            T candidate = circle.get(hash);
+            T candidate = nodeAt(index);
             if (!list.contains(candidate)) {
                 list.add(candidate);
             } else {
                 i--; // try again.
             }
             // find the next element in the circle
-            hash++;
+            index = nextIndex(index);
         }
         return list;
     }
@@ -160,7 +191,7 @@ public class ConsistentHash<T extends HashNode> {
      * @return the n unique nodes for
      */
     public List<T> getNUniqueNodesFor(Object key, int n, List<String> disasterList) {
-        if (circle.isEmpty()) {
+        if (ring.length == 0) {
             return Collections.emptyList();
         }
 
@@ -171,24 +202,14 @@ public class ConsistentHash<T extends HashNode> {
         List<String> disasters = disasterList != null && !disasterList.isEmpty() ? disasterList
             : new ArrayList<>();
         List<T> list = new ArrayList<>(n);
-        int hash = hashFunction.hash(key);
+        int index = indexFor(hashFunction.hash(key));
         for (int i = 0; i < n; i++) {
-            if (!circle.containsKey(hash)) {
-                // go to next element.
-                SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-                hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-            }
-            T candidate = circle.get(hash);
+            T candidate = nodeAt(index);
             if (!list.contains(candidate)) {
 
                 while (!disasters.isEmpty() && !disasters.contains(candidate.getNodeName())) {
-                    hash++;
-                    if (!circle.containsKey(hash)) {
-                        // go to next element.
-                        SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-                        hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-                    }
-                    candidate = circle.get(hash);
+                    index = nextIndex(index);
+                    candidate = nodeAt(index);
                 }
                 list.add(candidate);
                 if (!disasters.isEmpty()) {
@@ -199,8 +220,28 @@ public class ConsistentHash<T extends HashNode> {
                 i--; // try again.
             }
             // find the next element in the circle
-            hash++;
+            index = nextIndex(index);
         }
         return list;
     }
+
+    /**
+     * index of the first virtual node whose hash is not less than the given hash, wrap to 0 at the end
+     */
+    private int indexFor(int hash) {
+        int index = Arrays.binarySearch(ring, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == ring.length ? 0 : index;
+    }
+
+    private int nextIndex(int index) {
+        return index + 1 == ring.length ? 0 : index + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T nodeAt(int index) {
+        return (T) ringNodes[index];
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+import java.nio.charset.Charset;
+
+/**
+ * MurmurHash3 x86 32-bit hash function, much cheaper than {@link MD5HashFunction}.
+ * It distributes keys to different nodes than MD5, so every node of a cluster must use the same one.
+ * @author agent
+ * @version $Id: Murmur3HashFunction.java, v 0.1 2026-10-18 19:21 agent Exp $
+ */
+public class Murmur3HashFunction implements HashFunction {
+
+    /**
+     * Default charset of UTF-8
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int     C1   = 0xcc9e2d51;
+
+    private static final int     C2   = 0x1b873593;
+
+    private final int            seed;
+
+    /**
+     * Instantiates a new Murmur3 hash function with seed 0.
+     */
+    public Murmur3HashFunction() {
+        this(0);
+    }
+
+    /**
+     * Instantiates a new Murmur3 hash function.
+     *
+     * @param seed the seed
+     */
+    public Murmur3HashFunction(int seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @see HashFunction#hash(Object)
+     */
+    @Override
+    public int hash(Object s) {
+        byte[] data = s.toString().getBytes(UTF8);
+        int length = data.length;
+        int h1 = seed;
+
+        int roundedEnd = length & 0xfffffffc;
+        for (int i = 0; i < roundedEnd; i += 4) {
+            int k1 = (data[i] & 0xff) | ((data[i + 1] & 0xff) << 8) | ((data[i + 2] & 0xff) << 16)
+                     | (data[i + 3] << 24);
+            h1 ^= mixK1(k1);
+            h1 = Integer.rotateLeft(h1, 13);
+            h1 = h1 * 5 + 0xe6546b64;
+        }
+
+        int k1 = 0;
+        switch (length & 0x03) {
+            case 3:
+                k1 = (data[roundedEnd + 2] & 0xff) << 16;
+                // fall through
+            case 2:
+                k1 |= (data[roundedEnd + 1] & 0xff) << 8;
+                // fall through
+            case 1:
+                k1 |= (data[roundedEnd] & 0xff);
+                h1 ^= mixK1(k1);
+                break;
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= C1;
+        k1 = Integer.rotateLeft(k1, 15);
+        k1 *= C2;
+        return k1;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lookup throughput of the consistent hash ring by dataInfoId, main method runs it with the gc
+ * profiler to report allocation rate. run with main method, not by surefire.
+ *
+ * @author agent
+ * @version $Id: ConsistentHashBenchmark.java, v 0.1 2026-10-18 19:21 agent Exp $
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsistentHashBenchmark {
+
+    private static final int                KEY_SIZE  = 10000;
+
+    private static final int                NODE_SIZE = 10;
+
+    /** total virtual nodes of the ring */
+    @Param({ "100", "1000", "10000" })
+    private int                             virtualNodes;
+
+    private TreeMapConsistentHash<TestNode> treeMapHash;
+
+    private ConsistentHash<TestNode>        arrayHash;
+
+    private ConsistentHash<TestNode>        murmur3Hash;
+
+    private ConsistentHash<TestNode>        cacheableHash;
+
+    private String[]                        keys;
+
+    private int                             index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<TestNode> nodes = new ArrayList<>();
+        for (int i = 0; i < NODE_SIZE; i++) {
+            nodes.add(new TestNode("10.10.10." + i));
+        }
+        int replicas = virtualNodes / NODE_SIZE;
+        treeMapHash = new TreeMapConsistentHash<>(new MD5HashFunction(), replicas, nodes);
+        arrayHash = new ConsistentHash<>(new MD5HashFunction(), replicas, nodes);
+        murmur3Hash = new ConsistentHash<>(new Murmur3HashFunction(), replicas, nodes);
+        cacheableHash = new ConsistentHash<>(new MD5HashFunction(), replicas, nodes, true);
+
+        keys = new String[KEY_SIZE];
+        for (int i = 0; i < KEY_SIZE; i++) {
+            keys[i] = "com.alipay.test.demo.service" + i + ":1.0#@#DEFAULT_INSTANCE_ID#@#SOFA";
+        }
+    }
+
+    private String nextKey() {
+        index = index + 1 == KEY_SIZE ? 0 : index + 1;
+        return keys[index];
+    }
+
+    @Benchmark
+    public TestNode treeMapMD5() {
+        return treeMapHash.getNodeFor(nextKey());
+    }
+
+    @Benchmark
+    public TestNode arrayMD5() {
+        return arrayHash.getNodeFor(nextKey());
+    }
+
+    @Benchmark
+    public TestNode arrayMurmur3() {
+        return murmur3Hash.getNodeFor(nextKey());
+    }
+
+    @Benchmark
+    public TestNode arrayMD5Cacheable() {
+        return cacheableHash.getNodeFor(nextKey());
+    }
+
+    @Benchmark
+    public List<TestNode> treeMapMD5Backups() {
+        return treeMapHash.getNUniqueNodesFor(nextKey(), 3);
+    }
+
+    @Benchmark
+    public List<TestNode> arrayMD5Backups() {
+        return arrayHash.getNUniqueNodesFor(nextKey(), 3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConsistentHashBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class).build()).run();
+    }
+}
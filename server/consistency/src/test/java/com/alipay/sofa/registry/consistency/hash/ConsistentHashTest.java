@@ -22,11 +22,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -127,4 +130,61 @@ public class ConsistentHashTest {
         assertNotNull(uniqueNodes);
         assertTrue(uniqueNodes.isEmpty());
     }
+
+    /**
+     * Array backed ring must locate the same nodes as the previous TreeMap ring.
+     */
+    @Test
+    public void sameNodesAsTreeMapRing() {
+        TreeMapConsistentHash<TestNode> treeMapHash = new TreeMapConsistentHash<>(
+            new MD5HashFunction(), 100, testNodes);
+        for (int i = 0; i < 2000; i++) {
+            String key = "dataId-" + i + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP";
+            assertEquals(treeMapHash.getNodeFor(key), consistentHash.getNodeFor(key));
+            assertEquals(treeMapHash.getNUniqueNodesFor(key, 3),
+                consistentHash.getNUniqueNodesFor(key, 3));
+        }
+    }
+
+    /**
+     * Cacheable ring returns the memoized node.
+     */
+    @Test
+    public void getNodeForCacheable() {
+        ConsistentHash<TestNode> cacheableHash = new ConsistentHash<>(new MD5HashFunction(), 100,
+            testNodes, true);
+        for (int i = 0; i < 100; i++) {
+            String key = "test" + i;
+            TestNode testNode = cacheableHash.getNodeFor(key);
+            assertEquals(consistentHash.getNodeFor(key), testNode);
+            assertSame(testNode, cacheableHash.getNodeFor(key));
+        }
+    }
+
+    /**
+     * Empty ring.
+     */
+    @Test
+    public void getNodeForEmpty() {
+        ConsistentHash<TestNode> emptyHash = new ConsistentHash<>(100,
+            Collections.<TestNode> emptyList());
+        assertNull(emptyHash.getNodeFor("test"));
+        assertTrue(emptyHash.getNUniqueNodesFor("test", 3).isEmpty());
+    }
+
+    /**
+     * Ring with murmur3 hash function.
+     */
+    @Test
+    public void getNUniqueNodesForMurmur3() {
+        ConsistentHash<TestNode> murmur3Hash = new ConsistentHash<>(new Murmur3HashFunction(), 100,
+            testNodes);
+        TreeMapConsistentHash<TestNode> treeMapHash = new TreeMapConsistentHash<>(
+            new Murmur3HashFunction(), 100, testNodes);
+        for (int i = 0; i < 2000; i++) {
+            String key = "test" + i;
+            assertEquals(treeMapHash.getNUniqueNodesFor(key, testNodes.size()),
+                murmur3Hash.getNUniqueNodesFor(key, testNodes.size()));
+        }
+    }
 }
\ No newline at end of file
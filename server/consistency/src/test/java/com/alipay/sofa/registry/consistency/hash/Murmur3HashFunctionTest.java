@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author agent
+ * @version $Id: Murmur3HashFunctionTest.java, v 0.1 2026-10-18 19:21 agent Exp $
+ */
+public class Murmur3HashFunctionTest {
+
+    private final HashFunction hashFunction = new Murmur3HashFunction();
+
+    @Test
+    public void testKnownValues() {
+        assertEquals(0, hashFunction.hash(""));
+        assertEquals(0x248bfa47, hashFunction.hash("hello"));
+        assertEquals(0x2e4ff723, hashFunction.hash("The quick brown fox jumps over the lazy dog"));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The TreeMap based ring ConsistentHash used before it became array backed,
+ * kept as the reference for result compatibility and benchmark.
+ * @author agent
+ * @version $Id: TreeMapConsistentHash.java, v 0.1 2026-10-18 19:21 agent Exp $
+ */
+public class TreeMapConsistentHash<T extends HashNode> {
+
+    private final HashFunction          hashFunction;
+
+    private final int                   realNodeSize;
+
+    private final SortedMap<Integer, T> circle = new TreeMap<>();
+
+    public TreeMapConsistentHash(HashFunction hashFunction, int numberOfReplicas,
+                                 Collection<T> nodes) {
+        this.hashFunction = hashFunction;
+        this.realNodeSize = nodes.size();
+        for (T node : nodes) {
+            for (int i = 0; i < numberOfReplicas; i++) {
+                circle.put(hashFunction.hash(node.getNodeName() + '#' + i), node);
+            }
+        }
+    }
+
+    public T getNodeFor(Object key) {
+        if (circle.isEmpty()) {
+            return null;
+        }
+        int hash = hashFunction.hash(key);
+        T node = circle.get(hash);
+
+        if (node == null) {
+            SortedMap<Integer, T> tailMap = circle.tailMap(hash);
+            hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
+            node = circle.get(hash);
+        }
+        return node;
+    }
+
+    public List<T> getNUniqueNodesFor(Object key, int n) {
+        if (n > realNodeSize) {
+            n = realNodeSize;
+        }
+        List<T> list = new ArrayList<>(n);
+        int hash = hashFunction.hash(key);
+        for (int i = 0; i < n; i++) {
+            if (!circle.containsKey(hash)) {
+                SortedMap<Integer, T> tailMap = circle.tailMap(hash);
+                hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
+            }
+            T candidate = circle.get(hash);
+            if (!list.contains(candidate)) {
+                list.add(candidate);
+            } else {
+                i--;
+            }
+            hash++;
+        }
+        return list;
+    }
+}
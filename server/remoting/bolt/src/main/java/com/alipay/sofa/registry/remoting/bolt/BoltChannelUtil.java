@@ -24,6 +24,8 @@ import com.alipay.sofa.registry.remoting.Channel;
  * @since 2019/2/15
  */
 public class BoltChannelUtil {
+    private static final String NO_PROCESSOR = "No user processor found for request";
+
     public static Byte getBoltCustomSerializer(Channel channel) {
         if (channel instanceof BoltChannel) {
             BoltChannel boltChannel = (BoltChannel) channel;
@@ -46,4 +48,23 @@ public class BoltChannelUtil {
         }
         return null;
     }
+
+    /**
+     * whether the peer has no processor for the request, the message of the peer is carried by
+     * the exception or by its cause depending on the bolt version
+     *
+     * @param e exception of the request
+     * @return true if the peer does not know the request
+     */
+    public static boolean isNoProcessor(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains(NO_PROCESSOR)) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
 }
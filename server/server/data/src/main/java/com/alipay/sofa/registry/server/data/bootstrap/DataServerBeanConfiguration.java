@@ -62,7 +62,10 @@ import com.alipay.sofa.registry.server.data.node.DataNodeStatus;
 import com.alipay.sofa.registry.server.data.remoting.DataNodeExchanger;
 import com.alipay.sofa.registry.server.data.remoting.MetaNodeExchanger;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DatumBatchFetcher;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.GetSyncDataHandler;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.BatchGetDataHandler;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.BatchNotifyDataSyncHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.DataSyncServerConnectionHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.FetchDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.NotifyDataSyncHandler;
@@ -93,6 +96,7 @@ import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.DataS
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.DatumSnapshotHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.GetDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.GetDataVersionsHandler;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.InterestSummaryHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.PublishDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.RenewDatumHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.SessionServerRegisterHandler;
@@ -234,6 +238,7 @@ public class DataServerBeanConfiguration {
             list.add(dataServerConnectionHandler());
             list.add(renewDatumHandler());
             list.add(datumSnapshotHandler());
+            list.add(interestSummaryHandler());
             return list;
         }
 
@@ -254,7 +259,9 @@ public class DataServerBeanConfiguration {
         public Collection<AbstractClientHandler> dataClientHandlers() {
             Collection<AbstractClientHandler> list = new ArrayList<>();
             list.add(notifyDataSyncHandler());
+            list.add(batchNotifyDataSyncHandler());
             list.add(fetchDataHandler());
+            list.add(batchGetDataHandler());
             return list;
         }
 
@@ -282,6 +289,16 @@ public class DataServerBeanConfiguration {
             return new GetDataHandler();
         }
 
+        @Bean
+        public AbstractClientHandler batchGetDataHandler() {
+            return new BatchGetDataHandler();
+        }
+
+        @Bean
+        public DatumBatchFetcher datumBatchFetcher() {
+            return new DatumBatchFetcher();
+        }
+
         @Bean
         public AbstractServerHandler getDataVersionsHandler() {
             return new GetDataVersionsHandler();
@@ -297,6 +314,11 @@ public class DataServerBeanConfiguration {
             return new DatumSnapshotHandler();
         }
 
+        @Bean
+        public AbstractServerHandler interestSummaryHandler() {
+            return new InterestSummaryHandler();
+        }
+
         @Bean
         public RenewDatumHandler renewDatumHandler() {
             return new RenewDatumHandler();
@@ -338,6 +360,11 @@ public class DataServerBeanConfiguration {
             return new NotifyDataSyncHandler();
         }
 
+        @Bean
+        public AbstractClientHandler batchNotifyDataSyncHandler() {
+            return new BatchNotifyDataSyncHandler();
+        }
+
         @Bean
         public AbstractClientHandler fetchDataHandler() {
             return new FetchDataHandler();
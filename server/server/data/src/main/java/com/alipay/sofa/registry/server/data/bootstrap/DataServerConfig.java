@@ -95,6 +95,42 @@ public class DataServerConfig {
 
     private int                notifySessionRetryTimes                      = 5;
 
+    /**
+     * changes notified to a session server within the window are sent in one request, 0 disables
+     */
+    private int                notifySessionBatchWindowMs                   = 0;
+
+    private int                notifySessionBatchSize                       = 500;
+
+    /**
+     * interest summary not refreshed by session server within it is ignored, changes are notified to all
+     */
+    private int                sessionInterestSummaryExpireMs               = 5000;
+
+    /**
+     * datum with no more publishers is carried by change notification to session servers, 0 disables
+     */
+    private int                notifySessionDatumMaxPublishers              = 100;
+
+    /**
+     * dataInfoIds of one BatchGetDataRequest when fetching datums moved to this node, 0 fetches
+     * them one by one
+     */
+    private int                datumMigrationChunkSize                      = 200;
+
+    /**
+     * publishers answered to one BatchGetDataRequest at most
+     */
+    private int                datumMigrationMaxPublishers                  = 10000;
+
+    private int                datumMigrationConcurrency                    = 4;
+
+    /**
+     * a failed request fetching moved datums is retried as long as the connection of the data node
+     * exists, the backoff between retries grows up to it
+     */
+    private int                datumMigrationRetryMaxDelayMillis            = 10000;
+
     private int                publishExecutorMinPoolSize                   = 200;
 
     private int                publishExecutorMaxPoolSize                   = 400;
@@ -109,9 +145,10 @@ public class DataServerConfig {
 
     private int                datumTimeToLiveSec                           = 900;
 
-    private int                datumLeaseManagerExecutorThreadSize          = 1;
-
-    private int                datumLeaseManagerExecutorQueueSize           = 1000000;
+    /**
+     * chunked datum snapshot not continued within it is dropped, session sends it again
+     */
+    private long               datumSnapshotExpireMillis                    = 60000;
 
     private int                sessionServerNotifierRetryExecutorThreadSize = 10;
 
@@ -123,6 +160,23 @@ public class DataServerConfig {
 
     private int                dataSyncNotifyRetry                          = 3;
 
+    /**
+     * operator logs kept by the Acceptor of each datum at most
+     */
+    private int                dataSyncAcceptorBufferSize                   = 30;
+
+    /**
+     * NotifyDataSyncRequests sent to one data node in one request at most
+     */
+    private int                dataSyncNotifyBatchSize                      = 100;
+
+    /**
+     * requests to one data node waiting for response, more notifications are queued
+     */
+    private int                dataSyncNotifyMaxInflight                    = 2;
+
+    private int                dataSyncNotifyRetryDelayMillis               = 1000;
+
     /**
      * constructor
      * @param commonConfig
@@ -723,57 +777,183 @@ public class DataServerConfig {
     }
 
     /**
-     * Getter method for property <tt>datumTimeToLiveSec</tt>.
+     * Getter method for property <tt>notifySessionDatumMaxPublishers</tt>.
      *
-     * @return property value of datumTimeToLiveSec
+     * @return property value of notifySessionDatumMaxPublishers
      */
-    public int getDatumTimeToLiveSec() {
-        return datumTimeToLiveSec;
+    public int getNotifySessionDatumMaxPublishers() {
+        return notifySessionDatumMaxPublishers;
     }
 
     /**
-     * Setter method for property <tt>datumTimeToLiveSec </tt>.
+     * Setter method for property <tt>notifySessionDatumMaxPublishers</tt>.
      *
-     * @param datumTimeToLiveSec  value to be assigned to property datumTimeToLiveSec
+     * @param notifySessionDatumMaxPublishers  value to be assigned to property notifySessionDatumMaxPublishers
      */
-    public void setDatumTimeToLiveSec(int datumTimeToLiveSec) {
-        this.datumTimeToLiveSec = datumTimeToLiveSec;
+    public void setNotifySessionDatumMaxPublishers(int notifySessionDatumMaxPublishers) {
+        this.notifySessionDatumMaxPublishers = notifySessionDatumMaxPublishers;
+    }
+
+    /**
+     * Getter method for property <tt>sessionInterestSummaryExpireMs</tt>.
+     *
+     * @return property value of sessionInterestSummaryExpireMs
+     */
+    public int getSessionInterestSummaryExpireMs() {
+        return sessionInterestSummaryExpireMs;
+    }
+
+    /**
+     * Setter method for property <tt>sessionInterestSummaryExpireMs</tt>.
+     *
+     * @param sessionInterestSummaryExpireMs  value to be assigned to property sessionInterestSummaryExpireMs
+     */
+    public void setSessionInterestSummaryExpireMs(int sessionInterestSummaryExpireMs) {
+        this.sessionInterestSummaryExpireMs = sessionInterestSummaryExpireMs;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionBatchWindowMs</tt>.
+     *
+     * @return property value of notifySessionBatchWindowMs
+     */
+    public int getNotifySessionBatchWindowMs() {
+        return notifySessionBatchWindowMs;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionBatchWindowMs</tt>.
+     *
+     * @param notifySessionBatchWindowMs  value to be assigned to property notifySessionBatchWindowMs
+     */
+    public void setNotifySessionBatchWindowMs(int notifySessionBatchWindowMs) {
+        this.notifySessionBatchWindowMs = notifySessionBatchWindowMs;
+    }
+
+    /**
+     * Getter method for property <tt>datumMigrationChunkSize</tt>.
+     *
+     * @return property value of datumMigrationChunkSize
+     */
+    public int getDatumMigrationChunkSize() {
+        return datumMigrationChunkSize;
+    }
+
+    /**
+     * Setter method for property <tt>datumMigrationChunkSize</tt>.
+     *
+     * @param datumMigrationChunkSize  value to be assigned to property datumMigrationChunkSize
+     */
+    public void setDatumMigrationChunkSize(int datumMigrationChunkSize) {
+        this.datumMigrationChunkSize = datumMigrationChunkSize;
+    }
+
+    /**
+     * Getter method for property <tt>datumMigrationMaxPublishers</tt>.
+     *
+     * @return property value of datumMigrationMaxPublishers
+     */
+    public int getDatumMigrationMaxPublishers() {
+        return datumMigrationMaxPublishers;
     }
 
     /**
-     * Getter method for property <tt>datumLeaseManagerExecutorQueueSize</tt>.
+     * Setter method for property <tt>datumMigrationMaxPublishers</tt>.
      *
-     * @return property value of datumLeaseManagerExecutorQueueSize
+     * @param datumMigrationMaxPublishers  value to be assigned to property datumMigrationMaxPublishers
      */
-    public int getDatumLeaseManagerExecutorQueueSize() {
-        return datumLeaseManagerExecutorQueueSize;
+    public void setDatumMigrationMaxPublishers(int datumMigrationMaxPublishers) {
+        this.datumMigrationMaxPublishers = datumMigrationMaxPublishers;
     }
 
     /**
-     * Setter method for property <tt>datumLeaseManagerExecutorQueueSize </tt>.
+     * Getter method for property <tt>datumMigrationConcurrency</tt>.
      *
-     * @param datumLeaseManagerExecutorQueueSize  value to be assigned to property datumLeaseManagerExecutorQueueSize
+     * @return property value of datumMigrationConcurrency
      */
-    public void setDatumLeaseManagerExecutorQueueSize(int datumLeaseManagerExecutorQueueSize) {
-        this.datumLeaseManagerExecutorQueueSize = datumLeaseManagerExecutorQueueSize;
+    public int getDatumMigrationConcurrency() {
+        return datumMigrationConcurrency;
     }
 
     /**
-     * Getter method for property <tt>datumLeaseManagerExecutorThreadSize</tt>.
+     * Setter method for property <tt>datumMigrationConcurrency</tt>.
      *
-     * @return property value of datumLeaseManagerExecutorThreadSize
+     * @param datumMigrationConcurrency  value to be assigned to property datumMigrationConcurrency
      */
-    public int getDatumLeaseManagerExecutorThreadSize() {
-        return datumLeaseManagerExecutorThreadSize;
+    public void setDatumMigrationConcurrency(int datumMigrationConcurrency) {
+        this.datumMigrationConcurrency = datumMigrationConcurrency;
     }
 
     /**
-     * Setter method for property <tt>datumLeaseManagerExecutorThreadSize </tt>.
+     * Getter method for property <tt>datumMigrationRetryMaxDelayMillis</tt>.
      *
-     * @param datumLeaseManagerExecutorThreadSize  value to be assigned to property datumLeaseManagerExecutorThreadSize
+     * @return property value of datumMigrationRetryMaxDelayMillis
      */
-    public void setDatumLeaseManagerExecutorThreadSize(int datumLeaseManagerExecutorThreadSize) {
-        this.datumLeaseManagerExecutorThreadSize = datumLeaseManagerExecutorThreadSize;
+    public int getDatumMigrationRetryMaxDelayMillis() {
+        return datumMigrationRetryMaxDelayMillis;
+    }
+
+    /**
+     * Setter method for property <tt>datumMigrationRetryMaxDelayMillis</tt>.
+     *
+     * @param datumMigrationRetryMaxDelayMillis  value to be assigned to property datumMigrationRetryMaxDelayMillis
+     */
+    public void setDatumMigrationRetryMaxDelayMillis(int datumMigrationRetryMaxDelayMillis) {
+        this.datumMigrationRetryMaxDelayMillis = datumMigrationRetryMaxDelayMillis;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionBatchSize</tt>.
+     *
+     * @return property value of notifySessionBatchSize
+     */
+    public int getNotifySessionBatchSize() {
+        return notifySessionBatchSize;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionBatchSize</tt>.
+     *
+     * @param notifySessionBatchSize  value to be assigned to property notifySessionBatchSize
+     */
+    public void setNotifySessionBatchSize(int notifySessionBatchSize) {
+        this.notifySessionBatchSize = notifySessionBatchSize;
+    }
+
+    /**
+     * Getter method for property <tt>datumTimeToLiveSec</tt>.
+     *
+     * @return property value of datumTimeToLiveSec
+     */
+    public int getDatumTimeToLiveSec() {
+        return datumTimeToLiveSec;
+    }
+
+    /**
+     * Setter method for property <tt>datumTimeToLiveSec </tt>.
+     *
+     * @param datumTimeToLiveSec  value to be assigned to property datumTimeToLiveSec
+     */
+    public void setDatumTimeToLiveSec(int datumTimeToLiveSec) {
+        this.datumTimeToLiveSec = datumTimeToLiveSec;
+    }
+
+    /**
+     * Getter method for property <tt>datumSnapshotExpireMillis</tt>.
+     *
+     * @return property value of datumSnapshotExpireMillis
+     */
+    public long getDatumSnapshotExpireMillis() {
+        return datumSnapshotExpireMillis;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotExpireMillis</tt>.
+     *
+     * @param datumSnapshotExpireMillis  value to be assigned to property datumSnapshotExpireMillis
+     */
+    public void setDatumSnapshotExpireMillis(long datumSnapshotExpireMillis) {
+        this.datumSnapshotExpireMillis = datumSnapshotExpireMillis;
     }
 
     /**
@@ -848,6 +1028,78 @@ public class DataServerConfig {
         this.dataSyncNotifyRetry = dataSyncNotifyRetry;
     }
 
+    /**
+     * Getter method for property <tt>dataSyncAcceptorBufferSize</tt>.
+     *
+     * @return property value of dataSyncAcceptorBufferSize
+     */
+    public int getDataSyncAcceptorBufferSize() {
+        return dataSyncAcceptorBufferSize;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncAcceptorBufferSize</tt>.
+     *
+     * @param dataSyncAcceptorBufferSize  value to be assigned to property dataSyncAcceptorBufferSize
+     */
+    public void setDataSyncAcceptorBufferSize(int dataSyncAcceptorBufferSize) {
+        this.dataSyncAcceptorBufferSize = dataSyncAcceptorBufferSize;
+    }
+
+    /**
+     * Getter method for property <tt>dataSyncNotifyBatchSize</tt>.
+     *
+     * @return property value of dataSyncNotifyBatchSize
+     */
+    public int getDataSyncNotifyBatchSize() {
+        return dataSyncNotifyBatchSize;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncNotifyBatchSize</tt>.
+     *
+     * @param dataSyncNotifyBatchSize  value to be assigned to property dataSyncNotifyBatchSize
+     */
+    public void setDataSyncNotifyBatchSize(int dataSyncNotifyBatchSize) {
+        this.dataSyncNotifyBatchSize = dataSyncNotifyBatchSize;
+    }
+
+    /**
+     * Getter method for property <tt>dataSyncNotifyMaxInflight</tt>.
+     *
+     * @return property value of dataSyncNotifyMaxInflight
+     */
+    public int getDataSyncNotifyMaxInflight() {
+        return dataSyncNotifyMaxInflight;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncNotifyMaxInflight</tt>.
+     *
+     * @param dataSyncNotifyMaxInflight  value to be assigned to property dataSyncNotifyMaxInflight
+     */
+    public void setDataSyncNotifyMaxInflight(int dataSyncNotifyMaxInflight) {
+        this.dataSyncNotifyMaxInflight = dataSyncNotifyMaxInflight;
+    }
+
+    /**
+     * Getter method for property <tt>dataSyncNotifyRetryDelayMillis</tt>.
+     *
+     * @return property value of dataSyncNotifyRetryDelayMillis
+     */
+    public int getDataSyncNotifyRetryDelayMillis() {
+        return dataSyncNotifyRetryDelayMillis;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncNotifyRetryDelayMillis</tt>.
+     *
+     * @param dataSyncNotifyRetryDelayMillis  value to be assigned to property dataSyncNotifyRetryDelayMillis
+     */
+    public void setDataSyncNotifyRetryDelayMillis(int dataSyncNotifyRetryDelayMillis) {
+        this.dataSyncNotifyRetryDelayMillis = dataSyncNotifyRetryDelayMillis;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
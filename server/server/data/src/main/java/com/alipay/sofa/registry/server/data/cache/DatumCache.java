@@ -121,6 +121,17 @@ public class DatumCache {
         return localDatumStorage.getByConnectId(connectId);
     }
 
+    /**
+     * get publishers by connectId whose dataInfoId handled by the specific DataChangeEventQueue
+     *
+     * @param connectId
+     * @param queueIdx
+     * @return
+     */
+    public Map<String, Publisher> getByConnectId(String connectId, int queueIdx) {
+        return localDatumStorage.getByConnectId(connectId, queueIdx);
+    }
+
     /**
      * get own publishers by connectId
      */
@@ -128,6 +139,13 @@ public class DatumCache {
         return localDatumStorage.getOwnByConnectId(connectId);
     }
 
+    /**
+     * count own publishers by connectId
+     */
+    public int countOwnByConnectId(String connectId) {
+        return localDatumStorage.countOwnByConnectId(connectId);
+    }
+
     /**
      * put datum into cache
      *
@@ -62,11 +62,27 @@ public interface DatumStorage {
      */
     Map<String, Publisher> getByConnectId(String connectId);
 
+    /**
+     * get publishers by connectId whose dataInfoId handled by the specific DataChangeEventQueue
+     *
+     * @param connectId
+     * @param queueIdx
+     * @return
+     */
+    Map<String, Publisher> getByConnectId(String connectId, int queueIdx);
+
     /**
      * get own publishers by connectId
      */
     Map<String, Publisher> getOwnByConnectId(String connectId);
 
+    /**
+     * count own publishers by connectId, without copying them
+     * @param connectId
+     * @return
+     */
+    int countOwnByConnectId(String connectId);
+
     /**
      * Getter method for property <tt>OWN_CONNECT_ID_INDEX</tt>.
      *
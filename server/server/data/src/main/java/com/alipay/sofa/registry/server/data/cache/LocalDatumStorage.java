@@ -30,6 +30,7 @@ import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.node.DataServerNode;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerNodeFactory;
 
@@ -41,26 +42,26 @@ import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerNodeFa
  */
 public class LocalDatumStorage implements DatumStorage {
 
-    public static final long                            ERROR_DATUM_VERSION  = -2L;
+    public static final long                                          ERROR_DATUM_VERSION  = -2L;
 
     /**
      * row:     dataCenter
      * column:  dataInfoId
      * value:   datum
      */
-    protected final Map<String, Map<String, Datum>>     DATUM_MAP            = new ConcurrentHashMap<>();
+    protected final Map<String, Map<String, Datum>>                   DATUM_MAP            = new ConcurrentHashMap<>();
 
     /**
-     * all datum index
+     * all datum index, partitioned by the DataChangeEventQueue which handles the dataInfoId
      *
      * row:     ip:port
-     * column:  registerId
-     * value:   publisher
+     * column:  queueIdx
+     * value:   registerId -> publisher
      */
-    protected final Map<String, Map<String, Publisher>> ALL_CONNECT_ID_INDEX = new ConcurrentHashMap<>();
+    protected final Map<String, Map<Integer, Map<String, Publisher>>> ALL_CONNECT_ID_INDEX = new ConcurrentHashMap<>();
 
     @Autowired
-    private DataServerConfig                            dataServerConfig;
+    private DataServerConfig                                          dataServerConfig;
 
     /**
      * get datum by specific dataCenter and dataInfoId
@@ -111,7 +112,30 @@ public class LocalDatumStorage implements DatumStorage {
      * @return
      */
     public Map<String, Publisher> getByConnectId(String connectId) {
-        return ALL_CONNECT_ID_INDEX.getOrDefault(connectId, null);
+        Map<Integer, Map<String, Publisher>> queuePubMap = ALL_CONNECT_ID_INDEX.get(connectId);
+        if (queuePubMap == null) {
+            return null;
+        }
+        Map<String, Publisher> pubMap = new HashMap<>();
+        for (Map<String, Publisher> map : queuePubMap.values()) {
+            pubMap.putAll(map);
+        }
+        return pubMap;
+    }
+
+    /**
+     * get publishers by connectId whose dataInfoId handled by the specific DataChangeEventQueue
+     *
+     * @param connectId
+     * @param queueIdx
+     * @return
+     */
+    public Map<String, Publisher> getByConnectId(String connectId, int queueIdx) {
+        Map<Integer, Map<String, Publisher>> queuePubMap = ALL_CONNECT_ID_INDEX.get(connectId);
+        if (queuePubMap == null) {
+            return null;
+        }
+        return queuePubMap.get(queueIdx);
     }
 
     /**
@@ -119,19 +143,42 @@ public class LocalDatumStorage implements DatumStorage {
      */
     public Map<String, Publisher> getOwnByConnectId(String connectId) {
         Map<String, Publisher> ownPubMap = new HashMap<>();
-        Map<String, Publisher> allPubMap = ALL_CONNECT_ID_INDEX.getOrDefault(connectId, null);
-        if (allPubMap != null) {
-            for (Entry<String, Publisher> entry : allPubMap.entrySet()) {
-                String registerId = entry.getKey();
-                Publisher publisher = entry.getValue();
-                if (isOwnByMyself(publisher.getDataInfoId())) {
-                    ownPubMap.put(registerId, publisher);
+        Map<Integer, Map<String, Publisher>> queuePubMap = ALL_CONNECT_ID_INDEX.get(connectId);
+        if (queuePubMap != null) {
+            for (Map<String, Publisher> allPubMap : queuePubMap.values()) {
+                for (Entry<String, Publisher> entry : allPubMap.entrySet()) {
+                    String registerId = entry.getKey();
+                    Publisher publisher = entry.getValue();
+                    if (isOwnByMyself(publisher.getDataInfoId())) {
+                        ownPubMap.put(registerId, publisher);
+                    }
                 }
             }
         }
         return ownPubMap;
     }
 
+    /**
+     * count own publishers by connectId, ownership is computed once for each dataInfoId
+     */
+    public int countOwnByConnectId(String connectId) {
+        Map<Integer, Map<String, Publisher>> queuePubMap = ALL_CONNECT_ID_INDEX.get(connectId);
+        if (queuePubMap == null) {
+            return 0;
+        }
+        int count = 0;
+        Map<String, Boolean> ownByDataInfoId = new HashMap<>();
+        for (Map<String, Publisher> allPubMap : queuePubMap.values()) {
+            for (Publisher publisher : allPubMap.values()) {
+                if (ownByDataInfoId.computeIfAbsent(publisher.getDataInfoId(),
+                        this::isOwnByMyself)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * whether dataInfoId own by self
      */
@@ -389,9 +436,12 @@ public class LocalDatumStorage implements DatumStorage {
         String connectId = getConnectId(publisher);
 
         // remove from ALL_CONNECT_ID_INDEX
-        Map<String, Publisher> publisherMap = ALL_CONNECT_ID_INDEX.get(connectId);
-        if (publisherMap != null) {
-            publisherMap.remove(publisher.getRegisterId());
+        Map<Integer, Map<String, Publisher>> queuePubMap = ALL_CONNECT_ID_INDEX.get(connectId);
+        if (queuePubMap != null) {
+            Map<String, Publisher> publisherMap = queuePubMap.get(getQueueIdx(publisher));
+            if (publisherMap != null) {
+                publisherMap.remove(publisher.getRegisterId());
+            }
         }
     }
 
@@ -403,11 +453,17 @@ public class LocalDatumStorage implements DatumStorage {
 
         // add to ALL_CONNECT_ID_INDEX
         Map<String, Publisher> publisherMap = ALL_CONNECT_ID_INDEX
-                .computeIfAbsent(connectId, s -> new ConcurrentHashMap<>());
+                .computeIfAbsent(connectId, s -> new ConcurrentHashMap<>())
+                .computeIfAbsent(getQueueIdx(publisher), idx -> new ConcurrentHashMap<>());
         publisherMap.put(publisher.getRegisterId(), publisher);
 
     }
 
+    private int getQueueIdx(Publisher publisher) {
+        return DataChangeEventCenter.hash(publisher.getDataInfoId(),
+            dataServerConfig.getQueueCount());
+    }
+
     private String getConnectId(Publisher cachePub) {
         return WordCache.getInstance().getWordCache(cachePub.getSourceAddress().getAddressString());
     }
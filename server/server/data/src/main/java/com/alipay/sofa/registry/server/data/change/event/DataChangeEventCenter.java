@@ -138,6 +138,17 @@ public class DataChangeEventCenter {
      * @return
      */
     public int hash(String key) {
+        return hash(key, queueCount);
+    }
+
+    /**
+     * compute target DataChangeEventQueue with specific queue count
+     *
+     * @param key
+     * @param queueCount
+     * @return
+     */
+    public static int hash(String key, int queueCount) {
         if (queueCount > 1) {
             return Math.abs(key.hashCode() % queueCount);
         } else {
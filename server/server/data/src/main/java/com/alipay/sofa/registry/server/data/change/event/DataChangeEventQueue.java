@@ -23,13 +23,15 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.cache.UnPublisher;
@@ -40,7 +42,11 @@ import com.alipay.sofa.registry.server.data.change.SnapshotData;
 import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
 import com.alipay.sofa.registry.server.data.node.DataServerNode;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerNodeFactory;
-import com.google.common.collect.Interners;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.Striped;
 
 /**
  * a queue of DataChangeEvent
@@ -85,7 +91,23 @@ public class DataChangeEventQueue {
 
     private final int                                  notifyTempDataIntervalMs;
 
-    private final ReentrantLock                        lock                      = new ReentrantLock();
+    private static final int                           LOCK_STRIPES              = 256;
+
+    /**
+     * connectId locks shared by all queues
+     */
+    private static final Striped<Lock>                 CONNECT_ID_LOCKS          = Striped
+                                                                                     .lock(LOCK_STRIPES);
+
+    /**
+     * guard merge of ChangeData with same dataInfoId against take
+     */
+    private final Striped<Lock>                        dataInfoIdLocks           = Striped
+                                                                                     .lock(LOCK_STRIPES);
+
+    private final Meter                                mergeMeter;
+
+    private final Timer                                mergeTimer;
 
     private final int                                  queueIdx;
 
@@ -115,6 +137,15 @@ public class DataChangeEventQueue {
         this.notifyTempDataIntervalMs = dataServerConfig.getNotifyTempDataIntervalMs();
         this.dataChangeEventCenter = dataChangeEventCenter;
         this.datumCache = datumCache;
+
+        TaskMetrics taskMetrics = TaskMetrics.getInstance();
+        MetricRegistry metrics = taskMetrics.getMetricRegistry();
+        this.mergeMeter = metrics.meter(MetricRegistry.name(name, "merge"));
+        this.mergeTimer = metrics.timer(MetricRegistry.name(name, "mergeLatency"));
+        taskMetrics.registerGauge(MetricRegistry.name(name, "eventQueue"),
+            (Gauge<Integer>) eventQueue::size);
+        taskMetrics.registerGauge(MetricRegistry.name(name, "changeQueue"),
+            (Gauge<Integer>) CHANGE_QUEUE::size);
     }
 
     /**
@@ -141,20 +172,17 @@ public class DataChangeEventQueue {
      */
     public ChangeData take() throws InterruptedException {
         ChangeData changeData = CHANGE_QUEUE.take();
-        lock.lock();
-        try {
-            removeMapForMerge(changeData);
-            return changeData;
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    private void removeMapForMerge(ChangeData changeData) {
         Datum datum = changeData.getDatum();
         if (changeData.getSourceType() != DataSourceTypeEnum.PUB_TEMP && datum != null) {
-            CHANGE_DATA_MAP_FOR_MERGE.get(datum.getDataCenter()).remove(datum.getDataInfoId());
+            Lock lock = dataInfoIdLocks.get(datum.getDataInfoId());
+            lock.lock();
+            try {
+                CHANGE_DATA_MAP_FOR_MERGE.get(datum.getDataCenter()).remove(datum.getDataInfoId());
+            } finally {
+                lock.unlock();
+            }
         }
+        return changeData;
     }
 
     /**
@@ -225,19 +253,17 @@ public class DataChangeEventQueue {
 
     private void handleClientOff(ClientChangeEvent event) {
         String connectId = event.getHost();
-        synchronized (Interners.newWeakInterner().intern(connectId)) {
-            Map<String, Publisher> pubMap = datumCache.getByConnectId(connectId);
+        Lock connectIdLock = CONNECT_ID_LOCKS.get(connectId);
+        connectIdLock.lock();
+        try {
+            // Only care dataInfoIds which belong to this queue
+            Map<String, Publisher> pubMap = datumCache.getByConnectId(connectId, queueIdx);
             if (pubMap != null && !pubMap.isEmpty()) {
                 LOGGER.info(
-                    "[{}] client off begin, connectId={}, occurTimestamp={}, all pubSize={}",
+                    "[{}] client off begin, connectId={}, occurTimestamp={}, queue pubSize={}",
                     getName(), connectId, event.getOccurredTimestamp(), pubMap.size());
                 int count = 0;
                 for (Publisher publisher : pubMap.values()) {
-                    // Only care dataInfoIds which belong to this queue
-                    if (!belongTo(publisher.getDataInfoId())) {
-                        continue;
-                    }
-
                     DataServerNode dataServerNode = DataServerNodeFactory.computeDataServerNode(
                         dataServerConfig.getLocalDataCenter(), publisher.getDataInfoId());
                     //current dataCenter backup data need not unPub,it will be unPub by backup sync event
@@ -258,11 +284,15 @@ public class DataChangeEventQueue {
             } else {
                 LOGGER.info("[{}] no datum to handle, connectId={}", getName(), connectId);
             }
+        } finally {
+            connectIdLock.unlock();
         }
     }
 
     private void handleDatum(DataChangeTypeEnum changeType, DataSourceTypeEnum sourceType,
                              Datum targetDatum) {
+        long start = System.nanoTime();
+        Lock lock = dataInfoIdLocks.get(targetDatum.getDataInfoId());
         lock.lock();
         try {
             //get changed datum
@@ -298,6 +328,8 @@ public class DataChangeEventQueue {
         } finally {
             lock.unlock();
         }
+        mergeMeter.mark();
+        mergeTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
     }
 
     private void handleSnapshot(DatumSnapshotEvent event) {
@@ -307,7 +339,9 @@ public class DataChangeEventQueue {
 
         // build SnapshotData
         Map<String, SnapshotData> dataInfoId2SnapshotData = new HashMap<>();
-        synchronized (Interners.newWeakInterner().intern(connectId)) {
+        Lock connectIdLock = CONNECT_ID_LOCKS.get(connectId);
+        connectIdLock.lock();
+        try {
             for (Map.Entry<String, Publisher> entry : snapshotPubMap.entrySet()) {
                 String registerId = entry.getKey();
                 Publisher publisher = entry.getValue();
@@ -336,6 +370,8 @@ public class DataChangeEventQueue {
                     dataInfoId);
                 snapshotData.getToBeDeletedPubMap().put(registerId, publisher);
             }
+        } finally {
+            connectIdLock.unlock();
         }
 
         // put all SnapshotDatas to queue
@@ -16,10 +16,18 @@
  */
 package com.alipay.sofa.registry.server.data.change.notify;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -29,9 +37,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.remoting.Connection;
 import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.sessionserver.BatchDataChangeRequest;
 import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.remoting.CallbackHandler;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.Server;
@@ -41,34 +52,82 @@ import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
 import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.SessionServerConnectionFactory;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.forward.ForwardService;
 import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
 import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer.TaskFailedCallback;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
- * Notify session DataChangeRequest,if fail get result callback retry
+ * Notify session DataChangeRequest,if fail get result callback retry.
+ *
+ * With notifySessionBatchWindowMs set, changes are buffered for each session connection and sent
+ * as one BatchDataChangeRequest when the window ends or notifySessionBatchSize is reached.
+ *
+ * Session servers which reported an interest summary are only notified of dataInfoIds they
+ * subscribe, all sessions are notified while the summary is absent or stale.
+ *
+ * Datum with no more than notifySessionDatumMaxPublishers publishers is carried by the request,
+ * session fetches larger ones.
  *
  * @author qian.lqlq
  * @version $Id: SessionServerNotifier.java, v 0.1 2018-03-09 15:32 qian.lqlq Exp $
  */
 public class SessionServerNotifier implements IDataChangeNotifier {
 
-    private static final Logger            LOGGER = LoggerFactory
-                                                      .getLogger(SessionServerNotifier.class);
+    private static final Logger                 LOGGER          = LoggerFactory
+                                                                    .getLogger(SessionServerNotifier.class);
 
-    private AsyncHashedWheelTimer          asyncHashedWheelTimer;
+    private AsyncHashedWheelTimer               asyncHashedWheelTimer;
+
+    @Autowired
+    private DataServerConfig                    dataServerConfig;
 
     @Autowired
-    private DataServerConfig               dataServerConfig;
+    private Exchange                            boltExchange;
 
     @Autowired
-    private Exchange                       boltExchange;
+    private SessionServerConnectionFactory      sessionServerConnectionFactory;
 
     @Autowired
-    private SessionServerConnectionFactory sessionServerConnectionFactory;
+    private DatumCache                          datumCache;
 
     @Autowired
-    private DatumCache                     datumCache;
+    private ForwardService                      forwardService;
+
+    /**
+     * changes buffered for each session connection when notifySessionBatchWindowMs is set
+     */
+    private final Map<Connection, NotifyBuffer> notifyBuffers   = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService            flushScheduler;
+
+    private Histogram                           batchSizeHistogram;
+
+    private Timer                               flushLatencyTimer;
+
+    private Counter                             framesSavedCounter;
+
+    private final Counter                       carriedCounter  = TaskMetrics
+                                                                    .getInstance()
+                                                                    .getMetricRegistry()
+                                                                    .counter(
+                                                                        MetricRegistry
+                                                                            .name(
+                                                                                SessionServerNotifier.class,
+                                                                                "datumCarried"));
+
+    private final Counter                       filteredCounter = TaskMetrics
+                                                                    .getInstance()
+                                                                    .getMetricRegistry()
+                                                                    .counter(
+                                                                        MetricRegistry
+                                                                            .name(
+                                                                                SessionServerNotifier.class,
+                                                                                "filtered"));
 
     @PostConstruct
     public void init() {
@@ -90,6 +149,18 @@ public class SessionServerNotifier implements IDataChangeNotifier {
                     LOGGER.error("executionFailed: " + e.getMessage(), e);
                 }
             });
+
+        if (dataServerConfig.getNotifySessionBatchWindowMs() > 0) {
+            flushScheduler = Executors.newSingleThreadScheduledExecutor(threadFactoryBuilder
+                .setNameFormat("Registry-SessionServerNotifier-BatchFlush").build());
+            MetricRegistry metrics = TaskMetrics.getInstance().getMetricRegistry();
+            batchSizeHistogram = metrics.histogram(MetricRegistry.name(SessionServerNotifier.class,
+                "batchSize"));
+            flushLatencyTimer = metrics.timer(MetricRegistry.name(SessionServerNotifier.class,
+                "flushLatency"));
+            framesSavedCounter = metrics.counter(MetricRegistry.name(SessionServerNotifier.class,
+                "framesSaved"));
+        }
     }
 
     @Override
@@ -105,15 +176,99 @@ public class SessionServerNotifier implements IDataChangeNotifier {
     public void notify(Datum datum, Long lastVersion) {
         DataChangeRequest request = new DataChangeRequest(datum.getDataInfoId(),
             datum.getDataCenter(), datum.getVersion());
+        request.setDatum(getCarriedDatum(datum));
         List<Connection> connections = sessionServerConnectionFactory.getSessionConnections();
         for (Connection connection : connections) {
-            doNotify(new NotifyCallback(connection, request));
+            if (!sessionServerConnectionFactory.isInterested(connection, datum.getDataInfoId(),
+                dataServerConfig.getSessionInterestSummaryExpireMs())) {
+                filteredCounter.inc();
+                continue;
+            }
+            if (flushScheduler != null) {
+                bufferChange(connection, request);
+            } else {
+                doNotify(new NotifyCallback(connection, Collections.singletonList(request)));
+            }
+        }
+    }
+
+    /**
+     * copy of datum in cache if it is small enough to carry in notification, session fetches
+     * others. The cached datum keeps changing, its publishers are put before its version is set, so
+     * the copy is not older than the version read before it, and it is not carried if the version
+     * changed while copying
+     */
+    private Datum getCarriedDatum(Datum changed) {
+        int maxPublishers = dataServerConfig.getNotifySessionDatumMaxPublishers();
+        if (maxPublishers <= 0 || forwardService.needForward()) {
+            return null;
+        }
+        Datum datum = datumCache.get(changed.getDataCenter(), changed.getDataInfoId());
+        if (datum == null) {
+            return null;
+        }
+        long version = datum.getVersion();
+        if (version < changed.getVersion() || datum.getPubMap().size() > maxPublishers) {
+            return null;
+        }
+        Map<String, Publisher> pubMap = new HashMap<>(datum.getPubMap());
+        if (datum.getVersion() != version || pubMap.size() > maxPublishers) {
+            return null;
+        }
+        Datum carried = new Datum();
+        carried.setDataInfoId(datum.getDataInfoId());
+        carried.setDataCenter(datum.getDataCenter());
+        carried.setDataId(datum.getDataId());
+        carried.setInstanceId(datum.getInstanceId());
+        carried.setGroup(datum.getGroup());
+        carried.setVersion(version);
+        carried.setPubMap(pubMap);
+        carriedCounter.inc();
+        return carried;
+    }
+
+    private void bufferChange(Connection connection, DataChangeRequest request) {
+        NotifyBuffer buffer = notifyBuffers.computeIfAbsent(connection, NotifyBuffer::new);
+        boolean first;
+        boolean full;
+        synchronized (buffer) {
+            first = buffer.isEmpty();
+            buffer.add(request);
+            full = buffer.size() >= dataServerConfig.getNotifySessionBatchSize();
+        }
+        if (full) {
+            flush(buffer);
+        } else if (first) {
+            flushScheduler.schedule(() -> flush(buffer),
+                    dataServerConfig.getNotifySessionBatchWindowMs(), TimeUnit.MILLISECONDS);
         }
     }
 
+    private void flush(NotifyBuffer buffer) {
+        List<DataChangeRequest> changes;
+        int notifyCount;
+        long firstChangeTime;
+        synchronized (buffer) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            notifyCount = buffer.notifyCount;
+            firstChangeTime = buffer.firstChangeTime;
+            changes = buffer.drain();
+        }
+        if (!buffer.connection.isFine()) {
+            notifyBuffers.remove(buffer.connection, buffer);
+        }
+        batchSizeHistogram.update(changes.size());
+        flushLatencyTimer.update(System.currentTimeMillis() - firstChangeTime,
+            TimeUnit.MILLISECONDS);
+        framesSavedCounter.inc(notifyCount - 1);
+        doNotify(new NotifyCallback(buffer.connection, changes));
+    }
+
     private void doNotify(NotifyCallback notifyCallback) {
         Connection connection = notifyCallback.connection;
-        DataChangeRequest request = notifyCallback.request;
+        Object request = notifyCallback.getRequest();
         try {
             //check connection active
             if (!connection.isFine()) {
@@ -140,40 +295,42 @@ public class SessionServerNotifier implements IDataChangeNotifier {
      */
     private void onFailed(NotifyCallback notifyCallback) {
 
-        DataChangeRequest request = notifyCallback.request;
         Connection connection = notifyCallback.connection;
         notifyCallback.retryTimes++;
 
         //check version, if it's fall behind, stop retry
-        long _currentVersion = datumCache.get(request.getDataCenter(), request.getDataInfoId()).getVersion();
-        if (request.getVersion() != _currentVersion) {
+        if (!notifyCallback.retainCurrentVersions()) {
             LOGGER.info(String.format(
-                    "current version change %s, retry version is %s, stop before retry! retryTimes=%s, request=%s",
-                    _currentVersion, request.getVersion(), notifyCallback.retryTimes, request));
+                    "current version change, stop before retry! retryTimes=%s, request=%s",
+                    notifyCallback.retryTimes, notifyCallback.getRequest()));
             return;
         }
 
         if (notifyCallback.retryTimes <= dataServerConfig.getNotifySessionRetryTimes()) {
             this.asyncHashedWheelTimer.newTimeout(timeout -> {
                 LOGGER.info(String.format("retrying notify sessionServer(%s), retryTimes=%s, request=%s",
-                        connection.getRemoteAddress(), notifyCallback.retryTimes, request));
+                        connection.getRemoteAddress(), notifyCallback.retryTimes, notifyCallback.getRequest()));
                 //check version, if it's fall behind, stop retry
-                long currentVersion = datumCache.get(request.getDataCenter(), request.getDataInfoId()).getVersion();
-                if (request.getVersion() == currentVersion) {
+                if (notifyCallback.retainCurrentVersions()) {
                     doNotify(notifyCallback);
                 } else {
                     LOGGER.info(String.format(
-                            "current version change %s, retry version is %s, stop retry! retryTimes=%s, request=%s",
-                            currentVersion, request.getVersion(), notifyCallback.retryTimes, request));
+                            "current version change, stop retry! retryTimes=%s, request=%s",
+                            notifyCallback.retryTimes, notifyCallback.getRequest()));
                 }
             }, getDelayTimeForRetry(notifyCallback.retryTimes), TimeUnit.MILLISECONDS);
         } else {
             LOGGER.error(
                     String.format("retryTimes have exceeded! stop retry! retryTimes=%s, sessionServer(%s), request=%s",
-                            notifyCallback.retryTimes, connection.getRemoteAddress(), request));
+                            notifyCallback.retryTimes, connection.getRemoteAddress(), notifyCallback.getRequest()));
         }
     }
 
+    private boolean isCurrentVersion(DataChangeRequest request) {
+        Datum datum = datumCache.get(request.getDataCenter(), request.getDataInfoId());
+        return datum != null && datum.getVersion() == request.getVersion();
+    }
+
     private long getDelayTimeForRetry(int retryTimes) {
         long initialSleepTime = TimeUnit.MILLISECONDS.toMillis(dataServerConfig
             .getNotifySessionRetryFirstDelay());
@@ -185,13 +342,35 @@ public class SessionServerNotifier implements IDataChangeNotifier {
 
     private class NotifyCallback implements CallbackHandler {
 
-        private int               retryTimes = 0;
-        private Connection        connection;
-        private DataChangeRequest request;
+        private int                     retryTimes = 0;
+        private Connection              connection;
+        private List<DataChangeRequest> changes;
 
-        public NotifyCallback(Connection connection, DataChangeRequest request) {
+        public NotifyCallback(Connection connection, List<DataChangeRequest> changes) {
             this.connection = connection;
-            this.request = request;
+            this.changes = changes;
+        }
+
+        /**
+         * single change is sent as DataChangeRequest, several as BatchDataChangeRequest
+         */
+        private Object getRequest() {
+            return changes.size() == 1 ? changes.get(0) : new BatchDataChangeRequest(changes);
+        }
+
+        /**
+         * drop changes whose datum version has changed since, they are notified again
+         * @return false if no change left to retry
+         */
+        private boolean retainCurrentVersions() {
+            List<DataChangeRequest> current = new ArrayList<>(changes.size());
+            for (DataChangeRequest change : changes) {
+                if (isCurrentVersion(change)) {
+                    current.add(change);
+                }
+            }
+            changes = current;
+            return !current.isEmpty();
         }
 
         @Override
@@ -202,7 +381,7 @@ public class SessionServerNotifier implements IDataChangeNotifier {
                     .error(String
                         .format(
                             "response not success when notify sessionServer(%s), retryTimes=%s, request=%s, response=%s",
-                            connection.getRemoteAddress(), retryTimes, request, result));
+                            connection.getRemoteAddress(), retryTimes, getRequest(), result));
                 onFailed(this);
             }
         }
@@ -211,7 +390,7 @@ public class SessionServerNotifier implements IDataChangeNotifier {
         public void onException(Channel channel, Throwable e) {
             LOGGER.error(String.format(
                 "exception when notify sessionServer(%s), retryTimes=%s, request=%s",
-                connection.getRemoteAddress(), retryTimes, request), e);
+                connection.getRemoteAddress(), retryTimes, getRequest()), e);
             onFailed(this);
         }
 
@@ -222,4 +401,50 @@ public class SessionServerNotifier implements IDataChangeNotifier {
 
     }
 
+    /**
+     * changes waiting to be notified to one session connection, a newer version of the same
+     * datum replaces the buffered one
+     */
+    private static final class NotifyBuffer {
+
+        private final Connection               connection;
+
+        private Map<String, DataChangeRequest> changes = new LinkedHashMap<>();
+
+        private int                            notifyCount;
+
+        private long                           firstChangeTime;
+
+        NotifyBuffer(Connection connection) {
+            this.connection = connection;
+        }
+
+        void add(DataChangeRequest request) {
+            if (changes.isEmpty()) {
+                firstChangeTime = System.currentTimeMillis();
+            }
+            notifyCount++;
+            String key = request.getDataCenter() + ":" + request.getDataInfoId();
+            DataChangeRequest exist = changes.get(key);
+            if (exist == null || exist.getVersion() < request.getVersion()) {
+                changes.put(key, request);
+            }
+        }
+
+        List<DataChangeRequest> drain() {
+            List<DataChangeRequest> drained = new ArrayList<>(changes.values());
+            changes = new LinkedHashMap<>();
+            notifyCount = 0;
+            return drained;
+        }
+
+        boolean isEmpty() {
+            return changes.isEmpty();
+        }
+
+        int size() {
+            return changes.size();
+        }
+    }
+
 }
\ No newline at end of file
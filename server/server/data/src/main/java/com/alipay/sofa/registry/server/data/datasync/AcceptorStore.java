@@ -16,6 +16,9 @@
  */
 package com.alipay.sofa.registry.server.data.datasync;
 
+import java.util.Map;
+import java.util.Set;
+
 import com.alipay.sofa.registry.common.model.dataserver.SyncData;
 import com.alipay.sofa.registry.common.model.dataserver.SyncDataRequest;
 
@@ -39,6 +42,23 @@ public interface AcceptorStore {
      */
     SyncData getSyncData(SyncDataRequest syncDataRequest);
 
+    /**
+     * registerIds changed between two versions of datum, null if the logs can not link them
+     * @param dataCenter
+     * @param dataInfoId
+     * @param fromVersion
+     * @param toVersion
+     * @return
+     */
+    Set<String> getChangedRegisterIds(String dataCenter, String dataInfoId, long fromVersion,
+                                      long toVersion);
+
+    /**
+     * memory held by Acceptor logs of each dataCenter
+     * @return
+     */
+    Map<String/*dataCenter*/, Map<String, Long>> getFootprint();
+
     /**
      * scheduler get change Acceptor to notify other dataCenter or data node get sync data
      */
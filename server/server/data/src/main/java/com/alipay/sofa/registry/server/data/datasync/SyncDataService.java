@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.server.data.datasync;
 
+import java.util.Set;
+
 import com.alipay.sofa.registry.common.model.dataserver.SyncData;
 import com.alipay.sofa.registry.common.model.dataserver.SyncDataRequest;
 
@@ -39,4 +41,17 @@ public interface SyncDataService {
      */
     SyncData getSyncDataChange(SyncDataRequest syncDataRequest);
 
+    /**
+     * registerIds changed between two versions of datum by operators of the source type, null if
+     * not known
+     * @param dataSourceType
+     * @param dataCenter
+     * @param dataInfoId
+     * @param fromVersion
+     * @param toVersion
+     * @return
+     */
+    Set<String> getChangedRegisterIds(String dataSourceType, String dataCenter, String dataInfoId,
+                                      long fromVersion, long toVersion);
+
 }
\ No newline at end of file
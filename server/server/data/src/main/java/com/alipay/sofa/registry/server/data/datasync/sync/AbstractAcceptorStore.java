@@ -16,44 +16,72 @@
  */
 package com.alipay.sofa.registry.server.data.datasync.sync;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.dataserver.BatchNotifyDataSyncRequest;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.NotifyDataSyncRequest;
 import com.alipay.sofa.registry.common.model.dataserver.SyncData;
 import com.alipay.sofa.registry.common.model.dataserver.SyncDataRequest;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.bolt.BoltChannelUtil;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.datasync.AcceptorStore;
 import com.alipay.sofa.registry.server.data.datasync.Operator;
 import com.alipay.sofa.registry.server.data.datasync.SnapshotOperator;
+import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
+import com.alipay.sofa.registry.server.data.node.DataServerNode;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.IMetaServerService;
 import com.alipay.sofa.registry.server.data.util.DelayItem;
-import com.alipay.sofa.registry.server.data.util.TimeUtil;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 
 /**
+ * Changes of acceptors are notified to the data nodes holding the same data when the delay
+ * expires. Notifications are queued for each target data node and sent asynchronously, several
+ * in one BatchNotifyDataSyncRequest, with at most dataSyncNotifyMaxInflight requests in flight for
+ * a target. A failed notification is retried on a timer, so a slow or unreachable node does not
+ * hold back the others. A target without the BatchNotifyDataSyncRequest processor, a data node not
+ * upgraded yet, is notified by single NotifyDataSyncRequest until it leaves, and the target is
+ * dropped when its data node leaves the data server list.
  *
  * @author shangyu.wh
  * @version $Id: AbstractAcceptorStore.java, v 0.1 2018-03-22 12:28 shangyu.wh Exp $
  */
 public abstract class AbstractAcceptorStore implements AcceptorStore {
-    private static final Logger                                              LOGGER                  = LoggerFactory
-                                                                                                         .getLogger(
-                                                                                                             AbstractAcceptorStore.class,
-                                                                                                             "[SyncDataService]");
-
-    private static final int                                                 DEFAULT_MAX_BUFFER_SIZE = 30;
+    private static final Logger                                              LOGGER               = LoggerFactory
+                                                                                                      .getLogger(
+                                                                                                          AbstractAcceptorStore.class,
+                                                                                                          "[SyncDataService]");
 
     @Autowired
     protected IMetaServerService                                             metaServerService;
@@ -70,11 +98,32 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
     @Autowired
     private DatumCache                                                       datumCache;
 
-    private Map<String/*dataCenter*/, Map<String/*dataInfoId*/, Acceptor>> acceptors               = new ConcurrentHashMap<>();
+    private Map<String/*dataCenter*/, Map<String/*dataInfoId*/, Acceptor>> acceptors            = new ConcurrentHashMap<>();
+
+    private Map<String/*dataCenter*/, Map<String/*dataInfoId*/, Acceptor>> notifyAcceptorsCache = new ConcurrentHashMap<>();
+
+    private DelayQueue<DelayItem<Acceptor>>                                  delayQueue           = new DelayQueue<>();
 
-    private Map<String/*dataCenter*/, Map<String/*dataInfoId*/, Acceptor>> notifyAcceptorsCache    = new ConcurrentHashMap<>();
+    private final Map<String/*ipAddress*/, NotifyTarget>                    notifyTargets        = new ConcurrentHashMap<>();
 
-    private DelayQueue<DelayItem<Acceptor>>                                  delayQueue              = new DelayQueue<>();
+    private ScheduledExecutorService                                         notifyExecutor;
+
+    private Timer                                                            notifyLagTimer;
+
+    private Meter                                                            notifyFailedMeter;
+
+    @PostConstruct
+    public void init() {
+        notifyExecutor = ExecutorFactory.newScheduledThreadPool(1, this.getClass()
+            .getSimpleName() + "-Notify");
+        MetricRegistry metrics = TaskMetrics.getInstance().getMetricRegistry();
+        notifyLagTimer = metrics.timer(MetricRegistry.name(this.getClass(), "notifyLag"));
+        notifyFailedMeter = metrics.meter(MetricRegistry.name(this.getClass(), "notifyFailed"));
+        metrics.gauge(MetricRegistry.name(this.getClass(), "notifyPending"),
+                () -> (Gauge<Integer>) this::getNotifyPendingCount);
+        metrics.gauge(MetricRegistry.name(this.getClass(), "notifyTargets"),
+                () -> (Gauge<Integer>) this::getNotifyTargetCount);
+    }
 
     @Override
     public void checkAcceptorsChangAndExpired() {
@@ -109,8 +158,9 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
 
             Acceptor existAcceptor = acceptorMap.get(dataInfoId);
             if (existAcceptor == null) {
-                Acceptor newAcceptor = new Acceptor(DEFAULT_MAX_BUFFER_SIZE, dataInfoId,
-                    dataCenter, datumCache);
+                Acceptor newAcceptor = new Acceptor(
+                    dataServerConfig.getDataSyncAcceptorBufferSize(), dataInfoId, dataCenter,
+                    datumCache);
                 existAcceptor = acceptorMap.putIfAbsent(dataInfoId, newAcceptor);
                 if (existAcceptor == null) {
                     existAcceptor = newAcceptor;
@@ -156,19 +206,16 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
         }
     }
 
-    private void removeCache(Acceptor acceptor) {
+    private boolean removeCache(Acceptor acceptor) {
         String dataCenter = acceptor.getDataCenter();
         String dataInfoId = acceptor.getDataInfoId();
 
         try {
             Map<String/*dataInfoId*/, Acceptor> acceptorMap = notifyAcceptorsCache.get(dataCenter);
             if (acceptorMap != null) {
-                boolean result = acceptorMap.remove(dataInfoId, acceptor);
-                if (result) {
-                    //data change notify
-                    notifyChange(acceptor);
-                }
+                return acceptorMap.remove(dataInfoId, acceptor);
             }
+            return false;
         } catch (Exception e) {
             LOGGER.error(getLogByClass("Operator remove from delay cache error!"), e);
             throw new RuntimeException("Operator remove from delay cache error!", e);
@@ -179,7 +226,8 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
         delayQueue.put(new DelayItem(acceptor, dataServerConfig.getDataSyncDelayTimeout()));
     }
 
-    private void notifyChange(Acceptor acceptor) {
+    private void notifyChange(Acceptor acceptor,
+                              Map<String/*ipAddress*/, List<NotifyDataSyncRequest>> requests) {
 
         Long lastVersion = acceptor.getLastVersion();
 
@@ -203,47 +251,263 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
             if (DataServerConfig.IP.equals(targetDataIp)) {
                 continue;
             }
+            requests.computeIfAbsent(targetDataIp, k -> new ArrayList<>()).add(request);
+        }
+    }
+
+    private void enqueueNotify(String targetDataIp, List<PendingNotify> notifies) {
+        NotifyTarget target = notifyTargets.computeIfAbsent(targetDataIp, NotifyTarget::new);
+        synchronized (target) {
+            notifies.forEach(target::add);
+        }
+        flushNotify(target);
+    }
+
+    /**
+     * send pending notifications of target until its in flight limit is reached
+     */
+    private void flushNotify(NotifyTarget target) {
+        while (true) {
+            List<PendingNotify> notifies;
+            synchronized (target) {
+                if (target.pending.isEmpty()
+                    || target.inflight >= dataServerConfig.getDataSyncNotifyMaxInflight()) {
+                    return;
+                }
+                notifies = target.poll(target.batchUnsupported ? 1 : dataServerConfig
+                    .getDataSyncNotifyBatchSize());
+                target.inflight++;
+            }
+            sendNotify(target, notifies);
+        }
+    }
 
+    private void sendNotify(NotifyTarget target, List<PendingNotify> notifies) {
+        Object request = getNotifyRequest(notifies);
+        try {
+            Connection connection = dataServerConnectionFactory.getConnection(target.ip);
+            if (connection == null) {
+                LOGGER.error(getLogByClass(String.format(
+                    "Can not get notify data server connection!ip: %s,request=%s", target.ip,
+                    request)));
+                onNotifyFailed(target, notifies);
+                return;
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(getLogByClass("Notify data server {} change data {} to sync"),
+                    connection.getRemoteIP(), request);
+            }
             Server syncServer = boltExchange.getServer(dataServerConfig.getSyncDataPort());
+            syncServer.sendCallback(syncServer.getChannel(connection.getRemoteAddress()), request,
+                new NotifyCallback(target, notifies), 1000);
+        } catch (Exception e) {
+            LOGGER.error(getLogByClass(String.format("Notify data server %s failed, request:%s",
+                target.ip, request)), e);
+            onNotifyFailed(target, notifies);
+        }
+    }
 
-            for (int tryCount = 0; tryCount < dataServerConfig.getDataSyncNotifyRetry(); tryCount++) {
-                try {
+    private Object getNotifyRequest(List<PendingNotify> notifies) {
+        if (notifies.size() == 1) {
+            return notifies.get(0).request;
+        }
+        List<NotifyDataSyncRequest> requests = new ArrayList<>(notifies.size());
+        notifies.forEach(notify -> requests.add(notify.request));
+        return new BatchNotifyDataSyncRequest(requests);
+    }
 
-                    Connection connection = dataServerConnectionFactory.getConnection(targetDataIp);
-                    if (connection == null) {
-                        LOGGER.error(getLogByClass(String.format(
-                            "Can not get notify data server connection!ip: %s,retry=%s",
-                            targetDataIp, tryCount)));
-                        TimeUtil.randomDelay(1000);
-                        continue;
-                    }
-                    LOGGER.info(
-                        getLogByClass("Notify data server {} change data {} to sync,retry={}"),
-                        connection.getRemoteIP(), request, tryCount);
-
-                    syncServer.sendSync(syncServer.getChannel(connection.getRemoteAddress()),
-                        request, 1000);
-                    break;
-                } catch (Exception e) {
-                    LOGGER.error(getLogByClass(String.format(
-                        "Notify data server %s failed, NotifyDataSyncRequest:%s,retry=%s",
-                        targetDataIp, request, tryCount)), e);
-                    TimeUtil.randomDelay(1000);
-                }
+    private void onNotifySuccess(NotifyTarget target, List<PendingNotify> notifies) {
+        long now = System.currentTimeMillis();
+        for (PendingNotify notify : notifies) {
+            notifyLagTimer.update(now - notify.enqueueTime, TimeUnit.MILLISECONDS);
+        }
+        synchronized (target) {
+            target.inflight--;
+        }
+        flushNotify(target);
+    }
+
+    /**
+     * retry notifications after a random delay until dataSyncNotifyRetry attempts have failed
+     */
+    private void onNotifyFailed(NotifyTarget target, List<PendingNotify> notifies) {
+        notifyFailedMeter.mark(notifies.size());
+        synchronized (target) {
+            target.inflight--;
+        }
+        List<PendingNotify> retries = new ArrayList<>(notifies.size());
+        for (PendingNotify notify : notifies) {
+            if (++notify.attempts < dataServerConfig.getDataSyncNotifyRetry()) {
+                retries.add(notify);
+            } else {
+                LOGGER.error(getLogByClass(String.format(
+                    "Notify data server %s failed, stop retry! retry=%s, request:%s", target.ip,
+                    notify.attempts, notify.request)));
             }
         }
+        if (!retries.isEmpty()) {
+            long delay = dataServerConfig.getDataSyncNotifyRetryDelayMillis();
+            notifyExecutor.schedule(() -> retryNotify(target, retries),
+                    delay / 2 + (long) (Math.random() * delay), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void retryNotify(NotifyTarget target, List<PendingNotify> notifies) {
+        if (!getDataServerIps().contains(target.ip)) {
+            LOGGER.warn(getLogByClass(String.format(
+                "Data server %s has left, drop %s notifications to retry", target.ip,
+                notifies.size())));
+            return;
+        }
+        enqueueNotify(target.ip, notifies);
+    }
+
+    /**
+     * the peer has no processor for BatchNotifyDataSyncRequest, notifications of the batch are
+     * sent again by single requests without counting as a failed attempt
+     */
+    private void onBatchUnsupported(NotifyTarget target, List<PendingNotify> notifies) {
+        LOGGER.warn(getLogByClass(String.format(
+            "Data server %s does not support BatchNotifyDataSyncRequest, notify one by one",
+            target.ip)));
+        synchronized (target) {
+            target.inflight--;
+            target.batchUnsupported = true;
+            notifies.forEach(target::add);
+        }
+        flushNotify(target);
+    }
+
+    /**
+     * drop targets and their pending notifications of data nodes not in the data server list
+     */
+    private void removeLeftTargets() {
+        if (notifyTargets.isEmpty()) {
+            return;
+        }
+        Set<String> ips = getDataServerIps();
+        Iterator<NotifyTarget> it = notifyTargets.values().iterator();
+        while (it.hasNext()) {
+            NotifyTarget target = it.next();
+            if (ips.contains(target.ip)) {
+                continue;
+            }
+            int dropped;
+            synchronized (target) {
+                dropped = target.pending.size();
+                target.pending.clear();
+            }
+            it.remove();
+            LOGGER.info(getLogByClass(String.format(
+                "Data server %s has left, remove its notify target, %s pending dropped", target.ip,
+                dropped)));
+        }
+    }
+
+    private Set<String> getDataServerIps() {
+        Set<String> ips = new HashSet<>();
+        Collection<DataServerNode> dataServerNodes = metaServerService
+            .getDataServers(dataServerConfig.getLocalDataCenter());
+        if (dataServerNodes != null) {
+            dataServerNodes.forEach(node -> ips.add(node.getIp()));
+        }
+        return ips;
+    }
+
+    /**
+     * notifications waiting to be sent, including the ones waiting for retry
+     *
+     * @return pending count
+     */
+    public int getNotifyPendingCount() {
+        int count = 0;
+        for (NotifyTarget target : notifyTargets.values()) {
+            synchronized (target) {
+                count += target.pending.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * data nodes notified, a data node left is removed in the next round of notifications
+     *
+     * @return target count
+     */
+    public int getNotifyTargetCount() {
+        return notifyTargets.size();
     }
 
     abstract public List<String> getTargetDataIp(String dataInfoId);
 
+    @Override
+    public Set<String> getChangedRegisterIds(String dataCenter, String dataInfoId,
+                                             long fromVersion, long toVersion) {
+        Map<String/*dataInfoId*/, Acceptor> acceptorMap = acceptors.get(dataCenter);
+        if (acceptorMap == null) {
+            return null;
+        }
+        Acceptor acceptor = acceptorMap.get(dataInfoId);
+        return acceptor == null ? null : acceptor.getChangedRegisterIds(fromVersion, toVersion);
+    }
+
+    /**
+     * estimated by compressed references: array header and a reference for each slot, operator
+     * with its boxed versions for each operator kept, publishers are shared with datum snapshots
+     */
+    @Override
+    public Map<String/*dataCenter*/, Map<String, Long>> getFootprint() {
+        Map<String/*dataCenter*/, Map<String, Long>> footprint = new HashMap<>();
+        acceptors.forEach((dataCenter, acceptorMap) -> {
+            long operators = 0;
+            long slots = 0;
+            long buffers = 0;
+            long publishers = 0;
+            for (Acceptor acceptor : acceptorMap.values()) {
+                int capacity = acceptor.capacity();
+                if (capacity > 0) {
+                    buffers++;
+                    slots += capacity;
+                    operators += acceptor.size();
+                    publishers += acceptor.publisherCount();
+                }
+            }
+            Map<String, Long> map = new LinkedHashMap<>();
+            map.put("acceptors", (long) acceptorMap.size());
+            map.put("buffers", buffers);
+            map.put("slots", slots);
+            map.put("operators", operators);
+            map.put("publishers", publishers);
+            map.put("logBytes", buffers * 16 + slots * 4 + operators * 56);
+            footprint.put(dataCenter, map);
+        });
+        return footprint;
+    }
+
     @Override
     public void changeDataCheck() {
 
         while (true) {
             try {
                 DelayItem<Acceptor> delayItem = delayQueue.take();
-                Acceptor acceptor = delayItem.getItem();
-                removeCache(acceptor); // compare and remove
+                // drain the other expired acceptors to batch their notifications
+                Map<String/*ipAddress*/, List<NotifyDataSyncRequest>> requests = new HashMap<>();
+                int count = 0;
+                while (delayItem != null) {
+                    Acceptor acceptor = delayItem.getItem();
+                    if (removeCache(acceptor)) { // compare and remove
+                        notifyChange(acceptor, requests);
+                    }
+                    delayItem = ++count < dataServerConfig.getDataSyncNotifyBatchSize() ? delayQueue
+                        .poll() : null;
+                }
+                long now = System.currentTimeMillis();
+                requests.forEach((targetDataIp, targetRequests) -> {
+                    List<PendingNotify> notifies = new ArrayList<>(targetRequests.size());
+                    targetRequests.forEach(request -> notifies.add(new PendingNotify(request, now)));
+                    enqueueNotify(targetDataIp, notifies);
+                });
+                removeLeftTargets();
             } catch (InterruptedException e) {
                 break;
             } catch (Throwable e) {
@@ -291,4 +555,98 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
     public DataServerConfig getDataServerConfig() {
         return dataServerConfig;
     }
+
+    private final class NotifyCallback implements CallbackHandler {
+
+        private final NotifyTarget        target;
+
+        private final List<PendingNotify> notifies;
+
+        NotifyCallback(NotifyTarget target, List<PendingNotify> notifies) {
+            this.target = target;
+            this.notifies = notifies;
+        }
+
+        @Override
+        public void onCallback(Channel channel, Object message) {
+            if (message instanceof CommonResponse && !((CommonResponse) message).isSuccess()) {
+                LOGGER.error(getLogByClass(String.format(
+                    "Notify data server %s not success, request:%s, response:%s", target.ip,
+                    getNotifyRequest(notifies), message)));
+                onNotifyFailed(target, notifies);
+                return;
+            }
+            onNotifySuccess(target, notifies);
+        }
+
+        @Override
+        public void onException(Channel channel, Throwable e) {
+            if (notifies.size() > 1 && BoltChannelUtil.isNoProcessor(e)) {
+                onBatchUnsupported(target, notifies);
+                return;
+            }
+            LOGGER.error(getLogByClass(String.format("Notify data server %s failed, request:%s",
+                target.ip, getNotifyRequest(notifies))), e);
+            onNotifyFailed(target, notifies);
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return notifyExecutor;
+        }
+    }
+
+    /**
+     * notifications waiting to be sent to one data node, a newer version of the same datum
+     * replaces the pending one
+     */
+    private static final class NotifyTarget {
+
+        private final String                     ip;
+
+        private final Map<String, PendingNotify> pending = new LinkedHashMap<>();
+
+        private int                              inflight;
+
+        private boolean                          batchUnsupported;
+
+        NotifyTarget(String ip) {
+            this.ip = ip;
+        }
+
+        void add(PendingNotify notify) {
+            String key = notify.request.getDataCenter() + ":" + notify.request.getDataInfoId();
+            PendingNotify exist = pending.get(key);
+            if (exist == null) {
+                pending.put(key, notify);
+            } else if (exist.request.getVersion() < notify.request.getVersion()) {
+                notify.enqueueTime = Math.min(notify.enqueueTime, exist.enqueueTime);
+                pending.put(key, notify);
+            }
+        }
+
+        List<PendingNotify> poll(int max) {
+            List<PendingNotify> notifies = new ArrayList<>(Math.min(max, pending.size()));
+            Iterator<PendingNotify> it = pending.values().iterator();
+            while (it.hasNext() && notifies.size() < max) {
+                notifies.add(it.next());
+                it.remove();
+            }
+            return notifies;
+        }
+    }
+
+    private static final class PendingNotify {
+
+        private final NotifyDataSyncRequest request;
+
+        private long                        enqueueTime;
+
+        private int                         attempts;
+
+        PendingNotify(NotifyDataSyncRequest request, long enqueueTime) {
+            this.request = request;
+            this.enqueueTime = enqueueTime;
+        }
+    }
 }
\ No newline at end of file
@@ -19,13 +19,10 @@ package com.alipay.sofa.registry.server.data.datasync.sync;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -38,27 +35,37 @@ import com.alipay.sofa.registry.server.data.datasync.Operator;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 
 /**
+ * Operator logs of one datum kept in a ring buffer ordered by version. Appended operators must
+ * follow the version sequence, so versions increase from head to tail and are found by binary
+ * search. The buffer grows on demand up to maxBufferSize, when full or expired the head is
+ * advanced, and it is released when no operator is left.
  *
  * @author shangyu.wh
  * @version $Id: Acceptor.java, v 0.1 2018-03-05 16:57 shangyu.wh Exp $
  */
 public class Acceptor {
 
-    static final int                        DEFAULT_DURATION_SECS = 30;
-    private static final Logger             LOGGER                = LoggerFactory.getLogger(
-                                                                      Acceptor.class,
-                                                                      "[SyncDataService]");
-    private final Deque<Long/*version*/>   logOperatorsOrder     = new ConcurrentLinkedDeque<>();
-    private final String                    dataInfoId;
-    private final String                    dataCenter;
-    private int                             maxBufferSize;
-    private Map<Long/*version*/, Operator> logOperators          = new ConcurrentHashMap<>();
+    static final int                     DEFAULT_DURATION_SECS = 30;
+    private static final int             INITIAL_BUFFER_SIZE   = 4;
+    private static final Logger          LOGGER                = LoggerFactory.getLogger(
+                                                                   Acceptor.class,
+                                                                   "[SyncDataService]");
+    private final String                 dataInfoId;
+    private final String                 dataCenter;
+    private int                          maxBufferSize;
 
-    private final ReentrantReadWriteLock    readWriteLock         = new ReentrantReadWriteLock();
-    private final Lock                      read                  = readWriteLock.readLock();
-    private final Lock                      write                 = readWriteLock.writeLock();
+    /**
+     * ring buffer, null when empty
+     */
+    private Operator[]                   logOperators;
+    private int                          head;
+    private int                          size;
 
-    private final DatumCache                datumCache;
+    private final ReentrantReadWriteLock readWriteLock         = new ReentrantReadWriteLock();
+    private final Lock                   read                  = readWriteLock.readLock();
+    private final Lock                   write                 = readWriteLock.writeLock();
+
+    private final DatumCache             datumCache;
 
     /**
      * constructor
@@ -83,32 +90,30 @@ public class Acceptor {
     public void appendOperator(Operator operator) {
         write.lock();
         try {
-            if (isFull()) {
-                logOperators.remove(logOperatorsOrder.poll());
-            }
             if (operator.getSourceVersion() == null) {
                 operator.setSourceVersion(0L);
             }
-            Long tailVersion = logOperatorsOrder.peekLast();
-
-            if (tailVersion != null) {
+            if (size > 0) {
+                long tailVersion = get(size - 1).getVersion();
                 //operation add not by solid sequence
-                if (tailVersion.longValue() != operator.getSourceVersion().longValue()) {
+                if (tailVersion != operator.getSourceVersion()) {
                     LOGGER
                         .warn(
                             "Datum {} append operation not follow version sequence!Current version {},but input source version {}.In order to avoid get "
                                     + "data error clear operations!", operator.getDatum()
                                 .getDataInfoId(), tailVersion, operator.getSourceVersion());
                     clearBefore();
+                } else if (tailVersion >= operator.getVersion()) {
+                    LOGGER.warn("Append operation has been exist!");
+                    return;
                 }
             }
-
-            Operator previousOperator = logOperators.put(operator.getVersion(), operator);
-            if (previousOperator == null) {
-                logOperatorsOrder.add(operator.getVersion());
-            } else {
-                LOGGER.warn("Append operation has been exist!");
+            if (isFull()) {
+                poll();
             }
+            ensureCapacity();
+            logOperators[(head + size) % logOperators.length] = operator;
+            size++;
         } finally {
             write.unlock();
         }
@@ -119,15 +124,12 @@ public class Acceptor {
      * @return
      */
     public Collection<Operator> getAllOperators() {
-        LinkedList<Operator> linkRet = new LinkedList<>();
-        if (logOperatorsOrder.peek() != null) {
-            Iterator iterator = logOperatorsOrder.iterator();
-            while (iterator.hasNext()) {
-                Long i = (Long) iterator.next();
-                linkRet.add(logOperators.get(i));
-            }
+        read.lock();
+        try {
+            return copy(0);
+        } finally {
+            read.unlock();
         }
-        return linkRet;
     }
 
     /**
@@ -143,7 +145,7 @@ public class Acceptor {
         try {
             Collection<Operator> operators = acceptOperator(currentVersion);
 
-            List<Datum> retList = new LinkedList<>();
+            List<Datum> retList = new ArrayList<>();
             SyncData syncData;
             boolean wholeDataTag = false;
             if (operators != null) {
@@ -164,7 +166,7 @@ public class Acceptor {
                 LOGGER
                     .info(
                         "Append log queue is empty,Maybe all logs record expired or no operator append!So must get all data!dataInfoID:{} dataCenter:{}.queue size{}:",
-                        dataInfoId, dataCenter, logOperatorsOrder.size());
+                        dataInfoId, dataCenter, size);
                 wholeDataTag = true;
                 retList.add(datumCache.get(dataCenter, dataInfoId));
                 syncData = new SyncData(dataInfoId, dataCenter, wholeDataTag, retList);
@@ -191,35 +193,64 @@ public class Acceptor {
             return new ArrayList<>();
         }
 
-        if (logOperatorsOrder.size() > 0) {
-            LinkedList<Operator> linkRet = new LinkedList<>();
-            //target version found
-            if (logOperatorsOrder.contains(currentVersion)) {
-                Iterator iterator = logOperatorsOrder.descendingIterator();
-                while (iterator.hasNext()) {
-                    Long i = (Long) iterator.next();
-                    if (currentVersion.equals(i)) {
-                        break;
-                    }
-                    linkRet.addFirst(logOperators.get(i));
-                }
-            } else {
-                //target version not found,but source version equals
-                Operator headOperator = logOperators.get(logOperatorsOrder.peek());
-                if (currentVersion.equals(headOperator.getSourceVersion())) {
+        read.lock();
+        try {
+            if (size > 0) {
+                List<Operator> ret;
+                int index = indexOf(currentVersion);
+                if (index >= 0) {
+                    //target version found
+                    ret = copy(index + 1);
+                } else if (currentVersion.equals(get(0).getSourceVersion())) {
+                    //target version not found,but source version equals
                     LOGGER
                         .info("current version not found on queue,but header source version equals current version!");
-                    linkRet.addAll(logOperators.values());
+                    ret = copy(0);
+                } else {
+                    ret = new ArrayList<>();
                 }
+                if (ret.isEmpty()) {
+                    LOGGER.info("Current version {} not match on queue,queue size {} !",
+                        currentVersion, size);
+                }
+                return ret;
             }
-            if (linkRet.isEmpty()) {
-                LOGGER.info("Current version {} not match on queue,queue size {} !",
-                    currentVersion, logOperatorsOrder.size());
+            //cannot match version,must poll all data
+            return null;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * registerIds of publishers touched by the operators after fromVersion, only if the operators
+     * link fromVersion to toVersion without gap, otherwise null
+     *
+     * @param fromVersion
+     * @param toVersion
+     * @return
+     */
+    public Set<String> getChangedRegisterIds(long fromVersion, long toVersion) {
+        read.lock();
+        try {
+            if (size == 0 || get(size - 1).getVersion() != toVersion) {
+                return null;
+            }
+            int from = indexOf(fromVersion) + 1;
+            if (from == 0 && get(0).getSourceVersion() != fromVersion) {
+                return null;
             }
-            return linkRet;
+            Set<String> registerIds = new HashSet<>();
+            for (int i = from; i < size; i++) {
+                Map<String, ?> pubMap = get(i).getDatum().getPubMap();
+                if (pubMap != null) {
+                    registerIds.addAll(pubMap.keySet());
+                }
+            }
+            return registerIds;
+        } finally {
+            read.unlock();
         }
-        //cannot match version,must poll all data
-        return null;
     }
 
     /**
@@ -230,10 +261,8 @@ public class Acceptor {
         write.lock();
         try {
             //check all expired
-            Long peekVersion = logOperatorsOrder.peek();
-            if (peekVersion != null && isExpired(durationSEC, peekVersion)) {
-                logOperators.remove(logOperatorsOrder.poll());
-                checkExpired(durationSEC);
+            while (size > 0 && isExpired(durationSEC, get(0).getVersion())) {
+                poll();
             }
         } finally {
             write.unlock();
@@ -245,11 +274,117 @@ public class Acceptor {
      * @return
      */
     public Long getLastVersion() {
-        return logOperatorsOrder.peekLast();
+        read.lock();
+        try {
+            return size > 0 ? get(size - 1).getVersion() : null;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * operators kept
+     *
+     * @return
+     */
+    public int size() {
+        read.lock();
+        try {
+            return size;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * slots allocated by the ring buffer
+     *
+     * @return
+     */
+    public int capacity() {
+        read.lock();
+        try {
+            return logOperators == null ? 0 : logOperators.length;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * publishers carried by the operators kept
+     *
+     * @return
+     */
+    public int publisherCount() {
+        read.lock();
+        try {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                Map<String, ?> pubMap = get(i).getDatum().getPubMap();
+                count += pubMap == null ? 0 : pubMap.size();
+            }
+            return count;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    private Operator get(int index) {
+        return logOperators[(head + index) % logOperators.length];
+    }
+
+    /**
+     * binary search the version from head to tail
+     */
+    private int indexOf(long version) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midVersion = get(mid).getVersion();
+            if (midVersion < version) {
+                low = mid + 1;
+            } else if (midVersion > version) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private List<Operator> copy(int from) {
+        List<Operator> operators = new ArrayList<>(Math.max(size - from, 0));
+        for (int i = from; i < size; i++) {
+            operators.add(get(i));
+        }
+        return operators;
+    }
+
+    private void poll() {
+        logOperators[head] = null;
+        head = (head + 1) % logOperators.length;
+        if (--size == 0) {
+            logOperators = null;
+            head = 0;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (logOperators == null) {
+            logOperators = new Operator[Math.min(INITIAL_BUFFER_SIZE, maxBufferSize)];
+        } else if (size == logOperators.length) {
+            Operator[] grown = new Operator[Math.min(logOperators.length * 2, maxBufferSize)];
+            for (int i = 0; i < size; i++) {
+                grown[i] = get(i);
+            }
+            logOperators = grown;
+            head = 0;
+        }
     }
 
     private boolean isFull() {
-        return logOperators.size() >= maxBufferSize;
+        return size >= maxBufferSize;
     }
 
     private boolean isExpired(int durationSECS, long peekVersion) {
@@ -266,9 +401,9 @@ public class Acceptor {
     public void clearBefore() {
         write.lock();
         try {
-
-            logOperators.clear();
-            logOperatorsOrder.clear();
+            logOperators = null;
+            head = 0;
+            size = 0;
         } finally {
             write.unlock();
         }
@@ -278,18 +413,20 @@ public class Acceptor {
      *
      */
     public void printInfo() {
-        LOGGER
-            .debug("----------------------------------------------------------------------------");
-        LOGGER.debug("Acceptor info has " + logOperators.size() + " operations，dataInfoID:"
-                     + this.getDataInfoId() + " dataCenter:" + this.getDataCenter());
-        if (logOperatorsOrder.size() > 0) {
-            for (Long version : logOperatorsOrder) {
-                Operator operator = logOperators.get(version);
+        read.lock();
+        try {
+            LOGGER
+                .debug("----------------------------------------------------------------------------");
+            LOGGER.debug("Acceptor info has " + size + " operations，dataInfoID:"
+                         + this.getDataInfoId() + " dataCenter:" + this.getDataCenter());
+            for (int i = 0; i < size; i++) {
+                Operator operator = get(i);
                 LOGGER.debug("| " + pidLine(String.valueOf(operator.getVersion()), 24, " ")
                              + pidLine(String.valueOf(operator.getSourceVersion()), 24, " ")
                              + operator.getDatum());
-
             }
+        } finally {
+            read.unlock();
         }
     }
 
@@ -321,4 +458,4 @@ public class Acceptor {
         return dataCenter;
     }
 
-}
\ No newline at end of file
+}
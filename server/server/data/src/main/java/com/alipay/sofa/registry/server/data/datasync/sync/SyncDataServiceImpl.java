@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.server.data.datasync.sync;
 
+import java.util.Set;
+
 import com.alipay.sofa.registry.common.model.dataserver.SyncData;
 import com.alipay.sofa.registry.common.model.dataserver.SyncDataRequest;
 import com.alipay.sofa.registry.log.Logger;
@@ -60,4 +62,14 @@ public class SyncDataServiceImpl implements SyncDataService {
         }
     }
 
+    @Override
+    public Set<String> getChangedRegisterIds(String dataSourceType, String dataCenter,
+                                             String dataInfoId, long fromVersion, long toVersion) {
+        AcceptorStore acceptorStore = StoreServiceFactory.getStoreService(dataSourceType);
+        if (acceptorStore == null) {
+            return null;
+        }
+        return acceptorStore.getChangedRegisterIds(dataCenter, dataInfoId, fromVersion, toVersion);
+    }
+
 }
\ No newline at end of file
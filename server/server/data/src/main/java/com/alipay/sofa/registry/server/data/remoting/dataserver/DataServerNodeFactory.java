@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alipay.remoting.Connection;
 import com.alipay.sofa.registry.consistency.hash.ConsistentHash;
+import com.alipay.sofa.registry.consistency.hash.MD5HashFunction;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.node.DataServerNode;
 import com.google.common.collect.Lists;
@@ -86,8 +87,16 @@ public class DataServerNodeFactory {
                     .getLocalDataCenter(), null));
             }
         }
-        CONSISTENT_HASH_MAP.put(dataCenter,
-            new ConsistentHash<>(dataServerConfig.getNumberOfReplicas(), dataServerNodes));
+        CONSISTENT_HASH_MAP.put(dataCenter, newConsistentHash(dataServerNodes, dataServerConfig));
+    }
+
+    /**
+     * lookups by dataInfoId are memoized by the instance, a refresh replaces the whole instance
+     */
+    private static ConsistentHash<DataServerNode> newConsistentHash(List<DataServerNode> dataServerNodes,
+                                                                    DataServerConfig dataServerConfig) {
+        return new ConsistentHash<>(new MD5HashFunction(), dataServerConfig.getNumberOfReplicas(),
+            dataServerNodes, true);
     }
 
     /**
@@ -99,8 +108,8 @@ public class DataServerNodeFactory {
             List<DataServerNode> dataServerNodes = Lists.newArrayList();
             dataServerNodes.add(new DataServerNode(DataServerConfig.IP, dataServerConfig
                 .getLocalDataCenter(), null));
-            CONSISTENT_HASH_MAP.put(dataServerConfig.getLocalDataCenter(), new ConsistentHash<>(
-                dataServerConfig.getNumberOfReplicas(), dataServerNodes));
+            CONSISTENT_HASH_MAP.put(dataServerConfig.getLocalDataCenter(),
+                newConsistentHash(dataServerNodes, dataServerConfig));
         }
     }
 
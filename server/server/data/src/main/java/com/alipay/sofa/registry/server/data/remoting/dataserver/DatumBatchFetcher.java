@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.dataserver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumChunk;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.bolt.BoltChannelUtil;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.util.TimeUtil;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+import com.google.common.collect.Lists;
+
+/**
+ * fetch datums moved to this node from another data node by BatchGetDataRequest instead of one
+ * GetDataRequest per dataInfoId.
+ *
+ * dataInfoIds are split into chunks fetched by a bounded number of threads, and the data node
+ * answers a chunk up to a publisher count, the rest of the chunk is asked again by the next
+ * request. A failed request is retried with the dataInfoIds not fetched yet as long as the
+ * connection of the data node exists, with a backoff growing up to
+ * datumMigrationRetryMaxDelayMillis. A data node of an older version has no processor for
+ * BatchGetDataRequest, datums are fetched from it one by one by GetDataRequest.
+ *
+ * Datums not fetched when the connection is gone are abandoned, like the fetch one by one did.
+ *
+ * @author agent
+ * @version $Id: DatumBatchFetcher.java, v 0.1 2026-10-18 21:50 agent Exp $
+ */
+public class DatumBatchFetcher {
+
+    private static final Logger                LOGGER     = LoggerFactory
+                                                              .getLogger(DatumBatchFetcher.class);
+
+    @Autowired
+    private DataServerConfig                   dataServerConfig;
+
+    @Autowired
+    private DataServerConnectionFactory        dataServerConnectionFactory;
+
+    @Autowired
+    private DataChangeEventCenter              dataChangeEventCenter;
+
+    @Autowired
+    private Exchange                           boltExchange;
+
+    private ExecutorService                    executor;
+
+    /**
+     * progress of the last fetch from each data node
+     */
+    private final Map<String/*ip*/, Progress> progresses = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int concurrency = Math.max(1, dataServerConfig.getDatumMigrationConcurrency());
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("DatumBatchFetcher", true));
+    }
+
+    /**
+     * fetch datums and wait until all are fetched or the connection of the data node is gone
+     *
+     * @param targetIp
+     * @param dataInfoIds
+     * @return false if any datum is abandoned
+     */
+    public boolean fetch(String targetIp, Map<String/*dataCenter*/, List<String>> dataInfoIds) {
+        Progress progress = new Progress();
+        dataInfoIds.values().forEach(list -> progress.total.addAndGet(list.size()));
+        progresses.put(targetIp, progress);
+        LOGGER.info("[DatumBatchFetcher] begin to fetch {} datums from {}", progress.total.get(),
+            targetIp);
+
+        int chunkSize = Math.max(1, dataServerConfig.getDatumMigrationChunkSize());
+        List<Future<?>> futures = new ArrayList<>();
+        dataInfoIds.forEach((dataCenter, list) -> {
+            for (List<String> chunk : Lists.partition(list, chunkSize)) {
+                List<String> pending = new ArrayList<>(chunk);
+                futures.add(executor.submit(() -> fetchChunk(targetIp, dataCenter, pending, progress)));
+            }
+        });
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted = true;
+                break;
+            } catch (ExecutionException e) {
+                LOGGER.error("[DatumBatchFetcher] fetch datums from {} error", targetIp, e.getCause());
+            }
+        }
+        progress.finishTimestamp = System.currentTimeMillis();
+        LOGGER.info("[DatumBatchFetcher] fetch datums from {} finished, {}", targetIp,
+            progress.toMap());
+        if (interrupted || progress.abandoned.get() > 0) {
+            LOGGER.error(
+                "[DatumBatchFetcher] fetch datums from {} not completed, {} of {} not fetched{}",
+                targetIp, progress.abandoned.get(), progress.total.get(),
+                interrupted ? ", interrupted" : "");
+            return false;
+        }
+        return true;
+    }
+
+    private void fetchChunk(String targetIp, String dataCenter, List<String> pending,
+                            Progress progress) {
+        int retryTimes = 0;
+        while (!pending.isEmpty()) {
+            if (progress.batchUnsupported) {
+                for (int i = 0; i < pending.size(); i++) {
+                    fetchDatum(targetIp, dataCenter, pending.subList(i, pending.size()), progress);
+                }
+                return;
+            }
+            try {
+                DatumChunk chunk = (DatumChunk) request(targetIp, new BatchGetDataRequest(
+                    dataCenter, pending, dataServerConfig.getDatumMigrationMaxPublishers()),
+                    pending, progress);
+                for (Datum datum : chunk.getDatums().values()) {
+                    sync(datum, progress);
+                }
+                progress.fetched.addAndGet(pending.size() - chunk.getUnsentDataInfoIds().size());
+                pending = chunk.getUnsentDataInfoIds();
+                retryTimes = 0;
+            } catch (ConnectionUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                if (BoltChannelUtil.isNoProcessor(e)) {
+                    LOGGER
+                        .warn(
+                            "[DatumBatchFetcher] {} has no processor for BatchGetDataRequest, fetch datums one by one",
+                            targetIp);
+                    progress.batchUnsupported = true;
+                    continue;
+                }
+                retryTimes = onFailure(targetIp, pending, progress, retryTimes, e);
+            }
+        }
+    }
+
+    /**
+     * fetch the first of pending dataInfoIds by GetDataRequest
+     */
+    private void fetchDatum(String targetIp, String dataCenter, List<String> pending,
+                            Progress progress) {
+        String dataInfoId = pending.get(0);
+        int retryTimes = 0;
+        while (true) {
+            try {
+                Map<String, Datum> datums = (Map<String, Datum>) request(targetIp,
+                    new GetDataRequest(dataInfoId, dataCenter), pending, progress);
+                Datum datum = datums == null ? null : datums.get(dataCenter);
+                if (datum != null) {
+                    sync(datum, progress);
+                }
+                progress.fetched.incrementAndGet();
+                return;
+            } catch (ConnectionUnavailableException e) {
+                throw e;
+            } catch (Exception e) {
+                retryTimes = onFailure(targetIp, pending, progress, retryTimes, e);
+            }
+        }
+    }
+
+    /**
+     * send request by the connection the data node connected to this node, and return the data of
+     * its GenericResponse
+     */
+    private Object request(String targetIp, Object request, List<String> pending, Progress progress) {
+        Connection connection = dataServerConnectionFactory.getConnection(targetIp);
+        if (connection == null || !connection.isFine()) {
+            progress.abandoned.addAndGet(pending.size());
+            throw new ConnectionUnavailableException(String.format(
+                "connection of %s is not available, %d datums not fetched", targetIp,
+                pending.size()));
+        }
+        Server syncServer = boltExchange.getServer(dataServerConfig.getSyncDataPort());
+        Object response = syncServer.sendSync(syncServer.getChannel(connection.getRemoteAddress()),
+            request, dataServerConfig.getRpcTimeout());
+        progress.requests.incrementAndGet();
+        if (!(response instanceof GenericResponse)) {
+            throw new RuntimeException(String.format("unexpected response of %s from %s: %s",
+                request.getClass().getSimpleName(), targetIp, response));
+        }
+        GenericResponse genericResponse = (GenericResponse) response;
+        if (!genericResponse.isSuccess()) {
+            throw new RuntimeException(genericResponse.getMessage());
+        }
+        return genericResponse.getData();
+    }
+
+    private void sync(Datum datum, Progress progress) {
+        // wrap by WordCache
+        datum = Datum.internDatum(datum);
+        dataChangeEventCenter.sync(DataChangeTypeEnum.COVER, DataSourceTypeEnum.BACKUP, datum);
+        progress.publishers.addAndGet(datum.getPubMap().size());
+    }
+
+    /**
+     * wait a random delay doubled by each retry in a row, up to datumMigrationRetryMaxDelayMillis
+     *
+     * @return retry times so far
+     */
+    private int onFailure(String targetIp, List<String> pending, Progress progress, int retryTimes,
+                          Exception e) {
+        progress.failures.incrementAndGet();
+        LOGGER.error("[DatumBatchFetcher] fetch datums from {} error, {} datums left, retry {}",
+            targetIp, pending.size(), retryTimes + 1, e);
+        long maxDelay = Math.min(500L << Math.min(retryTimes, 16),
+            dataServerConfig.getDatumMigrationRetryMaxDelayMillis());
+        TimeUtil.randomDelay((int) Math.max(1L, maxDelay));
+        return retryTimes + 1;
+    }
+
+    /**
+     * progress of the last fetch from each data node
+     *
+     * @return
+     */
+    public Map<String, Map<String, Long>> getProgress() {
+        Map<String, Map<String, Long>> map = new LinkedHashMap<>();
+        progresses.forEach((ip, progress) -> map.put(ip, progress.toMap()));
+        return map;
+    }
+
+    /**
+     * Setter method for property <tt>dataServerConfig</tt>.
+     *
+     * @param dataServerConfig  value to be assigned to property dataServerConfig
+     */
+    public void setDataServerConfig(DataServerConfig dataServerConfig) {
+        this.dataServerConfig = dataServerConfig;
+    }
+
+    /**
+     * Setter method for property <tt>dataServerConnectionFactory</tt>.
+     *
+     * @param dataServerConnectionFactory  value to be assigned to property dataServerConnectionFactory
+     */
+    public void setDataServerConnectionFactory(DataServerConnectionFactory dataServerConnectionFactory) {
+        this.dataServerConnectionFactory = dataServerConnectionFactory;
+    }
+
+    /**
+     * Setter method for property <tt>dataChangeEventCenter</tt>.
+     *
+     * @param dataChangeEventCenter  value to be assigned to property dataChangeEventCenter
+     */
+    public void setDataChangeEventCenter(DataChangeEventCenter dataChangeEventCenter) {
+        this.dataChangeEventCenter = dataChangeEventCenter;
+    }
+
+    /**
+     * Setter method for property <tt>boltExchange</tt>.
+     *
+     * @param boltExchange  value to be assigned to property boltExchange
+     */
+    public void setBoltExchange(Exchange boltExchange) {
+        this.boltExchange = boltExchange;
+    }
+
+    /**
+     * the connection is gone, retrying does not help
+     */
+    private static final class ConnectionUnavailableException extends RuntimeException {
+        ConnectionUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Progress {
+        private final long       beginTimestamp = System.currentTimeMillis();
+        private volatile long    finishTimestamp;
+        private volatile boolean batchUnsupported;
+        private final AtomicLong total          = new AtomicLong();
+        private final AtomicLong fetched        = new AtomicLong();
+        private final AtomicLong abandoned      = new AtomicLong();
+        private final AtomicLong publishers     = new AtomicLong();
+        private final AtomicLong requests       = new AtomicLong();
+        private final AtomicLong failures       = new AtomicLong();
+
+        Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            map.put("total", total.get());
+            map.put("fetched", fetched.get());
+            map.put("abandoned", abandoned.get());
+            map.put("publishers", publishers.get());
+            map.put("requests", requests.get());
+            map.put("failures", failures.get());
+            map.put("batchUnsupported", batchUnsupported ? 1L : 0L);
+            long end = finishTimestamp > 0 ? finishTimestamp : System.currentTimeMillis();
+            map.put("costMillis", end - beginTimestamp);
+            map.put("finished", finishTimestamp > 0 ? 1L : 0L);
+            return map;
+        }
+    }
+}
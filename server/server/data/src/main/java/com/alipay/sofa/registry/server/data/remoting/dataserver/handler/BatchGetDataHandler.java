@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumChunk;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.remoting.handler.AbstractClientHandler;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+
+/**
+ * processor to get datums of many dataInfoIds for a data node fetching datums moved to it, the
+ * request comes by the connection this node connected to that node, same as GetDataRequest
+ * handled by FetchDataHandler
+ *
+ * @author agent
+ * @version $Id: BatchGetDataHandler.java, v 0.1 2026-10-18 21:50 agent Exp $
+ */
+public class BatchGetDataHandler extends AbstractClientHandler<BatchGetDataRequest> {
+
+    @Autowired
+    private DatumCache         datumCache;
+
+    @Autowired
+    private ThreadPoolExecutor getDataProcessorExecutor;
+
+    @Override
+    public Executor getExecutor() {
+        return getDataProcessorExecutor;
+    }
+
+    @Override
+    public void checkParam(BatchGetDataRequest request) throws RuntimeException {
+        ParaCheckUtil.checkNotBlank(request.getDataCenter(), "BatchGetDataRequest.dataCenter");
+        ParaCheckUtil.checkNotNull(request.getDataInfoIds(), "BatchGetDataRequest.dataInfoIds");
+    }
+
+    @Override
+    public Object doHandle(Channel channel, BatchGetDataRequest request) {
+        DatumChunk chunk = new DatumChunk();
+        List<String> dataInfoIds = request.getDataInfoIds();
+        int publishers = 0;
+        for (int i = 0; i < dataInfoIds.size(); i++) {
+            String dataInfoId = dataInfoIds.get(i);
+            if (publishers >= request.getMaxPublishers() && !chunk.getDatums().isEmpty()) {
+                chunk.getUnsentDataInfoIds().addAll(dataInfoIds.subList(i, dataInfoIds.size()));
+                break;
+            }
+            Datum datum = datumCache.get(request.getDataCenter(), dataInfoId);
+            if (datum != null) {
+                chunk.getDatums().put(dataInfoId, datum);
+                publishers += datum.getPubMap().size();
+            }
+        }
+        return new GenericResponse<DatumChunk>().fillSucceed(chunk);
+    }
+
+    @Override
+    public GenericResponse<DatumChunk> buildFailedResponse(String msg) {
+        return new GenericResponse<DatumChunk>().fillFailed(msg);
+    }
+
+    @Override
+    public HandlerType getType() {
+        return HandlerType.PROCESSER;
+    }
+
+    @Override
+    public Class interest() {
+        return BatchGetDataRequest.class;
+    }
+
+    @Override
+    protected Node.NodeType getConnectNodeType() {
+        return Node.NodeType.DATA;
+    }
+}
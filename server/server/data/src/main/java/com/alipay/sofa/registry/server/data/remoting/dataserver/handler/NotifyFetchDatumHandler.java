@@ -16,6 +16,9 @@
  */
 package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -41,6 +44,7 @@ import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
 import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DatumBatchFetcher;
 import com.alipay.sofa.registry.server.data.remoting.handler.AbstractServerHandler;
 import com.alipay.sofa.registry.server.data.renew.LocalDataServerCleanHandler;
 import com.alipay.sofa.registry.server.data.util.TimeUtil;
@@ -77,6 +81,9 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
     @Autowired
     private LocalDataServerCleanHandler localDataServerCleanHandler;
 
+    @Autowired
+    private DatumBatchFetcher           datumBatchFetcher;
+
     @Override
     public void checkParam(NotifyFetchDatumRequest request) throws RuntimeException {
         ParaCheckUtil.checkNotBlank(request.getIp(), "ip");
@@ -100,6 +107,7 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
                 dataServerCache.synced(version, ip);
             } else {
                 ExecutorFactory.getCommonExecutor().execute(() -> {
+                    Map<String, List<String>> fetchDataInfoIds = new HashMap<>();
                     for (Entry<String, Map<String, Long>> dataCenterEntry : versionMap.entrySet()) {
                         String dataCenter = dataCenterEntry.getKey();
                         Map<String, Long> map = dataCenterEntry.getValue();
@@ -122,10 +130,21 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
                                     }
                                 }
                             }
-                            fetchDatum(ip, dataCenter, dataInfoId);
+                            fetchDataInfoIds.computeIfAbsent(dataCenter, k -> new ArrayList<>()).add(dataInfoId);
+                        }
+                    }
+                    try {
+                        if (dataServerConfig.getDatumMigrationChunkSize() > 0) {
+                            // retried until fetched or the connection of the data node is gone
+                            datumBatchFetcher.fetch(ip, fetchDataInfoIds);
+                        } else {
+                            fetchDataInfoIds.forEach((dataCenter, dataInfoIds) -> dataInfoIds
+                                    .forEach(dataInfoId -> fetchDatum(ip, dataCenter, dataInfoId)));
                         }
+                    } finally {
+                        // the data node does not notify again, the node must not wait for it forever
+                        dataServerCache.synced(version, ip);
                     }
-                    dataServerCache.synced(version, ip);
                 });
             }
         } else {
@@ -28,6 +28,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.dataserver.InterestSummaryRequest;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.net.NetUtil;
@@ -42,32 +43,38 @@ import com.alipay.sofa.registry.server.data.remoting.sessionserver.disconnect.Se
  * @version $Id: SessionServerConnectionFactory.java, v 0.1 2017-12-06 15:48 qian.lqlq Exp $
  */
 public class SessionServerConnectionFactory {
-    private static final Logger            LOGGER                      = LoggerFactory
-                                                                           .getLogger(SessionServerConnectionFactory.class);
+    private static final Logger                LOGGER                      = LoggerFactory
+                                                                               .getLogger(SessionServerConnectionFactory.class);
 
-    private static final int               DELAY                       = 30 * 1000;
-    private static final Map               EMPTY_MAP                   = new HashMap(0);
+    private static final int                   DELAY                       = 30 * 1000;
+    private static final Map                   EMPTY_MAP                   = new HashMap(0);
 
     /**
      * key  :   SessionServer address
      * value:   SessionServer processId
      */
-    private final Map<String, String>      SESSION_CONN_PROCESS_ID_MAP = new ConcurrentHashMap<>();
+    private final Map<String, String>          SESSION_CONN_PROCESS_ID_MAP = new ConcurrentHashMap<>();
 
     /**
      * key  :   SessionServer processId
      * value:   ip:port of clients
      */
-    private final Map<String, Set<String>> PROCESS_ID_CONNECT_ID_MAP   = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>>     PROCESS_ID_CONNECT_ID_MAP   = new ConcurrentHashMap<>();
 
     /**
      * key  :   SessionServer processId
      * value:   pair(SessionServer address, SessionServer connection)
      */
-    private final Map<String, Pair>        PROCESS_ID_SESSION_CONN_MAP = new ConcurrentHashMap<>();
+    private final Map<String, Pair>            PROCESS_ID_SESSION_CONN_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * key  :   SessionServer processId
+     * value:   summary of dataInfoIds subscribed on the SessionServer
+     */
+    private final Map<String, InterestSummary> PROCESS_ID_INTEREST_MAP     = new ConcurrentHashMap<>();
 
     @Autowired
-    private DisconnectEventHandler         disconnectEventHandler;
+    private DisconnectEventHandler             disconnectEventHandler;
 
     /**
      * register connection
@@ -144,7 +151,51 @@ public class SessionServerConnectionFactory {
     public boolean removeProcessIfMatch(String processId, String sessionConnAddress) {
         Pair emptyPair = new Pair(EMPTY_MAP);
         emptyPair.lastDisconnectedSession = sessionConnAddress;
-        return PROCESS_ID_SESSION_CONN_MAP.remove(processId, emptyPair);
+        boolean removed = PROCESS_ID_SESSION_CONN_MAP.remove(processId, emptyPair);
+        if (removed) {
+            PROCESS_ID_INTEREST_MAP.remove(processId);
+        }
+        return removed;
+    }
+
+    /**
+     * replace interest summary of session process, or refresh it when hashes is null
+     *
+     * @param processId
+     * @param version
+     * @param hashes
+     * @return false if hashes is null and the summary of version is not present
+     */
+    public boolean updateInterestSummary(String processId, long version, int[] hashes) {
+        if (hashes != null) {
+            PROCESS_ID_INTEREST_MAP.put(processId, new InterestSummary(version, hashes));
+            return true;
+        }
+        InterestSummary summary = PROCESS_ID_INTEREST_MAP.get(processId);
+        if (summary == null || summary.version != version) {
+            return false;
+        }
+        summary.lastUpdateTimestamp = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * verify session of the connection may subscribe dataInfoId, true if its summary is absent or
+     * not refreshed within expireMs
+     *
+     * @param connection
+     * @param dataInfoId
+     * @param expireMs
+     * @return
+     */
+    public boolean isInterested(Connection connection, String dataInfoId, long expireMs) {
+        String processId = SESSION_CONN_PROCESS_ID_MAP.get(NetUtil.toAddressString(connection
+            .getRemoteAddress()));
+        InterestSummary summary = processId == null ? null : PROCESS_ID_INTEREST_MAP.get(processId);
+        if (summary == null || System.currentTimeMillis() - summary.lastUpdateTimestamp > expireMs) {
+            return true;
+        }
+        return InterestSummaryRequest.contains(summary.hashes, dataInfoId);
     }
 
     /**
@@ -170,6 +221,21 @@ public class SessionServerConnectionFactory {
         return list;
     }
 
+    /**
+     * interest summary reported by a session process: sorted hashes of its subscribed dataInfoIds,
+     * the version it was built at and when it was last refreshed
+     */
+    private static class InterestSummary {
+        private final long    version;
+        private final int[]   hashes;
+        private volatile long lastUpdateTimestamp = System.currentTimeMillis();
+
+        private InterestSummary(long version, int[] hashes) {
+            this.version = version;
+            this.hashes = hashes;
+        }
+    }
+
     /**
      * convenient class to store sessionConnAddress and connection
      */
@@ -18,10 +18,14 @@ package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -29,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
+import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
@@ -37,6 +42,7 @@ import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
 import com.alipay.sofa.registry.server.data.change.event.DatumSnapshotEvent;
@@ -47,29 +53,40 @@ import com.alipay.sofa.registry.util.ParaCheckUtil;
 /**
  * handling snapshot request
  *
+ * Chunks of a snapshot are handled as they come: publishers differing from the cache are put at
+ * once, and only the registerIds seen so far are kept until the last chunk removes the cached
+ * publishers of the connectId not seen.
+ *
  * @author kezhu.wukz
  * @version $Id: ClientOffProcessor.java, v 0.1 2019-05-30 15:48 kezhu.wukz Exp $
  */
 public class DatumSnapshotHandler extends AbstractServerHandler<DatumSnapshotRequest> {
 
-    private static final Logger   RENEW_LOGGER                = LoggerFactory.getLogger(
-                                                                  ValueConstants.LOGGER_NAME_RENEW,
-                                                                  "[DatumSnapshotHandler]");
+    private static final Logger                 RENEW_LOGGER                = LoggerFactory
+                                                                                .getLogger(
+                                                                                    ValueConstants.LOGGER_NAME_RENEW,
+                                                                                    "[DatumSnapshotHandler]");
 
     /** Limited List Printing */
-    private static final int      LIMITED_LIST_SIZE_FOR_PRINT = 10;
+    private static final int                    LIMITED_LIST_SIZE_FOR_PRINT = 10;
+
+    /** chunked snapshots in progress, format: connectId -> SnapshotProgress */
+    private final Map<String, SnapshotProgress> snapshotProgresses          = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DataServerConfig                    dataServerConfig;
 
     @Autowired
-    private DataChangeEventCenter dataChangeEventCenter;
+    private DataChangeEventCenter               dataChangeEventCenter;
 
     @Autowired
-    private DatumLeaseManager     datumLeaseManager;
+    private DatumLeaseManager                   datumLeaseManager;
 
     @Autowired
-    private DatumCache            datumCache;
+    private DatumCache                          datumCache;
 
     @Autowired
-    private ThreadPoolExecutor    renewDatumProcessorExecutor;
+    private ThreadPoolExecutor                  renewDatumProcessorExecutor;
 
     @Override
     public Executor getExecutor() {
@@ -79,7 +96,9 @@ public class DatumSnapshotHandler extends AbstractServerHandler<DatumSnapshotReq
     @Override
     public void checkParam(DatumSnapshotRequest request) throws RuntimeException {
         ParaCheckUtil.checkNotBlank(request.getConnectId(), "DatumSnapshotRequest.connectId");
-        ParaCheckUtil.checkNotEmpty(request.getPublishers(), "DatumSnapshotRequest.publishers");
+        if (request.getSnapshotId() == null) {
+            ParaCheckUtil.checkNotEmpty(request.getPublishers(), "DatumSnapshotRequest.publishers");
+        }
     }
 
     @Override
@@ -87,6 +106,9 @@ public class DatumSnapshotHandler extends AbstractServerHandler<DatumSnapshotReq
         RENEW_LOGGER.info("Received datumSnapshotRequest: {}", request);
 
         String connectId = WordCache.getInstance().getWordCache(request.getConnectId());
+        if (request.getSnapshotId() != null) {
+            return handleChunk(connectId, request);
+        }
 
         // convert to pubMap, and wrap it by WordCache
         Map<String, Publisher> pubMap = new HashMap<>();
@@ -130,6 +152,123 @@ public class DatumSnapshotHandler extends AbstractServerHandler<DatumSnapshotReq
         return CommonResponse.buildSuccessResponse();
     }
 
+    private Object handleChunk(String connectId, DatumSnapshotRequest request) {
+        long now = System.currentTimeMillis();
+        long expireMillis = dataServerConfig.getDatumSnapshotExpireMillis();
+        snapshotProgresses.values().removeIf(progress -> progress.isExpired(now, expireMillis));
+
+        SnapshotProgress progress;
+        if (request.getChunkIndex() == 0) {
+            progress = new SnapshotProgress(request.getSnapshotId(), now);
+            snapshotProgresses.put(connectId, progress);
+        } else {
+            progress = snapshotProgresses.get(connectId);
+        }
+        if (progress == null
+            || !progress.accept(request.getSnapshotId(), request.getChunkIndex(), now)) {
+            // chunks before are lost, session sends the snapshot again
+            RENEW_LOGGER.warn("connectId={}, snapshot chunk out of order, progress={}, request={}",
+                connectId, progress, request);
+            return CommonResponse.buildFailedResponse("snapshot chunk out of order");
+        }
+
+        List<String> changedRegisterIds = null;
+        synchronized (progress) {
+            if (request.getDigests() != null) {
+                changedRegisterIds = diffDigests(connectId, request.getDigests(), progress);
+            }
+            if (request.getPublishers() != null && !request.getPublishers().isEmpty()) {
+                putChangedPublishers(connectId, request.getPublishers(), progress);
+            }
+            if (request.isLast()) {
+                snapshotProgresses.remove(connectId, progress);
+                removeUnseenPublishers(connectId, progress);
+            }
+        }
+
+        // record the renew timestamp
+        datumLeaseManager.renew(connectId);
+
+        if (changedRegisterIds != null) {
+            return new GenericResponse<List<String>>().fillSucceed(changedRegisterIds);
+        }
+        return CommonResponse.buildSuccessResponse();
+    }
+
+    /**
+     * registerIds whose publisher is not cached or has a different digest
+     */
+    private List<String> diffDigests(String connectId, Map<String, Map<String, Long>> digests,
+                                     SnapshotProgress progress) {
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Long>> entry : digests.entrySet()) {
+            Map<String, Publisher> cachePubMap = getCachePubMap(connectId, entry.getKey());
+            for (Map.Entry<String, Long> digest : entry.getValue().entrySet()) {
+                String registerId = digest.getKey();
+                progress.seenRegisterIds.add(registerId);
+                Publisher cachePub = cachePubMap.get(registerId);
+                if (cachePub == null
+                    || PublisherDigestUtil.getDigestValue(cachePub) != digest.getValue()) {
+                    changed.add(registerId);
+                }
+            }
+        }
+        RENEW_LOGGER.info("connectId={}, snapshot digests differ, size={}, registerIds={}",
+            connectId, changed.size(),
+            changed.subList(0, Math.min(changed.size(), LIMITED_LIST_SIZE_FOR_PRINT)));
+        return changed;
+    }
+
+    private void putChangedPublishers(String connectId, List<Publisher> publishers,
+                                      SnapshotProgress progress) {
+        Map<String, Publisher> pubMap = new HashMap<>();
+        for (Publisher publisher : publishers) {
+            Publisher.internPublisher(publisher);
+            progress.seenRegisterIds.add(publisher.getRegisterId());
+            Publisher cachePub = getCachePubMap(connectId, publisher.getDataInfoId()).get(
+                publisher.getRegisterId());
+            if (cachePub == null
+                || PublisherDigestUtil.getDigestValue(cachePub) != PublisherDigestUtil
+                    .getDigestValue(publisher)) {
+                pubMap.put(publisher.getRegisterId(), publisher);
+            }
+        }
+        RENEW_LOGGER.info(
+            ">>>>>>> connectId={}, snapshot chunk pubs.size={}, the diff is: (size:{}){}",
+            connectId, publishers.size(), pubMap.size(), limitedToString(pubMap.values()));
+        if (!pubMap.isEmpty()) {
+            dataChangeEventCenter.onChange(new DatumSnapshotEvent(connectId, new HashMap<>(),
+                pubMap));
+        }
+    }
+
+    private void removeUnseenPublishers(String connectId, SnapshotProgress progress) {
+        Map<String, Publisher> toBeDeletedPubMap = new HashMap<>();
+        Map<String, Publisher> cachePubMap = datumCache.getOwnByConnectId(connectId);
+        for (Map.Entry<String, Publisher> entry : cachePubMap.entrySet()) {
+            if (!progress.seenRegisterIds.contains(entry.getKey())) {
+                toBeDeletedPubMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        RENEW_LOGGER.info(
+            ">>>>>>> connectId={}, snapshot committed, seen.size={}, cachePubMap-seen=(size:{}){}",
+            connectId, progress.seenRegisterIds.size(), toBeDeletedPubMap.size(),
+            limitedToString(toBeDeletedPubMap.values()));
+        if (!toBeDeletedPubMap.isEmpty()) {
+            dataChangeEventCenter.onChange(new DatumSnapshotEvent(connectId, toBeDeletedPubMap,
+                new HashMap<>()));
+        }
+    }
+
+    /**
+     * cached publishers of connectId in the DataChangeEventQueue handling dataInfoId
+     */
+    private Map<String, Publisher> getCachePubMap(String connectId, String dataInfoId) {
+        Map<String, Publisher> cachePubMap = datumCache.getByConnectId(connectId,
+            dataChangeEventCenter.hash(dataInfoId));
+        return cachePubMap != null ? cachePubMap : Collections.emptyMap();
+    }
+
     /**
      * Limited List Printing
      */
@@ -172,6 +311,41 @@ public class DatumSnapshotHandler extends AbstractServerHandler<DatumSnapshotReq
         return list;
     }
 
+    private static final class SnapshotProgress {
+
+        private final String      snapshotId;
+
+        private final Set<String> seenRegisterIds = new HashSet<>();
+
+        private int               nextChunkIndex;
+
+        private volatile long     lastTimestamp;
+
+        SnapshotProgress(String snapshotId, long now) {
+            this.snapshotId = snapshotId;
+            this.lastTimestamp = now;
+        }
+
+        synchronized boolean accept(String snapshotId, int chunkIndex, long now) {
+            if (!this.snapshotId.equals(snapshotId) || nextChunkIndex != chunkIndex) {
+                return false;
+            }
+            nextChunkIndex++;
+            lastTimestamp = now;
+            return true;
+        }
+
+        boolean isExpired(long now, long expireMillis) {
+            return now - lastTimestamp > expireMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "SnapshotProgress{snapshotId='" + snapshotId + "', nextChunkIndex="
+                   + nextChunkIndex + ", seen.size=" + seenRegisterIds.size() + '}';
+        }
+    }
+
     @Override
     public CommonResponse buildFailedResponse(String msg) {
         return CommonResponse.buildFailedResponse(msg);
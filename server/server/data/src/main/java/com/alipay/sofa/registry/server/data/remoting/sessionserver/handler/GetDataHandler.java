@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -25,18 +26,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDelta;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.datasync.SyncDataService;
 import com.alipay.sofa.registry.server.data.remoting.handler.AbstractServerHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.forward.ForwardService;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 
 /**
  * processor to get specific data
  *
+ * a request with the version known by the session is answered by the publishers changed since
+ * that version, found by the operator logs of Acceptor, when the logs link that version to the
+ * current one. Otherwise the whole datum is returned.
+ *
  * @author qian.lqlq
  * @version $Id: GetDataProcessor.java, v 0.1 2017-12-01 15:48 qian.lqlq Exp $
  */
@@ -51,9 +63,22 @@ public class GetDataHandler extends AbstractServerHandler<GetDataRequest> {
     @Autowired
     private DatumCache          datumCache;
 
+    @Autowired
+    private SyncDataService     syncDataService;
+
     @Autowired
     private ThreadPoolExecutor  getDataProcessorExecutor;
 
+    private final Meter         deltaMeter;
+
+    private final Meter         fullMeter;
+
+    public GetDataHandler() {
+        MetricRegistry metrics = TaskMetrics.getInstance().getMetricRegistry();
+        this.deltaMeter = metrics.meter(MetricRegistry.name(GetDataHandler.class, "delta"));
+        this.fullMeter = metrics.meter(MetricRegistry.name(GetDataHandler.class, "full"));
+    }
+
     @Override
     public Executor getExecutor() {
         return getDataProcessorExecutor;
@@ -80,10 +105,54 @@ public class GetDataHandler extends AbstractServerHandler<GetDataRequest> {
             }
         }
 
+        if (request.getVersion() != null && request.getDataCenter() != null) {
+            DatumDelta datumDelta = getDatumDelta(request.getDataCenter(), dataInfoId,
+                request.getVersion());
+            if (datumDelta != null) {
+                deltaMeter.mark();
+                return new GenericResponse<DatumDelta>().fillSucceed(datumDelta);
+            }
+        }
+        fullMeter.mark();
         return new GenericResponse<Map<String, Datum>>().fillSucceed(datumCache
             .getDatumGroupByDataCenter(request.getDataCenter(), dataInfoId));
     }
 
+    /**
+     * publishers changed since fromVersion, null if they can not be known or are not fewer than
+     * the whole datum
+     */
+    private DatumDelta getDatumDelta(String dataCenter, String dataInfoId, long fromVersion) {
+        Datum datum = datumCache.get(dataCenter, dataInfoId);
+        if (datum == null) {
+            return null;
+        }
+        long version = datum.getVersion();
+        if (version < fromVersion) {
+            return null;
+        }
+        DatumDelta datumDelta = new DatumDelta(dataInfoId, dataCenter, fromVersion, version);
+        if (version == fromVersion) {
+            return datumDelta;
+        }
+        Set<String> registerIds = syncDataService.getChangedRegisterIds(
+            DataSourceTypeEnum.BACKUP.toString(), dataCenter, dataInfoId, fromVersion, version);
+        Map<String, Publisher> pubMap = datum.getPubMap();
+        if (registerIds == null || registerIds.size() >= pubMap.size()) {
+            return null;
+        }
+        for (String registerId : registerIds) {
+            Publisher publisher = pubMap.get(registerId);
+            if (publisher != null) {
+                datumDelta.getUpdatedPubs().put(registerId, publisher);
+            } else {
+                datumDelta.getRemovedRegisterIds().add(registerId);
+            }
+        }
+        // changed again while collecting, the publishers may belong to a newer version
+        return datum.getVersion() == version ? datumDelta : null;
+    }
+
     @Override
     public GenericResponse<Map<String, Datum>> buildFailedResponse(String msg) {
         return new GenericResponse<Map<String, Datum>>().fillFailed(msg);
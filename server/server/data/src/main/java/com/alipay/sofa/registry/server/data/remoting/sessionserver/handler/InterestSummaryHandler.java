@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.dataserver.InterestSummaryRequest;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.remoting.handler.AbstractServerHandler;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.SessionServerConnectionFactory;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+
+/**
+ * processor to keep dataInfoIds subscribed on session server, changes of others are not notified to it
+ *
+ * @author agent
+ * @version $Id: InterestSummaryHandler.java, v 0.1 2026-10-18 21:16 agent Exp $
+ */
+public class InterestSummaryHandler extends AbstractServerHandler<InterestSummaryRequest> {
+
+    @Autowired
+    private SessionServerConnectionFactory sessionServerConnectionFactory;
+
+    @Override
+    public void checkParam(InterestSummaryRequest request) throws RuntimeException {
+        ParaCheckUtil.checkNotBlank(request.getSessionProcessId(), "sessionProcessId");
+    }
+
+    @Override
+    public Object doHandle(Channel channel, InterestSummaryRequest request) {
+        boolean accepted = sessionServerConnectionFactory.updateInterestSummary(
+            request.getSessionProcessId(), request.getVersion(), request.getDataInfoIdHashes());
+        return new GenericResponse<Boolean>().fillSucceed(accepted);
+    }
+
+    @Override
+    public CommonResponse buildFailedResponse(String msg) {
+        return CommonResponse.buildFailedResponse(msg);
+    }
+
+    @Override
+    public HandlerType getType() {
+        return HandlerType.PROCESSER;
+    }
+
+    @Override
+    public Class interest() {
+        return InterestSummaryRequest.class;
+    }
+
+    @Override
+    protected Node.NodeType getConnectNodeType() {
+        return Node.NodeType.DATA;
+    }
+}
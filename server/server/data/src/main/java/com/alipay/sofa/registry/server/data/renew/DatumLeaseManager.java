@@ -16,21 +16,17 @@
  */
 package com.alipay.sofa.registry.server.data.renew;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
-import java.util.TimeZone;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
 
-import org.apache.commons.lang.time.DateFormatUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
-import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
@@ -39,79 +35,61 @@ import com.alipay.sofa.registry.server.data.event.AfterWorkingProcess;
 import com.alipay.sofa.registry.server.data.node.DataNodeStatus;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.disconnect.ClientDisconnectEvent;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.disconnect.DisconnectEventHandler;
-import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
-import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer.TaskFailedCallback;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
+ * Leases of connectIds are kept in a LeaseWheel, renew records the timestamp only and the
+ * expired connectIds are evicted together once per tick.
  *
  * @author kezhu.wukz
  * @version $Id: DatumExpiredCleaner.java, v 0.1 2019-06-03 21:08 kezhu.wukz Exp $
  */
 public class DatumLeaseManager implements AfterWorkingProcess {
-    private static final Logger                LOGGER                     = LoggerFactory
-                                                                              .getLogger(DatumLeaseManager.class);
-    private static final TimeZone              TIME_ZONE                  = TimeZone
-                                                                              .getTimeZone("Asia/Shanghai");
-    private static final Logger                RENEW_LOGGER               = LoggerFactory
-                                                                              .getLogger(
-                                                                                  ValueConstants.LOGGER_NAME_RENEW,
-                                                                                  "[DatumLeaseManager]");
+    private static final Logger         LOGGER          = LoggerFactory
+                                                            .getLogger(DatumLeaseManager.class);
+    private static final Logger         RENEW_LOGGER    = LoggerFactory.getLogger(
+                                                            ValueConstants.LOGGER_NAME_RENEW,
+                                                            "[DatumLeaseManager]");
 
-    /** record the latest heartbeat time for each connectId, format: connectId -> lastRenewTimestamp */
-    private final Map<String, Long>            connectIdRenewTimestampMap = new ConcurrentHashMap<>();
+    private static final long           LEASE_TICK_SECS = 1;
 
-    /** lock for connectId , format: connectId -> true */
-    private ConcurrentHashMap<String, Boolean> locksForConnectId          = new ConcurrentHashMap();
+    /** lease of each connectId, by the latest heartbeat time */
+    private LeaseWheel                  leaseWheel;
 
-    private volatile boolean                   serverWorking              = false;
+    private volatile boolean            serverWorking   = false;
 
-    private volatile boolean                   renewEnable                = true;
-
-    private AsyncHashedWheelTimer              datumAsyncHashedWheelTimer;
+    private volatile boolean            renewEnable     = true;
 
     @Autowired
-    private DataServerConfig                   dataServerConfig;
+    private DataServerConfig            dataServerConfig;
 
     @Autowired
-    private DisconnectEventHandler             disconnectEventHandler;
+    private DisconnectEventHandler      disconnectEventHandler;
 
     @Autowired
-    private DatumCache                         datumCache;
+    private DatumCache                  datumCache;
 
     @Autowired
-    private DataNodeStatus                     dataNodeStatus;
+    private DataNodeStatus              dataNodeStatus;
 
-    private ScheduledThreadPoolExecutor        executorForHeartbeatLess;
+    private ScheduledThreadPoolExecutor executorForHeartbeatLess;
 
-    private ScheduledFuture<?>                 futureForHeartbeatLess;
+    private ScheduledFuture<?>          futureForHeartbeatLess;
 
     /**
      * constructor
      */
     @PostConstruct
     public void init() {
+        leaseWheel = new LeaseWheel(dataServerConfig.getDatumTimeToLiveSec() * 1000L,
+            TimeUnit.SECONDS.toMillis(LEASE_TICK_SECS), System.currentTimeMillis());
+
         ThreadFactoryBuilder threadFactoryBuilder = new ThreadFactoryBuilder();
         threadFactoryBuilder.setDaemon(true);
-        datumAsyncHashedWheelTimer = new AsyncHashedWheelTimer(threadFactoryBuilder.setNameFormat(
-            "Registry-DatumLeaseManager-WheelTimer").build(), 100, TimeUnit.MILLISECONDS, 1024,
-            dataServerConfig.getDatumLeaseManagerExecutorThreadSize(),
-            dataServerConfig.getDatumLeaseManagerExecutorQueueSize(), threadFactoryBuilder
-                .setNameFormat("Registry-DatumLeaseManager-WheelExecutor-%d").build(),
-            new TaskFailedCallback() {
-                @Override
-                public void executionRejected(Throwable e) {
-                    LOGGER.error("executionRejected: " + e.getMessage(), e);
-                }
-
-                @Override
-                public void executionFailed(Throwable e) {
-                    LOGGER.error("executionFailed: " + e.getMessage(), e);
-                }
-            });
-
         executorForHeartbeatLess = new ScheduledThreadPoolExecutor(1, threadFactoryBuilder
             .setNameFormat("Registry-DatumLeaseManager-ExecutorForHeartbeatLess").build());
+        executorForHeartbeatLess.scheduleWithFixedDelay(this::evictExpired, LEASE_TICK_SECS,
+            LEASE_TICK_SECS, TimeUnit.SECONDS);
         scheduleEvictTaskForHeartbeatLess();
     }
 
@@ -141,10 +119,7 @@ public class DatumLeaseManager implements AfterWorkingProcess {
             RENEW_LOGGER.debug("renew: connectId={}", connectId);
         }
 
-        // record the renew timestamp
-        connectIdRenewTimestampMap.put(connectId, System.currentTimeMillis());
-        // try to trigger evict task
-        scheduleEvictTask(connectId, 0);
+        leaseWheel.renew(connectId, System.currentTimeMillis());
     }
 
     /**
@@ -155,91 +130,38 @@ public class DatumLeaseManager implements AfterWorkingProcess {
             RENEW_LOGGER.debug("remove: connectId={}", connectId);
         }
 
-        Long removed = connectIdRenewTimestampMap.remove(connectId);
-        if (removed != null) {
+        if (leaseWheel.remove(connectId)) {
             LOGGER.info("remove connectId({}) because it is clientOff", connectId);
         }
     }
 
     /**
-     * trigger evict task: if connectId expired, create ClientDisconnectEvent to cleanup datums bind to the connectId
-     * PS: every connectId allows only one task to be created
+     * evict connectIds whose lease expired in the ticks passed, create ClientDisconnectEvent to
+     * cleanup datums bind to them. Leases are kept for another time to live while renew is not
+     * enabled.
      */
-    private void scheduleEvictTask(String connectId, long delaySec) {
-        delaySec = (delaySec <= 0) ? dataServerConfig.getDatumTimeToLiveSec() : delaySec;
-
-        // lock for connectId: every connectId allows only one task to be created
-        Boolean ifAbsent = locksForConnectId.putIfAbsent(connectId, true);
-        if (ifAbsent != null) {
-            return;
-        }
-
-        datumAsyncHashedWheelTimer.newTimeout(_timeout -> {
-            boolean continued = true;
-            long nextDelaySec = 0;
-            try {
-                // release lock
-                locksForConnectId.remove(connectId);
-
-                // get lastRenewTime of this connectId
-                Long lastRenewTime = connectIdRenewTimestampMap.get(connectId);
-                if (lastRenewTime == null) {
-                    // connectId is already clientOff
-                    LOGGER.info("EvictTask(connectId={}) stop because already disconnected", connectId);
-                    return;
-                }
-
-                if (RENEW_LOGGER.isDebugEnabled()) {
-                    RENEW_LOGGER.debug("EvictTask: connectId={}, lastRenewTime={}", connectId, format(lastRenewTime));
-                }
-
-                /*
-                 * 1. lastRenewTime expires, then:
-                 *   - build ClientOffEvent and hand it to DataChangeEventCenter.
-                 *   - It will not be scheduled next time, so terminated.
-                 * 2. lastRenewTime not expires, then:
-                 *   - trigger the next schedule
-                 */
-                boolean isExpired =
-                        System.currentTimeMillis() - lastRenewTime > dataServerConfig.getDatumTimeToLiveSec() * 1000L;
-                if (!isRenewEnable()) {
-                    LOGGER.info(
-                            "scheduleEvictTask({}) skipped because isRenewEnable() is false, lastRenewTime is {}, DataNodeStatus is {}, will retry after {}s",
-                            connectId, format(lastRenewTime), dataNodeStatus.getStatus(),
-                            dataServerConfig.getDatumTimeToLiveSec());
-                    nextDelaySec = dataServerConfig.getDatumTimeToLiveSec();
-                } else if (isExpired) {
-                    int ownPubSize = getOwnPubSize(connectId);
-                    if (ownPubSize > 0) {
-                        LOGGER.info("Evict connectId({}) because expired, lastRenewTime is {}, pub.size is {}",
-                                connectId, format(lastRenewTime), ownPubSize);
-                        evict(connectId);
-                    }
-                    connectIdRenewTimestampMap.remove(connectId, lastRenewTime);
-                    continued = false;
-                } else {
-                    nextDelaySec = dataServerConfig.getDatumTimeToLiveSec()
-                                   - (System.currentTimeMillis() - lastRenewTime) / 1000L;
-                    nextDelaySec = nextDelaySec <= 0 ? 1 : nextDelaySec;
-                }
-
-            } catch (Exception e) {
-                LOGGER.error("Error in task of datumAsyncHashedWheelTimer", e);
+    private void evictExpired() {
+        try {
+            boolean renewEnable = isRenewEnable();
+            List<String> expired = leaseWheel.expire(System.currentTimeMillis(), renewEnable);
+            if (!renewEnable || expired.isEmpty()) {
+                return;
             }
-            if (continued) {
-                scheduleEvictTask(connectId, nextDelaySec);
+            int evicted = 0;
+            for (String connectId : expired) {
+                int ownPubSize = datumCache.countOwnByConnectId(connectId);
+                if (ownPubSize > 0) {
+                    LOGGER.info("Evict connectId({}) because expired, pub.size is {}", connectId,
+                        ownPubSize);
+                    evict(connectId);
+                    evicted++;
+                }
             }
-        }, delaySec, TimeUnit.SECONDS);
-
-        if (RENEW_LOGGER.isDebugEnabled()) {
-            RENEW_LOGGER.debug("scheduleEvictTask: connectId={}, delaySec={}", connectId, delaySec);
+            LOGGER.info("{} connectIds expired, {} evicted, {} leases left", expired.size(),
+                evicted, leaseWheel.size());
+        } catch (Throwable e) {
+            LOGGER.error("Error in evicting expired connectIds", e);
         }
-
-    }
-
-    private int getOwnPubSize(String connectId) {
-        Map<String, Publisher> ownPubs = datumCache.getOwnByConnectId(connectId);
-        return ownPubs != null ? ownPubs.size() : 0;
     }
 
     private void evict(String connectId) {
@@ -247,10 +169,6 @@ public class DatumLeaseManager implements AfterWorkingProcess {
             .currentTimeMillis(), 0));
     }
 
-    private String format(long lastRenewTime) {
-        return DateFormatUtils.format(lastRenewTime, "yyyy-MM-dd HH:mm:ss", TIME_ZONE);
-    }
-
     @Override
     public void afterWorkingProcess() {
         /*
@@ -286,10 +204,9 @@ public class DatumLeaseManager implements AfterWorkingProcess {
 
             Set<String> allConnectIds = datumCache.getAllConnectIds();
             for (String connectId : allConnectIds) {
-                Long timestamp = connectIdRenewTimestampMap.get(connectId);
                 // no heartbeat
-                if (timestamp == null) {
-                    int ownPubSize = getOwnPubSize(connectId);
+                if (leaseWheel.getLastRenewTimestamp(connectId) == null) {
+                    int ownPubSize = datumCache.countOwnByConnectId(connectId);
                     if (ownPubSize > 0) {
                         LOGGER.info("Evict connectId({}) because no heartbeat, pub.size is {}",
                             connectId, ownPubSize);
@@ -298,7 +215,7 @@ public class DatumLeaseManager implements AfterWorkingProcess {
                 }
             }
 
-            LOGGER.info("connectIdRenewTimestampMap.size is {}", connectIdRenewTimestampMap.size());
+            LOGGER.info("leases size is {}", leaseWheel.size());
         }
     }
 
@@ -310,4 +227,4 @@ public class DatumLeaseManager implements AfterWorkingProcess {
         return renewEnable && serverWorking;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.renew;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases sharing one time to live, kept in expiry buckets of a timing wheel indexed by tick.
+ * Renew only records the timestamp of an existing lease, the bucket is corrected lazily: when the
+ * tick of a bucket passes, leases renewed since are moved to the bucket of their new deadline and
+ * the others expire together. A lease is so visited at most once per time to live.
+ *
+ * All deadlines are within one time to live, so a single wheel spanning it is enough.
+ *
+ * @author agent
+ * @version $Id: LeaseWheel.java, v 0.1 2026-10-18 22:16 agent Exp $
+ */
+public class LeaseWheel {
+
+    private final long               ttlMillis;
+
+    private final long               tickMillis;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private final List<Lease>[]      buckets;
+
+    /**
+     * last tick whose bucket has been processed
+     */
+    private volatile long            currentTick;
+
+    /**
+     * constructor
+     * @param ttlMillis
+     * @param tickMillis
+     * @param now
+     */
+    @SuppressWarnings("unchecked")
+    public LeaseWheel(long ttlMillis, long tickMillis, long now) {
+        this.ttlMillis = ttlMillis;
+        this.tickMillis = tickMillis;
+        this.buckets = new List[(int) (ttlMillis / tickMillis) + 2];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * record the renew timestamp, a new lease is put in the bucket of its deadline
+     * @param key
+     * @param now
+     */
+    public void renew(String key, long now) {
+        Lease lease = leases.get(key);
+        if (lease == null) {
+            Lease newLease = new Lease(key, now);
+            lease = leases.putIfAbsent(key, newLease);
+            if (lease == null) {
+                schedule(newLease, now + ttlMillis);
+                return;
+            }
+        }
+        lease.lastRenewTimestamp = now;
+    }
+
+    /**
+     * remove the lease, its bucket entry is dropped when the bucket is processed
+     * @param key
+     * @return
+     */
+    public boolean remove(String key) {
+        return leases.remove(key) != null;
+    }
+
+    /**
+     * @param key
+     * @return last renew timestamp, null if no lease
+     */
+    public Long getLastRenewTimestamp(String key) {
+        Lease lease = leases.get(key);
+        return lease == null ? null : lease.lastRenewTimestamp;
+    }
+
+    /**
+     * lease count
+     * @return
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    /**
+     * process buckets of the ticks passed until now
+     *
+     * @param now
+     * @param evictable false to keep expired leases for another time to live
+     * @return keys of expired leases, which are removed
+     */
+    public List<String> expire(long now, boolean evictable) {
+        List<String> expired = new ArrayList<>();
+        long nowTick = now / tickMillis;
+        while (currentTick < nowTick) {
+            long tick = currentTick + 1;
+            List<Lease> bucket = buckets[index(tick)];
+            List<Lease> drained;
+            synchronized (bucket) {
+                drained = new ArrayList<>(bucket);
+                bucket.clear();
+            }
+            currentTick = tick;
+            for (Lease lease : drained) {
+                if (leases.get(lease.key) != lease) {
+                    continue;
+                }
+                long deadline = lease.lastRenewTimestamp + ttlMillis;
+                if (deadline > now) {
+                    schedule(lease, deadline);
+                } else if (!evictable) {
+                    schedule(lease, now + ttlMillis);
+                } else if (leases.remove(lease.key, lease)) {
+                    if (lease.lastRenewTimestamp + ttlMillis > now
+                        && leases.putIfAbsent(lease.key, lease) == null) {
+                        // renewed while removing
+                        schedule(lease, lease.lastRenewTimestamp + ttlMillis);
+                    } else {
+                        expired.add(lease.key);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    private void schedule(Lease lease, long deadline) {
+        long tick = Math.max((deadline + tickMillis - 1) / tickMillis, currentTick + 1);
+        List<Lease> bucket = buckets[index(tick)];
+        synchronized (bucket) {
+            bucket.add(lease);
+        }
+    }
+
+    private int index(long tick) {
+        return (int) (tick % buckets.length);
+    }
+
+    private static final class Lease {
+
+        private final String  key;
+
+        private volatile long lastRenewTimestamp;
+
+        Lease(String key, long lastRenewTimestamp) {
+            this.key = key;
+            this.lastRenewTimestamp = lastRenewTimestamp;
+        }
+    }
+}
@@ -43,8 +43,10 @@ import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DataServerCache;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.datasync.AcceptorStore;
 import com.alipay.sofa.registry.server.data.node.DataServerNode;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerNodeFactory;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DatumBatchFetcher;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.MetaServerConnectionFactory;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.SessionServerConnectionFactory;
 
@@ -77,6 +79,12 @@ public class DataDigestResource {
     @Autowired
     private DataServerCache                dataServerCache;
 
+    @Autowired
+    private DatumBatchFetcher              datumBatchFetcher;
+
+    @Autowired
+    private AcceptorStore                  localAcceptorStore;
+
     @GET
     @Path("datum/query")
     @Produces(MediaType.APPLICATION_JSON)
@@ -150,6 +158,20 @@ public class DataDigestResource {
         return sb.toString();
     }
 
+    @GET
+    @Path("migration/progress")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Map<String, Long>> getMigrationProgress() {
+        return datumBatchFetcher.getProgress();
+    }
+
+    @GET
+    @Path("acceptor/footprint")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Map<String, Long>> getAcceptorFootprint() {
+        return localAcceptorStore.getFootprint();
+    }
+
     @GET
     @Path("{type}/serverList/query")
     @Produces(MediaType.APPLICATION_JSON)
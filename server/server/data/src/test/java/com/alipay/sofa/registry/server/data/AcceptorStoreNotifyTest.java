@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.alipay.remoting.Connection;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
+import com.alipay.remoting.rpc.exception.RpcServerException;
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.dataserver.BatchNotifyDataSyncRequest;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.NotifyDataSyncRequest;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.datasync.Operator;
+import com.alipay.sofa.registry.server.data.datasync.sync.AbstractAcceptorStore;
+import com.alipay.sofa.registry.server.data.node.DataServerNode;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
+import com.alipay.sofa.registry.server.data.remoting.metaserver.IMetaServerService;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
+
+/**
+ * Notifications of AbstractAcceptorStore to a target data node, answered by the test.
+ *
+ * @author agent
+ * @version $Id: AcceptorStoreNotifyTest.java, v 0.1 2026-10-19 00:01 agent Exp $
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AcceptorStoreNotifyTest {
+    private static final String         DATA_CENTER = "DefaultDataCenter";
+    private static final String         TARGET_IP   = "192.168.0.10";
+    private static final int            SYNC_PORT   = 9677;
+
+    @InjectMocks
+    private TestAcceptorStore           store       = new TestAcceptorStore();
+
+    @Mock
+    private IMetaServerService          metaServerService;
+
+    @Mock
+    private Exchange                    boltExchange;
+
+    @Mock
+    private DataServerConfig            dataServerConfig;
+
+    @Mock
+    private DataServerConnectionFactory dataServerConnectionFactory;
+
+    @Mock
+    private DatumCache                  datumCache;
+
+    @Mock
+    private Server                      syncServer;
+
+    private final BlockingQueue<Sent>   sent        = new LinkedBlockingQueue<>();
+
+    private final List<DataServerNode>  dataServers = new CopyOnWriteArrayList<>();
+
+    private Thread                      changeDataCheck;
+
+    @Before
+    public void before() {
+        when(dataServerConfig.getLocalDataCenter()).thenReturn(DATA_CENTER);
+        when(dataServerConfig.getSyncDataPort()).thenReturn(SYNC_PORT);
+        when(dataServerConfig.getDataSyncAcceptorBufferSize()).thenReturn(30);
+        when(dataServerConfig.getDataSyncDelayTimeout()).thenReturn(0);
+        when(dataServerConfig.getDataSyncNotifyBatchSize()).thenReturn(10);
+        when(dataServerConfig.getDataSyncNotifyMaxInflight()).thenReturn(1);
+        when(dataServerConfig.getDataSyncNotifyRetry()).thenReturn(3);
+        when(dataServerConfig.getDataSyncNotifyRetryDelayMillis()).thenReturn(10);
+
+        Connection connection = mock(Connection.class);
+        when(connection.getRemoteIP()).thenReturn(TARGET_IP);
+        when(connection.getRemoteAddress()).thenReturn(new InetSocketAddress(TARGET_IP, 40000));
+        when(dataServerConnectionFactory.getConnection(TARGET_IP)).thenReturn(connection);
+        dataServers.add(new DataServerNode(TARGET_IP, DATA_CENTER, connection));
+        when(metaServerService.getDataServers(DATA_CENTER)).thenReturn(dataServers);
+
+        when(boltExchange.getServer(SYNC_PORT)).thenReturn(syncServer);
+        when(syncServer.getChannel(any(InetSocketAddress.class))).thenReturn(mock(Channel.class));
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            sent.add(new Sent(args[1], (CallbackHandler) args[2]));
+            return null;
+        }).when(syncServer).sendCallback(any(Channel.class), any(), any(CallbackHandler.class),
+            anyInt());
+
+        store.init();
+        changeDataCheck = new Thread(store::changeDataCheck, "AcceptorStoreNotifyTest");
+        changeDataCheck.setDaemon(true);
+        changeDataCheck.start();
+    }
+
+    @After
+    public void after() {
+        changeDataCheck.interrupt();
+    }
+
+    @Test
+    public void testPendingMerged() throws Exception {
+        long version1 = addOperator("A");
+        Sent first = nextSent();
+        assertEquals(Collections.singletonList(version1), versions(first, "A"));
+
+        // sent after the one in flight completes, the latest version of A replaces the pending
+        addOperator("A");
+        long version3 = addOperator("A");
+        long versionB = addOperator("B");
+        waitPending(2);
+        Thread.sleep(100);
+        assertNull(sent.poll());
+
+        first.callback.onCallback(null, CommonResponse.buildSuccessResponse());
+        Sent second = nextSent();
+        assertTrue(second.request instanceof BatchNotifyDataSyncRequest);
+        assertEquals(Collections.singletonList(version3), versions(second, "A"));
+        assertEquals(Collections.singletonList(versionB), versions(second, "B"));
+        second.callback.onCallback(null, CommonResponse.buildSuccessResponse());
+        assertEquals(0, store.getNotifyPendingCount());
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        long version = addOperator("A");
+        nextSent().callback.onException(null, new RuntimeException("timeout"));
+        nextSent().callback.onCallback(null, CommonResponse.buildFailedResponse("busy"));
+        Sent third = nextSent();
+        assertEquals(Collections.singletonList(version), versions(third, "A"));
+        third.callback.onException(null, new RuntimeException("timeout"));
+
+        // stop after dataSyncNotifyRetry attempts
+        assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(0, store.getNotifyPendingCount());
+    }
+
+    @Test
+    public void testFallbackToSingle() throws Exception {
+        addOperator("A");
+        Sent first = nextSent();
+        long versionB = addOperator("B");
+        long versionC = addOperator("C");
+        waitPending(2);
+        first.callback.onCallback(null, CommonResponse.buildSuccessResponse());
+
+        Sent batch = nextSent();
+        assertTrue(batch.request instanceof BatchNotifyDataSyncRequest);
+        batch.callback.onException(null, new InvokeServerException("Server exception!",
+            new RpcServerException("No user processor found for request: "
+                                   + BatchNotifyDataSyncRequest.class.getName())));
+
+        Sent single = nextSent();
+        assertTrue(single.request instanceof NotifyDataSyncRequest);
+        assertEquals(Collections.singletonList(versionB), versions(single, "B"));
+        single.callback.onCallback(null, CommonResponse.buildSuccessResponse());
+        single = nextSent();
+        assertTrue(single.request instanceof NotifyDataSyncRequest);
+        assertEquals(Collections.singletonList(versionC), versions(single, "C"));
+        single.callback.onCallback(null, CommonResponse.buildSuccessResponse());
+
+        // single requests afterwards
+        addOperator("D");
+        Sent next = nextSent();
+        addOperator("E");
+        addOperator("F");
+        waitPending(2);
+        next.callback.onCallback(null, CommonResponse.buildSuccessResponse());
+        assertTrue(nextSent().request instanceof NotifyDataSyncRequest);
+    }
+
+    @Test
+    public void testTargetLeft() throws Exception {
+        addOperator("A");
+        Sent first = nextSent();
+        addOperator("B");
+        waitPending(1);
+        assertEquals(1, store.getNotifyTargetCount());
+
+        dataServers.clear();
+        // notifications to retry are dropped
+        first.callback.onException(null, new RuntimeException("connection closed"));
+        // the target is removed after the next round
+        store.targets.clear();
+        addOperator("C");
+        for (int i = 0; i < 50 && store.getNotifyTargetCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, store.getNotifyTargetCount());
+        assertEquals(0, store.getNotifyPendingCount());
+        Thread.sleep(100);
+        // B sent after A failed before the target was removed is the last one
+        Sent last;
+        while ((last = sent.poll()) != null) {
+            assertEquals(Collections.emptyList(), versions(last, "A"));
+        }
+    }
+
+    private long addOperator(String dataInfoId) {
+        Datum datum = new Datum();
+        datum.setDataCenter(DATA_CENTER);
+        datum.setDataInfoId(dataInfoId);
+        long version = DatumVersionUtil.nextId();
+        store.addOperator(new Operator(version, 0L, datum, DataSourceTypeEnum.BACKUP));
+        return version;
+    }
+
+    private Sent nextSent() throws InterruptedException {
+        Sent next = sent.poll(3, TimeUnit.SECONDS);
+        assertTrue("notification not sent", next != null);
+        return next;
+    }
+
+    private void waitPending(int count) throws InterruptedException {
+        for (int i = 0; i < 150 && store.getNotifyPendingCount() != count; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, store.getNotifyPendingCount());
+    }
+
+    private static List<Long> versions(Sent sent, String dataInfoId) {
+        List<NotifyDataSyncRequest> requests = sent.request instanceof BatchNotifyDataSyncRequest ? ((BatchNotifyDataSyncRequest) sent.request)
+            .getRequests() : Collections.singletonList((NotifyDataSyncRequest) sent.request);
+        List<Long> versions = new ArrayList<>();
+        for (NotifyDataSyncRequest request : requests) {
+            if (request.getDataInfoId().equals(dataInfoId)) {
+                versions.add(request.getVersion());
+            }
+        }
+        return versions;
+    }
+
+    private static final class Sent {
+        private final Object          request;
+
+        private final CallbackHandler callback;
+
+        Sent(Object request, CallbackHandler callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+    }
+
+    private static final class TestAcceptorStore extends AbstractAcceptorStore {
+        private final List<String> targets = new CopyOnWriteArrayList<>(
+                                               Collections.singletonList(TARGET_IP));
+
+        @Override
+        public List<String> getTargetDataIp(String dataInfoId) {
+            return targets;
+        }
+
+        @Override
+        public String getType() {
+            return DataSourceTypeEnum.BACKUP.toString();
+        }
+    }
+}
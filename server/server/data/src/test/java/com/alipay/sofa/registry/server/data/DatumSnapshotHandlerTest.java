@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.change.event.DatumSnapshotEvent;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.DatumSnapshotHandler;
+import com.alipay.sofa.registry.server.data.renew.DatumLeaseManager;
+
+/**
+ * @author agent
+ * @version $Id: DatumSnapshotHandlerTest.java, v 0.1 2026-10-18 23:40 agent Exp $
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DatumSnapshotHandlerTest {
+    private static final String    CONNECT_ID   = "192.168.0.1:12345_192.168.0.2:9600";
+    private static final String    DATA_INFO_ID = "test-snapshot#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP";
+
+    @InjectMocks
+    private DatumSnapshotHandler   handler;
+
+    @Mock
+    private DataChangeEventCenter  dataChangeEventCenter;
+
+    @Mock
+    private DatumLeaseManager      datumLeaseManager;
+
+    @Mock
+    private DatumCache             datumCache;
+
+    @Mock
+    private DataServerConfig       dataServerConfig;
+
+    private Map<String, Publisher> cachePubMap;
+
+    @Before
+    public void before() {
+        cachePubMap = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            Publisher publisher = newPublisher("pub" + i, 1L);
+            cachePubMap.put(publisher.getRegisterId(), publisher);
+        }
+        when(dataServerConfig.getDatumSnapshotExpireMillis()).thenReturn(60000L);
+        when(datumCache.getOwnByConnectId(CONNECT_ID)).thenReturn(cachePubMap);
+        when(datumCache.getByConnectId(anyString(), anyInt())).thenReturn(cachePubMap);
+    }
+
+    @Test
+    public void testCommitInOrder() {
+        String snapshotId = "snapshot-in-order";
+        // pub0 unchanged, pub1 of a new version
+        assertSuccess(handler.doHandle(null,
+            chunk(snapshotId, 0, false, newPublisher("pub0", 1L), newPublisher("pub1", 2L))));
+        // pub2 unchanged, pub4 new
+        assertSuccess(handler.doHandle(null,
+            chunk(snapshotId, 1, true, newPublisher("pub2", 1L), newPublisher("pub4", 1L))));
+
+        List<DatumSnapshotEvent> events = captureEvents(3);
+        assertEquals(Collections.singleton("pub1"), events.get(0).getPubMap().keySet());
+        assertEquals(Collections.singleton("pub4"), events.get(1).getPubMap().keySet());
+        // pub3 not in any chunk is removed on commit
+        assertTrue(events.get(2).getPubMap().isEmpty());
+        assertEquals(Collections.singleton("pub3"), events.get(2).getCachePubMap().keySet());
+        verify(datumLeaseManager, times(2)).renew(CONNECT_ID);
+    }
+
+    @Test
+    public void testOutOfOrder() {
+        String snapshotId = "snapshot-out-of-order";
+        assertSuccess(handler.doHandle(null, chunk(snapshotId, 0, false, newPublisher("pub0", 1L))));
+        // chunk 1 lost
+        assertFailed(handler.doHandle(null, chunk(snapshotId, 2, true, newPublisher("pub1", 1L))));
+        // chunk of another snapshot
+        assertFailed(handler.doHandle(null,
+            chunk("snapshot-other", 1, true, newPublisher("pub1", 1L))));
+
+        verify(dataChangeEventCenter, never()).onChange(any(DatumSnapshotEvent.class));
+    }
+
+    @Test
+    public void testExpired() {
+        String snapshotId = "snapshot-expired";
+        assertSuccess(handler.doHandle(null, chunk(snapshotId, 0, false, newPublisher("pub0", 1L))));
+        // the snapshot in progress is dropped before the last chunk comes
+        when(dataServerConfig.getDatumSnapshotExpireMillis()).thenReturn(-1L);
+        assertFailed(handler.doHandle(null, chunk(snapshotId, 1, true, newPublisher("pub1", 1L))));
+
+        verify(dataChangeEventCenter, never()).onChange(any(DatumSnapshotEvent.class));
+    }
+
+    @Test
+    public void testDigests() {
+        String snapshotId = "snapshot-digests";
+        Map<String, Long> digests = new HashMap<>();
+        digests.put("pub0", PublisherDigestUtil.getDigestValue(newPublisher("pub0", 1L)));
+        digests.put("pub1", PublisherDigestUtil.getDigestValue(newPublisher("pub1", 2L)));
+        digests.put("pub4", PublisherDigestUtil.getDigestValue(newPublisher("pub4", 1L)));
+        Object response = handler.doHandle(null, new DatumSnapshotRequest(CONNECT_ID, null, null,
+            snapshotId, 0, false, Collections.singletonMap(DATA_INFO_ID, digests)));
+
+        assertTrue(response instanceof GenericResponse);
+        List<String> changed = new ArrayList<>(
+            (List<String>) ((GenericResponse) response).getData());
+        Collections.sort(changed);
+        assertEquals(2, changed.size());
+        assertEquals("pub1", changed.get(0));
+        assertEquals("pub4", changed.get(1));
+
+        // publishers of the digests are seen, the changed ones are sent at last
+        assertSuccess(handler.doHandle(null,
+            chunk(snapshotId, 1, true, newPublisher("pub1", 2L), newPublisher("pub4", 1L))));
+        List<DatumSnapshotEvent> events = captureEvents(2);
+        assertEquals(2, events.get(0).getPubMap().size());
+        assertEquals(cachePubMap.get("pub2"), events.get(1).getCachePubMap().get("pub2"));
+        assertEquals(cachePubMap.get("pub3"), events.get(1).getCachePubMap().get("pub3"));
+        assertFalse(events.get(1).getCachePubMap().containsKey("pub0"));
+    }
+
+    private List<DatumSnapshotEvent> captureEvents(int count) {
+        ArgumentCaptor<DatumSnapshotEvent> captor = ArgumentCaptor
+            .forClass(DatumSnapshotEvent.class);
+        verify(dataChangeEventCenter, times(count)).onChange(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static DatumSnapshotRequest chunk(String snapshotId, int chunkIndex, boolean last,
+                                              Publisher... publishers) {
+        List<Publisher> list = new ArrayList<>();
+        Collections.addAll(list, publishers);
+        return new DatumSnapshotRequest(CONNECT_ID, null, list, snapshotId, chunkIndex, last, null);
+    }
+
+    private static Publisher newPublisher(String registerId, long version) {
+        Publisher publisher = new Publisher();
+        publisher.setRegisterId(registerId);
+        publisher.setDataInfoId(DATA_INFO_ID);
+        publisher.setVersion(version);
+        publisher.setRegisterTimestamp(1000L);
+        return publisher;
+    }
+
+    private static void assertSuccess(Object response) {
+        assertTrue(((CommonResponse) response).isSuccess());
+    }
+
+    private static void assertFailed(Object response) {
+        assertFalse(((CommonResponse) response).isSuccess());
+    }
+}
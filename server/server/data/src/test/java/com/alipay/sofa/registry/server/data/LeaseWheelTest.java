@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.server.data.renew.LeaseWheel;
+
+/**
+ *
+ * @author agent
+ * @version $Id: LeaseWheelTest.java, v 0.1 2026-10-18 22:16 agent Exp $
+ */
+public class LeaseWheelTest {
+
+    @Test
+    public void testExpire() {
+        LeaseWheel leaseWheel = new LeaseWheel(10000, 1000, 0);
+        leaseWheel.renew("a", 0);
+        leaseWheel.renew("b", 0);
+        leaseWheel.renew("c", 500);
+        leaseWheel.renew("a", 5000);
+        Assert.assertEquals(3, leaseWheel.size());
+
+        Assert.assertTrue(leaseWheel.expire(9999, true).isEmpty());
+        Assert.assertEquals(Collections.singletonList("b"), leaseWheel.expire(10000, true));
+        Assert.assertEquals(Collections.singletonList("c"), leaseWheel.expire(11000, true));
+        Assert.assertNull(leaseWheel.getLastRenewTimestamp("b"));
+
+        // renewed lease is moved to the bucket of its new deadline
+        Assert.assertTrue(leaseWheel.expire(14999, true).isEmpty());
+        Assert.assertEquals(Collections.singletonList("a"), leaseWheel.expire(15000, true));
+        Assert.assertEquals(0, leaseWheel.size());
+    }
+
+    @Test
+    public void testRemoveAndKeep() {
+        LeaseWheel leaseWheel = new LeaseWheel(10000, 1000, 0);
+        leaseWheel.renew("a", 0);
+        leaseWheel.renew("b", 0);
+        Assert.assertTrue(leaseWheel.remove("a"));
+
+        // not evictable, expired lease is kept for another time to live
+        Assert.assertTrue(leaseWheel.expire(10000, false).isEmpty());
+        Assert.assertEquals(Long.valueOf(0), leaseWheel.getLastRenewTimestamp("b"));
+        Assert.assertEquals(Arrays.asList("b"), leaseWheel.expire(20000, true));
+        Assert.assertEquals(0, leaseWheel.size());
+    }
+}
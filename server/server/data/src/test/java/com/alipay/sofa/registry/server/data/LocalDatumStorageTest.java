@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.LocalDatumStorage;
+import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
+
+/**
+ * connectId index of LocalDatumStorage partitioned by DataChangeEventQueue
+ *
+ * @author agent
+ * @version $Id: LocalDatumStorageTest.java, v 0.1 2026-10-19 00:12 agent Exp $
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LocalDatumStorageTest {
+    private static final String DATA_CENTER = "DefaultDataCenter";
+    private static final String CONNECT_ID  = "192.168.0.1:12345";
+    private static final int    QUEUE_COUNT = 4;
+    private static final int    DATUM_COUNT = 8;
+
+    @InjectMocks
+    private LocalDatumStorage   localDatumStorage;
+
+    @Mock
+    private DataServerConfig    dataServerConfig;
+
+    @Before
+    public void before() {
+        when(dataServerConfig.getQueueCount()).thenReturn(QUEUE_COUNT);
+        for (int i = 0; i < DATUM_COUNT; i++) {
+            Publisher publisher = newPublisher("dataInfoId" + i, "pub" + i, new URL("192.168.0.1",
+                12345));
+            localDatumStorage.putDatum(DataChangeTypeEnum.MERGE, new Datum(publisher, DATA_CENTER));
+        }
+        Publisher other = newPublisher("otherDataInfoId", "other", new URL("192.168.0.2", 12345));
+        localDatumStorage.putDatum(DataChangeTypeEnum.MERGE, new Datum(other, DATA_CENTER));
+    }
+
+    @Test
+    public void testByConnectIdIsCopy() {
+        Map<String, Publisher> pubMap = localDatumStorage.getByConnectId(CONNECT_ID);
+        assertEquals(DATUM_COUNT, pubMap.size());
+
+        // changes on the merged map do not reach the index
+        pubMap.clear();
+        assertEquals(DATUM_COUNT, localDatumStorage.getByConnectId(CONNECT_ID).size());
+        assertNull(localDatumStorage.getByConnectId("192.168.0.3:12345"));
+    }
+
+    @Test
+    public void testByConnectIdOfQueue() {
+        int total = 0;
+        for (int queueIdx = 0; queueIdx < QUEUE_COUNT; queueIdx++) {
+            Map<String, Publisher> pubMap = localDatumStorage.getByConnectId(CONNECT_ID, queueIdx);
+            if (pubMap == null) {
+                continue;
+            }
+            for (Publisher publisher : pubMap.values()) {
+                // only the dataInfoIds handled by the queue
+                assertEquals(queueIdx,
+                    DataChangeEventCenter.hash(publisher.getDataInfoId(), QUEUE_COUNT));
+            }
+            total += pubMap.size();
+        }
+        assertEquals(DATUM_COUNT, total);
+        assertNull(localDatumStorage.getByConnectId("192.168.0.3:12345", 0));
+
+        // the map of a queue is the index itself
+        int queueIdx = DataChangeEventCenter.hash("dataInfoId1", QUEUE_COUNT);
+        localDatumStorage.getByConnectId(CONNECT_ID, queueIdx).remove("pub1");
+        Map<String, Publisher> pubMap = localDatumStorage.getByConnectId(CONNECT_ID);
+        assertEquals(DATUM_COUNT - 1, pubMap.size());
+        assertTrue(!pubMap.containsKey("pub1"));
+    }
+
+    private static Publisher newPublisher(String dataInfoId, String registerId, URL sourceAddress) {
+        Publisher publisher = new Publisher();
+        publisher.setDataInfoId(dataInfoId);
+        publisher.setDataId(dataInfoId);
+        publisher.setRegisterId(registerId);
+        publisher.setSourceAddress(sourceAddress);
+        publisher.setVersion(1L);
+        return publisher;
+    }
+}
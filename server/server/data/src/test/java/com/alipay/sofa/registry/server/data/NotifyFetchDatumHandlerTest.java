@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.alipay.sofa.registry.common.model.dataserver.NotifyFetchDatumRequest;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DataServerCache;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DatumBatchFetcher;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.NotifyFetchDatumHandler;
+import com.alipay.sofa.registry.server.data.renew.LocalDataServerCleanHandler;
+
+/**
+ * @author agent
+ * @version $Id: NotifyFetchDatumHandlerTest.java, v 0.1 2026-10-19 00:35 agent Exp $
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NotifyFetchDatumHandlerTest {
+    private static final String         DATA_CENTER = "DefaultDataCenter";
+    private static final String         TARGET_IP   = "192.168.0.10";
+    private static final long           VERSION     = 100L;
+
+    @InjectMocks
+    private NotifyFetchDatumHandler     handler;
+
+    @Mock
+    private DataServerCache             dataServerCache;
+
+    @Mock
+    private DataServerConfig            dataServerConfig;
+
+    @Mock
+    private DatumCache                  datumCache;
+
+    @Mock
+    private LocalDataServerCleanHandler localDataServerCleanHandler;
+
+    @Mock
+    private DatumBatchFetcher           datumBatchFetcher;
+
+    @Before
+    public void before() {
+        when(dataServerCache.getCurVersion()).thenReturn(VERSION);
+        when(dataServerConfig.getDatumMigrationChunkSize()).thenReturn(200);
+    }
+
+    @Test
+    public void testSyncedAfterFetch() {
+        when(datumBatchFetcher.fetch(anyString(), anyMap())).thenReturn(true);
+        handler.doHandle(null, newRequest());
+        verify(dataServerCache, timeout(3000)).synced(VERSION, TARGET_IP);
+    }
+
+    @Test
+    public void testSyncedAfterFetchNotCompleted() {
+        // the data node is gone, or the fetch is broken
+        when(datumBatchFetcher.fetch(anyString(), anyMap())).thenReturn(false);
+        handler.doHandle(null, newRequest());
+        verify(dataServerCache, timeout(3000)).synced(VERSION, TARGET_IP);
+    }
+
+    @Test
+    public void testSyncedAfterFetchError() {
+        when(datumBatchFetcher.fetch(anyString(), anyMap())).thenThrow(
+            new IllegalStateException("fetch error"));
+        handler.doHandle(null, newRequest());
+        verify(dataServerCache, timeout(3000)).synced(VERSION, TARGET_IP);
+    }
+
+    private static NotifyFetchDatumRequest newRequest() {
+        Map<String, Long> versions = Collections.singletonMap("dataInfoId", 1L);
+        return new NotifyFetchDatumRequest(Collections.singletonMap(DATA_CENTER, versions),
+            TARGET_IP, VERSION);
+    }
+}
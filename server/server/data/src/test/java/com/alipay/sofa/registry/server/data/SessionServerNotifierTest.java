@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.sessionserver.BatchDataChangeRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.notify.SessionServerNotifier;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.SessionServerConnectionFactory;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.forward.ForwardService;
+
+/**
+ * Changes buffered by SessionServerNotifier for a session connection, the notifications are
+ * answered by the test.
+ *
+ * @author agent
+ * @version $Id: SessionServerNotifierTest.java, v 0.1 2026-10-19 00:11 agent Exp $
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SessionServerNotifierTest {
+    private static final String            DATA_CENTER  = "DefaultDataCenter";
+    private static final int               SESSION_PORT = 9620;
+
+    @InjectMocks
+    private SessionServerNotifier          notifier;
+
+    @Mock
+    private DataServerConfig               dataServerConfig;
+
+    @Mock
+    private Exchange                       boltExchange;
+
+    @Mock
+    private SessionServerConnectionFactory sessionServerConnectionFactory;
+
+    @Mock
+    private DatumCache                     datumCache;
+
+    @Mock
+    private ForwardService                 forwardService;
+
+    @Mock
+    private Server                         sessionServer;
+
+    private final BlockingQueue<Sent>      sent         = new LinkedBlockingQueue<>();
+
+    @Before
+    public void before() {
+        when(dataServerConfig.getPort()).thenReturn(SESSION_PORT);
+        when(dataServerConfig.getSessionServerNotifierRetryExecutorThreadSize()).thenReturn(1);
+        when(dataServerConfig.getSessionServerNotifierRetryExecutorQueueSize()).thenReturn(10);
+        when(dataServerConfig.getNotifySessionRetryTimes()).thenReturn(3);
+        when(dataServerConfig.getNotifySessionBatchWindowMs()).thenReturn(200);
+        when(dataServerConfig.getNotifySessionBatchSize()).thenReturn(10);
+
+        Connection connection = mock(Connection.class);
+        when(connection.isFine()).thenReturn(true);
+        when(connection.getRemoteAddress()).thenReturn(new InetSocketAddress("192.168.0.1", 40000));
+        when(sessionServerConnectionFactory.getSessionConnections()).thenReturn(
+            Collections.singletonList(connection));
+        when(sessionServerConnectionFactory.isInterested(eq(connection), anyString(), anyLong()))
+            .thenReturn(true);
+
+        when(boltExchange.getServer(SESSION_PORT)).thenReturn(sessionServer);
+        when(sessionServer.getChannel(any(InetSocketAddress.class))).thenReturn(mock(Channel.class));
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            sent.add(new Sent(args[1], (CallbackHandler) args[2]));
+            return null;
+        }).when(sessionServer).sendCallback(any(Channel.class), any(), any(CallbackHandler.class),
+            anyInt());
+    }
+
+    @Test
+    public void testWindowFlush() throws Exception {
+        notifier.init();
+        notifier.notify(newDatum("A", 1L), null);
+        notifier.notify(newDatum("B", 1L), null);
+        notifier.notify(newDatum("A", 2L), null);
+        assertNull(sent.poll(100, TimeUnit.MILLISECONDS));
+
+        // one request at the end of the window, the latest version of A replaces the buffered one
+        Sent batch = nextSent();
+        assertTrue(batch.request instanceof BatchDataChangeRequest);
+        List<DataChangeRequest> changes = ((BatchDataChangeRequest) batch.request).getChanges();
+        assertEquals(2, changes.size());
+        assertEquals("A", changes.get(0).getDataInfoId());
+        assertEquals(2L, changes.get(0).getVersion());
+        assertEquals("B", changes.get(1).getDataInfoId());
+
+        // single change is sent as DataChangeRequest
+        notifier.notify(newDatum("C", 1L), null);
+        Sent single = nextSent();
+        assertTrue(single.request instanceof DataChangeRequest);
+        assertEquals("C", ((DataChangeRequest) single.request).getDataInfoId());
+    }
+
+    @Test
+    public void testSizeFlush() throws Exception {
+        when(dataServerConfig.getNotifySessionBatchWindowMs()).thenReturn(60000);
+        when(dataServerConfig.getNotifySessionBatchSize()).thenReturn(2);
+        notifier.init();
+        notifier.notify(newDatum("A", 1L), null);
+        notifier.notify(newDatum("A", 2L), null);
+        assertNull(sent.poll(100, TimeUnit.MILLISECONDS));
+
+        // sent without waiting for the window once notifySessionBatchSize is reached
+        notifier.notify(newDatum("B", 1L), null);
+        Sent batch = sent.poll();
+        assertTrue(batch != null && batch.request instanceof BatchDataChangeRequest);
+        assertEquals(2, ((BatchDataChangeRequest) batch.request).getChanges().size());
+        assertNull(sent.poll());
+    }
+
+    @Test
+    public void testRetainCurrentVersions() throws Exception {
+        notifier.init();
+        notifier.notify(newDatum("A", 1L), null);
+        notifier.notify(newDatum("B", 1L), null);
+        notifier.notify(newDatum("C", 1L), null);
+        Sent batch = nextSent();
+        assertEquals(3, ((BatchDataChangeRequest) batch.request).getChanges().size());
+
+        // A unchanged, B changed since, C removed
+        when(datumCache.get(DATA_CENTER, "A")).thenReturn(newDatum("A", 1L));
+        when(datumCache.get(DATA_CENTER, "B")).thenReturn(newDatum("B", 2L));
+        batch.callback.onException(null, new RuntimeException("timeout"));
+
+        // only the change still current is retried
+        Sent retry = nextSent();
+        assertTrue(retry.request instanceof DataChangeRequest);
+        assertEquals("A", ((DataChangeRequest) retry.request).getDataInfoId());
+
+        // no retry once A changes too
+        when(datumCache.get(DATA_CENTER, "A")).thenReturn(newDatum("A", 2L));
+        retry.callback.onException(null, new RuntimeException("timeout"));
+        assertNull(sent.poll(1500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCarriedDatumCopied() throws Exception {
+        when(dataServerConfig.getNotifySessionDatumMaxPublishers()).thenReturn(10);
+        Datum cached = newDatum("A", 2L);
+        cached.getPubMap().put("pub1", new Publisher());
+        when(datumCache.get(DATA_CENTER, "A")).thenReturn(cached);
+        notifier.init();
+        notifier.notify(newDatum("A", 2L), null);
+        cached.getPubMap().put("pub2", new Publisher());
+        cached.setVersion(3L);
+
+        // the datum carried keeps the publishers and version read when notified
+        Datum carried = ((DataChangeRequest) nextSent().request).getDatum();
+        assertNotSame(cached, carried);
+        assertEquals(2L, carried.getVersion());
+        assertEquals(Collections.singleton("pub1"), carried.getPubMap().keySet());
+
+        // not carried if the version changes while copying
+        Datum changing = mock(Datum.class);
+        when(changing.getVersion()).thenReturn(4L, 5L);
+        when(changing.getPubMap()).thenReturn(cached.getPubMap());
+        when(datumCache.get(DATA_CENTER, "B")).thenReturn(changing);
+        notifier.notify(newDatum("B", 4L), null);
+        assertNull(((DataChangeRequest) nextSent().request).getDatum());
+    }
+
+    private Sent nextSent() throws InterruptedException {
+        Sent next = sent.poll(3, TimeUnit.SECONDS);
+        assertTrue("notification not sent", next != null);
+        return next;
+    }
+
+    private static Datum newDatum(String dataInfoId, long version) {
+        Datum datum = new Datum();
+        datum.setDataCenter(DATA_CENTER);
+        datum.setDataInfoId(dataInfoId);
+        datum.setVersion(version);
+        return datum;
+    }
+
+    private static final class Sent {
+        private final Object          request;
+
+        private final CallbackHandler callback;
+
+        Sent(Object request, CallbackHandler callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+    }
+}
@@ -17,12 +17,14 @@
 package com.alipay.sofa.registry.server.data;
 
 import java.util.Collection;
+import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
 import com.alipay.sofa.registry.server.data.datasync.Operator;
@@ -104,4 +106,57 @@ public class TestSyncData {
         Assert.assertTrue(ops[1].getVersion().equals(operator5.getVersion()));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testChangedRegisterIds() {
+        Acceptor acceptor = new Acceptor(30, "11", "DefaultDataCenter", new DatumCache());
+        datum1.getPubMap().put("r1", new Publisher());
+        datum2.getPubMap().put("r2", new Publisher());
+        datum5.getPubMap().put("r1", new Publisher());
+        datum5.getPubMap().put("r3", new Publisher());
+
+        acceptor.appendOperator(new Operator(1234L, 1000L, datum1, DataSourceTypeEnum.BACKUP));
+        acceptor.appendOperator(new Operator(5678L, 1234L, datum2, DataSourceTypeEnum.BACKUP));
+        acceptor.appendOperator(new Operator(9999L, 5678L, datum5, DataSourceTypeEnum.BACKUP));
+
+        Set<String> registerIds = acceptor.getChangedRegisterIds(5678L, 9999L);
+        Assert.assertEquals(2, registerIds.size());
+        Assert.assertTrue(registerIds.contains("r1") && registerIds.contains("r3"));
+        Assert.assertEquals(3, acceptor.getChangedRegisterIds(1000L, 9999L).size());
+
+        // versions not linked by the logs
+        Assert.assertNull(acceptor.getChangedRegisterIds(999L, 9999L));
+        Assert.assertNull(acceptor.getChangedRegisterIds(1234L, 10000L));
+    }
+
+    @Test
+    public void testRingBufferWrap() {
+        Acceptor acceptor = new Acceptor(5, "11", "DefaultDataCenter", new DatumCache());
+        long version = 1000L;
+        for (int i = 0; i < 12; i++) {
+            acceptor.appendOperator(new Operator(version + 1, version, datum1,
+                DataSourceTypeEnum.BACKUP));
+            version++;
+        }
+        Assert.assertEquals(5, acceptor.size());
+        Assert.assertEquals(5, acceptor.capacity());
+        Assert.assertEquals(1012L, acceptor.getLastVersion().longValue());
+
+        // operators after the found version, in version order
+        Operator[] ops = acceptor.acceptOperator(1009L).toArray(new Operator[0]);
+        Assert.assertEquals(3, ops.length);
+        Assert.assertEquals(1010L, ops[0].getVersion().longValue());
+        Assert.assertEquals(1012L, ops[2].getVersion().longValue());
+        // head source version links the whole buffer
+        Assert.assertEquals(5, acceptor.acceptOperator(1007L).size());
+        // polled version does not match
+        Assert.assertTrue(acceptor.acceptOperator(1003L).isEmpty());
+
+        // out of sequence clears the buffer first
+        acceptor.appendOperator(new Operator(2001L, 2000L, datum2, DataSourceTypeEnum.BACKUP));
+        Assert.assertEquals(1, acceptor.size());
+        acceptor.clearBefore();
+        Assert.assertEquals(0, acceptor.capacity());
+        Assert.assertNull(acceptor.acceptOperator(2001L));
+    }
+
+}
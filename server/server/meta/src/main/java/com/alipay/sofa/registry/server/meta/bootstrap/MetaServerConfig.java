@@ -120,6 +120,8 @@ public interface MetaServerConfig {
 
     int getMetaSchedulerPoolSize();
 
+    int getLeaderTakeoverGraceSecs();
+
     /**
      * decision mode enum
      */
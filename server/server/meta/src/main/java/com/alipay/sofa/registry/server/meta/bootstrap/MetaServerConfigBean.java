@@ -122,6 +122,8 @@ public class MetaServerConfigBean implements MetaServerConfig {
 
     private int                metaSchedulerPoolSize                           = 6;
 
+    private int                leaderTakeoverGraceSecs                         = 30;
+
     @Override
     public int getSessionServerPort() {
         return sessionServerPort;
@@ -843,6 +845,25 @@ public class MetaServerConfigBean implements MetaServerConfig {
         return metaSchedulerPoolSize;
     }
 
+    /**
+     * Getter method for property <tt>leaderTakeoverGraceSecs</tt>.
+     *
+     * @return property value of leaderTakeoverGraceSecs
+     */
+    @Override
+    public int getLeaderTakeoverGraceSecs() {
+        return leaderTakeoverGraceSecs;
+    }
+
+    /**
+     * Setter method for property <tt>leaderTakeoverGraceSecs</tt>.
+     *
+     * @param leaderTakeoverGraceSecs  value to be assigned to property leaderTakeoverGraceSecs
+     */
+    public void setLeaderTakeoverGraceSecs(int leaderTakeoverGraceSecs) {
+        this.leaderTakeoverGraceSecs = leaderTakeoverGraceSecs;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
@@ -72,6 +72,17 @@ public class MetaServerRegistry implements Registry<Node> {
         }
     }
 
+    @Override
+    public void takeoverLeases(long graceSECS) {
+        for (NodeType nodeType : NodeType.values()) {
+            StoreService storeService = ServiceFactory.getStoreService(nodeType);
+            if (storeService != null) {
+                storeService.takeoverLeases(graceSECS);
+            }
+        }
+        LOGGER.info("Take over node leases, grace period {}s", graceSECS);
+    }
+
     @Override
     public void renew(Node node, int duration) {
         StoreService storeService = ServiceFactory.getStoreService(node.getNodeType());
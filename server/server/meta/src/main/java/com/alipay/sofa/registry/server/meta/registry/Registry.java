@@ -58,6 +58,12 @@ public interface Registry<T extends Node> {
      */
     void evict();
 
+    /**
+     * current node becomes leader, leases renewed to the previous leader are unknown
+     * @param graceSECS
+     */
+    void takeoverLeases(long graceSECS);
+
     /**
      * renew node expire time
      * @param node
@@ -97,6 +97,8 @@ public class RaftExchanger {
                     @Override
                     public void startProcess() {
                         LOGGER_START.info("Start leader process...");
+                        metaServerRegistry.takeoverLeases(metaServerConfig
+                            .getLeaderTakeoverGraceSecs());
                         executorManager.startScheduler();
                         LOGGER_START.info("Initialize server scheduler success!");
                         PeerId leader = new PeerId(NetUtil.getLocalAddress().getHostAddress(),
@@ -86,6 +86,8 @@ public class DataStoreService implements StoreService<DataNode> {
     private AtomicLong                                         localDataCenterInitVersion = new AtomicLong(
                                                                                               -1L);
 
+    private final LeaseTable<DataNode>                         leaseTable                 = new LeaseTable<>();
+
     @Override
     public NodeType getNodeType() {
         return NodeType.DATA;
@@ -107,6 +109,8 @@ public class DataStoreService implements StoreService<DataNode> {
 
             dataRepositoryService.put(ipAddress, new RenewDecorate(dataNode,
                 RenewDecorate.DEFAULT_DURATION_SECS));
+            leaseTable.put(ipAddress, new RenewDecorate(dataNode,
+                RenewDecorate.DEFAULT_DURATION_SECS));
 
             renew(dataNode, 30);
 
@@ -127,6 +131,7 @@ public class DataStoreService implements StoreService<DataNode> {
         try {
 
             RenewDecorate<DataNode> dataNode = dataRepositoryService.remove(ipAddress);
+            leaseTable.remove(ipAddress);
             if (dataNode != null) {
 
                 dataConfirmStatusService.putConfirmNode(dataNode.getRenewal(), DataOperator.REMOVE);
@@ -150,6 +155,7 @@ public class DataStoreService implements StoreService<DataNode> {
                     String ipAddress = dataNode.getNodeUrl().getIpAddress();
                     RenewDecorate<DataNode> dataNodeRemove = dataRepositoryService
                         .remove(ipAddress);
+                    leaseTable.remove(ipAddress);
                     if (dataNodeRemove != null) {
 
                         dataConfirmStatusService.putConfirmNode(dataNode, DataOperator.REMOVE);
@@ -169,20 +175,20 @@ public class DataStoreService implements StoreService<DataNode> {
         write.lock();
         try {
             String ipAddress = dataNode.getNodeUrl().getIpAddress();
-            RenewDecorate renewer = dataRepositoryService.get(ipAddress);
+            RenewDecorate<DataNode> renewer = dataRepositoryService.get(ipAddress);
 
             if (renewer == null) {
                 LOGGER.warn("Renew Data node with ipAddress:" + ipAddress
                             + " has not existed!It will be registered again!");
                 addNode(dataNode);
             } else {
-                if (duration > 0) {
-                    dataRepositoryService.replace(ipAddress, new RenewDecorate(dataNode, duration));
-                } else {
+                int durationSECS = duration > 0 ? duration : RenewDecorate.DEFAULT_DURATION_SECS;
+                //only node info change be replicated, heartbeat just refresh local lease
+                if (!dataNode.equals(renewer.getRenewal())) {
                     dataRepositoryService.replace(ipAddress, new RenewDecorate(dataNode,
-                        RenewDecorate.DEFAULT_DURATION_SECS));
+                        durationSECS));
                 }
-
+                leaseTable.renew(ipAddress, dataNode, durationSECS);
             }
         } finally {
             write.unlock();
@@ -204,7 +210,7 @@ public class DataStoreService implements StoreService<DataNode> {
 
                 String dataCenter = dataNode.getRenewal().getDataCenter();
                 if (dataCenter.equals(nodeConfig.getLocalDataCenter())) {
-                    if (dataNode.isExpired()) {
+                    if (leaseTable.isExpired(ip)) {
                         renewerList.add(dataNode.getRenewal());
                     }
                 }
@@ -216,6 +222,11 @@ public class DataStoreService implements StoreService<DataNode> {
         return renewerList;
     }
 
+    @Override
+    public void takeoverLeases(long graceSECS) {
+        leaseTable.takeover(graceSECS);
+    }
+
     @Override
     public Map<String/*ipAddress*/, DataNode> getNodes() {
         Map<String, Map<String, DataNode>> map = getRunTime();
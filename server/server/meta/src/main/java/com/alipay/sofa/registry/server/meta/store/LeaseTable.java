@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.store;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leader local RenewDecorate of nodes. Heartbeats only refresh the timestamps kept here, the node
+ * list itself is kept in the raft repository and only changes on add, remove and expire.
+ *
+ * Leases are not replicated, so a new leader does not know when a node renewed last time: after
+ * takeover every node known by the repository is regarded as alive until the grace period ends,
+ * which gives it time to renew to the new leader.
+ *
+ * @author agent
+ * @version $Id: LeaseTable.java, v 0.1 2026-10-18 20:29 agent Exp $
+ */
+public class LeaseTable<T> {
+
+    private final Map<String/*ipAddress*/, RenewDecorate<T>> leases = new ConcurrentHashMap<>();
+
+    private volatile long                                     graceExpireTimestamp;
+
+    /**
+     * add lease of new registered node
+     * @param ipAddress
+     * @param renewDecorate
+     */
+    public void put(String ipAddress, RenewDecorate<T> renewDecorate) {
+        leases.put(ipAddress, renewDecorate);
+    }
+
+    /**
+     * refresh lease of node, same as replace RenewDecorate in repository
+     * @param ipAddress
+     * @param renewal
+     * @param durationSECS used when node has no lease
+     */
+    public void renew(String ipAddress, T renewal, long durationSECS) {
+        RenewDecorate<T> renewDecorate = leases.computeIfAbsent(ipAddress,
+                k -> new RenewDecorate<>(renewal, durationSECS));
+        renewDecorate.setRenewal(renewal);
+        renewDecorate.renew();
+    }
+
+    /**
+     * forget lease of removed node
+     * @param ipAddress
+     */
+    public void remove(String ipAddress) {
+        leases.remove(ipAddress);
+    }
+
+    /**
+     * verify node expired or not, node without lease expires after takeover grace period
+     * @param ipAddress
+     * @return
+     */
+    public boolean isExpired(String ipAddress) {
+        RenewDecorate<T> renewDecorate = leases.get(ipAddress);
+        if (renewDecorate == null) {
+            return System.currentTimeMillis() > graceExpireTimestamp;
+        }
+        return renewDecorate.isExpired();
+    }
+
+    /**
+     * clear all leases when current node becomes leader
+     * @param graceSECS
+     */
+    public void takeover(long graceSECS) {
+        leases.clear();
+        graceExpireTimestamp = System.currentTimeMillis() + graceSECS * 1000;
+    }
+
+    /**
+     * lease count
+     * @return
+     */
+    public int size() {
+        return leases.size();
+    }
+}
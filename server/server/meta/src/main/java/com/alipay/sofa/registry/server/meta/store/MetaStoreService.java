@@ -177,6 +177,10 @@ public class MetaStoreService implements StoreService<MetaNode> {
         return null;
     }
 
+    @Override
+    public void takeoverLeases(long graceSECS) {
+    }
+
     @Override
     public Map<String, MetaNode> getNodes() {
         return null;
@@ -85,6 +85,8 @@ public class SessionStoreService implements StoreService<SessionNode> {
     @RaftReference(uniqueId = "sessionServer")
     private NodeConfirmStatusService<SessionNode>                 sessionConfirmStatusService;
 
+    private final LeaseTable<SessionNode>                         leaseTable    = new LeaseTable<>();
+
     @Override
     public NodeType getNodeType() {
         return NodeType.SESSION;
@@ -104,6 +106,8 @@ public class SessionStoreService implements StoreService<SessionNode> {
 
             sessionRepositoryService.put(ipAddress, new RenewDecorate(sessionNode,
                 RenewDecorate.DEFAULT_DURATION_SECS));
+            leaseTable.put(ipAddress, new RenewDecorate(sessionNode,
+                RenewDecorate.DEFAULT_DURATION_SECS));
 
             sessionVersionRepositoryService.checkAndUpdateVersions(nodeConfig.getLocalDataCenter(),
                 System.currentTimeMillis());
@@ -126,6 +130,7 @@ public class SessionStoreService implements StoreService<SessionNode> {
         try {
             RenewDecorate<SessionNode> oldRenewDecorate = sessionRepositoryService
                 .remove(ipAddress);
+            leaseTable.remove(ipAddress);
             if (oldRenewDecorate == null) {
                 LOGGER
                     .info("Remove Session node with ipAddress:" + ipAddress + " has not existed!");
@@ -154,6 +159,7 @@ public class SessionStoreService implements StoreService<SessionNode> {
                     String ipAddress = node.getNodeUrl().getIpAddress();
                     RenewDecorate<SessionNode> oldRenewDecorate = sessionRepositoryService
                         .remove(ipAddress);
+                    leaseTable.remove(ipAddress);
                     if (oldRenewDecorate == null) {
                         LOGGER.warn("Remove session nodes with ipAddress:" + ipAddress
                                     + " has not existed!");
@@ -180,20 +186,20 @@ public class SessionStoreService implements StoreService<SessionNode> {
         write.lock();
         try {
             String ipAddress = sessionNode.getNodeUrl().getIpAddress();
-            RenewDecorate renewer = sessionRepositoryService.get(ipAddress);
+            RenewDecorate<SessionNode> renewer = sessionRepositoryService.get(ipAddress);
 
             if (renewer == null) {
                 LOGGER.warn("Renew session node with ipAddress:" + ipAddress
                             + " has not existed!It will be registered again!");
                 addNode(sessionNode);
             } else {
-                if (duration > 0) {
-                    sessionRepositoryService.replace(ipAddress, new RenewDecorate(sessionNode,
-                        duration));
-                } else {
+                int durationSECS = duration > 0 ? duration : RenewDecorate.DEFAULT_DURATION_SECS;
+                //only node info change be replicated, heartbeat just refresh local lease
+                if (!sessionNode.equals(renewer.getRenewal())) {
                     sessionRepositoryService.replace(ipAddress, new RenewDecorate(sessionNode,
-                        RenewDecorate.DEFAULT_DURATION_SECS));
+                        durationSECS));
                 }
+                leaseTable.renew(ipAddress, sessionNode, durationSECS);
             }
         } finally {
             write.unlock();
@@ -207,7 +213,7 @@ public class SessionStoreService implements StoreService<SessionNode> {
         try {
             Map<String, RenewDecorate<SessionNode>> map = sessionRepositoryService.getAllData();
             map.forEach((key, value) -> {
-                if (value.isExpired()) {
+                if (leaseTable.isExpired(key)) {
                     renewerList.add(value.getRenewal());
                 }
             });
@@ -217,6 +223,11 @@ public class SessionStoreService implements StoreService<SessionNode> {
         return renewerList;
     }
 
+    @Override
+    public void takeoverLeases(long graceSECS) {
+        leaseTable.takeover(graceSECS);
+    }
+
     @Override
     public Map<String, SessionNode> getNodes() {
         Map<String, SessionNode> tmpMap = new HashMap<>();
@@ -80,6 +80,12 @@ public interface StoreService<T extends Node> {
      */
     Collection<T> getExpired();
 
+    /**
+     * forget leases renewed to the previous leader, nodes are not expired in grace period
+     * @param graceSECS
+     */
+    void takeoverLeases(long graceSECS);
+
     /**
      * get all Nodes from all dataCenter
      * @return
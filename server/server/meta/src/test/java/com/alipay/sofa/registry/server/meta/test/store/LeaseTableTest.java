@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.test.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.server.meta.store.LeaseTable;
+import com.alipay.sofa.registry.server.meta.store.RenewDecorate;
+
+/**
+ *
+ * @author agent
+ * @version $Id: LeaseTableTest.java, v 0.1 2026-10-18 20:29 agent Exp $
+ */
+public class LeaseTableTest {
+
+    @Test
+    public void testRenewAndRemove() {
+        LeaseTable<String> leaseTable = new LeaseTable<>();
+        leaseTable.takeover(-1);
+        String ip = "192.1.1.1";
+
+        leaseTable.renew(ip, ip, 30);
+        Assert.assertFalse(leaseTable.isExpired(ip));
+        leaseTable.renew(ip, ip, -1);
+        Assert.assertFalse(leaseTable.isExpired(ip));
+
+        leaseTable.put(ip, new RenewDecorate<>(ip, -1));
+        Assert.assertTrue(leaseTable.isExpired(ip));
+
+        leaseTable.remove(ip);
+        Assert.assertEquals(0, leaseTable.size());
+        Assert.assertTrue(leaseTable.isExpired(ip));
+    }
+
+    @Test
+    public void testTakeoverGrace() {
+        LeaseTable<String> leaseTable = new LeaseTable<>();
+        String ip = "192.1.1.1";
+        leaseTable.renew(ip, ip, -1);
+        Assert.assertTrue(leaseTable.isExpired(ip));
+
+        //lease renewed to previous leader is unknown, wait for renew in grace period
+        leaseTable.takeover(30);
+        Assert.assertEquals(0, leaseTable.size());
+        Assert.assertFalse(leaseTable.isExpired(ip));
+        Assert.assertFalse(leaseTable.isExpired("192.1.1.2"));
+
+        leaseTable.takeover(-1);
+        Assert.assertTrue(leaseTable.isExpired(ip));
+    }
+}
@@ -222,4 +222,44 @@ public interface SessionServerConfig {
     int getDataClientConnNum();
 
     int getSessionSchedulerPoolSize();
+
+    int getReceivedDataCacheMaxSize();
+
+    int getReceivedDataCacheExpireSeconds();
+
+    long getDatumCacheMaxWeight();
+
+    boolean isInterestSummaryEnable();
+
+    int getSchedulerInterestSummaryTimeout();
+
+    int getSchedulerInterestSummaryFirstDelay();
+
+    int getSchedulerInterestSummaryExpBackOffBound();
+
+    boolean isDatumDeltaFetchEnable();
+
+    int getFetchDataVersionParallelism();
+
+    int getFetchDataVersionChunkSize();
+
+    int getFetchDataVersionJitterMillis();
+
+    int getDataNodeExchangeForFetchVersionTimeOut();
+
+    int getDatumSnapshotChunkSize();
+
+    boolean isDatumSnapshotDigestEnable();
+
+    long getPushTaskMergeDebounceMillis();
+
+    long getPushTaskMergeMaxDelayMillis();
+
+    int getPushTaskConfirmRetryTimes();
+
+    double getAccessLimitConnectionRate();
+
+    double getAccessLimitAppRate();
+
+    int getAccessLimitBurstSeconds();
 }
\ No newline at end of file
@@ -63,6 +63,38 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private int                schedulerFetchDataExpBackOffBound       = 10;
 
+    /**
+     * data nodes whose versions are checked at the same time
+     */
+    private int                fetchDataVersionParallelism             = 4;
+
+    /**
+     * dataInfoIds of one GetDataVersionRequest
+     */
+    private int                fetchDataVersionChunkSize               = 1000;
+
+    /**
+     * random delay before checking versions of each data node, so sessions do not check one data
+     * node at the same time
+     */
+    private int                fetchDataVersionJitterMillis            = 3000;
+
+    /**
+     * reload a stale cached datum by the publishers changed since its version
+     */
+    private boolean            datumDeltaFetchEnable                   = true;
+
+    /**
+     * report subscribed dataInfoIds to data nodes, which skip notifying changes nobody here subscribes
+     */
+    private boolean            interestSummaryEnable                   = true;
+
+    private int                schedulerInterestSummaryTimeout         = 1;               //SECONDS
+
+    private int                schedulerInterestSummaryFirstDelay      = 5;
+
+    private int                schedulerInterestSummaryExpBackOffBound = 10;
+
     private int                schedulerConnectMetaTimeout             = 5;
 
     private int                schedulerConnectMetaFirstDelay          = 5;
@@ -105,6 +137,18 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private long               datumSnapshotTaskRetryIncrementDelay    = 5000;
 
+    /**
+     * publishers of one DatumSnapshotRequest chunk at most, 0 sends the snapshot as a whole. Older
+     * data nodes take each chunk as the whole snapshot and remove the publishers of the others, so
+     * enable it only after all data nodes are upgraded
+     */
+    private int                datumSnapshotChunkSize                  = 0;
+
+    /**
+     * send digests of the publishers first, then only the publishers data node does not hold
+     */
+    private boolean            datumSnapshotDigestEnable               = false;
+
     private int                renewDatumTaskRetryTimes                = 1;
 
     private int                dataChangeFetchTaskRetryTimes           = 3;
@@ -135,6 +179,13 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private int                pushTaskExecutorQueueSize               = 100000;
 
+    /**
+     * pushes of the same client, dataInfoId and scope arriving within it are merged, 0 disables merge
+     */
+    private long               pushTaskMergeDebounceMillis             = 50;
+
+    private long               pushTaskMergeMaxDelayMillis             = 200;
+
     private long               pushTaskExecutorKeepAliveTime           = 60;
 
     private int                dataChangeExecutorMinPoolSize           = 40;
@@ -161,6 +212,8 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private int                dataNodeExchangeForFetchDatumTimeOut    = 5000;
 
+    private int                dataNodeExchangeForFetchVersionTimeOut  = 3000;
+
     private int                metaNodeExchangeTimeOut                 = 3000;
 
     private int                numberOfReplicas                        = 1000;
@@ -191,6 +244,11 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private long               pushTaskConfirmWaitTimeout              = 10000;
 
+    /**
+     * rounds sending the push tasks not confirmed within pushTaskConfirmWaitTimeout again
+     */
+    private int                pushTaskConfirmRetryTimes               = 2;
+
     private int                pushTaskConfirmCheckWheelTicksSize      = 1024;
 
     private int                pushTaskConfirmCheckWheelTicksDuration  = 100;
@@ -209,6 +267,22 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private double             accessLimitRate                         = 100000.0;
 
+    /**
+     * register requests per second of one client connection, 0 disables the limit
+     */
+    private double             accessLimitConnectionRate               = 0;
+
+    /**
+     * register requests per second of all connections of one app, 0 disables the limit
+     */
+    private double             accessLimitAppRate                      = 0;
+
+    /**
+     * seconds of tokens a connection or app bucket holds, a reconnecting client registers all its
+     * publishers and subscribers again at once, so it must cover them
+     */
+    private int                accessLimitBurstSeconds                 = 10;
+
     private String             sessionServerRegion;
 
     private String             sessionServerDataCenter;
@@ -244,6 +318,12 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private int                sessionSchedulerPoolSize                = 6;
 
+    private int                receivedDataCacheMaxSize                = 10000;
+
+    private int                receivedDataCacheExpireSeconds          = 60;
+
+    private long               datumCacheMaxWeight                     = 1000000;
+
     //end config for enterprise version
 
     private CommonConfig       commonConfig;
@@ -461,6 +541,44 @@ public class SessionServerConfigBean implements SessionServerConfig {
         this.datumSnapshotTaskRetryTimes = datumSnapshotTaskRetryTimes;
     }
 
+    /**
+     * Getter method for property <tt>datumSnapshotChunkSize</tt>.
+     *
+     * @return property value of datumSnapshotChunkSize
+     */
+    @Override
+    public int getDatumSnapshotChunkSize() {
+        return datumSnapshotChunkSize;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotChunkSize</tt>.
+     *
+     * @param datumSnapshotChunkSize  value to be assigned to property datumSnapshotChunkSize
+     */
+    public void setDatumSnapshotChunkSize(int datumSnapshotChunkSize) {
+        this.datumSnapshotChunkSize = datumSnapshotChunkSize;
+    }
+
+    /**
+     * Getter method for property <tt>datumSnapshotDigestEnable</tt>.
+     *
+     * @return property value of datumSnapshotDigestEnable
+     */
+    @Override
+    public boolean isDatumSnapshotDigestEnable() {
+        return datumSnapshotDigestEnable;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotDigestEnable</tt>.
+     *
+     * @param datumSnapshotDigestEnable  value to be assigned to property datumSnapshotDigestEnable
+     */
+    public void setDatumSnapshotDigestEnable(boolean datumSnapshotDigestEnable) {
+        this.datumSnapshotDigestEnable = datumSnapshotDigestEnable;
+    }
+
     /**
      * Getter method for property <tt>renewDatumTaskRetryTimes</tt>.
      *
@@ -1103,6 +1221,101 @@ public class SessionServerConfigBean implements SessionServerConfig {
         this.schedulerGetSessionNodeExpBackOffBound = schedulerGetSessionNodeExpBackOffBound;
     }
 
+    /**
+     * Getter method for property <tt>datumDeltaFetchEnable</tt>.
+     *
+     * @return property value of datumDeltaFetchEnable
+     */
+    @Override
+    public boolean isDatumDeltaFetchEnable() {
+        return datumDeltaFetchEnable;
+    }
+
+    /**
+     * Setter method for property <tt>datumDeltaFetchEnable</tt>.
+     *
+     * @param datumDeltaFetchEnable  value to be assigned to property datumDeltaFetchEnable
+     */
+    public void setDatumDeltaFetchEnable(boolean datumDeltaFetchEnable) {
+        this.datumDeltaFetchEnable = datumDeltaFetchEnable;
+    }
+
+    /**
+     * Getter method for property <tt>interestSummaryEnable</tt>.
+     *
+     * @return property value of interestSummaryEnable
+     */
+    @Override
+    public boolean isInterestSummaryEnable() {
+        return interestSummaryEnable;
+    }
+
+    /**
+     * Setter method for property <tt>interestSummaryEnable</tt>.
+     *
+     * @param interestSummaryEnable  value to be assigned to property interestSummaryEnable
+     */
+    public void setInterestSummaryEnable(boolean interestSummaryEnable) {
+        this.interestSummaryEnable = interestSummaryEnable;
+    }
+
+    /**
+     * Getter method for property <tt>schedulerInterestSummaryTimeout</tt>.
+     *
+     * @return property value of schedulerInterestSummaryTimeout
+     */
+    @Override
+    public int getSchedulerInterestSummaryTimeout() {
+        return schedulerInterestSummaryTimeout;
+    }
+
+    /**
+     * Setter method for property <tt>schedulerInterestSummaryTimeout</tt>.
+     *
+     * @param schedulerInterestSummaryTimeout  value to be assigned to property schedulerInterestSummaryTimeout
+     */
+    public void setSchedulerInterestSummaryTimeout(int schedulerInterestSummaryTimeout) {
+        this.schedulerInterestSummaryTimeout = schedulerInterestSummaryTimeout;
+    }
+
+    /**
+     * Getter method for property <tt>schedulerInterestSummaryFirstDelay</tt>.
+     *
+     * @return property value of schedulerInterestSummaryFirstDelay
+     */
+    @Override
+    public int getSchedulerInterestSummaryFirstDelay() {
+        return schedulerInterestSummaryFirstDelay;
+    }
+
+    /**
+     * Setter method for property <tt>schedulerInterestSummaryFirstDelay</tt>.
+     *
+     * @param schedulerInterestSummaryFirstDelay  value to be assigned to property schedulerInterestSummaryFirstDelay
+     */
+    public void setSchedulerInterestSummaryFirstDelay(int schedulerInterestSummaryFirstDelay) {
+        this.schedulerInterestSummaryFirstDelay = schedulerInterestSummaryFirstDelay;
+    }
+
+    /**
+     * Getter method for property <tt>schedulerInterestSummaryExpBackOffBound</tt>.
+     *
+     * @return property value of schedulerInterestSummaryExpBackOffBound
+     */
+    @Override
+    public int getSchedulerInterestSummaryExpBackOffBound() {
+        return schedulerInterestSummaryExpBackOffBound;
+    }
+
+    /**
+     * Setter method for property <tt>schedulerInterestSummaryExpBackOffBound</tt>.
+     *
+     * @param schedulerInterestSummaryExpBackOffBound  value to be assigned to property schedulerInterestSummaryExpBackOffBound
+     */
+    public void setSchedulerInterestSummaryExpBackOffBound(int schedulerInterestSummaryExpBackOffBound) {
+        this.schedulerInterestSummaryExpBackOffBound = schedulerInterestSummaryExpBackOffBound;
+    }
+
     /**
      * Getter method for property <tt>schedulerConnectMetaTimeout</tt>.
      *
@@ -1474,6 +1687,44 @@ public class SessionServerConfigBean implements SessionServerConfig {
         return pushTaskExecutorMaxPoolSize;
     }
 
+    /**
+     * Getter method for property <tt>pushTaskMergeDebounceMillis</tt>.
+     *
+     * @return property value of pushTaskMergeDebounceMillis
+     */
+    @Override
+    public long getPushTaskMergeDebounceMillis() {
+        return pushTaskMergeDebounceMillis;
+    }
+
+    /**
+     * Setter method for property <tt>pushTaskMergeDebounceMillis</tt>.
+     *
+     * @param pushTaskMergeDebounceMillis  value to be assigned to property pushTaskMergeDebounceMillis
+     */
+    public void setPushTaskMergeDebounceMillis(long pushTaskMergeDebounceMillis) {
+        this.pushTaskMergeDebounceMillis = pushTaskMergeDebounceMillis;
+    }
+
+    /**
+     * Getter method for property <tt>pushTaskMergeMaxDelayMillis</tt>.
+     *
+     * @return property value of pushTaskMergeMaxDelayMillis
+     */
+    @Override
+    public long getPushTaskMergeMaxDelayMillis() {
+        return pushTaskMergeMaxDelayMillis;
+    }
+
+    /**
+     * Setter method for property <tt>pushTaskMergeMaxDelayMillis</tt>.
+     *
+     * @param pushTaskMergeMaxDelayMillis  value to be assigned to property pushTaskMergeMaxDelayMillis
+     */
+    public void setPushTaskMergeMaxDelayMillis(long pushTaskMergeMaxDelayMillis) {
+        this.pushTaskMergeMaxDelayMillis = pushTaskMergeMaxDelayMillis;
+    }
+
     /**
      * Getter method for property <tt>pushTaskExecutorQueueSize</tt>.
      *
@@ -1860,6 +2111,25 @@ public class SessionServerConfigBean implements SessionServerConfig {
         this.blacklistSubDataIdRegex = blacklistSubDataIdRegex;
     }
 
+    /**
+     * Getter method for property <tt>pushTaskConfirmRetryTimes</tt>.
+     *
+     * @return property value of pushTaskConfirmRetryTimes
+     */
+    @Override
+    public int getPushTaskConfirmRetryTimes() {
+        return pushTaskConfirmRetryTimes;
+    }
+
+    /**
+     * Setter method for property <tt>pushTaskConfirmRetryTimes</tt>.
+     *
+     * @param pushTaskConfirmRetryTimes  value to be assigned to property pushTaskConfirmRetryTimes
+     */
+    public void setPushTaskConfirmRetryTimes(int pushTaskConfirmRetryTimes) {
+        this.pushTaskConfirmRetryTimes = pushTaskConfirmRetryTimes;
+    }
+
     /**
      * Getter method for property <tt>pushTaskConfirmWaitTimeout</tt>.
      *
@@ -2040,6 +2310,63 @@ public class SessionServerConfigBean implements SessionServerConfig {
         this.accessLimitRate = accessLimitRate;
     }
 
+    /**
+     * Getter method for property <tt>accessLimitConnectionRate</tt>.
+     *
+     * @return property value of accessLimitConnectionRate
+     */
+    @Override
+    public double getAccessLimitConnectionRate() {
+        return accessLimitConnectionRate;
+    }
+
+    /**
+     * Setter method for property <tt>accessLimitConnectionRate</tt>.
+     *
+     * @param accessLimitConnectionRate  value to be assigned to property accessLimitConnectionRate
+     */
+    public void setAccessLimitConnectionRate(double accessLimitConnectionRate) {
+        this.accessLimitConnectionRate = accessLimitConnectionRate;
+    }
+
+    /**
+     * Getter method for property <tt>accessLimitAppRate</tt>.
+     *
+     * @return property value of accessLimitAppRate
+     */
+    @Override
+    public double getAccessLimitAppRate() {
+        return accessLimitAppRate;
+    }
+
+    /**
+     * Setter method for property <tt>accessLimitAppRate</tt>.
+     *
+     * @param accessLimitAppRate  value to be assigned to property accessLimitAppRate
+     */
+    public void setAccessLimitAppRate(double accessLimitAppRate) {
+        this.accessLimitAppRate = accessLimitAppRate;
+    }
+
+    /**
+     * Getter method for property <tt>accessLimitBurstSeconds</tt>.
+     *
+     * @return property value of accessLimitBurstSeconds
+     */
+    @Override
+    public int getAccessLimitBurstSeconds() {
+        return accessLimitBurstSeconds;
+    }
+
+    /**
+     * Setter method for property <tt>accessLimitBurstSeconds</tt>.
+     *
+     * @param accessLimitBurstSeconds  value to be assigned to property accessLimitBurstSeconds
+     */
+    public void setAccessLimitBurstSeconds(int accessLimitBurstSeconds) {
+        this.accessLimitBurstSeconds = accessLimitBurstSeconds;
+    }
+
     /**
      * Getter method for property <tt>dataClientConnNum</tt>.
      *
@@ -2106,6 +2433,82 @@ public class SessionServerConfigBean implements SessionServerConfig {
         this.sessionSchedulerPoolSize = sessionSchedulerPoolSize;
     }
 
+    /**
+     * Getter method for property <tt>fetchDataVersionParallelism</tt>.
+     *
+     * @return property value of fetchDataVersionParallelism
+     */
+    @Override
+    public int getFetchDataVersionParallelism() {
+        return fetchDataVersionParallelism;
+    }
+
+    /**
+     * Setter method for property <tt>fetchDataVersionParallelism</tt>.
+     *
+     * @param fetchDataVersionParallelism  value to be assigned to property fetchDataVersionParallelism
+     */
+    public void setFetchDataVersionParallelism(int fetchDataVersionParallelism) {
+        this.fetchDataVersionParallelism = fetchDataVersionParallelism;
+    }
+
+    /**
+     * Getter method for property <tt>fetchDataVersionChunkSize</tt>.
+     *
+     * @return property value of fetchDataVersionChunkSize
+     */
+    @Override
+    public int getFetchDataVersionChunkSize() {
+        return fetchDataVersionChunkSize;
+    }
+
+    /**
+     * Setter method for property <tt>fetchDataVersionChunkSize</tt>.
+     *
+     * @param fetchDataVersionChunkSize  value to be assigned to property fetchDataVersionChunkSize
+     */
+    public void setFetchDataVersionChunkSize(int fetchDataVersionChunkSize) {
+        this.fetchDataVersionChunkSize = fetchDataVersionChunkSize;
+    }
+
+    /**
+     * Getter method for property <tt>fetchDataVersionJitterMillis</tt>.
+     *
+     * @return property value of fetchDataVersionJitterMillis
+     */
+    @Override
+    public int getFetchDataVersionJitterMillis() {
+        return fetchDataVersionJitterMillis;
+    }
+
+    /**
+     * Setter method for property <tt>fetchDataVersionJitterMillis</tt>.
+     *
+     * @param fetchDataVersionJitterMillis  value to be assigned to property fetchDataVersionJitterMillis
+     */
+    public void setFetchDataVersionJitterMillis(int fetchDataVersionJitterMillis) {
+        this.fetchDataVersionJitterMillis = fetchDataVersionJitterMillis;
+    }
+
+    /**
+     * Getter method for property <tt>dataNodeExchangeForFetchVersionTimeOut</tt>.
+     *
+     * @return property value of dataNodeExchangeForFetchVersionTimeOut
+     */
+    @Override
+    public int getDataNodeExchangeForFetchVersionTimeOut() {
+        return dataNodeExchangeForFetchVersionTimeOut;
+    }
+
+    /**
+     * Setter method for property <tt>dataNodeExchangeForFetchVersionTimeOut</tt>.
+     *
+     * @param dataNodeExchangeForFetchVersionTimeOut  value to be assigned to property dataNodeExchangeForFetchVersionTimeOut
+     */
+    public void setDataNodeExchangeForFetchVersionTimeOut(int dataNodeExchangeForFetchVersionTimeOut) {
+        this.dataNodeExchangeForFetchVersionTimeOut = dataNodeExchangeForFetchVersionTimeOut;
+    }
+
     /**
      * Getter method for property <tt>dataNodeExchangeForFetchDatumTimeOut</tt>.
      *
@@ -2124,6 +2527,63 @@ public class SessionServerConfigBean implements SessionServerConfig {
         this.dataNodeExchangeForFetchDatumTimeOut = dataNodeExchangeForFetchDatumTimeOut;
     }
 
+    /**
+     * Getter method for property <tt>receivedDataCacheMaxSize</tt>.
+     *
+     * @return property value of receivedDataCacheMaxSize
+     */
+    @Override
+    public int getReceivedDataCacheMaxSize() {
+        return receivedDataCacheMaxSize;
+    }
+
+    /**
+     * Setter method for property <tt>receivedDataCacheMaxSize</tt>.
+     *
+     * @param receivedDataCacheMaxSize  value to be assigned to property receivedDataCacheMaxSize
+     */
+    public void setReceivedDataCacheMaxSize(int receivedDataCacheMaxSize) {
+        this.receivedDataCacheMaxSize = receivedDataCacheMaxSize;
+    }
+
+    /**
+     * Getter method for property <tt>receivedDataCacheExpireSeconds</tt>.
+     *
+     * @return property value of receivedDataCacheExpireSeconds
+     */
+    @Override
+    public int getReceivedDataCacheExpireSeconds() {
+        return receivedDataCacheExpireSeconds;
+    }
+
+    /**
+     * Setter method for property <tt>receivedDataCacheExpireSeconds</tt>.
+     *
+     * @param receivedDataCacheExpireSeconds  value to be assigned to property receivedDataCacheExpireSeconds
+     */
+    public void setReceivedDataCacheExpireSeconds(int receivedDataCacheExpireSeconds) {
+        this.receivedDataCacheExpireSeconds = receivedDataCacheExpireSeconds;
+    }
+
+    /**
+     * Getter method for property <tt>datumCacheMaxWeight</tt>.
+     *
+     * @return property value of datumCacheMaxWeight
+     */
+    @Override
+    public long getDatumCacheMaxWeight() {
+        return datumCacheMaxWeight;
+    }
+
+    /**
+     * Setter method for property <tt>datumCacheMaxWeight</tt>.
+     *
+     * @param datumCacheMaxWeight  value to be assigned to property datumCacheMaxWeight
+     */
+    public void setDatumCacheMaxWeight(long datumCacheMaxWeight) {
+        this.datumCacheMaxWeight = datumCacheMaxWeight;
+    }
+
     public static int cpus() {
         return Runtime.getRuntime().availableProcessors();
     }
@@ -36,7 +36,8 @@ import com.alipay.sofa.registry.server.session.acceptor.WriteDataAcceptorImpl;
 import com.alipay.sofa.registry.server.session.cache.CacheGenerator;
 import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.DatumCacheGenerator;
-import com.alipay.sofa.registry.server.session.cache.SessionCacheService;
+import com.alipay.sofa.registry.server.session.cache.ReceivedDataCache;
+import com.alipay.sofa.registry.server.session.cache.VersionedCacheService;
 import com.alipay.sofa.registry.server.session.filter.DataIdMatchStrategy;
 import com.alipay.sofa.registry.server.session.filter.IPMatchStrategy;
 import com.alipay.sofa.registry.server.session.filter.ProcessFilter;
@@ -91,6 +92,8 @@ import com.alipay.sofa.registry.server.session.remoting.DataNodeExchanger;
 import com.alipay.sofa.registry.server.session.remoting.MetaNodeExchanger;
 import com.alipay.sofa.registry.server.session.remoting.handler.AbstractClientHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.AbstractServerHandler;
+import com.alipay.sofa.registry.server.session.remoting.handler.BatchDataChangeRequestHandler;
+import com.alipay.sofa.registry.server.session.remoting.handler.BatchRegisterHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.CancelAddressRequestHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.ClientNodeConnectionHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.DataChangeRequestHandler;
@@ -224,6 +227,7 @@ public class SessionServerConfiguration {
             list.add(clientNodeConnectionHandler());
             list.add(cancelAddressRequestHandler());
             list.add(syncConfigHandler());
+            list.add(batchRegisterHandler());
             return list;
         }
 
@@ -237,6 +241,11 @@ public class SessionServerConfiguration {
             return new SyncConfigHandler();
         }
 
+        @Bean
+        public AbstractServerHandler batchRegisterHandler() {
+            return new BatchRegisterHandler();
+        }
+
         @Bean
         public AbstractServerHandler subscriberHandler() {
             return new SubscriberHandler();
@@ -262,6 +271,7 @@ public class SessionServerConfiguration {
             Collection<AbstractClientHandler> list = new ArrayList<>();
             list.add(dataNodeConnectionHandler());
             list.add(dataChangeRequestHandler());
+            list.add(batchDataChangeRequestHandler());
             list.add(dataPushRequestHandler());
             return list;
         }
@@ -290,6 +300,11 @@ public class SessionServerConfiguration {
             return new DataChangeRequestHandler();
         }
 
+        @Bean
+        public AbstractClientHandler batchDataChangeRequestHandler() {
+            return new BatchDataChangeRequestHandler();
+        }
+
         @Bean
         public AbstractClientHandler dataPushRequestHandler() {
             return new DataPushRequestHandler();
@@ -418,13 +433,18 @@ public class SessionServerConfiguration {
 
         @Bean
         public CacheService sessionCacheService() {
-            return new SessionCacheService();
+            return new VersionedCacheService();
         }
 
         @Bean(name = "com.alipay.sofa.registry.server.session.cache.DatumKey")
         public CacheGenerator datumCacheGenerator() {
             return new DatumCacheGenerator();
         }
+
+        @Bean
+        public ReceivedDataCache receivedDataCache() {
+            return new ReceivedDataCache();
+        }
     }
 
     @Configuration
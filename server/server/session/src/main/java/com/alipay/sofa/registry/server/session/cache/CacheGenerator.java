@@ -16,6 +16,10 @@
  */
 package com.alipay.sofa.registry.server.session.cache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  *
  * @author shangyu.wh
@@ -31,4 +35,29 @@ public interface CacheGenerator {
      */
     Value generatePayload(Key key);
 
+    /**
+     * generator cache to replace a stale one, which may be reused to generate less
+     *
+     * @param key
+     * @param previous
+     * @return
+     */
+    default Value generatePayload(Key key, Value previous) {
+        return generatePayload(key);
+    }
+
+    /**
+     * generator cache for a batch of keys
+     *
+     * @param keys
+     * @return
+     */
+    default Map<Key, Value> generatePayloads(Collection<Key> keys) {
+        Map<Key, Value> values = new HashMap<>(keys.size());
+        for (Key key : keys) {
+            values.put(key, generatePayload(key));
+        }
+        return values;
+    }
+
 }
\ No newline at end of file
@@ -39,4 +39,18 @@ public interface CacheService {
      * @param keys
      */
     void invalidate(Key... keys);
+
+    /**
+     * invalidate cache by key if the cached value is older than the version
+     * @param key
+     * @param version
+     */
+    void invalidate(Key key, long version);
+
+    /**
+     * put value received from data node into cache, instead of loading it on next get
+     * @param key
+     * @param value
+     */
+    void put(Key key, Value value);
 }
\ No newline at end of file
@@ -16,6 +16,13 @@
  */
 package com.alipay.sofa.registry.server.session.cache;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
@@ -58,6 +65,67 @@ public class DatumCacheGenerator implements CacheGenerator {
         return null;
     }
 
+    /**
+     * only the publishers changed since the previous datum are fetched
+     *
+     * @param key
+     * @param previous
+     * @return
+     */
+    @Override
+    public Value generatePayload(Key key, Value previous) {
+        EntityType entityType = key.getEntityType();
+        if (previous != null && previous.getPayload() instanceof Datum
+            && entityType instanceof DatumKey) {
+            DatumKey datumKey = (DatumKey) entityType;
+
+            String dataCenter = datumKey.getDataCenter();
+            String dataInfoId = datumKey.getDataInfoId();
+
+            if (isNotBlank(dataCenter) && isNotBlank(dataInfoId)) {
+                return new Value(dataNodeService.fetchDataCenter(dataInfoId, dataCenter,
+                    (Datum) previous.getPayload()));
+            }
+        }
+        return generatePayload(key);
+    }
+
+    /**
+     * keys of the same dataInfoId in several dataCenters are fetched by one request
+     *
+     * @param keys
+     * @return
+     */
+    @Override
+    public Map<Key, Value> generatePayloads(Collection<Key> keys) {
+        Map<Key, Value> values = new HashMap<>(keys.size());
+        Map<String, List<Key>> keysByDataInfoId = new HashMap<>();
+        for (Key key : keys) {
+            EntityType entityType = key.getEntityType();
+            if (entityType instanceof DatumKey && isNotBlank(((DatumKey) entityType).getDataCenter())
+                && isNotBlank(((DatumKey) entityType).getDataInfoId())) {
+                keysByDataInfoId.computeIfAbsent(((DatumKey) entityType).getDataInfoId(),
+                    k -> new ArrayList<>()).add(key);
+            } else {
+                values.put(key, generatePayload(key));
+            }
+        }
+
+        keysByDataInfoId.forEach((dataInfoId, datumKeys) -> {
+            if (datumKeys.size() == 1) {
+                Key key = datumKeys.get(0);
+                values.put(key, generatePayload(key));
+                return;
+            }
+            Map<String, Datum> datumMap = dataNodeService.fetchGlobal(dataInfoId);
+            for (Key key : datumKeys) {
+                String dataCenter = ((DatumKey) key.getEntityType()).getDataCenter();
+                values.put(key, new Value(datumMap == null ? null : datumMap.get(dataCenter)));
+            }
+        });
+        return values;
+    }
+
     public boolean isNotBlank(String ss) {
         return ss != null && !ss.isEmpty();
     }
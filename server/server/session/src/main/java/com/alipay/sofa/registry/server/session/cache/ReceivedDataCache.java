@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache the zone data of ReceivedData, which is the same for all subscribers of one datum version
+ * in the same scope and cell. Converting it extracts every publisher's data box, so a change of a hot
+ * dataInfoId is converted once and the result is shared by the ReceivedData pushed to each client,
+ * only subscriberRegistIds differs between them.
+ *
+ * The shared data map must be treated as read only.
+ *
+ * @author agent
+ * @version $Id: ReceivedDataCache.java, v 0.1 2026-10-18 19:41 agent Exp $
+ */
+public class ReceivedDataCache {
+
+    private static final Logger                    LOGGER = LoggerFactory
+                                                              .getLogger(ReceivedDataCache.class);
+
+    @Autowired
+    private SessionServerConfig                    sessionServerConfig;
+
+    private volatile Cache<ReceivedDataKey, Entry> cache;
+
+    private final Meter                            hitMeter;
+
+    private final Meter                            missMeter;
+
+    private final Counter                          savedBytesCounter;
+
+    public ReceivedDataCache() {
+        MetricRegistry metrics = TaskMetrics.getInstance().getMetricRegistry();
+        this.hitMeter = metrics.meter(MetricRegistry.name(ReceivedDataCache.class, "hit"));
+        this.missMeter = metrics.meter(MetricRegistry.name(ReceivedDataCache.class, "miss"));
+        this.savedBytesCounter = metrics.counter(MetricRegistry.name(ReceivedDataCache.class,
+            "savedBytes"));
+    }
+
+    /**
+     * same as ReceivedDataConverter.getReceivedDataMulti, but the zone data is shared with other
+     * calls of the same datum version, scope and cell
+     *
+     * @param datum the datum
+     * @param scope the scope
+     * @param subscriberRegisterIdList the subscriber register id list
+     * @param regionLocal the cell of subscribers
+     * @param zonePredicate zone filter, must only depend on dataInfoId, scope and regionLocal
+     * @return received data multi
+     */
+    public ReceivedData getReceivedDataMulti(Datum datum, ScopeEnum scope,
+                                             List subscriberRegisterIdList, String regionLocal,
+                                             Predicate<String> zonePredicate) {
+        if (null == datum) {
+            return null;
+        }
+        ReceivedDataKey key = new ReceivedDataKey(datum.getDataInfoId(), datum.getDataCenter(),
+            datum.getVersion(), scope, regionLocal);
+        Entry entry = getCache().getIfPresent(key);
+        if (entry != null) {
+            hitMeter.mark();
+            savedBytesCounter.inc(entry.dataBytes);
+        } else {
+            missMeter.mark();
+            try {
+                entry = getCache().get(key, () -> new Entry(ReceivedDataConverter
+                        .getReceivedDataMulti(datum, scope, new ArrayList<>(), regionLocal,
+                                zonePredicate)));
+            } catch (ExecutionException e) {
+                LOGGER.error("Convert received data error, key={}", key, e);
+                return ReceivedDataConverter.getReceivedDataMulti(datum, scope,
+                    subscriberRegisterIdList, regionLocal, zonePredicate);
+            }
+        }
+
+        ReceivedData shared = entry.receivedData;
+        ReceivedData receivedData = new ReceivedData(shared.getDataId(), shared.getGroup(),
+            shared.getInstanceId(), shared.getSegment(), subscriberRegisterIdList,
+            shared.getData(), shared.getVersion());
+        receivedData.setScope(shared.getScope());
+        receivedData.setLocalZone(shared.getLocalZone());
+        return receivedData;
+    }
+
+    public long getHitCount() {
+        return hitMeter.getCount();
+    }
+
+    public long getMissCount() {
+        return missMeter.getCount();
+    }
+
+    public long getSavedBytes() {
+        return savedBytesCounter.getCount();
+    }
+
+    private Cache<ReceivedDataKey, Entry> getCache() {
+        if (cache == null) {
+            synchronized (this) {
+                if (cache == null) {
+                    cache = CacheBuilder
+                        .newBuilder()
+                        .maximumSize(sessionServerConfig.getReceivedDataCacheMaxSize())
+                        .expireAfterWrite(sessionServerConfig.getReceivedDataCacheExpireSeconds(),
+                            TimeUnit.SECONDS).build();
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Setter method for property <tt>sessionServerConfig</tt>.
+     *
+     * @param sessionServerConfig  value to be assigned to property sessionServerConfig
+     */
+    public void setSessionServerConfig(SessionServerConfig sessionServerConfig) {
+        this.sessionServerConfig = sessionServerConfig;
+    }
+
+    private static final class Entry {
+        private final ReceivedData receivedData;
+
+        /** length of all data strings, estimate of the conversion and serialization saved by a hit */
+        private final long         dataBytes;
+
+        Entry(ReceivedData receivedData) {
+            this.receivedData = receivedData;
+            long bytes = 0;
+            Map<String, List<DataBox>> data = receivedData.getData();
+            if (data != null) {
+                for (List<DataBox> boxes : data.values()) {
+                    for (DataBox box : boxes) {
+                        bytes += box.getData() == null ? 0 : box.getData().length();
+                    }
+                }
+            }
+            this.dataBytes = bytes;
+        }
+    }
+
+    private static final class ReceivedDataKey {
+        private final String    dataInfoId;
+        private final String    dataCenter;
+        private final Long      version;
+        private final ScopeEnum scope;
+        private final String    cell;
+
+        ReceivedDataKey(String dataInfoId, String dataCenter, Long version, ScopeEnum scope,
+                        String cell) {
+            this.dataInfoId = dataInfoId;
+            this.dataCenter = dataCenter;
+            this.version = version;
+            this.scope = scope;
+            this.cell = cell;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ReceivedDataKey)) {
+                return false;
+            }
+            ReceivedDataKey that = (ReceivedDataKey) o;
+            return Objects.equals(dataInfoId, that.dataInfoId)
+                   && Objects.equals(dataCenter, that.dataCenter)
+                   && Objects.equals(version, that.version) && scope == that.scope
+                   && Objects.equals(cell, that.cell);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dataInfoId, dataCenter, version, scope, cell);
+        }
+
+        @Override
+        public String toString() {
+            return "ReceivedDataKey{" + "dataInfoId='" + dataInfoId + '\'' + ", dataCenter='"
+                   + dataCenter + '\'' + ", version=" + version + ", scope=" + scope + ", cell='"
+                   + cell + '\'' + '}';
+        }
+    }
+}
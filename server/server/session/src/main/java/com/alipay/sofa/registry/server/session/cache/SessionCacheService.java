@@ -119,6 +119,16 @@ public class SessionCacheService implements CacheService {
         }
     }
 
+    @Override
+    public void invalidate(Key key, long version) {
+        invalidate(key);
+    }
+
+    @Override
+    public void put(Key key, Value value) {
+        readWriteCacheMap.put(key, value);
+    }
+
     /**
      * Setter method for property <tt>cacheGenerators</tt>.
      *
@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+
+/**
+ * Session cache weighted by the publisher count of cached datum instead of the entry count, so the
+ * bound follows the memory actually held. There is no expiry: an entry becomes stale when a data
+ * node reports a version newer than the cached datum, by DataChangeRequest or by the periodic
+ * version check. The reported version is remembered until a load returns it, a load that was
+ * already in flight with the old datum is reloaded on the next read. A stale entry is kept until
+ * then, so the reload only fetches the publishers changed since its version. Datum carried by
+ * DataChangeRequest is put directly and needs no load. A value without datum, as returned when
+ * the fetch from data node fails, is handed to the caller but never kept, so the next read loads
+ * it again instead of serving it until eviction.
+ *
+ * @author agent
+ * @version $Id: VersionedCacheService.java, v 0.1 2026-10-18 19:52 agent Exp $
+ */
+public class VersionedCacheService implements CacheService {
+
+    private static final Logger               LOGGER = LoggerFactory
+                                                         .getLogger(VersionedCacheService.class);
+
+    @Autowired
+    private SessionServerConfig               sessionServerConfig;
+
+    private Map<String, CacheGenerator>       cacheGenerators;
+
+    private volatile LoadingCache<Key, Value> readWriteCacheMap;
+
+    /**
+     * version reported by data node but not yet loaded, bounded with the same size as the cache
+     */
+    private volatile ConcurrentMap<Key, Long> requiredVersions;
+
+    private final Meter                       hitMeter;
+
+    private final Meter                       missMeter;
+
+    private final Meter                       staleMeter;
+
+    private final Meter                       putMeter;
+
+    private final Timer                       loadTimer;
+
+    public VersionedCacheService() {
+        MetricRegistry metrics = TaskMetrics.getInstance().getMetricRegistry();
+        this.hitMeter = metrics.meter(MetricRegistry.name(VersionedCacheService.class, "hit"));
+        this.missMeter = metrics.meter(MetricRegistry.name(VersionedCacheService.class, "miss"));
+        this.staleMeter = metrics.meter(MetricRegistry.name(VersionedCacheService.class, "stale"));
+        this.putMeter = metrics.meter(MetricRegistry.name(VersionedCacheService.class, "put"));
+        this.loadTimer = metrics.timer(MetricRegistry.name(VersionedCacheService.class, "load"));
+    }
+
+    @Override
+    public Value getValue(final Key key) throws CacheAccessException {
+        try {
+            LoadingCache<Key, Value> cache = getCache();
+            Value value = cache.getIfPresent(key);
+            if (value != null && !isStale(key, value)) {
+                hitMeter.mark();
+                return value;
+            }
+            if (value != null) {
+                staleMeter.mark();
+                value = reload(key, value);
+            } else {
+                missMeter.mark();
+                value = cache.get(key);
+            }
+            if (isStale(key, value)) {
+                // a load started before the version was reported, data node has the new one now
+                staleMeter.mark();
+                value = reload(key, value);
+                if (isStale(key, value)) {
+                    // data node is still behind, do not reload on every read, the periodic
+                    // version check reports it again
+                    requiredVersions.remove(key);
+                }
+            }
+            evictEmpty(cache, key, value);
+            return value;
+        } catch (Throwable e) {
+            String msg = "Cannot get value for key is:" + key;
+            throw new CacheAccessException(msg, e);
+        }
+    }
+
+    @Override
+    public Map<Key, Value> getValues(final Iterable<Key> keys) throws CacheAccessException {
+        try {
+            LoadingCache<Key, Value> cache = getCache();
+            int hit = 0;
+            List<Key> loadKeys = new ArrayList<>();
+            for (Key key : keys) {
+                Value value = cache.getIfPresent(key);
+                if (value != null && !isStale(key, value)) {
+                    hit++;
+                    continue;
+                }
+                if (value != null) {
+                    staleMeter.mark();
+                    reload(key, value);
+                    continue;
+                }
+                loadKeys.add(key);
+            }
+            hitMeter.mark(hit);
+            missMeter.mark(loadKeys.size());
+            Map<Key, Value> values = cache.getAll(keys);
+            values.forEach((key, value) -> evictEmpty(cache, key, value));
+            return values;
+        } catch (Throwable e) {
+            String msg = "Cannot get value for keys are:" + keys;
+            throw new CacheAccessException(msg, e);
+        }
+    }
+
+    @Override
+    public void invalidate(Key... keys) {
+        for (Key key : keys) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Invalidating the response cache key : {} {} {}", key.getEntityType(),
+                    key.getEntityName(), key.getKeyType());
+            }
+            getCache().invalidate(key);
+        }
+    }
+
+    @Override
+    public void invalidate(Key key, long version) {
+        LoadingCache<Key, Value> cache = getCache();
+        Value value = cache.getIfPresent(key);
+        if (value != null && versionOf(value) >= version) {
+            return;
+        }
+        requiredVersions.merge(key, version, Math::max);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Invalidating the response cache key : {} {} {}, version {}",
+                key.getEntityType(), key.getEntityName(), key.getKeyType(), version);
+        }
+    }
+
+    @Override
+    public void put(Key key, Value value) {
+        LoadingCache<Key, Value> cache = getCache();
+        long version = versionOf(value);
+        Value cached = cache.getIfPresent(key);
+        if (cached != null && versionOf(cached) >= version) {
+            return;
+        }
+        cache.put(key, value);
+        requiredVersions.computeIfPresent(key, (k, required) -> required <= version ? null : required);
+        putMeter.mark();
+    }
+
+    /**
+     * replace a stale value by the one generated from it, unless it has been replaced already
+     */
+    private Value reload(Key key, Value previous) throws Exception {
+        Value value;
+        Timer.Context context = loadTimer.time();
+        try {
+            value = generatePayload(key, previous);
+        } finally {
+            context.stop();
+        }
+        LoadingCache<Key, Value> cache = getCache();
+        if (value == null) {
+            cache.asMap().remove(key, previous);
+            return cache.get(key);
+        }
+        if (value.getPayload() == null) {
+            // fetch failed, keep the stale datum rather than replacing it by nothing
+            return previous;
+        }
+        if (!cache.asMap().replace(key, previous, value)) {
+            Value current = cache.getIfPresent(key);
+            if (current != null) {
+                return current;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * a value without datum is a failed fetch, drop it unless it has been replaced already
+     */
+    private void evictEmpty(LoadingCache<Key, Value> cache, Key key, Value value) {
+        if (value.getPayload() == null) {
+            cache.asMap().remove(key, value);
+        }
+    }
+
+    /**
+     * a value is stale when a newer version has been reported for its key, the requirement is
+     * cleared once a value not older than it is seen
+     */
+    private boolean isStale(Key key, Value value) {
+        Long required = requiredVersions.get(key);
+        if (required == null) {
+            return false;
+        }
+        if (versionOf(value) >= required) {
+            requiredVersions.remove(key, required);
+            return false;
+        }
+        return true;
+    }
+
+    private long versionOf(Value value) {
+        Object payload = value.getPayload();
+        return payload instanceof Datum ? ((Datum) payload).getVersion() : Long.MIN_VALUE;
+    }
+
+    private int weigh(Value value) {
+        Object payload = value.getPayload();
+        if (payload instanceof Datum && ((Datum) payload).getPubMap() != null) {
+            return 1 + ((Datum) payload).getPubMap().size();
+        }
+        return 1;
+    }
+
+    private Value generatePayload(Key key) {
+        if (key == null || key.getEntityType() == null) {
+            throw new IllegalArgumentException("Generator key input error!");
+        }
+        if (key.getKeyType() != Key.KeyType.OBJ) {
+            LOGGER
+                .error("Unidentified data type: " + key.getKeyType() + " found in the cache key.");
+            return new Value(new HashMap<String, Object>());
+        }
+        return getCacheGenerator(key).generatePayload(key);
+    }
+
+    private Value generatePayload(Key key, Value previous) {
+        if (key == null || key.getEntityType() == null || key.getKeyType() != Key.KeyType.OBJ) {
+            return generatePayload(key);
+        }
+        return getCacheGenerator(key).generatePayload(key, previous);
+    }
+
+    private Map<Key, Value> generatePayloads(Iterable<? extends Key> keys) {
+        Map<CacheGenerator, Collection<Key>> keysByGenerator = new HashMap<>();
+        Map<Key, Value> values = new HashMap<>();
+        for (Key key : keys) {
+            if (key == null || key.getEntityType() == null || key.getKeyType() != Key.KeyType.OBJ) {
+                values.put(key, generatePayload(key));
+                continue;
+            }
+            keysByGenerator.computeIfAbsent(getCacheGenerator(key), k -> new ArrayList<>()).add(key);
+        }
+        keysByGenerator.forEach((generator, generatorKeys) -> values.putAll(generator
+            .generatePayloads(generatorKeys)));
+        return values;
+    }
+
+    private CacheGenerator getCacheGenerator(Key key) {
+        return cacheGenerators.get(key.getEntityType().getClass().getName());
+    }
+
+    private LoadingCache<Key, Value> getCache() {
+        if (readWriteCacheMap == null) {
+            synchronized (this) {
+                if (readWriteCacheMap == null) {
+                    long maxWeight = sessionServerConfig.getDatumCacheMaxWeight();
+                    requiredVersions = CacheBuilder.newBuilder().maximumSize(maxWeight)
+                        .<Key, Long> build().asMap();
+                    readWriteCacheMap = CacheBuilder.newBuilder().maximumWeight(maxWeight)
+                        .<Key, Value> weigher((key, value) -> weigh(value))
+                        .<Key, Value> removalListener(notification -> {
+                            if (notification.getCause() == RemovalCause.SIZE) {
+                                requiredVersions.remove(notification.getKey());
+                            }
+                        }).build(new CacheLoader<Key, Value>() {
+                            @Override
+                            public Value load(Key key) {
+                                Timer.Context context = loadTimer.time();
+                                try {
+                                    return generatePayload(key);
+                                } finally {
+                                    context.stop();
+                                }
+                            }
+
+                            @Override
+                            public Map<Key, Value> loadAll(Iterable<? extends Key> keys) {
+                                Timer.Context context = loadTimer.time();
+                                try {
+                                    return generatePayloads(keys);
+                                } finally {
+                                    context.stop();
+                                }
+                            }
+                        });
+                }
+            }
+        }
+        return readWriteCacheMap;
+    }
+
+    public long getHitCount() {
+        return hitMeter.getCount();
+    }
+
+    public long getMissCount() {
+        return missMeter.getCount();
+    }
+
+    public long getStaleCount() {
+        return staleMeter.getCount();
+    }
+
+    public long getPutCount() {
+        return putMeter.getCount();
+    }
+
+    /**
+     * mean load latency in milliseconds
+     *
+     * @return mean load latency
+     */
+    public double getLoadMeanMillis() {
+        return loadTimer.getSnapshot().getMean() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Setter method for property <tt>cacheGenerators</tt>.
+     *
+     * @param cacheGenerators  value to be assigned to property cacheGenerators
+     */
+    @Autowired
+    public void setCacheGenerators(Map<String, CacheGenerator> cacheGenerators) {
+        this.cacheGenerators = cacheGenerators;
+    }
+
+    /**
+     * Setter method for property <tt>sessionServerConfig</tt>.
+     *
+     * @param sessionServerConfig  value to be assigned to property sessionServerConfig
+     */
+    public void setSessionServerConfig(SessionServerConfig sessionServerConfig) {
+        this.sessionServerConfig = sessionServerConfig;
+    }
+}
@@ -17,23 +17,132 @@
 package com.alipay.sofa.registry.server.session.filter.blacklist;
 
 import com.alipay.sofa.registry.server.session.filter.DataIdMatchStrategy;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.springframework.util.StringUtils;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 /**
+ * Regex is compiled once for each configured value instead of on every match. A regex which is
+ * a plain literal or a literal prefix followed by .* is matched without regex at all, the verdict
+ * of any other regex is cached by dataId.
  *
  * @author shangyu.wh
  * @version 1.0: DefaultDataIdMatchStrategy.java, v 0.1 2019-06-19 22:15 shangyu.wh Exp $
  */
 public class DefaultDataIdMatchStrategy implements DataIdMatchStrategy<String> {
 
+    /**
+     * regex changes with config only, keep a few in case it is changed back and forth
+     */
+    private static final int                           MAX_MATCHERS        = 16;
+
+    private static final int                           MAX_CACHED_VERDICTS = 100000;
+
+    private final ConcurrentMap<String, DataIdMatcher> matchers            = new ConcurrentHashMap<>();
+
     @Override
     public boolean match(String dataId, Supplier<String> getOperatorType) {
-        if (StringUtils.hasText(dataId) && StringUtils.hasText(getOperatorType.get())) {
-            return Pattern.matches(getOperatorType.get(), dataId);
+        String regex = getOperatorType.get();
+        if (StringUtils.hasText(dataId) && StringUtils.hasText(regex)) {
+            return getMatcher(regex).match(dataId);
         }
         return true;
     }
-}
\ No newline at end of file
+
+    private DataIdMatcher getMatcher(String regex) {
+        DataIdMatcher matcher = matchers.get(regex);
+        if (matcher == null) {
+            if (matchers.size() >= MAX_MATCHERS) {
+                matchers.clear();
+            }
+            matcher = matchers.computeIfAbsent(regex, DataIdMatcher::new);
+        }
+        return matcher;
+    }
+
+    private static final class DataIdMatcher {
+        /** literal the dataId starts with, null when regex is not a literal prefix */
+        private final String                 prefix;
+        /** regex is a literal, dataId must equal the prefix */
+        private final boolean                exact;
+        private final Pattern                pattern;
+        private final Cache<String, Boolean> verdicts;
+
+        DataIdMatcher(String regex) {
+            String literal = toLiteral(regex);
+            if (literal != null) {
+                this.prefix = literal;
+                this.exact = true;
+                this.pattern = null;
+                this.verdicts = null;
+                return;
+            }
+            literal = regex.endsWith(".*") ? toLiteral(regex.substring(0, regex.length() - 2))
+                : null;
+            if (literal != null) {
+                this.prefix = literal;
+                this.exact = false;
+                this.pattern = null;
+                this.verdicts = null;
+                return;
+            }
+            this.prefix = null;
+            this.exact = false;
+            this.pattern = Pattern.compile(regex);
+            this.verdicts = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_VERDICTS).build();
+        }
+
+        boolean match(String dataId) {
+            if (pattern == null) {
+                if (exact) {
+                    return prefix.equals(dataId);
+                }
+                // same as '.', which does not match line terminators
+                return dataId.startsWith(prefix) && !hasLineTerminator(dataId, prefix.length());
+            }
+            Boolean verdict = verdicts.getIfPresent(dataId);
+            if (verdict == null) {
+                verdict = pattern.matcher(dataId).matches();
+                verdicts.put(dataId, verdict);
+            }
+            return verdict;
+        }
+
+        /**
+         * unescape the regex if it only matches itself, otherwise null
+         */
+        private static String toLiteral(String regex) {
+            StringBuilder sb = new StringBuilder(regex.length());
+            for (int i = 0; i < regex.length(); i++) {
+                char c = regex.charAt(i);
+                if (c == '\\') {
+                    if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                        // \d, \Q and the like are not literals
+                        return null;
+                    }
+                    sb.append(regex.charAt(++i));
+                } else if ("^$.|?*+()[]{}".indexOf(c) >= 0) {
+                    return null;
+                } else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString();
+        }
+
+        private static boolean hasLineTerminator(String dataId, int from) {
+            for (int i = from; i < dataId.length(); i++) {
+                char c = dataId.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -17,14 +17,19 @@
 package com.alipay.sofa.registry.server.session.filter.blacklist;
 
 import com.alipay.sofa.registry.server.session.filter.IPMatchStrategy;
-import org.apache.commons.lang.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
 /**
+ * IP_FULL patterns of each blacklist type are indexed into one set, so a match is a hash lookup.
+ * The index is rebuilt when BlacklistManager holds a new config list.
  *
  * @author shangyu.wh
  * @version 1.0: DefaultIPMatchStrategy.java, v 0.1 2019-06-19 22:16 shangyu.wh Exp $
@@ -34,49 +39,68 @@ public class DefaultIPMatchStrategy implements IPMatchStrategy<String> {
     @Autowired
     private BlacklistManager blacklistManager;
 
+    private volatile IPIndex ipIndex = new IPIndex(null, Collections.emptyMap());
+
     @Override
     public boolean match(String IP, Supplier<String> getOperatorType) {
-        return match(getOperatorType.get(), IP);
+        Set<String> ips = getIpIndex().get(getOperatorType.get());
+        return ips != null && ips.contains(IP);
     }
 
-    private boolean match(String type, String matchPattern) {
-
+    private Map<String, Set<String>> getIpIndex() {
         List<BlacklistConfig> configList = blacklistManager.getBlacklistConfigList();
-        for (BlacklistConfig blacklistConfig : configList) {
-
-            // 如黑名单类型不匹配则跳过
-            if (!StringUtils.equals(type, blacklistConfig.getType())) {
-                continue;
-            }
+        IPIndex index = ipIndex;
+        if (index.configList != configList) {
+            index = new IPIndex(configList, buildIndex(configList));
+            ipIndex = index;
+        }
+        return index.ipsByType;
+    }
 
+    private static Map<String, Set<String>> buildIndex(List<BlacklistConfig> configList) {
+        Map<String, Set<String>> ipsByType = new HashMap<>();
+        if (configList == null) {
+            return ipsByType;
+        }
+        for (BlacklistConfig blacklistConfig : configList) {
             List<MatchType> matchTypeList = blacklistConfig.getMatchTypes();
-
             // 匹配规则为空跳过
             if (null == matchTypeList || matchTypeList.size() == 0) {
                 continue;
             }
-
             for (MatchType matchType : matchTypeList) {
-                if (null == matchType) {
+                // IP 全匹配时发布者IP在IP列表中则拒绝发布
+                if (null == matchType || !BlacklistConstants.IP_FULL.equals(matchType.getType())) {
                     continue;
                 }
-
-                if (BlacklistConstants.IP_FULL.equals(matchType.getType())) {
-                    // IP 全匹配时判断当前发布者IP是否在IP列表中，如命中则拒绝发布
-                    @SuppressWarnings("unchecked")
-                    Set<String> patterns = matchType.getPatternSet();
-
-                    if (null == patterns || patterns.size() == 0) {
-                        continue;
-                    }
-
-                    if (patterns.contains(matchPattern)) {
-                        return true;
-                    }
+                @SuppressWarnings("unchecked")
+                Set<String> patterns = matchType.getPatternSet();
+                if (null == patterns || patterns.size() == 0) {
+                    continue;
                 }
+                ipsByType.computeIfAbsent(blacklistConfig.getType(), k -> new HashSet<>()).addAll(
+                    patterns);
             }
         }
-        return false;
+        return ipsByType;
     }
 
-}
\ No newline at end of file
+    /**
+     * Setter method for property <tt>blacklistManager</tt>.
+     *
+     * @param blacklistManager  value to be assigned to property blacklistManager
+     */
+    public void setBlacklistManager(BlacklistManager blacklistManager) {
+        this.blacklistManager = blacklistManager;
+    }
+
+    private static final class IPIndex {
+        private final List<BlacklistConfig>    configList;
+        private final Map<String, Set<String>> ipsByType;
+
+        IPIndex(List<BlacklistConfig> configList, Map<String, Set<String>> ipsByType) {
+            this.configList = configList;
+            this.ipsByType = ipsByType;
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.server.session.limit;
 
+import java.util.Map;
+
 /**
  *
  * @author shangyu.wh
@@ -23,4 +25,25 @@ package com.alipay.sofa.registry.server.session.limit;
  */
 public interface AccessLimitService {
     boolean tryAcquire();
+
+    /**
+     * acquire a register permit from the limit of the connection, of the app and of the session
+     * node in turn, a null connectId or appName skips that limit
+     * @param connectId
+     * @param appName
+     * @return false if any of the limits is exceeded
+     */
+    boolean tryAcquire(String connectId, String appName);
+
+    /**
+     * rejected request counts by the limit rejecting them: connection, app and global
+     * @return
+     */
+    Map<String, Long> getRejectedCounts();
+
+    /**
+     * rejected request counts by appName of the rejected requests
+     * @return
+     */
+    Map<String, Long> getAppRejectedCounts();
 }
\ No newline at end of file
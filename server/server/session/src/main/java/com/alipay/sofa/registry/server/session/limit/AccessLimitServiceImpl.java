@@ -16,19 +16,56 @@
  */
 package com.alipay.sofa.registry.server.session.limit;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.google.common.util.concurrent.RateLimiter;
 
 /**
+ * Register requests are limited per connection, then per app, then for the whole session node, so
+ * one client registering in a loop only uses up its own tokens and those of its app. A request
+ * refused by a later limit gives its tokens back to the former ones. Buckets not used for
+ * BUCKET_IDLE_MILLIS are evicted, a full bucket is the same as a new one.
  *
  * @author shangyu.wh
  * @version 1.0: AccessLimitServiceImpl.java, v 0.1 2019-08-26 20:37 shangyu.wh Exp $
  */
 public class AccessLimitServiceImpl implements AccessLimitService {
 
-    private SessionServerConfig sessionServerConfig;
+    private static final long                        BUCKET_IDLE_MILLIS = 60000;
+
+    /**
+     * rejections of apps beyond it are counted under OTHER_APPS
+     */
+    private static final int                         MAX_TRACKED_APPS   = 10000;
+
+    private static final String                      OTHER_APPS         = "_OTHERS";
+
+    private static final String                      UNKNOWN_APP        = "_UNKNOWN";
+
+    private SessionServerConfig                      sessionServerConfig;
+
+    private RateLimiter                              rateLimiter;
+
+    private final ConcurrentMap<String, TokenBucket> connectionBuckets  = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, TokenBucket> appBuckets         = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong>  appRejectedCounts  = new ConcurrentHashMap<>();
 
-    private RateLimiter         rateLimiter;
+    private final AtomicLong                         connectionRejected = new AtomicLong();
+
+    private final AtomicLong                         appRejected        = new AtomicLong();
+
+    private final AtomicLong                         globalRejected     = new AtomicLong();
+
+    private final AtomicLong                         lastEvictNanos     = new AtomicLong(
+                                                                            System.nanoTime());
 
     public AccessLimitServiceImpl(SessionServerConfig sessionServerConfig) {
         this.sessionServerConfig = sessionServerConfig;
@@ -37,6 +74,144 @@ public class AccessLimitServiceImpl implements AccessLimitService {
 
     @Override
     public boolean tryAcquire() {
-        return rateLimiter.tryAcquire();
+        if (!rateLimiter.tryAcquire()) {
+            globalRejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryAcquire(String connectId, String appName) {
+        long now = System.nanoTime();
+        evictIdleBuckets(now);
+
+        int burstSeconds = sessionServerConfig.getAccessLimitBurstSeconds();
+        TokenBucket connectionBucket = getBucket(connectionBuckets, connectId,
+            sessionServerConfig.getAccessLimitConnectionRate(), burstSeconds, now);
+        if (connectionBucket != null && !connectionBucket.tryAcquire(now)) {
+            connectionRejected.incrementAndGet();
+            countRejected(appName);
+            return false;
+        }
+        TokenBucket appBucket = getBucket(appBuckets, appName,
+            sessionServerConfig.getAccessLimitAppRate(), burstSeconds, now);
+        if (appBucket != null && !appBucket.tryAcquire(now)) {
+            release(connectionBucket);
+            appRejected.incrementAndGet();
+            countRejected(appName);
+            return false;
+        }
+        if (!rateLimiter.tryAcquire()) {
+            release(connectionBucket);
+            release(appBucket);
+            globalRejected.incrementAndGet();
+            countRejected(appName);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Long> getRejectedCounts() {
+        Map<String, Long> counts = new HashMap<>(4);
+        counts.put("connection", connectionRejected.get());
+        counts.put("app", appRejected.get());
+        counts.put("global", globalRejected.get());
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getAppRejectedCounts() {
+        Map<String, Long> counts = new HashMap<>(appRejectedCounts.size());
+        appRejectedCounts.forEach((appName, count) -> counts.put(appName, count.get()));
+        return counts;
+    }
+
+    private static TokenBucket getBucket(ConcurrentMap<String, TokenBucket> buckets, String key,
+                                         double rate, int burstSeconds, long now) {
+        if (key == null || rate <= 0) {
+            return null;
+        }
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new TokenBucket(rate, burstSeconds, now);
+            TokenBucket exist = buckets.putIfAbsent(key, bucket);
+            if (exist != null) {
+                bucket = exist;
+            }
+        }
+        return bucket;
+    }
+
+    private static void release(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    private void countRejected(String appName) {
+        String key = appName != null ? appName : UNKNOWN_APP;
+        AtomicLong count = appRejectedCounts.get(key);
+        if (count == null) {
+            if (appRejectedCounts.size() >= MAX_TRACKED_APPS) {
+                key = OTHER_APPS;
+            }
+            count = appRejectedCounts.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * at most one thread sweeps, once in BUCKET_IDLE_MILLIS
+     */
+    private void evictIdleBuckets(long now) {
+        long last = lastEvictNanos.get();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(BUCKET_IDLE_MILLIS);
+        if (now - last < idleNanos || !lastEvictNanos.compareAndSet(last, now)) {
+            return;
+        }
+        connectionBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        appBuckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    /**
+     * token bucket holding burstSeconds of tokens, at least one second
+     */
+    static final class TokenBucket {
+        private final double  nanosPerToken;
+        private final double  capacity;
+        private double        tokens;
+        private long          refillNanos;
+        private volatile long accessNanos;
+
+        TokenBucket(double rate, int burstSeconds, long now) {
+            this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / rate;
+            this.capacity = Math.max(1, rate * Math.max(1, burstSeconds));
+            this.tokens = capacity;
+            this.refillNanos = now;
+            this.accessNanos = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            accessNanos = now;
+            if (now > refillNanos) {
+                tokens = Math.min(capacity, tokens + (now - refillNanos) / nanosPerToken);
+                refillNanos = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void release() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            return now - accessNanos > idleNanos;
+        }
     }
-}
\ No newline at end of file
+}
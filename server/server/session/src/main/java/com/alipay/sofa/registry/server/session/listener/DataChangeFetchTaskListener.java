@@ -22,6 +22,7 @@ import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.cache.CacheService;
+import com.alipay.sofa.registry.server.session.cache.ReceivedDataCache;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.server.session.scheduler.task.DataChangeFetchTask;
 import com.alipay.sofa.registry.server.session.scheduler.task.SessionTask;
@@ -56,6 +57,9 @@ public class DataChangeFetchTaskListener implements TaskListener {
     @Autowired
     private CacheService                                 sessionCacheService;
 
+    @Autowired
+    private ReceivedDataCache                            receivedDataCache;
+
     /**
      * trigger task com.alipay.sofa.registry.server.meta.listener process
      */
@@ -94,7 +98,8 @@ public class DataChangeFetchTaskListener implements TaskListener {
     @Override
     public void handleEvent(TaskEvent event) {
         SessionTask dataChangeFetchTask = new DataChangeFetchTask(sessionServerConfig,
-            taskListenerManager, executorManager, sessionInterests, sessionCacheService);
+            taskListenerManager, executorManager, sessionInterests, sessionCacheService,
+            receivedDataCache);
         dataChangeFetchTask.setTaskEvent(event);
 
         getSingleTaskDispatcher().dispatch(dataChangeFetchTask.getTaskId(), dataChangeFetchTask,
@@ -16,15 +16,20 @@
  */
 package com.alipay.sofa.registry.server.session.node;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.Node.NodeType;
 import com.alipay.sofa.registry.common.model.metaserver.DataNode;
 import com.alipay.sofa.registry.common.model.metaserver.NodeChangeResult;
 import com.alipay.sofa.registry.consistency.hash.ConsistentHash;
+import com.alipay.sofa.registry.consistency.hash.MD5HashFunction;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.store.DataStore;
 
 /**
  *
@@ -33,13 +38,17 @@ import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
  */
 public class DataNodeManager extends AbstractNodeManager<DataNode> {
 
-    private static final Logger      LOGGER = LoggerFactory.getLogger(DataNodeManager.class,
-                                                "[DataNodeManager]");
+    private static final Logger               LOGGER = LoggerFactory
+                                                         .getLogger(DataNodeManager.class,
+                                                             "[DataNodeManager]");
+
+    @Autowired
+    private SessionServerConfig               sessionServerConfig;
 
     @Autowired
-    private SessionServerConfig      sessionServerConfig;
+    private DataStore                         sessionDataStore;
 
-    private ConsistentHash<DataNode> consistentHash;
+    private volatile ConsistentHash<DataNode> consistentHash;
 
     @Override
     public DataNode getNode(String dataInfoId) {
@@ -53,15 +62,25 @@ public class DataNodeManager extends AbstractNodeManager<DataNode> {
 
     @Override
     public void updateNodes(NodeChangeResult nodeChangeResult) {
+        boolean nodesChanged;
         write.lock();
         try {
+            Set<String> oldIps = getNodeIps();
             super.updateNodes(nodeChangeResult);
-            consistentHash = new ConsistentHash(sessionServerConfig.getNumberOfReplicas(),
-                getDataCenterNodes());
-
+            consistentHash = new ConsistentHash<>(new MD5HashFunction(),
+                sessionServerConfig.getNumberOfReplicas(), getDataCenterNodes(), true);
+            nodesChanged = !oldIps.equals(getNodeIps());
         } finally {
             write.unlock();
         }
+        if (nodesChanged) {
+            sessionDataStore.refreshRenewDigests();
+            LOGGER.info("Refresh renew digests because data node list changed: {}", getNodeIps());
+        }
+    }
+
+    private Set<String> getNodeIps() {
+        return getDataCenterNodes().stream().map(DataNode::getIp).collect(Collectors.toSet());
     }
 
     @Override
@@ -23,6 +23,7 @@ import java.util.Map;
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.InterestSummaryRequest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.URL;
 
@@ -74,6 +75,17 @@ public interface DataNodeService {
      */
     Datum fetchDataCenter(String dataInfoId, String dataCenterId);
 
+    /**
+     * fetch one dataCenter publisher data from data server, only the publishers changed since
+     * previous datum are transferred if data server can tell them
+     *
+     * @param dataInfoId
+     * @param dataCenterId
+     * @param previous datum cached by session, null to fetch the whole datum
+     * @return
+     */
+    Datum fetchDataCenter(String dataInfoId, String dataCenterId, Datum previous);
+
     /**
      * fetch all dataCenter datum
      * @param dataInfoId
@@ -99,4 +111,11 @@ public interface DataNodeService {
      */
     void sendDatumSnapshot(DatumSnapshotRequest datumSnapshotRequest);
 
+    /**
+     * report subscribed dataInfoIds of this session to dataServer
+     *
+     * @return false if dataServer has no summary of the version and needs the hashes
+     */
+    boolean reportInterestSummary(URL dataNodeUrl, InterestSummaryRequest interestSummaryRequest);
+
 }
\ No newline at end of file
@@ -16,10 +16,15 @@
  */
 package com.alipay.sofa.registry.server.session.node.service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -31,11 +36,14 @@ import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.dataserver.ClientOffRequest;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDelta;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataVersionRequest;
+import com.alipay.sofa.registry.common.model.dataserver.InterestSummaryRequest;
 import com.alipay.sofa.registry.common.model.dataserver.PublishDataRequest;
 import com.alipay.sofa.registry.common.model.dataserver.UnPublishDataRequest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
@@ -51,6 +59,7 @@ import com.alipay.sofa.registry.server.session.node.NodeManager;
 import com.alipay.sofa.registry.server.session.node.SessionProcessIdGenerator;
 import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
 import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer.TaskFailedCallback;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
@@ -238,6 +247,11 @@ public class DataNodeServiceImpl implements DataNodeService {
                 public URL getRequestUrl() {
                     return dataNodeUrl;
                 }
+
+                @Override
+                public Integer getTimeout() {
+                    return sessionServerConfig.getDataNodeExchangeForFetchVersionTimeOut();
+                }
             };
 
             Response response = dataNodeExchanger.request(getDataVersionRequestRequest);
@@ -282,21 +296,52 @@ public class DataNodeServiceImpl implements DataNodeService {
         return getDatumMap(dataInfoId, null);
     }
 
+    @Override
+    public Datum fetchDataCenter(String dataInfoId, String dataCenterId, Datum previous) {
+        if (previous == null || !sessionServerConfig.isDatumDeltaFetchEnable()) {
+            return fetchDataCenter(dataInfoId, dataCenterId);
+        }
+        GetDataRequest getDataRequest = new GetDataRequest(dataInfoId, dataCenterId);
+        getDataRequest.setVersion(previous.getVersion());
+        Object data = getData(getDataRequest);
+        if (data instanceof DatumDelta) {
+            DatumDelta datumDelta = (DatumDelta) data;
+            if (datumDelta.getVersion() == previous.getVersion()) {
+                return previous;
+            }
+            return datumDelta.applyTo(previous);
+        }
+        Map<String/*datacenter*/, Datum> map = internDatumMap(dataInfoId, data);
+        return map == null ? null : map.get(dataCenterId);
+    }
+
     @Override
     public Map<String, Datum> getDatumMap(String dataInfoId, String dataCenterId) {
+        GetDataRequest getDataRequest = new GetDataRequest();
 
-        Map<String/*datacenter*/, Datum> map;
+        //dataCenter null means all dataCenters
+        if (dataCenterId != null) {
+            getDataRequest.setDataCenter(dataCenterId);
+        }
 
-        try {
-            GetDataRequest getDataRequest = new GetDataRequest();
+        getDataRequest.setDataInfoId(dataInfoId);
 
-            //dataCenter null means all dataCenters
-            if (dataCenterId != null) {
-                getDataRequest.setDataCenter(dataCenterId);
-            }
+        return internDatumMap(dataInfoId, getData(getDataRequest));
+    }
 
-            getDataRequest.setDataInfoId(dataInfoId);
+    private Map<String, Datum> internDatumMap(String dataInfoId, Object data) {
+        Map<String/*datacenter*/, Datum> map = (Map<String, Datum>) data;
+        if (map == null || map.isEmpty()) {
+            LOGGER.warn("GetDataRequest get response contains no datum!dataInfoId={}", dataInfoId);
+        } else {
+            map.forEach((dataCenter, datum) -> Datum.internDatum(datum));
+        }
+        return map;
+    }
 
+    private Object getData(GetDataRequest getDataRequest) {
+        String dataInfoId = getDataRequest.getDataInfoId();
+        try {
             Request<GetDataRequest> getDataRequestStringRequest = new Request<GetDataRequest>() {
 
                 @Override
@@ -318,25 +363,17 @@ public class DataNodeServiceImpl implements DataNodeService {
             Response response = dataNodeExchanger.request(getDataRequestStringRequest);
             Object result = response.getResult();
             GenericResponse genericResponse = (GenericResponse) result;
-            if (genericResponse.isSuccess()) {
-                map = (Map<String, Datum>) genericResponse.getData();
-                if (map == null || map.isEmpty()) {
-                    LOGGER.warn("GetDataRequest get response contains no datum!dataInfoId={}", dataInfoId);
-                } else {
-                    map.forEach((dataCenter, datum) -> Datum.internDatum(datum));
-                }
-            } else {
-                throw new RuntimeException(
-                        String.format("GetDataRequest has got fail response!dataInfoId:%s msg:%s", dataInfoId,
-                                genericResponse.getMessage()));
+            if (!genericResponse.isSuccess()) {
+                throw new RuntimeException(String.format(
+                    "GetDataRequest has got fail response!dataInfoId:%s msg:%s", dataInfoId,
+                    genericResponse.getMessage()));
             }
+            return genericResponse.getData();
         } catch (RequestException e) {
-            throw new RuntimeException(
-                    String.format("Get data request to data node error!dataInfoId:%s msg:%s ", dataInfoId,
-                            e.getMessage()), e);
+            throw new RuntimeException(String.format(
+                "Get data request to data node error!dataInfoId:%s msg:%s ", dataInfoId,
+                e.getMessage()), e);
         }
-
-        return map;
     }
 
     @Override
@@ -374,6 +411,10 @@ public class DataNodeServiceImpl implements DataNodeService {
 
     @Override
     public void sendDatumSnapshot(DatumSnapshotRequest datumSnapshotRequest) {
+        if (sessionServerConfig.getDatumSnapshotChunkSize() > 0) {
+            sendDatumSnapshotInChunks(datumSnapshotRequest, 0);
+            return;
+        }
         String bizName = "DatumSnapshot";
         Request<DatumSnapshotRequest> request = buildDatumSnapshotRequest(datumSnapshotRequest);
         try {
@@ -386,6 +427,103 @@ public class DataNodeServiceImpl implements DataNodeService {
 
     }
 
+    /**
+     * chunks are sent one after another, a failed snapshot is sent again from the first chunk
+     * with a new snapshotId
+     */
+    private void sendDatumSnapshotInChunks(DatumSnapshotRequest datumSnapshotRequest, int retryTimes) {
+        try {
+            doSendDatumSnapshotInChunks(datumSnapshotRequest);
+        } catch (Exception e) {
+            if (retryTimes < sessionServerConfig.getDatumSnapshotTaskRetryTimes()) {
+                LOGGER.warn("DatumSnapshot failed, will retry again, retryTimes: {}, msg: {}",
+                        retryTimes + 1, e.getMessage());
+                asyncHashedWheelTimer.newTimeout(
+                        timeout -> sendDatumSnapshotInChunks(datumSnapshotRequest, retryTimes + 1),
+                        getDelayTime(retryTimes + 1, sessionServerConfig.getDatumSnapshotTaskRetryFirstDelay(),
+                                sessionServerConfig.getDatumSnapshotTaskRetryIncrementDelay()),
+                        TimeUnit.MILLISECONDS);
+            } else {
+                LOGGER.error(String.format(
+                        "DatumSnapshot failed, retryTimes have exceeded! stop retry! retryTimes: %s, request: %s, msg: %s",
+                        retryTimes, datumSnapshotRequest, e.getMessage()), e);
+            }
+        }
+    }
+
+    private void doSendDatumSnapshotInChunks(DatumSnapshotRequest datumSnapshotRequest)
+                                                                                       throws RequestException {
+        String connectId = datumSnapshotRequest.getConnectId();
+        String dataServerIp = datumSnapshotRequest.getDataServerIp();
+        String snapshotId = UUID.randomUUID().toString();
+        int chunkSize = sessionServerConfig.getDatumSnapshotChunkSize();
+        int chunkIndex = 0;
+        List<Publisher> publishers = datumSnapshotRequest.getPublishers();
+
+        if (sessionServerConfig.isDatumSnapshotDigestEnable()) {
+            Set<String> changedRegisterIds = new HashSet<>();
+            for (List<Publisher> chunk : Lists.partition(publishers, chunkSize)) {
+                Map<String, Map<String, Long>> digests = new HashMap<>();
+                for (Publisher publisher : chunk) {
+                    digests.computeIfAbsent(publisher.getDataInfoId(), k -> new HashMap<>()).put(
+                        publisher.getRegisterId(), PublisherDigestUtil.getDigestValue(publisher));
+                }
+                CommonResponse response = sendRequest("DatumSnapshot",
+                    buildDatumSnapshotRequest(new DatumSnapshotRequest(connectId, dataServerIp,
+                        null, snapshotId, chunkIndex++, false, digests)));
+                changedRegisterIds.addAll(getChangedRegisterIds(dataServerIp, response));
+            }
+            List<Publisher> changed = new ArrayList<>(changedRegisterIds.size());
+            for (Publisher publisher : publishers) {
+                if (changedRegisterIds.contains(publisher.getRegisterId())) {
+                    changed.add(publisher);
+                }
+            }
+            LOGGER.info("DatumSnapshot of connectId={} to {}: {} of {} publishers differ",
+                connectId, dataServerIp, changed.size(), publishers.size());
+            publishers = changed;
+        }
+
+        List<List<Publisher>> chunks = Lists.partition(publishers, chunkSize);
+        if (chunks.isEmpty()) {
+            // commit only
+            chunks = Lists.newArrayList();
+            chunks.add(new ArrayList<>());
+        }
+        for (int i = 0; i < chunks.size(); i++) {
+            sendRequest("DatumSnapshot", buildDatumSnapshotRequest(new DatumSnapshotRequest(
+                connectId, dataServerIp, new ArrayList<>(chunks.get(i)), snapshotId, chunkIndex++,
+                i == chunks.size() - 1, null)));
+        }
+    }
+
+    /**
+     * registerIds answered to a digest chunk, a data node without chunked snapshots answers
+     * CommonResponse only
+     */
+    private List<String> getChangedRegisterIds(String dataServerIp, CommonResponse response) {
+        if (!(response instanceof GenericResponse)) {
+            throw new RuntimeException(String.format(
+                "[DatumSnapshot] data server %s does not answer snapshot digests, response: %s, "
+                        + "disable datumSnapshotDigestEnable until all data servers are upgraded",
+                dataServerIp, response));
+        }
+        Object data = ((GenericResponse) response).getData();
+        if (data == null) {
+            return Collections.emptyList();
+        }
+        if (!(data instanceof List)) {
+            throw new RuntimeException(String.format(
+                "[DatumSnapshot] unexpected digest response from data server %s: %s", dataServerIp,
+                data));
+        }
+        List<String> registerIds = new ArrayList<>();
+        for (Object registerId : (List) data) {
+            registerIds.add((String) registerId);
+        }
+        return registerIds;
+    }
+
     private Request<DatumSnapshotRequest> buildDatumSnapshotRequest(DatumSnapshotRequest datumSnapshotRequest) {
         return new Request<DatumSnapshotRequest>() {
             private AtomicInteger retryTimes = new AtomicInteger();
@@ -408,6 +546,29 @@ public class DataNodeServiceImpl implements DataNodeService {
         };
     }
 
+    @Override
+    public boolean reportInterestSummary(URL dataNodeUrl,
+                                         InterestSummaryRequest interestSummaryRequest) {
+        Request<InterestSummaryRequest> request = new Request<InterestSummaryRequest>() {
+            @Override
+            public InterestSummaryRequest getRequestBody() {
+                return interestSummaryRequest;
+            }
+
+            @Override
+            public URL getRequestUrl() {
+                return dataNodeUrl;
+            }
+        };
+        try {
+            GenericResponse genericResponse = (GenericResponse) sendRequest("InterestSummary",
+                request);
+            return Boolean.TRUE.equals(genericResponse.getData());
+        } catch (RequestException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
     private CommonResponse sendRequest(String bizName, Request request) throws RequestException {
         Response response = dataNodeExchanger.request(request);
         Object result = response.getResult();
@@ -71,6 +71,12 @@ public interface Registry {
      */
     void fetchChangDataProcess();
 
+    /**
+     * Timing tasks to report subscribed dataInfoIds to data,
+     * data only notifies changes of them
+     */
+    void syncInterestSummary();
+
     /**
      * Regularly send update Datum with same connectID valid time request service
      */
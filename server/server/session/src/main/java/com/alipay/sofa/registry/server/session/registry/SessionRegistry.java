@@ -21,6 +21,10 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -29,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.common.model.dataserver.InterestSummaryRequest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.StoreData;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
@@ -36,6 +41,7 @@ import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.Watcher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
@@ -44,8 +50,10 @@ import com.alipay.sofa.registry.server.session.acceptor.WriteDataRequest;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.filter.DataIdMatchStrategy;
 import com.alipay.sofa.registry.server.session.node.NodeManager;
+import com.alipay.sofa.registry.server.session.node.SessionProcessIdGenerator;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import com.alipay.sofa.registry.server.session.renew.RenewService;
+import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.server.session.store.DataStore;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.session.store.Watchers;
@@ -55,6 +63,10 @@ import com.alipay.sofa.registry.server.session.wrapper.WrapperInterceptorManager
 import com.alipay.sofa.registry.server.session.wrapper.WrapperInvocation;
 import com.alipay.sofa.registry.task.listener.TaskEvent;
 import com.alipay.sofa.registry.task.listener.TaskListenerManager;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
 
@@ -65,15 +77,17 @@ import com.google.common.collect.Sets.SetView;
  */
 public class SessionRegistry implements Registry {
 
-    private static final Logger       LOGGER                  = LoggerFactory
-                                                                  .getLogger(SessionRegistry.class);
+    private static final Logger       LOGGER                     = LoggerFactory
+                                                                     .getLogger(SessionRegistry.class);
 
-    private static final Logger       TASK_LOGGER             = LoggerFactory.getLogger(
-                                                                  SessionRegistry.class, "[Task]");
+    private static final Logger       TASK_LOGGER                = LoggerFactory.getLogger(
+                                                                     SessionRegistry.class,
+                                                                     "[Task]");
 
-    private static final Logger       RENEW_LOGGER            = LoggerFactory.getLogger(
-                                                                  ValueConstants.LOGGER_NAME_RENEW,
-                                                                  "[SessionRegistry]");
+    private static final Logger       RENEW_LOGGER               = LoggerFactory
+                                                                     .getLogger(
+                                                                         ValueConstants.LOGGER_NAME_RENEW,
+                                                                         "[SessionRegistry]");
 
     /**
      * store subscribers
@@ -132,7 +146,41 @@ public class SessionRegistry implements Registry {
     @Autowired
     private WriteDataAcceptor         writeDataAcceptor;
 
-    private volatile boolean          enableDataRenewSnapshot = true;
+    private volatile boolean          enableDataRenewSnapshot    = true;
+
+    /**
+     * version of interest summary accepted by all data nodes
+     */
+    private volatile long             lastInterestSummaryVersion = -1;
+
+    /**
+     * dataInfoIds added to interest summary but versions not verified yet
+     */
+    private final Set<String>         pendingVerifyDataInfoIds   = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private ExecutorManager           executorManager;
+
+    /**
+     * data nodes whose versions are being checked by the periodic sweep
+     */
+    private final Set<String>         sweepingDataNodes          = ConcurrentHashMap.newKeySet();
+
+    private final Counter             staleRepairedCounter       = TaskMetrics
+                                                                     .getInstance()
+                                                                     .getMetricRegistry()
+                                                                     .counter(
+                                                                         MetricRegistry.name(
+                                                                             SessionRegistry.class,
+                                                                             "staleRepaired"));
+
+    private final Timer               fetchDataVersionTimer      = TaskMetrics
+                                                                     .getInstance()
+                                                                     .getMetricRegistry()
+                                                                     .timer(
+                                                                         MetricRegistry.name(
+                                                                             SessionRegistry.class,
+                                                                             "fetchDataVersion"));
 
     @Override
     public void register(StoreData storeData) {
@@ -327,11 +375,32 @@ public class SessionRegistry implements Registry {
             return;
         }
 
-        fetchChangDataProcess();
+        fetchChangDataProcess(true);
+        repushFailedSubscribers();
+    }
+
+    /**
+     * subscribers a data change push failed to are left behind by the interest version, push the
+     * current data to each of them as on register
+     */
+    private void repushFailedSubscribers() {
+        if (sessionServerConfig.isStopPushSwitch()) {
+            return;
+        }
+        for (Subscriber subscriber : sessionInterests.drainPushFailedSubscribers()) {
+            TaskEvent taskEvent = new TaskEvent(subscriber,
+                TaskEvent.TaskType.SUBSCRIBER_REGISTER_FETCH_TASK);
+            TASK_LOGGER.info("send " + taskEvent.getTaskType() + " taskEvent:{}", taskEvent);
+            getTaskListenerManager().sendTaskEvent(taskEvent);
+        }
     }
 
     @Override
     public void fetchChangDataProcess() {
+        fetchChangDataProcess(false);
+    }
+
+    private void fetchChangDataProcess(boolean periodic) {
         //check dataInfoId's sub list is not empty
         List<String> checkDataInfoIds = new ArrayList<>();
         sessionInterests.getInterestDataInfoIds().forEach((dataInfoId) -> {
@@ -343,21 +412,120 @@ public class SessionRegistry implements Registry {
 
         LOGGER.info("[fetchChangDataProcess] Fetch data versions for {} dataInfoIds", checkDataInfoIds.size());
 
+        fetchDataVersions(checkDataInfoIds, periodic);
+    }
+
+    /**
+     * versions of each data node are checked asynchronously and applied as soon as the data node
+     * answers, so a slow data node only delays its own dataInfoIds. The periodic sweep starts each
+     * data node after a random delay and skips a data node whose last sweep is not finished.
+     */
+    private void fetchDataVersions(Collection<String> checkDataInfoIds, boolean periodic) {
         Map<String/*address*/, Collection<String>/*dataInfoIds*/> map = calculateDataNode(checkDataInfoIds);
+        int jitterMillis = periodic ? sessionServerConfig.getFetchDataVersionJitterMillis() : 0;
 
         map.forEach((address, dataInfoIds) -> {
+            if (periodic && !sweepingDataNodes.add(address)) {
+                LOGGER.warn("[fetchChangDataProcess] Last sweep of data node {} not finished, skip it", address);
+                return;
+            }
+            long delay = jitterMillis > 0 ? ThreadLocalRandom.current().nextInt(jitterMillis) : 0;
+            try {
+                executorManager.getFetchDataVersionExecutor().schedule(() -> {
+                    try {
+                        fetchDataVersions(address, dataInfoIds);
+                    } finally {
+                        if (periodic) {
+                            sweepingDataNodes.remove(address);
+                        }
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                if (periodic) {
+                    sweepingDataNodes.remove(address);
+                }
+                LOGGER.error("[fetchChangDataProcess] Fetch data versions from {} rejected!", address, e);
+            }
+        });
+    }
 
-            //TODO asynchronous fetch version
-            Map<String/*datacenter*/, Map<String/*datainfoid*/, Long>> dataVersions = dataNodeService
-                    .fetchDataVersion(URL.valueOf(address), dataInfoIds);
-
+    private void fetchDataVersions(String address, Collection<String> dataInfoIds) {
+        long begin = System.currentTimeMillis();
+        int staleCount = 0;
+        int chunkSize = Math.max(1, sessionServerConfig.getFetchDataVersionChunkSize());
+        for (List<String> chunk : Lists.partition(new ArrayList<>(dataInfoIds), chunkSize)) {
+            Map<String/*datacenter*/, Map<String/*datainfoid*/, Long>> dataVersions;
+            try {
+                dataVersions = dataNodeService.fetchDataVersion(URL.valueOf(address),
+                    new ArrayList<>(chunk));
+            } catch (Throwable e) {
+                // data node may be unavailable, do not wait for the timeout of every chunk
+                LOGGER.error("[fetchChangDataProcess] Fetch data versions from {} error!", address,
+                    e);
+                break;
+            }
             if (dataVersions != null) {
-                sessionRegistryStrategy.doFetchChangDataProcess(dataVersions);
+                staleCount += sessionRegistryStrategy.doFetchChangDataProcess(dataVersions);
             } else {
                 LOGGER.warn("Fetch no change data versions info from {}", address);
             }
-        });
+        }
+        long cost = System.currentTimeMillis() - begin;
+        staleRepairedCounter.inc(staleCount);
+        fetchDataVersionTimer.update(cost, TimeUnit.MILLISECONDS);
+        LOGGER.info(
+            "[fetchChangDataProcess] Checked {} dataInfoIds on data node {} in {}ms, {} stale",
+            dataInfoIds.size(), address, cost, staleCount);
+    }
 
+    @Override
+    public void syncInterestSummary() {
+        if (!sessionServerConfig.isInterestSummaryEnable()) {
+            return;
+        }
+        // drain before reading subscribed dataInfoIds, so every drained one is in the hashes
+        pendingVerifyDataInfoIds.addAll(sessionInterests.drainAddedDataInfoIds());
+        long version = sessionInterests.getInterestSummaryVersion();
+        int[] hashes = null;
+        if (version != lastInterestSummaryVersion) {
+            hashes = InterestSummaryRequest.toHashes(sessionInterests.getSubscribedDataInfoIds());
+        }
+
+        boolean allAccepted = true;
+        String processId = SessionProcessIdGenerator.getSessionProcessId();
+        Collection<Node> dataNodes = dataNodeManager.getDataCenterNodes();
+        for (Node dataNode : dataNodes) {
+            URL url = new URL(dataNode.getNodeUrl().getIpAddress(),
+                sessionServerConfig.getDataServerPort());
+            try {
+                if (!dataNodeService.reportInterestSummary(url, new InterestSummaryRequest(
+                    processId, version, hashes))) {
+                    // data node has no summary of this version, it is new or restarted
+                    if (hashes == null) {
+                        hashes = InterestSummaryRequest.toHashes(sessionInterests
+                            .getSubscribedDataInfoIds());
+                    }
+                    dataNodeService.reportInterestSummary(url, new InterestSummaryRequest(
+                        processId, version, hashes));
+                }
+            } catch (Exception e) {
+                allAccepted = false;
+                LOGGER.error("Report interest summary to {} error!", url.getAddressString(), e);
+            }
+        }
+        if (!allAccepted) {
+            // data node keeps the old summary until it is stale, verify added dataInfoIds later
+            return;
+        }
+        lastInterestSummaryVersion = version;
+
+        // changes of added dataInfoIds before data nodes got the summary were not notified,
+        // verify them as DataChangeRequest would do, not while push is stopped
+        if (!pendingVerifyDataInfoIds.isEmpty() && !sessionServerConfig.isStopPushSwitch()) {
+            List<String> checkDataInfoIds = new ArrayList<>(pendingVerifyDataInfoIds);
+            pendingVerifyDataInfoIds.removeAll(checkDataInfoIds);
+            fetchDataVersions(checkDataInfoIds, false);
+        }
     }
 
     private Map<String, Collection<String>> calculateDataNode(Collection<String> dataInfoIds) {
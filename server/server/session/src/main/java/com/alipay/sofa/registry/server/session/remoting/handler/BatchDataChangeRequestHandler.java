@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.sessionserver.BatchDataChangeRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+
+/**
+ * changes buffered by data server, each one is handled as a single DataChangeRequest
+ *
+ * @author agent
+ * @version $Id: BatchDataChangeRequestHandler.java, v 0.1 2026-10-18 20:51 agent Exp $
+ */
+public class BatchDataChangeRequestHandler extends DataChangeRequestHandler {
+
+    private static final Logger LOGGER = LoggerFactory
+                                           .getLogger(BatchDataChangeRequestHandler.class);
+
+    @Override
+    public Object reply(Channel channel, Object message) {
+        BatchDataChangeRequest batchDataChangeRequest = (BatchDataChangeRequest) message;
+        RuntimeException error = null;
+        for (DataChangeRequest dataChangeRequest : batchDataChangeRequest.getChanges()) {
+            try {
+                super.reply(channel, dataChangeRequest);
+            } catch (RuntimeException e) {
+                // go on with other changes, data server retries the batch
+                LOGGER.error("DataChange in batch error! request={}", dataChangeRequest, e);
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return null;
+    }
+
+    @Override
+    public Class interest() {
+        return BatchDataChangeRequest.class;
+    }
+}
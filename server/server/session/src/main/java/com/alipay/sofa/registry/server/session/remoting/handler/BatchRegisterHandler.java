@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.ConfiguratorRegister;
+import com.alipay.sofa.registry.core.model.PublisherRegister;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import com.alipay.sofa.registry.core.model.SubscriberRegister;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.remoting.RemotingException;
+import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
+import com.alipay.sofa.registry.server.session.strategy.PublisherHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.SubscriberHandlerStrategy;
+import com.alipay.sofa.registry.server.session.strategy.WatcherHandlerStrategy;
+
+/**
+ * handle registers sent by client in one request, each one is processed the same way as
+ * PublisherHandler, SubscriberHandler and WatcherHandler do
+ *
+ * @author agent
+ * @version $Id: BatchRegisterHandler.java, v 0.1 2026-10-18 20:45 agent Exp $
+ */
+public class BatchRegisterHandler extends AbstractServerHandler {
+
+    private static final Logger       LOGGER = LoggerFactory.getLogger(BatchRegisterHandler.class);
+
+    @Autowired
+    private ExecutorManager           executorManager;
+
+    @Autowired
+    private PublisherHandlerStrategy  publisherHandlerStrategy;
+
+    @Autowired
+    private SubscriberHandlerStrategy subscriberHandlerStrategy;
+
+    @Autowired
+    private WatcherHandlerStrategy    watcherHandlerStrategy;
+
+    @Override
+    public Object reply(Channel channel, Object message) throws RemotingException {
+        BatchRegisterRequest batchRegisterRequest = (BatchRegisterRequest) message;
+        List<BaseRegister> registers = batchRegisterRequest.getRegisters();
+        List<RegisterResponse> responses = new ArrayList<>(registers == null ? 0 : registers.size());
+        if (registers != null) {
+            for (BaseRegister register : registers) {
+                RegisterResponse response = new RegisterResponse();
+                if (register instanceof PublisherRegister) {
+                    publisherHandlerStrategy.handlePublisherRegister(channel,
+                        (PublisherRegister) register, response);
+                } else if (register instanceof SubscriberRegister) {
+                    subscriberHandlerStrategy.handleSubscriberRegister(channel,
+                        (SubscriberRegister) register, response);
+                } else if (register instanceof ConfiguratorRegister) {
+                    watcherHandlerStrategy.handleConfiguratorRegister(channel,
+                        (ConfiguratorRegister) register, response);
+                } else {
+                    LOGGER.error("Unsupported register type in batch:{}", register);
+                    response.setSuccess(false);
+                    response.setMessage("Unsupported register type!");
+                }
+                responses.add(response);
+            }
+        }
+        return new BatchRegisterResponse(responses);
+    }
+
+    @Override
+    public HandlerType getType() {
+        return HandlerType.PROCESSER;
+    }
+
+    @Override
+    public Class interest() {
+        return BatchRegisterRequest.class;
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return executorManager.getAccessDataExecutor();
+    }
+}
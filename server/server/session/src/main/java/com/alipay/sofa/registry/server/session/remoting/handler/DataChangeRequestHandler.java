@@ -21,6 +21,7 @@ import java.util.concurrent.Executor;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.Node.NodeType;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -30,6 +31,7 @@ import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.DatumKey;
 import com.alipay.sofa.registry.server.session.cache.Key;
 import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
+import com.alipay.sofa.registry.server.session.cache.Value;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.session.strategy.DataChangeRequestHandlerStrategy;
@@ -89,8 +91,15 @@ public class DataChangeRequestHandler extends AbstractClientHandler {
         dataChangeRequest.setDataInfoId(dataChangeRequest.getDataInfoId());
 
         //update cache when change
-        sessionCacheService.invalidate(new Key(KeyType.OBJ, DatumKey.class.getName(), new DatumKey(
-            dataChangeRequest.getDataInfoId(), dataChangeRequest.getDataCenter())));
+        Key key = new Key(KeyType.OBJ, DatumKey.class.getName(), new DatumKey(
+            dataChangeRequest.getDataInfoId(), dataChangeRequest.getDataCenter()));
+        Datum datum = dataChangeRequest.getDatum();
+        if (datum != null) {
+            //small datum is carried by request, no fetch from data node
+            sessionCacheService.put(key, new Value(Datum.internDatum(datum)));
+        } else {
+            sessionCacheService.invalidate(key, dataChangeRequest.getVersion());
+        }
 
         if (sessionServerConfig.isStopPushSwitch()) {
             return null;
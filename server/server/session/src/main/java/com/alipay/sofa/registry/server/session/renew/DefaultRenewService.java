@@ -20,13 +20,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
 import com.alipay.sofa.registry.common.model.Node;
-import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.server.session.node.NodeManager;
@@ -49,13 +47,14 @@ public class DefaultRenewService implements RenewService {
 
     @Override
     public List<RenewDatumRequest> getRenewDatumRequests(String connectId) {
-        List<DatumSnapshotRequest> datumSnapshotRequests = getDatumSnapshotRequest(connectId);
-        if (datumSnapshotRequests != null && !datumSnapshotRequests.isEmpty()) {
-            return datumSnapshotRequests.stream()
-                    .map(datumSnapshotRequest -> new RenewDatumRequest(datumSnapshotRequest.getConnectId(),
-                            datumSnapshotRequest.getDataServerIp(), String.valueOf(
-                            PublisherDigestUtil.getDigestValueSum(datumSnapshotRequest.getPublishers()))))
-                    .collect(Collectors.toList());
+        Map<String, Long> renewDigests = sessionDataStore.queryRenewDigests(connectId);
+        if (renewDigests != null && !renewDigests.isEmpty()) {
+            List<RenewDatumRequest> list = new ArrayList<>(renewDigests.size());
+            for (Map.Entry<String, Long> entry : renewDigests.entrySet()) {
+                list.add(new RenewDatumRequest(connectId, entry.getKey(), String.valueOf(entry
+                    .getValue())));
+            }
+            return list;
         }
         return null;
     }
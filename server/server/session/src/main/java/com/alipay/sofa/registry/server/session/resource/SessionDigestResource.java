@@ -43,6 +43,7 @@ import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.common.model.store.Watcher;
 import com.alipay.sofa.registry.metrics.ReporterUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
 import com.alipay.sofa.registry.server.session.node.NodeManager;
 import com.alipay.sofa.registry.server.session.node.NodeManagerFactory;
 import com.alipay.sofa.registry.server.session.node.SessionNodeManager;
@@ -81,6 +82,9 @@ public class SessionDigestResource {
     @Autowired
     private SessionServerConfig sessionServerConfig;
 
+    @Autowired
+    private AccessLimitService  accessLimitService;
+
     private final static String SUB     = "SUB";
 
     private final static String PUB     = "PUB";
@@ -184,6 +188,19 @@ public class SessionDigestResource {
         return getDataInfoIdList().hashCode();
     }
 
+    /**
+     * register requests rejected by access limit, by limit and by app
+     */
+    @GET
+    @Path("limit/rejected")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Map<String, Long>> getLimitRejectedCounts() {
+        Map<String, Map<String, Long>> resultMap = new HashMap<>(2);
+        resultMap.put("tiers", accessLimitService.getRejectedCounts());
+        resultMap.put("apps", accessLimitService.getAppRejectedCounts());
+        return resultMap;
+    }
+
     private void fillServerList(String type,
                                 Map<String, Collection<? extends StoreData>> serverList,
                                 Collection<Publisher> publishers,
@@ -54,6 +54,8 @@ public class ExecutorManager {
     private final ScheduledThreadPoolExecutor scheduler;
 
     private final ThreadPoolExecutor          fetchDataExecutor;
+    private final ScheduledThreadPoolExecutor fetchDataVersionExecutor;
+    private final ThreadPoolExecutor          interestSummaryExecutor;
     private final ThreadPoolExecutor          standaloneCheckVersionExecutor;
     private final ThreadPoolExecutor          renNewDataExecutor;
     private final ThreadPoolExecutor          getSessionNodeExecutor;
@@ -116,6 +118,12 @@ public class ExecutorManager {
         fetchDataExecutor = new ThreadPoolExecutor(1, 2/*CONFIG*/, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
                 new NamedThreadFactory("SessionScheduler-fetchData"));
 
+        fetchDataVersionExecutor = new ScheduledThreadPoolExecutor(sessionServerConfig.getFetchDataVersionParallelism(),
+                new NamedThreadFactory("FetchDataVersion-executor", true));
+
+        interestSummaryExecutor = new ThreadPoolExecutor(1, 2/*CONFIG*/, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new NamedThreadFactory("SessionScheduler-interestSummary"));
+
         renNewDataExecutor = new ThreadPoolExecutor(1, 2/*CONFIG*/, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
                 new NamedThreadFactory("SessionScheduler-renewData"));
 
@@ -209,6 +217,12 @@ public class ExecutorManager {
                         sessionServerConfig.getSchedulerFetchDataExpBackOffBound(), () -> sessionRegistry.fetchChangData()),
                 sessionServerConfig.getSchedulerFetchDataFirstDelay(), TimeUnit.SECONDS);
 
+        scheduler.schedule(new TimedSupervisorTask("InterestSummary", scheduler, interestSummaryExecutor,
+                        sessionServerConfig.getSchedulerInterestSummaryTimeout(), TimeUnit.SECONDS,
+                        sessionServerConfig.getSchedulerInterestSummaryExpBackOffBound(),
+                        () -> sessionRegistry.syncInterestSummary()),
+                sessionServerConfig.getSchedulerInterestSummaryFirstDelay(), TimeUnit.SECONDS);
+
         scheduler.schedule(new TimedSupervisorTask("RenewData", scheduler, renNewDataExecutor,
                         sessionServerConfig.getSchedulerHeartbeatTimeout(), TimeUnit.SECONDS,
                         sessionServerConfig.getSchedulerHeartbeatExpBackOffBound(), () -> sessionNodeManager.renewNode()),
@@ -255,6 +269,14 @@ public class ExecutorManager {
             fetchDataExecutor.shutdown();
         }
 
+        if (fetchDataVersionExecutor != null && !fetchDataVersionExecutor.isShutdown()) {
+            fetchDataVersionExecutor.shutdown();
+        }
+
+        if (interestSummaryExecutor != null && !interestSummaryExecutor.isShutdown()) {
+            interestSummaryExecutor.shutdown();
+        }
+
         if (getSessionNodeExecutor != null && !getSessionNodeExecutor.isShutdown()) {
             getSessionNodeExecutor.shutdown();
         }
@@ -323,4 +345,8 @@ public class ExecutorManager {
     public ThreadPoolExecutor getPublishDataExecutor() {
         return publishDataExecutor;
     }
+
+    public ScheduledThreadPoolExecutor getFetchDataVersionExecutor() {
+        return fetchDataVersionExecutor;
+    }
 }
\ No newline at end of file
@@ -154,44 +154,45 @@ public class DataChangeFetchCloudTask extends AbstractSessionTask {
     public PushTaskClosure getTaskClosure(Map<String/*dataCenter*/, Datum> datumMap) {
 
         PushTaskClosure pushTaskClosure = new PushTaskClosure(executorManager.getPushTaskCheckAsyncHashedWheelTimer(),
-                sessionServerConfig, fetchDataInfoId);
+                sessionServerConfig, taskListenerManager, fetchDataInfoId);
         pushTaskClosure.setTaskClosure((status, task) -> {
-            if (status == ProcessingResult.Success) {
-                if (sessionServerConfig.isStopPushSwitch()) {
-                    LOGGER.info("Stop Push switch on,dataInfoId {} version can not be update!", fetchDataInfoId);
-                    return;
-                }
-                List<String> dataCenters = sessionInterests.getDataCenters();
-                datumMap.forEach((dataCenter, datum) -> {
-                    dataCenters.remove(dataCenter);
-
-                    String dataInfoId = fetchDataInfoId;
-                    Long version = datum.getVersion();
-                    boolean result = sessionInterests.checkAndUpdateInterestVersions(dataCenter, dataInfoId, version);
-                    if (result) {
-                        LOGGER.info("Push all tasks success,dataCenter:{} dataInfoId:{} version:{} update!", dataCenter,
-                                dataInfoId, version);
-                    } else {
-                        LOGGER.info(
-                                "Push all tasks success,but dataCenter:{} dataInfoId:{} version:{} need not update!",
-                                dataCenter, dataInfoId, version);
-                    }
-                });
-
-                // now, elements left in dataCenters, means that datum of the dataCenter,
-                // cannot be obtained from DataServer this time, it may cause pushing empty datum wrongly,
-                // so it is necessary to ensure that it can be checked later
-                dataCenters.forEach(dataCenter -> {
-                    boolean result = sessionInterests.checkAndUpdateInterestVersionZero(dataCenter, fetchDataInfoId);
-                    LOGGER.warn(
-                            "Obtained datum from DataServer({}) failed, set sessionInterests dataInfoId({}) version zero, return {}",
-                            dataCenter, fetchDataInfoId, result);
-                });
-
-            } else {
-                LOGGER.warn("Push tasks found error,subscribers version can not be update!dataInfoId={}",
-                        fetchDataInfoId);
+            if (sessionServerConfig.isStopPushSwitch()) {
+                LOGGER.info("Stop Push switch on,dataInfoId {} version can not be update!", fetchDataInfoId);
+                return;
             }
+            if (status != ProcessingResult.Success) {
+                // confirmed subscribers have got the versions, failed ones are pushed again on their own
+                List<Subscriber> failedSubscribers = pushTaskClosure.getFailedSubscribers();
+                sessionInterests.addPushFailedSubscribers(failedSubscribers);
+                LOGGER.warn("Push tasks found error,{} subscribers will be pushed again!dataInfoId={}",
+                        failedSubscribers.size(), fetchDataInfoId);
+            }
+            List<String> dataCenters = sessionInterests.getDataCenters();
+            datumMap.forEach((dataCenter, datum) -> {
+                dataCenters.remove(dataCenter);
+
+                String dataInfoId = fetchDataInfoId;
+                Long version = datum.getVersion();
+                boolean result = sessionInterests.checkAndUpdateInterestVersions(dataCenter, dataInfoId, version);
+                if (result) {
+                    LOGGER.info("Push tasks done,dataCenter:{} dataInfoId:{} version:{} update!", dataCenter,
+                            dataInfoId, version);
+                } else {
+                    LOGGER.info(
+                            "Push tasks done,but dataCenter:{} dataInfoId:{} version:{} need not update!",
+                            dataCenter, dataInfoId, version);
+                }
+            });
+
+            // now, elements left in dataCenters, means that datum of the dataCenter,
+            // cannot be obtained from DataServer this time, it may cause pushing empty datum wrongly,
+            // so it is necessary to ensure that it can be checked later
+            dataCenters.forEach(dataCenter -> {
+                boolean result = sessionInterests.checkAndUpdateInterestVersionZero(dataCenter, fetchDataInfoId);
+                LOGGER.warn(
+                        "Obtained datum from DataServer({}) failed, set sessionInterests dataInfoId({}) version zero, return {}",
+                        dataCenter, fetchDataInfoId, result);
+            });
         });
         return pushTaskClosure;
     }
@@ -40,8 +40,8 @@ import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.DatumKey;
 import com.alipay.sofa.registry.server.session.cache.Key;
 import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
+import com.alipay.sofa.registry.server.session.cache.ReceivedDataCache;
 import com.alipay.sofa.registry.server.session.cache.Value;
-import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.session.store.ReSubscribers;
@@ -79,15 +79,18 @@ public class DataChangeFetchTask extends AbstractSessionTask {
 
     private final CacheService        sessionCacheService;
 
+    private final ReceivedDataCache   receivedDataCache;
+
     public DataChangeFetchTask(SessionServerConfig sessionServerConfig,
                                TaskListenerManager taskListenerManager,
                                ExecutorManager executorManager, Interests sessionInterests,
-                               CacheService sessionCacheService) {
+                               CacheService sessionCacheService, ReceivedDataCache receivedDataCache) {
         this.sessionServerConfig = sessionServerConfig;
         this.taskListenerManager = taskListenerManager;
         this.executorManager = executorManager;
         this.sessionInterests = sessionInterests;
         this.sessionCacheService = sessionCacheService;
+        this.receivedDataCache = receivedDataCache;
     }
 
     @Override
@@ -191,31 +194,30 @@ public class DataChangeFetchTask extends AbstractSessionTask {
     public PushTaskClosure getTaskClosure(Long version) {
         //this for all this dataInfoId push result get and call back to change version
         PushTaskClosure pushTaskClosure = new PushTaskClosure(executorManager.getPushTaskCheckAsyncHashedWheelTimer(),
-                sessionServerConfig, dataChangeRequest.getDataInfoId());
+                sessionServerConfig, taskListenerManager, dataChangeRequest.getDataInfoId());
         pushTaskClosure.setTaskClosure((status, task) -> {
             String dataCenter = dataChangeRequest.getDataCenter();
             String dataInfoId = dataChangeRequest.getDataInfoId();
             Long changeVersion = dataChangeRequest.getVersion();
-            if (status == ProcessingResult.Success) {
-
-                if (sessionServerConfig.isStopPushSwitch()) {
-                    LOGGER.info("Stop Push switch on, dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}, can not be update!",
-                            dataCenter, dataInfoId, changeVersion, version);
-                    return;
-                }
-                boolean result = sessionInterests.checkAndUpdateInterestVersions(dataCenter, dataInfoId, version);
-                if (result) {
-                    LOGGER.info("Push all tasks success, dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}, update!", dataCenter,
-                            dataInfoId, changeVersion, version);
-                } else {
-                    LOGGER.info("Push all tasks success,but dataCenter:{} dataInfoId:{} version:{} need not update!",
-                            dataCenter, dataInfoId, version);
-                    LOGGER.info("Push all tasks success, but dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}, need not update!",
-                            dataCenter, dataInfoId, changeVersion, version);
-                }
-            } else {
+            if (sessionServerConfig.isStopPushSwitch()) {
+                LOGGER.info("Stop Push switch on, dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}, can not be update!",
+                        dataCenter, dataInfoId, changeVersion, version);
+                return;
+            }
+            if (status != ProcessingResult.Success) {
+                // confirmed subscribers have got the version, failed ones are pushed again on their own
+                List<Subscriber> failedSubscribers = pushTaskClosure.getFailedSubscribers();
+                sessionInterests.addPushFailedSubscribers(failedSubscribers);
                 LOGGER.warn(
-                        "Push tasks found error, subscribers version can not be update! dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}",
+                        "Push tasks found error, {} subscribers will be pushed again! dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}",
+                        failedSubscribers.size(), dataCenter, dataInfoId, changeVersion, version);
+            }
+            boolean result = sessionInterests.checkAndUpdateInterestVersions(dataCenter, dataInfoId, version);
+            if (result) {
+                LOGGER.info("Push tasks done, dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}, update!", dataCenter,
+                        dataInfoId, changeVersion, version);
+            } else {
+                LOGGER.info("Push tasks done, but dataCenter:{}, dataInfoId:{}, changeVersion:{}, pushVersion:{}, need not update!",
                         dataCenter, dataInfoId, changeVersion, version);
             }
         });
@@ -248,9 +250,8 @@ public class DataChangeFetchTask extends AbstractSessionTask {
             }
             return false;
         };
-        ReceivedData receivedData = ReceivedDataConverter
-                .getReceivedDataMulti(datum, scopeEnum, subscriberRegisterIdList,
-                        clientCell, zonePredicate);
+        ReceivedData receivedData = receivedDataCache.getReceivedDataMulti(datum, scopeEnum,
+                subscriberRegisterIdList, clientCell, zonePredicate);
 
         //trigger push to client node
         Map<ReceivedData, URL> parameter = new HashMap<>();
@@ -276,6 +277,7 @@ public class DataChangeFetchTask extends AbstractSessionTask {
         // get from cache (it will fetch from backend server)
         Value<Datum> value = null;
         try {
+            sessionCacheService.invalidate(key, dataChangeRequest.getVersion());
             value = sessionCacheService.getValue(key);
         } catch (CacheAccessException e) {
             LOGGER.error(String.format("error when access cache: %s", e.getMessage()), e);
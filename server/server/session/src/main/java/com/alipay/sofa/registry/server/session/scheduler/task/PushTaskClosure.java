@@ -16,20 +16,39 @@
  */
 package com.alipay.sofa.registry.server.session.scheduler.task;
 
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.task.Task;
 import com.alipay.sofa.registry.task.TaskClosure;
 import com.alipay.sofa.registry.task.batcher.TaskProcessor.ProcessingResult;
 import com.alipay.sofa.registry.task.listener.TaskEvent;
+import com.alipay.sofa.registry.task.listener.TaskListenerManager;
 import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Confirm the push tasks of one dataInfoId. Each task is tracked on its own: a subscriber whose
+ * push succeeded has its own push version updated by the task, and only the tasks not confirmed
+ * within pushTaskConfirmWaitTimeout are sent again, at most pushTaskConfirmRetryTimes rounds. A
+ * task is not sent again when every subscriber of it has got the version meanwhile. When retries
+ * are used up, the subscribers whose push version is still behind are the failed subscribers, the
+ * closure finishes with PermanentError and leaves them to be pushed again on their own, while the
+ * interest version is updated for the confirmed ones.
  *
  * @author shangyu.wh
  * @version $Id: PushTaskClosure.java, v 0.1 2018-06-04 17:13 shangyu.wh Exp $
@@ -39,62 +58,220 @@ public class PushTaskClosure implements TaskClosure {
     private final static Logger                         LOGGER        = LoggerFactory
                                                                           .getLogger(PushTaskClosure.class);
 
-    private Set<String>                                 tasks         = ConcurrentHashMap
-                                                                          .newKeySet();
+    private static final Meter                          RETRY_METER   = TaskMetrics
+                                                                          .getInstance()
+                                                                          .getMetricRegistry()
+                                                                          .meter(
+                                                                              MetricRegistry
+                                                                                  .name(
+                                                                                      PushTaskClosure.class,
+                                                                                      "retry"));
+
+    private static final Meter                          FAILED_METER  = TaskMetrics
+                                                                          .getInstance()
+                                                                          .getMetricRegistry()
+                                                                          .meter(
+                                                                              MetricRegistry
+                                                                                  .name(
+                                                                                      PushTaskClosure.class,
+                                                                                      "failed"));
+
+    /**
+     * tasks not confirmed yet
+     */
+    private Map<String, TaskEvent>                      tasks         = new ConcurrentHashMap<>();
 
     private ConcurrentHashMap<String, ProcessingResult> taskResultMap = new ConcurrentHashMap<>();
 
+    private final AtomicBoolean                         finished      = new AtomicBoolean();
+
     private TaskClosure                                 taskClosure;
 
     private final AsyncHashedWheelTimer                 pushTaskCheckAsyncHashedWheelTimer;
 
     private final SessionServerConfig                   sessionServerConfig;
 
+    private final TaskListenerManager                   taskListenerManager;
+
     private final String                                dataInfoId;
 
+    private volatile boolean                            added;
+
+    private volatile boolean                            started;
+
+    private final List<Subscriber>                      notConfirmed  = new ArrayList<>();
+
     public PushTaskClosure(AsyncHashedWheelTimer pushTaskCheckAsyncHashedWheelTimer,
-                           SessionServerConfig sessionServerConfig, String dataInfoId) {
+                           SessionServerConfig sessionServerConfig,
+                           TaskListenerManager taskListenerManager, String dataInfoId) {
         this.pushTaskCheckAsyncHashedWheelTimer = pushTaskCheckAsyncHashedWheelTimer;
         this.sessionServerConfig = sessionServerConfig;
+        this.taskListenerManager = taskListenerManager;
         this.dataInfoId = dataInfoId;
     }
 
     @Override
     public void run(ProcessingResult processingResult, Task task) {
         if (task != null) {
-            ProcessingResult result = taskResultMap.putIfAbsent(task.getTaskId(), processingResult);
-            if (result == null) {
-                if (processingResult == ProcessingResult.Success) {
-                    tasks.remove(task.getTaskId());
-                    if (tasks.isEmpty()) {
-                        LOGGER.info("Push all tasks success,dataInfoId={}", dataInfoId);
-                        if (taskClosure != null) {
-                            taskClosure.run(ProcessingResult.Success, null);
-                        }
-                    }
+            complete(task.getTaskId(), processingResult);
+        }
+    }
+
+    /**
+     * the task is not pushed, a newer push to the same subscribers merged it and is confirmed by
+     * its own closure
+     *
+     * @param taskId
+     */
+    public void supersede(String taskId) {
+        complete(taskId, ProcessingResult.Success);
+    }
+
+    private void complete(String taskId, ProcessingResult processingResult) {
+        ProcessingResult result = taskResultMap.putIfAbsent(taskId, processingResult);
+        if (result == null) {
+            if (processingResult == ProcessingResult.Success) {
+                tasks.remove(taskId);
+                // tasks may still be added before start, a task never added is confirmed alone
+                if ((started || !added) && tasks.isEmpty()) {
+                    finish(ProcessingResult.Success);
                 }
             }
         }
     }
 
     public void addTask(TaskEvent taskEvent) {
-        tasks.add(taskEvent.getTaskId());
+        tasks.put(taskEvent.getTaskId(), taskEvent);
+        added = true;
     }
 
     public void start() {
+        started = true;
         int size = tasks.size();
         LOGGER.info("Push task confirm,dataInfoId={},all task size={}", dataInfoId, size);
+        if (tasks.isEmpty()) {
+            // all confirmed before start, or nothing to confirm
+            if (added) {
+                finish(ProcessingResult.Success);
+            }
+            return;
+        }
+        scheduleCheck(0);
+    }
 
-        pushTaskCheckAsyncHashedWheelTimer.newTimeout(timeout -> {
+    private void scheduleCheck(int retryTimes) {
+        pushTaskCheckAsyncHashedWheelTimer.newTimeout(timeout -> check(retryTimes),
+                sessionServerConfig.getPushTaskConfirmWaitTimeout(), TimeUnit.MILLISECONDS);
+    }
 
-            if (!tasks.isEmpty()) {
-                LOGGER.warn("Push tasks found error tasks {},dataInfoId={}!", tasks.size(),dataInfoId);
-                if (taskClosure != null) {
-                    taskClosure.run(ProcessingResult.PermanentError, null);
-                }
+    private void check(int retryTimes) {
+        List<TaskEvent> retryTasks = new ArrayList<>();
+        for (TaskEvent taskEvent : tasks.values()) {
+            if (isPushed(taskEvent)) {
+                tasks.remove(taskEvent.getTaskId());
+            } else {
+                retryTasks.add(taskEvent);
+            }
+        }
+        if (retryTasks.isEmpty()) {
+            finish(ProcessingResult.Success);
+            return;
+        }
+        if (retryTimes >= sessionServerConfig.getPushTaskConfirmRetryTimes()) {
+            LOGGER.warn("Push tasks found error tasks {},dataInfoId={}!", retryTasks.size(),
+                dataInfoId);
+            FAILED_METER.mark(retryTasks.size());
+            for (TaskEvent taskEvent : retryTasks) {
+                notConfirmed.addAll(getNotPushedSubscribers(taskEvent));
+            }
+            finish(ProcessingResult.PermanentError);
+            return;
+        }
+
+        LOGGER.warn("Push tasks retry {} not confirmed tasks,dataInfoId={},retryTimes={}",
+            retryTasks.size(), dataInfoId, retryTimes + 1);
+        RETRY_METER.mark(retryTasks.size());
+        for (TaskEvent taskEvent : retryTasks) {
+            // forget the result of last round, late result is taken if it comes first
+            taskResultMap.remove(taskEvent.getTaskId(), ProcessingResult.PermanentError);
+            taskListenerManager.sendTaskEvent(taskEvent);
+        }
+        scheduleCheck(retryTimes + 1);
+    }
+
+    private void finish(ProcessingResult processingResult) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        if (processingResult == ProcessingResult.Success) {
+            LOGGER.info("Push all tasks success,dataInfoId={}", dataInfoId);
+        }
+        if (taskClosure != null) {
+            taskClosure.run(processingResult, null);
+        }
+    }
+
+    /**
+     * every subscriber of the task has got the pushed version, by this task or another one
+     */
+    private boolean isPushed(TaskEvent taskEvent) {
+        Object obj = taskEvent.getEventObj();
+        Collection<Subscriber> subscribers = (Collection<Subscriber>) taskEvent
+            .getAttribute(Constant.PUSH_CLIENT_SUBSCRIBERS);
+        if (!(obj instanceof Map) || ((Map) obj).size() != 1 || subscribers == null) {
+            return false;
+        }
+        Object receivedData = ((Map) obj).keySet().iterator().next();
+        if (!(receivedData instanceof ReceivedData)) {
+            return false;
+        }
+        String dataCenter = ((ReceivedData) receivedData).getSegment();
+        Long version = ((ReceivedData) receivedData).getVersion();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.checkVersion(dataCenter, version)) {
+                return false;
             }
+        }
+        return true;
+    }
 
-        },sessionServerConfig.getPushTaskConfirmWaitTimeout(),TimeUnit.MILLISECONDS);
+    /**
+     * subscribers of the task which have not got the pushed version, all of them if the version is
+     * not known
+     */
+    private Collection<Subscriber> getNotPushedSubscribers(TaskEvent taskEvent) {
+        Collection<Subscriber> subscribers = (Collection<Subscriber>) taskEvent
+            .getAttribute(Constant.PUSH_CLIENT_SUBSCRIBERS);
+        if (subscribers == null) {
+            return Collections.emptyList();
+        }
+        Object obj = taskEvent.getEventObj();
+        if (!(obj instanceof Map) || ((Map) obj).size() != 1) {
+            return subscribers;
+        }
+        Object receivedData = ((Map) obj).keySet().iterator().next();
+        if (!(receivedData instanceof ReceivedData)) {
+            return subscribers;
+        }
+        String dataCenter = ((ReceivedData) receivedData).getSegment();
+        Long version = ((ReceivedData) receivedData).getVersion();
+        List<Subscriber> notPushed = new ArrayList<>();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.checkVersion(dataCenter, version)) {
+                notPushed.add(subscriber);
+            }
+        }
+        return notPushed;
+    }
+
+    /**
+     * subscribers not confirmed when retries are used up, set before the closure finishes with
+     * PermanentError
+     *
+     * @return failed subscribers
+     */
+    public List<Subscriber> getFailedSubscribers() {
+        return notConfirmed;
     }
 
     /**
@@ -103,7 +280,7 @@ public class PushTaskClosure implements TaskClosure {
      * @return property value of tasks
      */
     public Set<String> getTasks() {
-        return tasks;
+        return tasks.keySet();
     }
 
     /**
@@ -114,4 +291,4 @@ public class PushTaskClosure implements TaskClosure {
     public void setTaskClosure(TaskClosure taskClosure) {
         this.taskClosure = taskClosure;
     }
-}
\ No newline at end of file
+}
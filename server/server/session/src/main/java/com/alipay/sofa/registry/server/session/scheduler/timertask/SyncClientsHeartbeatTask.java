@@ -30,6 +30,9 @@ import com.alipay.sofa.registry.metrics.TaskMetrics;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.cache.CacheService;
+import com.alipay.sofa.registry.server.session.cache.ReceivedDataCache;
+import com.alipay.sofa.registry.server.session.cache.VersionedCacheService;
 import com.alipay.sofa.registry.server.session.listener.ReceivedDataMultiPushTaskListener;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.server.session.store.DataStore;
@@ -91,6 +94,12 @@ public class SyncClientsHeartbeatTask {
     @Autowired
     private TaskListener        receivedDataMultiPushTaskListener;
 
+    @Autowired
+    private ReceivedDataCache   receivedDataCache;
+
+    @Autowired
+    private CacheService        sessionCacheService;
+
     @Scheduled(initialDelayString = "${session.server.syncHeartbeat.fixedDelay}", fixedDelayString = "${session.server.syncHeartbeat.fixedDelay}")
     public void syncCounte() {
         long countSub = sessionInterests.count();
@@ -199,5 +208,14 @@ public class SyncClientsHeartbeatTask {
             sb.append("\n");
             PRO_LOGGER.info(sb.toString());
         }
+        PRO_LOGGER.info("ReceivedDataCache >>>>>>>, Hit:{}, Miss:{}, SavedBytes:{}",
+            receivedDataCache.getHitCount(), receivedDataCache.getMissCount(),
+            receivedDataCache.getSavedBytes());
+        if (sessionCacheService instanceof VersionedCacheService) {
+            VersionedCacheService cacheService = (VersionedCacheService) sessionCacheService;
+            PRO_LOGGER.info("SessionCache >>>>>>>, Hit:{}, Miss:{}, Stale:{}, LoadMean:{}ms",
+                cacheService.getHitCount(), cacheService.getMissCount(),
+                cacheService.getStaleCount(), cacheService.getLoadMeanMillis());
+        }
     }
 }
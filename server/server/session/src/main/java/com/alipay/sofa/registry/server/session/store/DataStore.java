@@ -56,4 +56,17 @@ public interface DataStore extends DataManager<Publisher, String, String> {
      */
     Map<String/*connectId*/, Map<String/*registerId*/, Publisher>> getConnectPublishers();
 
+    /**
+     * get digest of publishers from one connectId group by the data server they belong to,
+     * the digest is PublisherDigestUtil.getDigestValueSum of these publishers
+     * @param connectId
+     * @return null if no publisher
+     */
+    Map<String/*dataServerIp*/, Long/*digest*/> queryRenewDigests(String connectId);
+
+    /**
+     * recompute renew digests after data server list changed
+     */
+    void refreshRenewDigests();
+
 }
\ No newline at end of file
@@ -78,6 +78,38 @@ public interface Interests extends DataManager<Subscriber, String, String> {
      */
     Collection<String> getInterestDataInfoIds();
 
+    /**
+     * version of the subscribed dataInfoId set, changes when a dataInfoId gets its first
+     * subscriber or loses the last one
+     * @return
+     */
+    long getInterestSummaryVersion();
+
+    /**
+     * dataInfoIds having subscribers now
+     * @return
+     */
+    Collection<String> getSubscribedDataInfoIds();
+
+    /**
+     * take dataInfoIds which got their first subscriber since last invoke
+     * @return
+     */
+    Collection<String> drainAddedDataInfoIds();
+
+    /**
+     * add subscribers a data change push has not been confirmed by, they are pushed again one by
+     * one later
+     * @param subscribers
+     */
+    void addPushFailedSubscribers(Collection<Subscriber> subscribers);
+
+    /**
+     * take subscribers added by addPushFailedSubscribers since last invoke and still registered
+     * @return
+     */
+    Collection<Subscriber> drainPushFailedSubscribers();
+
     /**
      * get subscribers whith specify dataInfo and scope,and group by source InetSocketAddress
      * @param dataInfoId
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.server.session.store;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,10 +25,15 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.node.NodeManager;
 
 /**
  *
@@ -36,19 +42,30 @@ import com.alipay.sofa.registry.log.LoggerFactory;
  */
 public class SessionDataStore implements DataStore {
 
-    private static final Logger                                               LOGGER        = LoggerFactory
-                                                                                                .getLogger(SessionDataStore.class);
-    private final ReentrantReadWriteLock                                      readWriteLock = new ReentrantReadWriteLock();
-    private final Lock                                                        write         = readWriteLock
-                                                                                                .writeLock();
+    private static final Logger                                                        LOGGER            = LoggerFactory
+                                                                                                             .getLogger(SessionDataStore.class);
+    private final ReentrantReadWriteLock                                               readWriteLock     = new ReentrantReadWriteLock();
+    private final Lock                                                                 write             = readWriteLock
+                                                                                                             .writeLock();
 
     /**
      * publisher store
      */
-    private Map<String/*dataInfoId*/, Map<String/*registerId*/, Publisher>> registry      = new ConcurrentHashMap<>();
+    private Map<String/*dataInfoId*/, Map<String/*registerId*/, Publisher>>          registry          = new ConcurrentHashMap<>();
 
     /*** index */
-    private Map<String/*connectId*/, Map<String/*registerId*/, Publisher>>  connectIndex  = new ConcurrentHashMap<>();
+    private Map<String/*connectId*/, Map<String/*registerId*/, Publisher>>           connectIndex      = new ConcurrentHashMap<>();
+
+    /**
+     * running sum of PublisherDigestUtil.getDigestValue of publishers, group by the data server they belong to
+     */
+    private final Map<String/*connectId*/, Map<String/*dataServerIp*/, RenewDigest>> renewDigests      = new ConcurrentHashMap<>();
+
+    /** renewDigests can not be maintained incrementally, rebuild it on next query */
+    private volatile boolean                                                           renewDigestsDirty = false;
+
+    @Autowired
+    private NodeManager                                                                dataNodeManager;
 
     @Override
     public void add(Publisher publisher) {
@@ -106,7 +123,12 @@ public class SessionDataStore implements DataStore {
             }
             publishers.put(publisher.getRegisterId(), publisher);
 
+            if (existingPublisher != null) {
+                removeFromConnectIndex(existingPublisher);
+                updateRenewDigest(existingPublisher, false);
+            }
             addToConnectIndex(publisher);
+            updateRenewDigest(publisher, true);
 
         } finally {
             write.unlock();
@@ -135,6 +157,7 @@ public class SessionDataStore implements DataStore {
 
                 } else {
                     removeFromConnectIndex(publisherTodelete);
+                    updateRenewDigest(publisherTodelete, false);
                     return true;
                 }
             }
@@ -162,6 +185,7 @@ public class SessionDataStore implements DataStore {
                 }
             }
             connectIndex.remove(connectId);
+            renewDigests.remove(connectId);
             return true;
         } catch (Exception e) {
             LOGGER.error("Delete publisher by connectId {} error!", connectId, e);
@@ -240,4 +264,98 @@ public class SessionDataStore implements DataStore {
     public Map<String, Map<String, Publisher>> getConnectPublishers() {
         return connectIndex;
     }
+
+    @Override
+    public Map<String, Long> queryRenewDigests(String connectId) {
+        if (renewDigestsDirty) {
+            refreshRenewDigests();
+        }
+        Map<String, RenewDigest> digests = renewDigests.get(connectId);
+        if (digests == null || digests.isEmpty()) {
+            return null;
+        }
+        Map<String, Long> result = new HashMap<>(digests.size());
+        digests.forEach((dataServerIp, renewDigest) -> result.put(dataServerIp, renewDigest.digest));
+        return result;
+    }
+
+    @Override
+    public void refreshRenewDigests() {
+        write.lock();
+        try {
+            renewDigests.clear();
+            renewDigestsDirty = false;
+            for (Map<String, Publisher> publishers : connectIndex.values()) {
+                for (Publisher publisher : publishers.values()) {
+                    updateRenewDigest(publisher, true);
+                    if (renewDigestsDirty) {
+                        renewDigests.clear();
+                        return;
+                    }
+                }
+            }
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * must be called under write lock
+     */
+    private void updateRenewDigest(Publisher publisher, boolean add) {
+        if (renewDigestsDirty) {
+            return;
+        }
+        String dataServerIp;
+        try {
+            Node dataNode = dataNodeManager.getNode(publisher.getDataInfoId());
+            dataServerIp = dataNode.getNodeUrl().getIpAddress();
+        } catch (Exception e) {
+            // data node list not ready
+            renewDigestsDirty = true;
+            return;
+        }
+        long digestValue = PublisherDigestUtil.getDigestValue(publisher);
+        String connectId = publisher.getSourceAddress().getAddressString();
+        Map<String, RenewDigest> digests = renewDigests.computeIfAbsent(
+                WordCache.getInstance().getWordCache(connectId), k -> new ConcurrentHashMap<>());
+        RenewDigest renewDigest = digests.get(dataServerIp);
+        if (add) {
+            digests.put(dataServerIp, renewDigest == null ? new RenewDigest(digestValue, 1)
+                : new RenewDigest(renewDigest.digest + digestValue, renewDigest.count + 1));
+        } else if (renewDigest != null) {
+            if (renewDigest.count <= 1) {
+                digests.remove(dataServerIp);
+                if (digests.isEmpty()) {
+                    renewDigests.remove(connectId);
+                }
+            } else {
+                digests.put(dataServerIp, new RenewDigest(renewDigest.digest - digestValue,
+                    renewDigest.count - 1));
+            }
+        }
+    }
+
+    /**
+     * Setter method for property <tt>dataNodeManager</tt>.
+     *
+     * @param dataNodeManager  value to be assigned to property dataNodeManager
+     */
+    public void setDataNodeManager(NodeManager dataNodeManager) {
+        this.dataNodeManager = dataNodeManager;
+    }
+
+    /**
+     * digest sum and publisher count of one (connectId, dataServerIp), immutable so it can be read without lock
+     */
+    private static final class RenewDigest {
+        private final long digest;
+
+        private final int  count;
+
+        RenewDigest(long digest, int count) {
+            this.digest = digest;
+            this.count = count;
+        }
+    }
 }
\ No newline at end of file
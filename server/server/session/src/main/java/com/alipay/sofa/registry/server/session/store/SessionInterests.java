@@ -18,13 +18,15 @@ package com.alipay.sofa.registry.server.session.store;
 
 import java.net.InetSocketAddress;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +40,7 @@ import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.cache.SubscriberResult;
 import com.alipay.sofa.registry.util.VersionsMapUtils;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
 
 /**
  *
@@ -46,14 +49,23 @@ import com.google.common.collect.Lists;
  */
 public class SessionInterests implements Interests, ReSubscribers {
 
-    private static final Logger                                                                             LOGGER            = LoggerFactory
-                                                                                                                                  .getLogger(SessionInterests.class);
+    private static final Logger                                                                             LOGGER                 = LoggerFactory
+                                                                                                                                       .getLogger(SessionInterests.class);
 
-    private final ReentrantReadWriteLock                                                                    readWriteLock     = new ReentrantReadWriteLock();
-    private final Lock                                                                                      read              = readWriteLock
-                                                                                                                                  .readLock();
-    private final Lock                                                                                      write             = readWriteLock
-                                                                                                                                  .writeLock();
+    private static final int                                                                                LOCK_STRIPES           = 256;
+
+    /**
+     * guard subscribers of one dataInfoId, so that operations on different dataInfoIds never contend
+     */
+    private final Striped<ReadWriteLock>                                                                    dataInfoIdLocks        = Striped
+                                                                                                                                       .readWriteLock(LOCK_STRIPES);
+
+    /**
+     * guard connectIndex of one connectId, always acquired before dataInfoIdLocks, several ones in
+     * stripe order
+     */
+    private final Striped<Lock>                                                                             connectIdLocks         = Striped
+                                                                                                                                       .lock(LOCK_STRIPES);
 
     @Autowired
     private SessionServerConfig                                                                             sessionServerConfig;
@@ -61,112 +73,191 @@ public class SessionInterests implements Interests, ReSubscribers {
     /**
      * store all register subscriber
      */
-    private ConcurrentHashMap<String/*dataInfoId*/, Map<String/*registerId*/, Subscriber>>                interests         = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String/*dataInfoId*/, Map<String/*registerId*/, Subscriber>>                interests              = new ConcurrentHashMap<>();
 
-    private Map<String/*connectId*/, Map<String/*registerId*/, Subscriber>>                               connectIndex      = new ConcurrentHashMap<>();
+    /**
+     * authoritative index of subscribers registered by one client connection
+     */
+    private Map<String/*connectId*/, Map<String/*registerId*/, Subscriber>>                               connectIndex           = new ConcurrentHashMap<>();
 
-    private Map<SubscriberResult, Map<InetSocketAddress, Map<String, Subscriber>>>                          resultIndex       = new ConcurrentHashMap<>();
+    private Map<SubscriberResult, Map<InetSocketAddress, Map<String, Subscriber>>>                          resultIndex            = new ConcurrentHashMap<>();
 
     /**
      * store subscriber interest dataInfo version belong one dataCenter
      */
-    private ConcurrentHashMap<String/*dataCenter*/, Map<String/*dataInfoId*/, Long /*dataInfoVersion*/>> interestVersions  = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String/*dataCenter*/, Map<String/*dataInfoId*/, Long /*dataInfoVersion*/>> interestVersions       = new ConcurrentHashMap<>();
+
+    private Map<String/*dataInfoId*/, Map<String/*registerId*/, Subscriber>>                              stopPushInterests      = new ConcurrentHashMap<>();
+
+    /**
+     * bumped when a dataInfoId gets its first subscriber or loses the last one
+     */
+    private final AtomicLong                                                                                interestSummaryVersion = new AtomicLong();
+
+    /**
+     * dataInfoIds got their first subscriber since last drain
+     */
+    private final Set<String>                                                                               addedDataInfoIds       = ConcurrentHashMap
+                                                                                                                                       .newKeySet();
 
-    private Map<String/*dataInfoId*/, Map<String/*registerId*/, Subscriber>>                              stopPushInterests = new ConcurrentHashMap<>();
+    /**
+     * subscribers a data change push failed to since last drain
+     */
+    private final Map<String/*registerId*/, Subscriber>                                                    pushFailedSubscribers  = new ConcurrentHashMap<>();
 
     @Override
     public void add(Subscriber subscriber) {
         Subscriber.internSubscriber(subscriber);
 
-        write.lock();
-        try {
-            Map<String, Subscriber> subscribers = interests.get(subscriber.getDataInfoId());
-
-            if (subscribers == null) {
-                Map<String, Subscriber> newMap = new ConcurrentHashMap<>();
-                subscribers = interests.putIfAbsent(subscriber.getDataInfoId(), newMap);
-                if (subscribers == null) {
-                    subscribers = newMap;
+        while (true) {
+            // the subscriber to overwrite may come from another connection, its connectIndex is
+            // changed too
+            Set<String> connectIds = new HashSet<>(2);
+            connectIds.add(getConnectId(subscriber));
+            Subscriber existing = queryById(subscriber.getRegisterId(), subscriber.getDataInfoId());
+            if (existing != null) {
+                connectIds.add(getConnectId(existing));
+            }
+            Iterable<Lock> connectLocks = lockConnectIds(connectIds);
+            Lock write = dataInfoIdLocks.get(subscriber.getDataInfoId()).writeLock();
+            write.lock();
+            try {
+                if (add(subscriber, connectIds)) {
+                    return;
                 }
+            } finally {
+                write.unlock();
+                unlock(connectLocks);
             }
+        }
+    }
 
-            Subscriber existingSubscriber = subscribers.get(subscriber.getRegisterId());
+    /**
+     * @return false if the subscriber to overwrite is not of the locked connectIds
+     */
+    private boolean add(Subscriber subscriber, Set<String> connectIds) {
+        Map<String, Subscriber> subscribers = interests.get(subscriber.getDataInfoId());
 
-            if (existingSubscriber != null) {
-                LOGGER.warn("There is subscriber already exists,it will be overwrite! {}",
-                    existingSubscriber);
+        if (subscribers == null) {
+            Map<String, Subscriber> newMap = new ConcurrentHashMap<>();
+            subscribers = interests.putIfAbsent(subscriber.getDataInfoId(), newMap);
+            if (subscribers == null) {
+                subscribers = newMap;
             }
+        }
 
-            subscribers.put(subscriber.getRegisterId(), subscriber);
+        Subscriber existingSubscriber = subscribers.get(subscriber.getRegisterId());
 
-            addReSubscriber(subscriber);
+        if (existingSubscriber != null) {
+            if (!connectIds.contains(getConnectId(existingSubscriber))) {
+                return false;
+            }
+            LOGGER.warn("There is subscriber already exists,it will be overwrite! {}",
+                existingSubscriber);
+            removeIndex(existingSubscriber);
+        }
 
-            addIndex(subscriber);
+        boolean firstSubscriber = subscribers.isEmpty();
 
-        } finally {
-            write.unlock();
+        subscribers.put(subscriber.getRegisterId(), subscriber);
+
+        if (firstSubscriber) {
+            addedDataInfoIds.add(subscriber.getDataInfoId());
+            interestSummaryVersion.incrementAndGet();
         }
 
+        addReSubscriber(subscriber);
+
+        addIndex(subscriber);
+        return true;
     }
 
     @Override
     public boolean deleteById(String registerId, String dataInfoId) {
 
-        write.lock();
-        try {
+        while (true) {
+            Subscriber existing = queryById(registerId, dataInfoId);
+            Set<String> connectIds = existing == null ? Collections.emptySet() : Collections
+                .singleton(getConnectId(existing));
+            Iterable<Lock> connectLocks = lockConnectIds(connectIds);
+            Lock write = dataInfoIdLocks.get(dataInfoId).writeLock();
+            write.lock();
+            try {
 
-            Map<String, Subscriber> subscribers = interests.get(dataInfoId);
+                Map<String, Subscriber> subscribers = interests.get(dataInfoId);
 
-            if (subscribers == null) {
-                LOGGER.error(
-                    "Delete failed because subscriber is not registered for dataInfoId: {}",
-                    dataInfoId);
-                return false;
-            } else {
-                Subscriber subscriberTodelete = subscribers.remove(registerId);
+                if (subscribers == null) {
+                    LOGGER.error(
+                        "Delete failed because subscriber is not registered for dataInfoId: {}",
+                        dataInfoId);
+                    return false;
+                }
+                Subscriber subscriberTodelete = subscribers.get(registerId);
 
                 if (subscriberTodelete == null) {
                     LOGGER.error(
                         "Delete failed because subscriber is not registered for registerId: {}",
                         registerId);
                     return false;
-                } else {
-                    if (sessionServerConfig.isStopPushSwitch()) {
-                        deleteReSubscriber(subscriberTodelete);
-                    }
-                    removeIndex(subscriberTodelete);
-
-                    return true;
                 }
+                if (!connectIds.contains(getConnectId(subscriberTodelete))) {
+                    // overwritten by a subscriber of another connection, lock its connectId
+                    continue;
+                }
+                subscribers.remove(registerId);
+                if (sessionServerConfig.isStopPushSwitch()) {
+                    deleteReSubscriber(subscriberTodelete);
+                }
+                removeIndex(subscriberTodelete);
+                if (subscribers.isEmpty()) {
+                    interestSummaryVersion.incrementAndGet();
+                }
+
+                return true;
+            } finally {
+                write.unlock();
+                unlock(connectLocks);
             }
-        } finally {
-            write.unlock();
         }
 
     }
 
     @Override
     public boolean deleteByConnectId(String connectId) {
-        write.lock();
+        Lock connectLock = connectIdLocks.get(connectId);
+        connectLock.lock();
         try {
-            for (Map<String, Subscriber> map : interests.values()) {
-                for (Iterator it = map.values().iterator(); it.hasNext();) {
-                    Subscriber subscriber = (Subscriber) it.next();
-                    if (connectId.equals(subscriber.getSourceAddress().getAddressString())) {
-
-                        it.remove();
-                        if (sessionServerConfig.isStopPushSwitch()) {
-                            deleteReSubscriber(subscriber);
-                        }
-
-                        invalidateIndex(subscriber);
-                    }
-                }
+            Map<String/*registerId*/, Subscriber> subscriberMap = connectIndex.remove(connectId);
+            if (subscriberMap == null) {
+                return true;
+            }
+            for (Subscriber subscriber : subscriberMap.values()) {
+                deleteByConnectIndex(subscriber);
             }
             return true;
         } catch (Exception e) {
             LOGGER.error("Delete subscriber by connectId {} error!", connectId, e);
             return false;
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private void deleteByConnectIndex(Subscriber subscriber) {
+        Lock write = dataInfoIdLocks.get(subscriber.getDataInfoId()).writeLock();
+        write.lock();
+        try {
+            Map<String, Subscriber> subscribers = interests.get(subscriber.getDataInfoId());
+            if (subscribers == null || !subscribers.remove(subscriber.getRegisterId(), subscriber)) {
+                return;
+            }
+            if (sessionServerConfig.isStopPushSwitch()) {
+                deleteReSubscriber(subscriber);
+            }
+            invalidateResultIndex(subscriber);
+            if (subscribers.isEmpty()) {
+                interestSummaryVersion.incrementAndGet();
+            }
         } finally {
             write.unlock();
         }
@@ -233,9 +324,10 @@ public class SessionInterests implements Interests, ReSubscribers {
 
     @Override
     public boolean checkAndUpdateInterestVersions(String dataCenter, String dataInfoId, Long version) {
+        dataInfoId = WordCache.getInstance().getWordCache(dataInfoId);
+        Lock read = dataInfoIdLocks.get(dataInfoId).readLock();
         read.lock();
         try {
-            dataInfoId = WordCache.getInstance().getWordCache(dataInfoId);
 
             Map<String, Subscriber> subscribers = interests.get(dataInfoId);
 
@@ -274,6 +366,64 @@ public class SessionInterests implements Interests, ReSubscribers {
         return interests.keySet();
     }
 
+    @Override
+    public long getInterestSummaryVersion() {
+        return interestSummaryVersion.get();
+    }
+
+    @Override
+    public Collection<String> getSubscribedDataInfoIds() {
+        return interests.entrySet().stream().filter(entry -> !entry.getValue().isEmpty())
+                .map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<String> drainAddedDataInfoIds() {
+        List<String> added = Lists.newArrayList();
+        for (String dataInfoId : addedDataInfoIds) {
+            if (addedDataInfoIds.remove(dataInfoId)) {
+                added.add(dataInfoId);
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public void addPushFailedSubscribers(Collection<Subscriber> subscribers) {
+        for (Subscriber subscriber : subscribers) {
+            pushFailedSubscribers.put(subscriber.getRegisterId(), subscriber);
+        }
+    }
+
+    @Override
+    public Collection<Subscriber> drainPushFailedSubscribers() {
+        List<Subscriber> failed = Lists.newArrayList();
+        for (Subscriber subscriber : pushFailedSubscribers.values()) {
+            if (pushFailedSubscribers.remove(subscriber.getRegisterId(), subscriber)
+                && queryById(subscriber.getRegisterId(), subscriber.getDataInfoId()) == subscriber) {
+                failed.add(subscriber);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * lock connectIds in stripe order, so that threads locking several connectIds never deadlock
+     */
+    private Iterable<Lock> lockConnectIds(Collection<String> connectIds) {
+        Iterable<Lock> locks = connectIdLocks.bulkGet(connectIds);
+        locks.forEach(Lock::lock);
+        return locks;
+    }
+
+    private static void unlock(Iterable<Lock> locks) {
+        locks.forEach(Lock::unlock);
+    }
+
+    private static String getConnectId(Subscriber subscriber) {
+        return subscriber.getSourceAddress().getAddressString();
+    }
+
     private void addIndex(Subscriber subscriber) {
         addConnectIndex(subscriber);
         addResultIndex(subscriber);
@@ -284,11 +434,6 @@ public class SessionInterests implements Interests, ReSubscribers {
         removeResultIndex(subscriber);
     }
 
-    private void invalidateIndex(Subscriber subscriber) {
-        invalidateConnectIndex(subscriber.getSourceAddress().getAddressString());
-        invalidateResultIndex(subscriber);
-    }
-
     private void addConnectIndex(Subscriber subscriber) {
         String connectId = subscriber.getSourceAddress().getAddressString();
         connectId = WordCache.getInstance().getWordCache(connectId);
@@ -362,10 +507,6 @@ public class SessionInterests implements Interests, ReSubscribers {
         }
     }
 
-    private void invalidateConnectIndex(String connectId) {
-        connectIndex.remove(connectId);
-    }
-
     private void invalidateResultIndex(Subscriber subscriber) {
 
         SubscriberResult subscriberResult = new SubscriberResult(subscriber.getDataInfoId(),
@@ -385,6 +526,7 @@ public class SessionInterests implements Interests, ReSubscribers {
     @Override
     public Map<InetSocketAddress, Map<String, Subscriber>> querySubscriberIndex(String dataInfoId,
                                                                                 ScopeEnum scope) {
+        Lock read = dataInfoIdLocks.get(dataInfoId).readLock();
         read.lock();
         try {
             SubscriberResult subscriberResult = new SubscriberResult(dataInfoId, scope);
@@ -27,7 +27,13 @@ import java.util.Map;
  * @since 2019/2/15
  */
 public interface SessionRegistryStrategy {
-    void doFetchChangDataProcess(Map<String, Map<String, Long>> dataInfoIdVersions);
+    /**
+     * invalidate datum older than the versions and push the changes
+     *
+     * @param dataInfoIdVersions
+     * @return count of stale datum
+     */
+    int doFetchChangDataProcess(Map<String, Map<String, Long>> dataInfoIdVersions);
 
     void afterPublisherRegister(Publisher publisher);
 
@@ -16,13 +16,40 @@
  */
 package com.alipay.sofa.registry.server.session.strategy.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.listener.PushTaskSender;
+import com.alipay.sofa.registry.server.session.scheduler.task.PushTaskClosure;
 import com.alipay.sofa.registry.server.session.strategy.TaskMergeProcessorStrategy;
+import com.alipay.sofa.registry.task.TaskClosure;
 import com.alipay.sofa.registry.task.listener.TaskEvent;
-
-import java.util.concurrent.atomic.AtomicInteger;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
 
 /**
+ * Debounce pushes of the same client connection, dataInfoId, scope and data center: only the newest
+ * pending ReceivedData is pushed once no newer one arrives in pushTaskMergeDebounceMillis, or at
+ * the latest pushTaskMergeMaxDelayMillis after the first one was accepted. An older version never
+ * overrides a newer one. A pending push is only overridden when the new one covers all of its
+ * subscribers, otherwise the pending one is sent at once.
+ *
+ * Events confirmed by a PushTaskClosure are merged as well, the task of the event not pushed is
+ * completed in its closure since the push kept confirms the same subscribers in its own. Nothing
+ * is merged when the debounce is not positive.
  *
  * @author shangyu.wh
  * @version $Id: TaskMergeUtil.java, v 0.1 2018-12-10 18:35 shangyu.wh Exp $
@@ -30,36 +57,187 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class DefaultPushTaskMergeProcessor<T extends PushTaskSender> implements
                                                                      TaskMergeProcessorStrategy<T> {
 
-    private T pushTaskSender;
+    private static final Logger                      LOGGER           = LoggerFactory
+                                                                          .getLogger(DefaultPushTaskMergeProcessor.class);
+
+    @Autowired
+    private SessionServerConfig                      sessionServerConfig;
+
+    private final ConcurrentMap<String, PendingPush> pendingPushes    = new ConcurrentHashMap<>();
+
+    private final AtomicInteger                      putTaskSize      = new AtomicInteger();
+
+    private final AtomicInteger                      overrideTaskSize = new AtomicInteger();
+
+    private final AtomicInteger                      sendTaskSize     = new AtomicInteger();
+
+    private T                                        pushTaskSender;
+
+    private ScheduledThreadPoolExecutor              flushExecutor;
 
     @Override
     public void init(T pushTaskSender) {
         this.pushTaskSender = pushTaskSender;
+        long debounceMillis = getDebounceMillis();
+        if (debounceMillis > 0) {
+            long tickMillis = Math.max(1, debounceMillis / 2);
+            flushExecutor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(
+                "PushTaskMerge-executor", true));
+            flushExecutor.scheduleWithFixedDelay(this::flushSafely, tickMillis, tickMillis,
+                TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void handleEvent(TaskEvent event) {
+        putTaskSize.incrementAndGet();
+        if (flushExecutor == null) {
+            send(event);
+            return;
+        }
+        Object obj = event.getEventObj();
+        if (!(obj instanceof Map) || ((Map) obj).size() != 1) {
+            send(event);
+            return;
+        }
+        Entry<ReceivedData, URL> entry = ((Map<ReceivedData, URL>) obj).entrySet().iterator()
+            .next();
+        ReceivedData receivedData = entry.getKey();
+        URL url = entry.getValue();
+        if (receivedData == null || url == null) {
+            send(event);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<TaskEvent> toSend = new ArrayList<>(1);
+        List<TaskEvent> superseded = new ArrayList<>(1);
+        pendingPushes.compute(getMergeKey(receivedData, url), (key, pending) -> {
+            if (pending == null) {
+                return new PendingPush(event, receivedData, now, now);
+            }
+            if (!covers(receivedData, pending.receivedData)) {
+                toSend.add(pending.event);
+                return new PendingPush(event, receivedData, now, now);
+            }
+            overrideTaskSize.incrementAndGet();
+            if (versionOf(receivedData) < versionOf(pending.receivedData)) {
+                superseded.add(event);
+                return pending;
+            }
+            superseded.add(pending.event);
+            return new PendingPush(event, receivedData, pending.firstTimestamp, now);
+        });
+        toSend.forEach(this::send);
+        superseded.forEach(DefaultPushTaskMergeProcessor::supersede);
+    }
+
+    private static void supersede(TaskEvent event) {
+        TaskClosure taskClosure = event.getTaskClosure();
+        if (taskClosure instanceof PushTaskClosure) {
+            ((PushTaskClosure) taskClosure).supersede(event.getTaskId());
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush(System.currentTimeMillis());
+        } catch (Throwable e) {
+            LOGGER.error("Flush merged push tasks error!", e);
+        }
+    }
+
+    /**
+     * send pending pushes which have been quiet for the debounce or waited for the max delay
+     *
+     * @param now current timestamp
+     */
+    void flush(long now) {
+        long debounceMillis = getDebounceMillis();
+        long maxDelayMillis = sessionServerConfig.getPushTaskMergeMaxDelayMillis();
+        for (Entry<String, PendingPush> entry : pendingPushes.entrySet()) {
+            PendingPush pending = entry.getValue();
+            if (now - pending.lastTimestamp < debounceMillis
+                && now - pending.firstTimestamp < maxDelayMillis) {
+                continue;
+            }
+            if (pendingPushes.remove(entry.getKey(), pending)) {
+                send(pending.event);
+            }
+        }
+    }
+
+    private void send(TaskEvent event) {
+        sendTaskSize.incrementAndGet();
         pushTaskSender.executePushAsync(event);
     }
 
+    private long getDebounceMillis() {
+        return sessionServerConfig.getPushTaskMergeDebounceMillis();
+    }
+
+    private static String getMergeKey(ReceivedData receivedData, URL url) {
+        return new StringBuilder(128).append(url.getAddressString()).append('#')
+            .append(receivedData.getDataId()).append('#').append(receivedData.getInstanceId())
+            .append('#').append(receivedData.getGroup()).append('#')
+            .append(receivedData.getScope()).append('#').append(receivedData.getSegment())
+            .toString();
+    }
+
+    private static boolean covers(ReceivedData receivedData, ReceivedData pending) {
+        List<String> registerIds = receivedData.getSubscriberRegistIds();
+        List<String> pendingRegisterIds = pending.getSubscriberRegistIds();
+        if (pendingRegisterIds == null || pendingRegisterIds.isEmpty()) {
+            return true;
+        }
+        return registerIds != null && registerIds.containsAll(pendingRegisterIds);
+    }
+
+    private static long versionOf(ReceivedData receivedData) {
+        return receivedData.getVersion() != null ? receivedData.getVersion() : Long.MIN_VALUE;
+    }
+
     @Override
     public AtomicInteger getPutTaskSize() {
-        return null;
+        return putTaskSize;
     }
 
     @Override
     public AtomicInteger getOverrideTaskSize() {
-        return null;
+        return overrideTaskSize;
     }
 
     @Override
     public AtomicInteger getSendTaskSize() {
-        return null;
+        return sendTaskSize;
     }
 
     @Override
     public Integer getPendingTaskSize() {
-        return null;
+        return pendingPushes.size();
     }
 
-}
\ No newline at end of file
+    /**
+     * Setter method for property <tt>sessionServerConfig</tt>.
+     *
+     * @param sessionServerConfig  value to be assigned to property sessionServerConfig
+     */
+    public void setSessionServerConfig(SessionServerConfig sessionServerConfig) {
+        this.sessionServerConfig = sessionServerConfig;
+    }
+
+    private static final class PendingPush {
+        private final TaskEvent    event;
+        private final ReceivedData receivedData;
+        private final long         firstTimestamp;
+        private final long         lastTimestamp;
+
+        PendingPush(TaskEvent event, ReceivedData receivedData, long firstTimestamp,
+                    long lastTimestamp) {
+            this.event = event;
+            this.receivedData = receivedData;
+            this.firstTimestamp = firstTimestamp;
+            this.lastTimestamp = lastTimestamp;
+        }
+    }
+}
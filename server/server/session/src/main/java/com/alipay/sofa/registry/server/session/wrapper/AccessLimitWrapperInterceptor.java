@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.session.wrapper;
 
 import com.alipay.sofa.registry.common.model.store.BaseInfo;
 import com.alipay.sofa.registry.common.model.store.StoreData;
+import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -37,10 +38,12 @@ public class AccessLimitWrapperInterceptor implements WrapperInterceptor<StoreDa
 
         BaseInfo baseInfo = (BaseInfo) invocation.getParameterSupplier().get();
 
-        if (!accessLimitService.tryAcquire()) {
+        URL sourceAddress = baseInfo.getSourceAddress();
+        if (!accessLimitService.tryAcquire(sourceAddress != null ? sourceAddress.getAddressString()
+            : null, baseInfo.getAppName())) {
             throw new RuntimeException(String.format(
-                "Register access limit for session server!dataInfoId=%s,connectId=%s",
-                baseInfo.getDataInfoId(), baseInfo.getSourceAddress()));
+                "Register access limit for session server!dataInfoId=%s,connectId=%s,appName=%s",
+                baseInfo.getDataInfoId(), sourceAddress, baseInfo.getAppName()));
         }
 
         return invocation.proceed();
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
+
+/**
+ *
+ * @author agent
+ * @version $Id: ReceivedDataCacheTest.java, v 0.1 2026-10-18 19:41 agent Exp $
+ */
+public class ReceivedDataCacheTest {
+
+    private final Predicate<String> zonePredicate = zone -> !"zoneA".equals(zone);
+
+    @Test
+    public void testSharedZoneData() {
+        ReceivedDataCache receivedDataCache = new ReceivedDataCache();
+        receivedDataCache.setSessionServerConfig(new SessionServerConfigBean(null));
+        Datum datum = newDatum(1L);
+
+        long hit = receivedDataCache.getHitCount();
+        long miss = receivedDataCache.getMissCount();
+        long savedBytes = receivedDataCache.getSavedBytes();
+
+        ReceivedData first = receivedDataCache.getReceivedDataMulti(datum, ScopeEnum.zone,
+            Collections.singletonList("registerId1"), "zoneA", zonePredicate);
+        ReceivedData second = receivedDataCache.getReceivedDataMulti(datum, ScopeEnum.zone,
+            Collections.singletonList("registerId2"), "zoneA", zonePredicate);
+
+        ReceivedData expect = ReceivedDataConverter.getReceivedDataMulti(datum, ScopeEnum.zone,
+            Collections.singletonList("registerId2"), "zoneA", zonePredicate);
+        Assert.assertEquals(expect.getData().keySet(), second.getData().keySet());
+        Assert.assertEquals(expect.getData().get("zoneA").size(), second.getData().get("zoneA")
+            .size());
+        Assert.assertEquals(expect.getVersion(), second.getVersion());
+        Assert.assertEquals(expect.getScope(), second.getScope());
+        Assert.assertEquals(expect.getLocalZone(), second.getLocalZone());
+        Assert.assertEquals(expect.getSegment(), second.getSegment());
+
+        Assert.assertEquals(Collections.singletonList("registerId1"),
+            first.getSubscriberRegistIds());
+        Assert.assertEquals(Collections.singletonList("registerId2"),
+            second.getSubscriberRegistIds());
+        Assert.assertSame(first.getData(), second.getData());
+
+        Assert.assertEquals(1, receivedDataCache.getHitCount() - hit);
+        Assert.assertEquals(1, receivedDataCache.getMissCount() - miss);
+        Assert.assertEquals("data-zoneA".length() * 2, receivedDataCache.getSavedBytes()
+                                                      - savedBytes);
+
+        //another scope or version is converted again
+        Assert.assertNotSame(first.getData(), receivedDataCache.getReceivedDataMulti(datum,
+            ScopeEnum.global, Collections.singletonList("registerId1"), "zoneA", zone -> false)
+            .getData());
+        Assert.assertNotSame(first.getData(), receivedDataCache.getReceivedDataMulti(
+            newDatum(2L), ScopeEnum.zone, Collections.singletonList("registerId1"), "zoneA",
+            zonePredicate).getData());
+    }
+
+    private Datum newDatum(long version) {
+        Datum datum = new Datum("dataId#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP", "DefaultDataCenter");
+        datum.setDataId("dataId");
+        datum.setInstanceId("DEFAULT_INSTANCE_ID");
+        datum.setGroup("DEFAULT_GROUP");
+        datum.setVersion(version);
+        Map<String, Publisher> pubMap = new HashMap<>();
+        pubMap.put("pub1", newPublisher("pub1", "zoneA"));
+        pubMap.put("pub2", newPublisher("pub2", "zoneA"));
+        pubMap.put("pub3", newPublisher("pub3", "zoneB"));
+        datum.setPubMap(pubMap);
+        return datum;
+    }
+
+    private Publisher newPublisher(String registerId, String cell) {
+        Publisher publisher = new Publisher();
+        publisher.setRegisterId(registerId);
+        publisher.setCell(cell);
+        List<ServerDataBox> dataList = new ArrayList<>();
+        dataList.add(new ServerDataBox("data-" + cell));
+        publisher.setDataList(dataList);
+        return publisher;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
+
+/**
+ *
+ * @author agent
+ * @version $Id: VersionedCacheServiceTest.java, v 0.1 2026-10-18 19:52 agent Exp $
+ */
+public class VersionedCacheServiceTest {
+
+    private static final String   DATA_INFO_ID = "dataId#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP";
+
+    private final AtomicLong      version      = new AtomicLong(1L);
+
+    private final AtomicInteger   loadCount    = new AtomicInteger();
+
+    private final AtomicInteger   batchCount   = new AtomicInteger();
+
+    private final AtomicInteger   reloadCount  = new AtomicInteger();
+
+    private volatile boolean      fetchFailed;
+
+    private VersionedCacheService cacheService;
+
+    @Before
+    public void setUp() {
+        cacheService = new VersionedCacheService();
+        cacheService.setSessionServerConfig(new SessionServerConfigBean(null));
+        Map<String, CacheGenerator> cacheGenerators = new HashMap<>();
+        cacheGenerators.put(DatumKey.class.getName(), new CacheGenerator() {
+            @Override
+            public Value generatePayload(Key key) {
+                loadCount.incrementAndGet();
+                if (fetchFailed) {
+                    return new Value(null);
+                }
+                return new Value(newDatum(((DatumKey) key.getEntityType()).getDataCenter()));
+            }
+
+            @Override
+            public Value generatePayload(Key key, Value previous) {
+                Assert.assertNotNull(previous);
+                reloadCount.incrementAndGet();
+                return generatePayload(key);
+            }
+
+            @Override
+            public Map<Key, Value> generatePayloads(Collection<Key> keys) {
+                batchCount.incrementAndGet();
+                Map<Key, Value> values = new HashMap<>();
+                keys.forEach(key -> values.put(key, new Value(newDatum(((DatumKey) key
+                    .getEntityType()).getDataCenter()))));
+                return values;
+            }
+        });
+        cacheService.setCacheGenerators(cacheGenerators);
+    }
+
+    @Test
+    public void testInvalidateByVersion() throws Exception {
+        Key key = newKey("dc1");
+        Assert.assertEquals(1L, getVersion(key));
+        Assert.assertEquals(1L, getVersion(key));
+        Assert.assertEquals(1, loadCount.get());
+
+        // version already cached, nothing to reload
+        cacheService.invalidate(key, 1L);
+        Assert.assertEquals(1L, getVersion(key));
+        Assert.assertEquals(1, loadCount.get());
+
+        version.set(2L);
+        cacheService.invalidate(key, 2L);
+        Assert.assertEquals(2L, getVersion(key));
+        Assert.assertEquals(2, loadCount.get());
+        Assert.assertEquals(2L, getVersion(key));
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void testDataNodeBehind() throws Exception {
+        Key key = newKey("dc1");
+        Assert.assertEquals(1L, getVersion(key));
+
+        // reported version not available yet, reload once more and then keep the loaded one
+        cacheService.invalidate(key, 2L);
+        Assert.assertEquals(1L, getVersion(key));
+        Assert.assertEquals(3, loadCount.get());
+        Assert.assertEquals(1L, getVersion(key));
+        Assert.assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    public void testReloadFromStaleValue() throws Exception {
+        Key key1 = newKey("dc1");
+        Key key2 = newKey("dc2");
+        Assert.assertEquals(1L, getVersion(key1));
+        cacheService.getValues(Arrays.asList(key1, key2));
+        Assert.assertEquals(1, batchCount.get());
+
+        // stale values are kept and generated again from the previous one
+        version.set(2L);
+        cacheService.invalidate(key1, 2L);
+        cacheService.invalidate(key2, 2L);
+        Assert.assertEquals(2L, getVersion(key1));
+        Assert.assertEquals(1, reloadCount.get());
+        Map<Key, Value> values = cacheService.getValues(Arrays.asList(key1, key2));
+        Assert.assertEquals(2L, ((Datum) values.get(key2).getPayload()).getVersion());
+        Assert.assertEquals(2, reloadCount.get());
+        Assert.assertEquals(1, batchCount.get());
+    }
+
+    @Test
+    public void testPutCarriedDatum() throws Exception {
+        Key key = newKey("dc1");
+        Assert.assertEquals(1L, getVersion(key));
+
+        // datum carried by change notification replaces the cached one without load
+        version.set(2L);
+        cacheService.invalidate(key, 2L);
+        cacheService.put(key, new Value(newDatum("dc1")));
+        Assert.assertEquals(2L, getVersion(key));
+        Assert.assertEquals(1, loadCount.get());
+
+        // older datum does not override
+        version.set(1L);
+        cacheService.put(key, new Value(newDatum("dc1")));
+        Assert.assertEquals(2L, getVersion(key));
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void testBatchLoad() throws Exception {
+        Key key1 = newKey("dc1");
+        Key key2 = newKey("dc2");
+        Map<Key, Value> values = cacheService.getValues(Arrays.asList(key1, key2));
+        Assert.assertEquals(2, values.size());
+        Assert.assertEquals("dc2", ((Datum) values.get(key2).getPayload()).getDataCenter());
+        Assert.assertEquals(1, batchCount.get());
+        Assert.assertEquals(0, loadCount.get());
+
+        cacheService.getValues(Arrays.asList(key1, key2));
+        Assert.assertEquals(1, batchCount.get());
+    }
+
+    @Test
+    public void testFailedFetchNotCached() throws Exception {
+        Key key = newKey("dc1");
+        fetchFailed = true;
+        Assert.assertNull(cacheService.getValue(key).getPayload());
+        Assert.assertNull(cacheService.getValue(key).getPayload());
+        Assert.assertEquals(2, loadCount.get());
+
+        // loaded again once data node answers
+        fetchFailed = false;
+        Assert.assertEquals(1L, getVersion(key));
+        Assert.assertEquals(3, loadCount.get());
+
+        // a failed reload keeps the stale datum
+        fetchFailed = true;
+        version.set(2L);
+        cacheService.invalidate(key, 2L);
+        Assert.assertEquals(1L, getVersion(key));
+        fetchFailed = false;
+        cacheService.invalidate(key, 2L);
+        Assert.assertEquals(2L, getVersion(key));
+    }
+
+    private long getVersion(Key key) throws CacheAccessException {
+        return ((Datum) cacheService.getValue(key).getPayload()).getVersion();
+    }
+
+    private Key newKey(String dataCenter) {
+        return new Key(KeyType.OBJ, DatumKey.class.getName(),
+            new DatumKey(DATA_INFO_ID, dataCenter));
+    }
+
+    private Datum newDatum(String dataCenter) {
+        Datum datum = new Datum(DATA_INFO_ID, dataCenter);
+        datum.setVersion(version.get());
+        datum.setPubMap(new HashMap<>());
+        return datum;
+    }
+}
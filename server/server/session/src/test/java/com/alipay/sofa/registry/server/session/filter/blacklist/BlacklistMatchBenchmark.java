@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.filter.blacklist;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Blacklist check on the register path with 100 blacklist rules: the dataId regex followed by the
+ * IP lookup, as BlacklistMatchProcessFilter does for a publisher. Compares the precompiled
+ * strategies against the previous Pattern.matches per call and the linear scan of all rules.
+ *
+ * run with main method, not by surefire.
+ *
+ * @author agent
+ * @version $Id: BlacklistMatchBenchmark.java, v 0.1 2026-10-18 22:49 agent Exp $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlacklistMatchBenchmark {
+
+    private static final int           DATA_IDS = 4096;
+
+    /** literal prefix and a regex which needs the regex engine */
+    @Param({ "com\\.alipay\\.blacklist\\..*", "(com|org)\\.alipay\\..*\\.blacklist" })
+    private String                     regex;
+
+    @Param({ "100" })
+    private int                        rules;
+
+    private String[]                   dataIds;
+
+    private String[]                   ips;
+
+    private int                        next;
+
+    private DefaultDataIdMatchStrategy dataIdMatchStrategy;
+
+    private DefaultIPMatchStrategy     ipMatchStrategy;
+
+    private LegacyMatcher              legacyMatcher;
+
+    @Setup
+    public void setup() {
+        List<BlacklistConfig> configList = new ArrayList<>();
+        for (int r = 0; r < rules; r++) {
+            Set<String> patterns = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                patterns.add("10.1." + r + "." + i);
+            }
+            MatchType<String> matchType = new MatchType<>();
+            matchType.setType(BlacklistConstants.IP_FULL);
+            matchType.setPatternSet(patterns);
+            BlacklistConfig blacklistConfig = new BlacklistConfig();
+            blacklistConfig.setType(r % 2 == 0 ? BlacklistConstants.FORBIDDEN_PUB
+                : BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX);
+            blacklistConfig.setMatchTypes(Collections.singletonList(matchType));
+            configList.add(blacklistConfig);
+        }
+        BlacklistManager blacklistManager = new BlacklistManagerImpl();
+        blacklistManager.setBlacklistConfigList(configList);
+
+        dataIdMatchStrategy = new DefaultDataIdMatchStrategy();
+        ipMatchStrategy = new DefaultIPMatchStrategy();
+        ipMatchStrategy.setBlacklistManager(blacklistManager);
+        legacyMatcher = new LegacyMatcher(configList);
+
+        dataIds = new String[DATA_IDS];
+        ips = new String[DATA_IDS];
+        for (int i = 0; i < DATA_IDS; i++) {
+            dataIds[i] = (i % 2 == 0 ? "com.alipay.blacklist." : "com.alipay.service.") + i;
+            // mostly not blacklisted, as on a normal register
+            ips[i] = "10." + (i % 8 == 0 ? 1 : 2) + "." + (i % rules) + "." + (i % 4);
+        }
+    }
+
+    @Benchmark
+    public boolean precompiled() {
+        int i = next();
+        return dataIdMatchStrategy.match(dataIds[i], () -> regex)
+               && ipMatchStrategy.match(ips[i], () -> BlacklistConstants.FORBIDDEN_PUB);
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        int i = next();
+        return Pattern.matches(regex, dataIds[i])
+               && legacyMatcher.match(BlacklistConstants.FORBIDDEN_PUB, ips[i]);
+    }
+
+    private int next() {
+        next = (next + 1) & (DATA_IDS - 1);
+        return next;
+    }
+
+    /**
+     * the scan DefaultIPMatchStrategy did before IP sets were indexed by blacklist type
+     */
+    private static final class LegacyMatcher {
+        private final List<BlacklistConfig> configList;
+
+        LegacyMatcher(List<BlacklistConfig> configList) {
+            this.configList = configList;
+        }
+
+        boolean match(String type, String ip) {
+            for (BlacklistConfig blacklistConfig : configList) {
+                if (!type.equals(blacklistConfig.getType())) {
+                    continue;
+                }
+                for (MatchType matchType : blacklistConfig.getMatchTypes()) {
+                    if (BlacklistConstants.IP_FULL.equals(matchType.getType())
+                        && matchType.getPatternSet().contains(ip)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BlacklistMatchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.filter.blacklist;
+
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent
+ * @version $Id: DefaultDataIdMatchStrategyTest.java, v 0.1 2026-10-18 22:49 agent Exp $
+ */
+public class DefaultDataIdMatchStrategyTest {
+
+    private static final String[] REGEXES  = { "com.alipay.test", "com\\.alipay\\.test",
+            "com\\.alipay\\..*", "com\\.alipay\\.test.*", ".*", "(com|org)\\.alipay\\..*",
+            "\\Qcom.alipay\\E.*", "\\w+\\.alipay\\..*", "com\\.alipay\\.test\\*" };
+
+    private static final String[] DATA_IDS = { "com.alipay.test", "com.alipay.test.Service",
+            "comxalipayxtest", "org.alipay.test", "com.alipay", "com.alipay.test*",
+            "com.alipay.test\nService", "com.alipay.test.Service:1.0" };
+
+    @Test
+    public void testSameAsPatternMatches() {
+        DefaultDataIdMatchStrategy strategy = new DefaultDataIdMatchStrategy();
+        for (int i = 0; i < 2; i++) {
+            // second round is answered by compiled matchers and cached verdicts
+            for (String regex : REGEXES) {
+                for (String dataId : DATA_IDS) {
+                    Assert.assertEquals(regex + " " + dataId, Pattern.matches(regex, dataId),
+                        strategy.match(dataId, () -> regex));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyRegex() {
+        DefaultDataIdMatchStrategy strategy = new DefaultDataIdMatchStrategy();
+        Assert.assertTrue(strategy.match("com.alipay.test", () -> ""));
+        Assert.assertTrue(strategy.match("", () -> "com\\.alipay\\..*"));
+    }
+}
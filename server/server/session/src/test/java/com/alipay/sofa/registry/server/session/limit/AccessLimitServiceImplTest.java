@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.limit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+
+/**
+ *
+ * @author agent
+ * @version $Id: AccessLimitServiceImplTest.java, v 0.1 2026-10-18 22:59 agent Exp $
+ */
+public class AccessLimitServiceImplTest {
+
+    @Test
+    public void testConnectionLimit() {
+        AccessLimitService accessLimitService = newAccessLimitService(2, 100);
+        Assert.assertTrue(accessLimitService.tryAcquire("c1", "app1"));
+        Assert.assertTrue(accessLimitService.tryAcquire("c1", "app1"));
+        Assert.assertFalse(accessLimitService.tryAcquire("c1", "app1"));
+        // other connections of the same app are not affected
+        Assert.assertTrue(accessLimitService.tryAcquire("c2", "app1"));
+
+        Assert.assertEquals(1L, accessLimitService.getRejectedCounts().get("connection")
+            .longValue());
+        Assert.assertEquals(1L, accessLimitService.getAppRejectedCounts().get("app1").longValue());
+    }
+
+    @Test
+    public void testAppLimit() {
+        AccessLimitService accessLimitService = newAccessLimitService(100, 3);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(accessLimitService.tryAcquire("c" + i, "app1"));
+        }
+        Assert.assertFalse(accessLimitService.tryAcquire("c4", "app1"));
+        Assert.assertTrue(accessLimitService.tryAcquire("c4", "app2"));
+        Assert.assertEquals(1L, accessLimitService.getRejectedCounts().get("app").longValue());
+        Assert.assertNull(accessLimitService.getAppRejectedCounts().get("app2"));
+    }
+
+    @Test
+    public void testDisabled() {
+        AccessLimitService accessLimitService = newAccessLimitService(0, 0);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(accessLimitService.tryAcquire("c1", "app1"));
+        }
+        Assert.assertTrue(accessLimitService.getAppRejectedCounts().isEmpty());
+    }
+
+    @Test
+    public void testReconnectBurst() {
+        SessionServerConfigBean config = newConfig();
+        config.setAccessLimitConnectionRate(10);
+        AccessLimitService accessLimitService = new AccessLimitServiceImpl(config);
+        // a reconnecting client registers everything again at once, burst covers 10s of tokens
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(accessLimitService.tryAcquire("c1", "app1"));
+        }
+        Assert.assertFalse(accessLimitService.tryAcquire("c1", "app1"));
+    }
+
+    @Test
+    public void testReconnectNotLimitedByDefault() {
+        AccessLimitService accessLimitService = new AccessLimitServiceImpl(newConfig());
+        for (int i = 0; i < 20000; i++) {
+            Assert.assertTrue(accessLimitService.tryAcquire("c1", "app1"));
+        }
+        Assert.assertEquals(0L, accessLimitService.getRejectedCounts().get("connection")
+            .longValue());
+        Assert.assertEquals(0L, accessLimitService.getRejectedCounts().get("app").longValue());
+    }
+
+    private AccessLimitService newAccessLimitService(double connectionRate, double appRate) {
+        SessionServerConfigBean config = newConfig();
+        config.setAccessLimitConnectionRate(connectionRate);
+        config.setAccessLimitAppRate(appRate);
+        config.setAccessLimitBurstSeconds(1);
+        return new AccessLimitServiceImpl(config);
+    }
+
+    private static SessionServerConfigBean newConfig() {
+        SessionServerConfigBean config = new SessionServerConfigBean(null);
+        // global limiter starts without stored permits, keep it out of the way
+        config.setAccessLimitRate(1000000000.0);
+        return config;
+    }
+}
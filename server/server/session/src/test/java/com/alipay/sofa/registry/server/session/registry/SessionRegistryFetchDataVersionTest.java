@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.alipay.sofa.registry.common.model.metaserver.DataNode;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.node.NodeManager;
+import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.alipay.sofa.registry.server.session.strategy.SessionRegistryStrategy;
+
+/**
+ * Versions checked by the periodic sweep of SessionRegistry, the sweep of each data node is run
+ * by the test.
+ *
+ * @author agent
+ * @version $Id: SessionRegistryFetchDataVersionTest.java, v 0.1 2026-10-19 00:09 agent Exp $
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SessionRegistryFetchDataVersionTest {
+    private static final String         DATA_NODE_1 = "192.168.0.1";
+    private static final String         DATA_NODE_2 = "192.168.0.2";
+    private static final int            DATA_PORT   = 9620;
+
+    @InjectMocks
+    private SessionRegistry             sessionRegistry;
+
+    @Mock
+    private Interests                   sessionInterests;
+
+    @Mock
+    private DataNodeService             dataNodeService;
+
+    @Mock
+    private NodeManager                 dataNodeManager;
+
+    @Mock
+    private SessionServerConfig         sessionServerConfig;
+
+    @Mock
+    private SessionRegistryStrategy     sessionRegistryStrategy;
+
+    @Mock
+    private ExecutorManager             executorManager;
+
+    @Mock
+    private ScheduledThreadPoolExecutor fetchDataVersionExecutor;
+
+    private final List<Scheduled>       scheduled   = new ArrayList<>();
+
+    @Before
+    public void before() {
+        when(sessionServerConfig.isBeginDataFetchTask()).thenReturn(true);
+        when(sessionServerConfig.getDataServerPort()).thenReturn(DATA_PORT);
+        when(sessionServerConfig.getFetchDataVersionChunkSize()).thenReturn(2);
+        when(sessionServerConfig.getFetchDataVersionJitterMillis()).thenReturn(1000);
+        when(executorManager.getFetchDataVersionExecutor()).thenReturn(fetchDataVersionExecutor);
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            scheduled.add(new Scheduled((Runnable) args[0], (Long) args[1]));
+            return null;
+        }).when(fetchDataVersionExecutor).schedule(any(Runnable.class), anyLong(),
+            eq(TimeUnit.MILLISECONDS));
+
+        // dataInfoIds 1-5 on data node 1, 6 on data node 2
+        List<String> dataInfoIds = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            String dataInfoId = "dataInfoId" + i;
+            dataInfoIds.add(dataInfoId);
+            when(sessionInterests.getInterests(dataInfoId)).thenReturn(
+                Collections.singletonList(mock(Subscriber.class)));
+            when(dataNodeManager.getNode(dataInfoId)).thenReturn(
+                new DataNode(new URL(i <= 5 ? DATA_NODE_1 : DATA_NODE_2, 9622),
+                    "DefaultDataCenter"));
+        }
+        when(sessionInterests.getInterestDataInfoIds()).thenReturn(dataInfoIds);
+        when(dataNodeService.fetchDataVersion(any(URL.class), any(List.class))).thenReturn(
+            Collections.singletonMap("DefaultDataCenter", new HashMap<>()));
+        when(sessionRegistryStrategy.doFetchChangDataProcess(anyMap())).thenReturn(1);
+    }
+
+    @Test
+    public void testChunks() {
+        sessionRegistry.fetchChangData();
+        assertEquals(2, scheduled.size());
+        scheduled.forEach(task -> task.runnable.run());
+
+        ArgumentCaptor<URL> urls = ArgumentCaptor.forClass(URL.class);
+        ArgumentCaptor<List> chunks = ArgumentCaptor.forClass(List.class);
+        verify(dataNodeService, times(4)).fetchDataVersion(urls.capture(), chunks.capture());
+        Map<String, List<Integer>> chunkSizes = new HashMap<>();
+        for (int i = 0; i < urls.getAllValues().size(); i++) {
+            chunkSizes.computeIfAbsent(urls.getAllValues().get(i).getIpAddress(),
+                k -> new ArrayList<>()).add(chunks.getAllValues().get(i).size());
+        }
+        // chunks of fetchDataVersionChunkSize on each data node
+        assertEquals(Arrays.asList(2, 2, 1), chunkSizes.get(DATA_NODE_1));
+        assertEquals(Collections.singletonList(1), chunkSizes.get(DATA_NODE_2));
+        verify(sessionRegistryStrategy, times(4)).doFetchChangDataProcess(anyMap());
+    }
+
+    @Test
+    public void testChunkError() {
+        when(dataNodeService.fetchDataVersion(any(URL.class), any(List.class))).thenThrow(
+            new RuntimeException("data node unavailable"));
+        sessionRegistry.fetchChangData();
+        scheduled.forEach(task -> task.runnable.run());
+
+        // the other chunks of an unavailable data node are not asked
+        verify(dataNodeService, times(2)).fetchDataVersion(any(URL.class), any(List.class));
+        verify(sessionRegistryStrategy, never()).doFetchChangDataProcess(anyMap());
+    }
+
+    @Test
+    public void testJitter() {
+        for (int i = 0; i < 10; i++) {
+            sessionRegistry.fetchChangData();
+            scheduled.forEach(task -> task.runnable.run());
+        }
+        assertEquals(20, scheduled.size());
+        for (Scheduled task : scheduled) {
+            assertTrue(task.delay >= 0 && task.delay < 1000);
+        }
+
+        // versions checked on demand are not delayed
+        scheduled.clear();
+        sessionRegistry.fetchChangDataProcess();
+        assertEquals(2, scheduled.size());
+        scheduled.forEach(task -> assertEquals(0, task.delay));
+    }
+
+    @Test
+    public void testSweepNotFinished() {
+        sessionRegistry.fetchChangData();
+        assertEquals(2, scheduled.size());
+        Scheduled first = scheduled.get(0);
+        Scheduled second = scheduled.get(1);
+
+        // the last sweep of both data nodes not finished
+        sessionRegistry.fetchChangData();
+        assertEquals(2, scheduled.size());
+
+        // on demand checks are not skipped
+        sessionRegistry.fetchChangDataProcess();
+        assertEquals(4, scheduled.size());
+
+        first.runnable.run();
+        sessionRegistry.fetchChangData();
+        assertEquals(5, scheduled.size());
+
+        second.runnable.run();
+        sessionRegistry.fetchChangData();
+        assertEquals(6, scheduled.size());
+    }
+
+    @Test
+    public void testSweepRejected() {
+        doAnswer(invocation -> {
+            throw new RejectedExecutionException("shutdown");
+        }).when(fetchDataVersionExecutor).schedule(any(Runnable.class), anyLong(),
+            eq(TimeUnit.MILLISECONDS));
+        sessionRegistry.fetchChangData();
+
+        // the data nodes are swept again next time
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            scheduled.add(new Scheduled((Runnable) args[0], (Long) args[1]));
+            return null;
+        }).when(fetchDataVersionExecutor).schedule(any(Runnable.class), anyLong(),
+            eq(TimeUnit.MILLISECONDS));
+        sessionRegistry.fetchChangData();
+        assertEquals(2, scheduled.size());
+    }
+
+    private static final class Scheduled {
+        private final Runnable runnable;
+
+        private final long     delay;
+
+        Scheduled(Runnable runnable, long delay) {
+            this.runnable = runnable;
+            this.delay = delay;
+        }
+    }
+}
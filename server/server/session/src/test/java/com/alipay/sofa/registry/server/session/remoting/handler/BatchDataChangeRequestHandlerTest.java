@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.alipay.sofa.registry.common.model.sessionserver.BatchDataChangeRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.cache.CacheService;
+import com.alipay.sofa.registry.server.session.cache.Key;
+import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.alipay.sofa.registry.server.session.strategy.DataChangeRequestHandlerStrategy;
+
+/**
+ * @author agent
+ * @version $Id: BatchDataChangeRequestHandlerTest.java, v 0.1 2026-10-19 00:11 agent Exp $
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BatchDataChangeRequestHandlerTest {
+    private static final String              DATA_CENTER = "DefaultDataCenter";
+
+    @InjectMocks
+    private BatchDataChangeRequestHandler    handler;
+
+    @Mock
+    private Interests                        sessionInterests;
+
+    @Mock
+    private SessionServerConfig              sessionServerConfig;
+
+    @Mock
+    private ExecutorManager                  executorManager;
+
+    @Mock
+    private CacheService                     sessionCacheService;
+
+    @Mock
+    private DataChangeRequestHandlerStrategy dataChangeRequestHandlerStrategy;
+
+    @Before
+    public void before() {
+        when(sessionInterests.checkInterestVersions(anyString(), anyString(), anyLong()))
+            .thenReturn(true);
+    }
+
+    @Test
+    public void testEachChangeHandled() {
+        handler.reply(
+            mock(Channel.class),
+            new BatchDataChangeRequest(Arrays.asList(new DataChangeRequest("A", DATA_CENTER, 1L),
+                new DataChangeRequest("B", DATA_CENTER, 1L))));
+
+        verify(sessionCacheService, times(2)).invalidate(any(Key.class), anyLong());
+        assertEquals(Arrays.asList("A", "B"), firedDataInfoIds(2));
+    }
+
+    @Test
+    public void testChangeFailed() {
+        when(sessionInterests.checkInterestVersions(DATA_CENTER, "A", 1L)).thenThrow(
+            new IllegalStateException("check error"));
+        try {
+            handler.reply(
+                mock(Channel.class),
+                new BatchDataChangeRequest(Arrays.asList(
+                    new DataChangeRequest("A", DATA_CENTER, 1L), new DataChangeRequest("B",
+                        DATA_CENTER, 1L))));
+            fail("failed change not reported");
+        } catch (RuntimeException e) {
+            // data server retries the batch
+        }
+
+        // changes after the failed one are still handled
+        assertEquals(Arrays.asList("B"), firedDataInfoIds(1));
+    }
+
+    private List<String> firedDataInfoIds(int count) {
+        ArgumentCaptor<DataChangeRequest> captor = ArgumentCaptor.forClass(DataChangeRequest.class);
+        verify(dataChangeRequestHandlerStrategy, times(count)).doFireChangFetch(captor.capture());
+        List<String> dataInfoIds = new ArrayList<>();
+        for (DataChangeRequest request : captor.getAllValues()) {
+            dataInfoIds.add(request.getDataInfoId());
+        }
+        return dataInfoIds;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.scheduler.task;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.task.Task;
+import com.alipay.sofa.registry.task.batcher.TaskProcessor.ProcessingResult;
+import com.alipay.sofa.registry.task.listener.TaskEvent;
+import com.alipay.sofa.registry.task.listener.TaskEvent.TaskType;
+import com.alipay.sofa.registry.task.listener.TaskListener;
+import com.alipay.sofa.registry.task.listener.TaskListenerManager;
+import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
+import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer.TaskFailedCallback;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ *
+ * @author agent
+ * @version $Id: PushTaskClosureTest.java, v 0.1 2026-10-18 22:49 agent Exp $
+ */
+public class PushTaskClosureTest {
+
+    private final List<TaskEvent>                   sentEvents = new CopyOnWriteArrayList<>();
+
+    private final AtomicReference<ProcessingResult> result     = new AtomicReference<>();
+
+    private final CountDownLatch                    finished   = new CountDownLatch(1);
+
+    private AsyncHashedWheelTimer                   timer;
+
+    private PushTaskClosure                         closure;
+
+    @Before
+    public void setUp() {
+        timer = new AsyncHashedWheelTimer(new ThreadFactoryBuilder().setDaemon(true).build(), 10,
+            TimeUnit.MILLISECONDS, 64, MoreExecutors.directExecutor(), new TaskFailedCallback() {
+                @Override
+                public void executionRejected(Throwable e) {
+                }
+
+                @Override
+                public void executionFailed(Throwable e) {
+                }
+            });
+        SessionServerConfigBean config = new SessionServerConfigBean(null);
+        config.setPushTaskConfirmWaitTimeout(100);
+        config.setPushTaskConfirmRetryTimes(1);
+        closure = new PushTaskClosure(timer, config, new TaskListenerManager() {
+            @Override
+            public Multimap<TaskType, TaskListener> getTaskListeners() {
+                return null;
+            }
+
+            @Override
+            public void addTaskListener(TaskListener taskListener) {
+            }
+
+            @Override
+            public void sendTaskEvent(TaskEvent taskEvent) {
+                // as ReceivedDataMultiPushTaskListener does
+                closure.addTask(taskEvent);
+                sentEvents.add(taskEvent);
+            }
+        }, "dataInfoId");
+        closure.setTaskClosure((processingResult, task) -> {
+            result.set(processingResult);
+            finished.countDown();
+        });
+    }
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testRetryNotConfirmedOnly() throws Exception {
+        TaskEvent event1 = send();
+        TaskEvent event2 = send();
+        closure.start();
+        closure.run(ProcessingResult.Success, newTask(event1));
+        closure.run(ProcessingResult.PermanentError, newTask(event2));
+
+        waitUntil(() -> sentEvents.size() == 3);
+        Assert.assertSame(event2, sentEvents.get(2));
+        Assert.assertNull(result.get());
+
+        closure.run(ProcessingResult.Success, newTask(event2));
+        Assert.assertTrue(finished.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(ProcessingResult.Success, result.get());
+        Thread.sleep(300);
+        Assert.assertEquals(3, sentEvents.size());
+    }
+
+    @Test
+    public void testRetryExhausted() throws Exception {
+        TaskEvent event = send();
+        closure.start();
+        Assert.assertTrue(finished.await(2, TimeUnit.SECONDS));
+        Assert.assertEquals(ProcessingResult.PermanentError, result.get());
+        Assert.assertEquals(2, sentEvents.size());
+        Assert.assertSame(event, sentEvents.get(1));
+    }
+
+    @Test
+    public void testFailedSubscribers() throws Exception {
+        Subscriber confirmed = newSubscriber("r1");
+        Subscriber failed = newSubscriber("r2");
+        ReceivedData receivedData = new ReceivedData();
+        receivedData.setSegment("DefaultDataCenter");
+        receivedData.setVersion(2L);
+        Map<ReceivedData, URL> parameter = new HashMap<>();
+        parameter.put(receivedData, new URL("10.0.0.1", 12200));
+        TaskEvent event = send(parameter);
+        event.setAttribute(Constant.PUSH_CLIENT_SUBSCRIBERS, Arrays.asList(confirmed, failed));
+        closure.start();
+        confirmed.checkAndUpdateVersion("DefaultDataCenter", 2L);
+
+        // only the subscriber still behind the pushed version is left to be pushed again
+        Assert.assertTrue(finished.await(2, TimeUnit.SECONDS));
+        Assert.assertEquals(ProcessingResult.PermanentError, result.get());
+        Assert.assertEquals(Collections.singletonList(failed), closure.getFailedSubscribers());
+    }
+
+    private TaskEvent send() {
+        return send("push");
+    }
+
+    private TaskEvent send(Object eventObj) {
+        TaskEvent taskEvent = new TaskEvent(eventObj, TaskType.RECEIVED_DATA_MULTI_PUSH_TASK);
+        taskEvent.setTaskClosure(closure);
+        sentEvents.add(taskEvent);
+        closure.addTask(taskEvent);
+        return taskEvent;
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
+    private static Subscriber newSubscriber(String registerId) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setRegisterId(registerId);
+        return subscriber;
+    }
+
+    private static Task newTask(TaskEvent taskEvent) {
+        return new Task() {
+            @Override
+            public long getExpiryTime() {
+                return -1;
+            }
+
+            @Override
+            public String getTaskId() {
+                return taskEvent.getTaskId();
+            }
+
+            @Override
+            public void setTaskEvent(TaskEvent event) {
+            }
+
+            @Override
+            public void execute() {
+            }
+        };
+    }
+}
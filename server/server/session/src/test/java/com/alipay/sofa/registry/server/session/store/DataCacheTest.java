@@ -16,6 +16,9 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.dataserver.InterestSummaryRequest;
+import com.alipay.sofa.registry.common.model.metaserver.DataNode;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
@@ -26,14 +29,21 @@ import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean
 import com.alipay.sofa.registry.server.session.cache.CacheGenerator;
 import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.SessionCacheService;
+import com.alipay.sofa.registry.server.session.node.DataNodeManager;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -125,6 +135,148 @@ public class DataCacheTest extends BaseTest {
         Assert.assertEquals(map2.get(address).size(), 100);
     }
 
+    @Test
+    public void testDeleteSubByConnectIdAfterReconnect() {
+        SessionInterests sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+
+        String dataId = "dataid";
+        String dataInfoId = DataInfo.toDataInfoId(dataId, "instance2", "rpc");
+        URL oldUrl = new URL("192.168.1.2", 9000);
+        URL newUrl = new URL("192.168.1.2", 9001);
+
+        sessionInterests.add(getSub(dataId, ScopeEnum.zone, "xxregist123", oldUrl));
+        sessionInterests.add(getSub(dataId, ScopeEnum.zone, "xxregist456", oldUrl));
+        //same registerId re-registered from a new connection
+        sessionInterests.add(getSub(dataId, ScopeEnum.zone, "xxregist123", newUrl));
+
+        Assert.assertEquals(1, sessionInterests.queryByConnectId("192.168.1.2:9000").size());
+
+        sessionInterests.deleteByConnectId("192.168.1.2:9000");
+
+        Assert.assertNull(sessionInterests.queryById("xxregist456", dataInfoId));
+        Assert.assertNotNull(sessionInterests.queryById("xxregist123", dataInfoId));
+        Assert.assertTrue(getCacheSub(sessionInterests, "192.168.1.2:9001"));
+        Assert.assertEquals(1, sessionInterests.count());
+    }
+
+    @Test
+    public void testOverwriteConcurrentWithDelete() throws Exception {
+        SessionInterests sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+
+        String dataId = "dataid";
+        String dataInfoId = DataInfo.toDataInfoId(dataId, "instance2", "rpc");
+        URL oldUrl = new URL("192.168.1.2", 9000);
+        URL newUrl = new URL("192.168.1.2", 9001);
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            sessionInterests.add(getSub(dataId, ScopeEnum.zone, "xxregist" + i, oldUrl));
+        }
+
+        //registerIds re-registered from a new connection while the old connection is closed
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(executorService.submit(() -> {
+            start.await();
+            for (int i = 0; i < count; i++) {
+                sessionInterests.add(getSub(dataId, ScopeEnum.zone, "xxregist" + i, newUrl));
+            }
+            return null;
+        }));
+        futures.add(executorService.submit(() -> {
+            start.await();
+            for (int i = 0; i < 10; i++) {
+                sessionInterests.deleteByConnectId("192.168.1.2:9000");
+            }
+            return null;
+        }));
+        futures.add(executorService.submit(() -> {
+            start.await();
+            for (int i = 0; i < count; i += 2) {
+                sessionInterests.deleteById("xxregist" + i, dataInfoId);
+            }
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        //connectIndex holds exactly the subscribers left
+        for (String connectId : Arrays.asList("192.168.1.2:9000", "192.168.1.2:9001")) {
+            Map<String, Subscriber> subscribers = sessionInterests.queryByConnectId(connectId);
+            if (subscribers != null) {
+                for (Subscriber subscriber : subscribers.values()) {
+                    Assert.assertSame(subscriber,
+                        sessionInterests.queryById(subscriber.getRegisterId(), dataInfoId));
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            Subscriber subscriber = sessionInterests.queryById("xxregist" + i, dataInfoId);
+            if (subscriber != null) {
+                Assert.assertSame(subscriber,
+                    sessionInterests.queryByConnectId(
+                        subscriber.getSourceAddress().getAddressString()).get("xxregist" + i));
+            }
+        }
+    }
+
+    @Test
+    public void testInterestSummary() {
+        SessionInterests sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+
+        String dataId = "dataid";
+        String dataInfoId = DataInfo.toDataInfoId(dataId, "instance2", "rpc");
+        URL url = new URL("192.168.1.2", 9000);
+
+        sessionInterests.add(getSub(dataId, ScopeEnum.zone, "xxregist123", url));
+        long version = sessionInterests.getInterestSummaryVersion();
+        sessionInterests.add(getSub(dataId, ScopeEnum.zone, "xxregist456", url));
+        //not first subscriber of dataInfoId
+        Assert.assertEquals(version, sessionInterests.getInterestSummaryVersion());
+        Assert.assertEquals(Collections.singletonList(dataInfoId),
+            sessionInterests.drainAddedDataInfoIds());
+        Assert.assertTrue(sessionInterests.drainAddedDataInfoIds().isEmpty());
+
+        sessionInterests.deleteById("xxregist123", dataInfoId);
+        Assert.assertEquals(version, sessionInterests.getInterestSummaryVersion());
+        Assert.assertEquals(1, sessionInterests.getSubscribedDataInfoIds().size());
+
+        sessionInterests.deleteByConnectId("192.168.1.2:9000");
+        Assert.assertTrue(version < sessionInterests.getInterestSummaryVersion());
+        Assert.assertTrue(sessionInterests.getSubscribedDataInfoIds().isEmpty());
+
+        int[] hashes = InterestSummaryRequest.toHashes(Arrays.asList("b", dataInfoId, "a"));
+        Assert.assertTrue(InterestSummaryRequest.contains(hashes, dataInfoId));
+        Assert.assertTrue(InterestSummaryRequest.contains(hashes, "a"));
+        Assert.assertFalse(InterestSummaryRequest.contains(hashes, "c"));
+    }
+
+    @Test
+    public void testDrainPushFailedSubscribers() {
+        SessionInterests sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+
+        String dataId = "dataid";
+        URL url = new URL("192.168.1.2", 9000);
+        Subscriber failed = getSub(dataId, ScopeEnum.zone, "xxregist123", url);
+        Subscriber removed = getSub(dataId, ScopeEnum.zone, "xxregist456", url);
+        sessionInterests.add(failed);
+        sessionInterests.add(removed);
+        sessionInterests.addPushFailedSubscribers(Arrays.asList(failed, removed));
+        sessionInterests.deleteById("xxregist456", removed.getDataInfoId());
+
+        // only subscribers still registered are pushed again, once
+        Assert.assertEquals(Collections.singletonList(failed),
+            sessionInterests.drainPushFailedSubscribers());
+        Assert.assertTrue(sessionInterests.drainPushFailedSubscribers().isEmpty());
+    }
+
     @Test
     public void testGetPub() {
         SessionDataStore sessionDataStore = new SessionDataStore();
@@ -193,6 +345,59 @@ public class DataCacheTest extends BaseTest {
         Assert.assertFalse(getCachePub(sessionDataStore, "192.168.1.9:8000"));
     }
 
+    @Test
+    public void testRenewDigests() {
+        SessionDataStore sessionDataStore = new SessionDataStore();
+        sessionDataStore.setDataNodeManager(new DataNodeManager() {
+            @Override
+            public DataNode getNode(String dataInfoId) {
+                return new DataNode(new URL(dataInfoId.startsWith("dataid1") ? "10.0.0.1"
+                    : "10.0.0.2", 9620), "DefaultDataCenter");
+            }
+        });
+
+        String connectId = "192.168.1.2:9000";
+        List<Publisher> dataServer1 = new ArrayList<>();
+        List<Publisher> dataServer2 = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Publisher publisher = getPub("dataid1", null, null);
+            dataServer1.add(publisher);
+            sessionDataStore.add(publisher);
+        }
+        Publisher publisher = getPub("dataid2", "XXXX", null);
+        dataServer2.add(publisher);
+        sessionDataStore.add(publisher);
+
+        Map<String, Long> digests = sessionDataStore.queryRenewDigests(connectId);
+        Assert.assertEquals(2, digests.size());
+        Assert.assertEquals(PublisherDigestUtil.getDigestValueSum(dataServer1),
+            digests.get("10.0.0.1").longValue());
+        Assert.assertEquals(PublisherDigestUtil.getDigestValueSum(dataServer2),
+            digests.get("10.0.0.2").longValue());
+
+        //overwrite by a newer version
+        version.incrementAndGet();
+        Publisher newPublisher = getPub("dataid2", "XXXX", null);
+        sessionDataStore.add(newPublisher);
+        Assert.assertEquals(PublisherDigestUtil.getDigestValue(newPublisher), sessionDataStore
+            .queryRenewDigests(connectId).get("10.0.0.2").longValue());
+
+        sessionDataStore.deleteById(dataServer1.get(0).getRegisterId(), dataServer1.get(0)
+            .getDataInfoId());
+        sessionDataStore.deleteById("XXXX", newPublisher.getDataInfoId());
+        digests = sessionDataStore.queryRenewDigests(connectId);
+        Assert.assertEquals(1, digests.size());
+        Assert.assertEquals(PublisherDigestUtil.getDigestValueSum(dataServer1.subList(1, 10)),
+            digests.get("10.0.0.1").longValue());
+
+        //rebuild gives the same result
+        sessionDataStore.refreshRenewDigests();
+        Assert.assertEquals(digests, sessionDataStore.queryRenewDigests(connectId));
+
+        sessionDataStore.deleteByConnectId(connectId);
+        Assert.assertNull(sessionDataStore.queryRenewDigests(connectId));
+    }
+
     private boolean getCachePub(SessionDataStore sessionDataStore, String connectId) {
         Map map = sessionDataStore.queryByConnectId(connectId);
         return map != null && !map.isEmpty();
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+
+/**
+ * Disconnect storm: a rolling restart drops a batch of connections from a session node that holds
+ * a large number of subscribers. Compares the connectIndex driven removal against the previous
+ * full scan of all subscribers under one global lock.
+ *
+ * run with main method, not by surefire.
+ *
+ * @author agent
+ * @version $Id: SessionInterestsBenchmark.java, v 0.1 2026-10-18 18:53 agent Exp $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 1)
+@Measurement(iterations = 20, batchSize = 1)
+@Fork(1)
+public class SessionInterestsBenchmark {
+
+    @Param({ "1000", "5000" })
+    private int                 connections;
+
+    @Param({ "50" })
+    private int                 subscribersPerConnection;
+
+    @Param({ "100" })
+    private int                 stormSize;
+
+    private SessionInterests    sessionInterests;
+
+    private LegacyScanInterests legacyInterests;
+
+    private Subscriber[][]      subscribers;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        subscribers = new Subscriber[connections][subscribersPerConnection];
+        for (int c = 0; c < connections; c++) {
+            URL url = new URL("10.0." + (c / 250) + "." + (c % 250), 12200);
+            for (int s = 0; s < subscribersPerConnection; s++) {
+                subscribers[c][s] = newSubscriber("dataId-" + ((c * 31 + s) % 20000), c + "-" + s,
+                    url);
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+        legacyInterests = new LegacyScanInterests();
+        for (Subscriber[] connection : subscribers) {
+            for (Subscriber subscriber : connection) {
+                sessionInterests.add(subscriber);
+                legacyInterests.add(subscriber);
+            }
+        }
+    }
+
+    @Benchmark
+    public int indexedDisconnect() {
+        int deleted = 0;
+        for (int c = 0; c < stormSize; c++) {
+            if (sessionInterests.deleteByConnectId(connectId(c))) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Benchmark
+    public int scanDisconnect() {
+        int deleted = 0;
+        for (int c = 0; c < stormSize; c++) {
+            deleted += legacyInterests.deleteByConnectId(connectId(c));
+        }
+        return deleted;
+    }
+
+    private String connectId(int c) {
+        return subscribers[c][0].getSourceAddress().getAddressString();
+    }
+
+    private static Subscriber newSubscriber(String dataId, String registerId, URL url) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setAppName("app");
+        subscriber.setDataId(dataId);
+        subscriber.setGroup("rpc");
+        subscriber.setInstanceId("instance");
+        subscriber.setRegisterId(registerId);
+        subscriber.setVersion(1L);
+        subscriber.setRegisterTimestamp(System.currentTimeMillis());
+        subscriber.setScope(ScopeEnum.zone);
+        subscriber.setDataInfoId(DataInfo.toDataInfoId(dataId, "instance", "rpc"));
+        subscriber.setSourceAddress(url);
+        return subscriber;
+    }
+
+    /**
+     * the removal strategy SessionInterests used before connectIndex became authoritative
+     */
+    private static final class LegacyScanInterests {
+        private final ReentrantReadWriteLock               readWriteLock = new ReentrantReadWriteLock();
+        private final Lock                                 write         = readWriteLock
+                                                                             .writeLock();
+        private final Map<String, Map<String, Subscriber>> interests     = new ConcurrentHashMap<>();
+
+        void add(Subscriber subscriber) {
+            write.lock();
+            try {
+                interests.computeIfAbsent(subscriber.getDataInfoId(),
+                    k -> new ConcurrentHashMap<>()).put(subscriber.getRegisterId(), subscriber);
+            } finally {
+                write.unlock();
+            }
+        }
+
+        int deleteByConnectId(String connectId) {
+            int deleted = 0;
+            write.lock();
+            try {
+                for (Map<String, Subscriber> map : interests.values()) {
+                    for (Iterator<Subscriber> it = map.values().iterator(); it.hasNext();) {
+                        if (connectId.equals(it.next().getSourceAddress().getAddressString())) {
+                            it.remove();
+                            deleted++;
+                        }
+                    }
+                }
+            } finally {
+                write.unlock();
+            }
+            return deleted;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SessionInterestsBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.strategy.impl;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.listener.PushTaskSender;
+import com.alipay.sofa.registry.server.session.scheduler.task.PushTaskClosure;
+import com.alipay.sofa.registry.task.batcher.TaskProcessor.ProcessingResult;
+import com.alipay.sofa.registry.task.listener.TaskEvent;
+import com.alipay.sofa.registry.task.listener.TaskEvent.TaskType;
+import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
+
+/**
+ *
+ * @author agent
+ * @version $Id: DefaultPushTaskMergeProcessorTest.java, v 0.1 2026-10-18 22:35 agent Exp $
+ */
+public class DefaultPushTaskMergeProcessorTest {
+
+    private static final URL                              URL1 = new URL("10.0.0.1", 12200);
+
+    private static final URL                              URL2 = new URL("10.0.0.2", 12200);
+
+    private final List<ReceivedData>                      sent = new ArrayList<>();
+
+    private SessionServerConfigBean                       config;
+
+    private DefaultPushTaskMergeProcessor<PushTaskSender> processor;
+
+    @Before
+    public void setUp() {
+        config = new SessionServerConfigBean(null);
+        // flushed by the test only
+        config.setPushTaskMergeDebounceMillis(60000);
+        config.setPushTaskMergeMaxDelayMillis(120000);
+        processor = new DefaultPushTaskMergeProcessor<>();
+        processor.setSessionServerConfig(config);
+        processor.init(new PushTaskSender() {
+            @Override
+            public void executePushAsync(TaskEvent event) {
+                sent.add(((Map<ReceivedData, URL>) event.getEventObj()).keySet().iterator().next());
+            }
+
+            @Override
+            public PushDataType getPushDataType() {
+                return PushDataType.RECEIVE_DATA;
+            }
+        });
+    }
+
+    @Test
+    public void testLatestVersionWins() {
+        long now = System.currentTimeMillis();
+        processor.handleEvent(newEvent(1L, URL1, "r1"));
+        processor.handleEvent(newEvent(3L, URL1, "r1"));
+        processor.handleEvent(newEvent(2L, URL1, "r1"));
+        processor.handleEvent(newEvent(2L, URL2, "r2"));
+        Assert.assertEquals(2, processor.getPendingTaskSize().intValue());
+        Assert.assertTrue(sent.isEmpty());
+
+        processor.flush(now + 61000);
+        Assert.assertEquals(2, sent.size());
+        Assert.assertEquals(3L, findVersion("r1"));
+        Assert.assertEquals(4, processor.getPutTaskSize().get());
+        Assert.assertEquals(2, processor.getOverrideTaskSize().get());
+        Assert.assertEquals(2, processor.getSendTaskSize().get());
+        Assert.assertEquals(0, processor.getPendingTaskSize().intValue());
+    }
+
+    @Test
+    public void testSubscribersNotCovered() {
+        processor.handleEvent(newEvent(1L, URL1, "r1", "r2"));
+        // r2 would miss the push if the pending one were dropped
+        processor.handleEvent(newEvent(2L, URL1, "r1"));
+        Assert.assertEquals(1, sent.size());
+        Assert.assertEquals(1L, sent.get(0).getVersion().longValue());
+        Assert.assertEquals(0, processor.getOverrideTaskSize().get());
+        Assert.assertEquals(1, processor.getPendingTaskSize().intValue());
+    }
+
+    @Test
+    public void testDebounce() {
+        long now = System.currentTimeMillis();
+        processor.handleEvent(newEvent(1L, URL1, "r1"));
+        processor.flush(now + 1000);
+        Assert.assertTrue(sent.isEmpty());
+        processor.flush(now + 61000);
+        Assert.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testMergeDataChangePushes() {
+        long now = System.currentTimeMillis();
+        // pushes of two data changes, each confirmed by the closure of its DataChangeFetchTask
+        List<ProcessingResult> results1 = new ArrayList<>();
+        List<ProcessingResult> results2 = new ArrayList<>();
+        PushTaskClosure closure1 = fireDataChangePush(1L, results1);
+        PushTaskClosure closure2 = fireDataChangePush(2L, results2);
+
+        // the first push is merged into the second one, its closure does not wait for it
+        Assert.assertEquals(Collections.singletonList(ProcessingResult.Success), results1);
+        Assert.assertTrue(closure1.getTasks().isEmpty());
+        Assert.assertTrue(results2.isEmpty());
+        Assert.assertEquals(1, closure2.getTasks().size());
+
+        processor.flush(now + 61000);
+        Assert.assertEquals(1, sent.size());
+        Assert.assertEquals(2L, sent.get(0).getVersion().longValue());
+        Assert.assertEquals(1, processor.getOverrideTaskSize().get());
+    }
+
+    /**
+     * as DataChangeFetchTask fires a push and ReceivedDataMultiPushTaskListener handles it
+     */
+    private PushTaskClosure fireDataChangePush(long version, List<ProcessingResult> results) {
+        // confirm check is not run by the test
+        PushTaskClosure pushTaskClosure = new PushTaskClosure(mock(AsyncHashedWheelTimer.class),
+            config, null, "dataInfoId");
+        pushTaskClosure.setTaskClosure((processingResult, task) -> results.add(processingResult));
+        TaskEvent taskEvent = newEvent(version, URL1, "r1");
+        taskEvent.setTaskClosure(pushTaskClosure);
+        pushTaskClosure.addTask(taskEvent);
+        processor.handleEvent(taskEvent);
+        pushTaskClosure.start();
+        return pushTaskClosure;
+    }
+
+    private long findVersion(String registerId) {
+        return sent.stream().filter(data -> data.getSubscriberRegistIds().contains(registerId))
+            .findFirst().get().getVersion();
+    }
+
+    private static TaskEvent newEvent(long version, URL url, String... registerIds) {
+        ReceivedData receivedData = new ReceivedData();
+        receivedData.setDataId("dataId");
+        receivedData.setGroup("DEFAULT_GROUP");
+        receivedData.setInstanceId("DEFAULT_INSTANCE_ID");
+        receivedData.setSegment("DefaultDataCenter");
+        receivedData.setScope("zone");
+        receivedData.setVersion(version);
+        receivedData.setSubscriberRegistIds(Arrays.asList(registerIds));
+        Map<ReceivedData, URL> parameter = new HashMap<>();
+        parameter.put(receivedData, url);
+        return new TaskEvent(parameter, TaskType.RECEIVED_DATA_MULTI_PUSH_TASK);
+    }
+}
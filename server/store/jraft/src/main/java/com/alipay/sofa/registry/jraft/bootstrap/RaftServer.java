@@ -35,6 +35,7 @@ import com.alipay.sofa.registry.jraft.handler.RaftServerConnectionHandler;
 import com.alipay.sofa.registry.jraft.handler.RaftServerHandler;
 import com.alipay.sofa.registry.jraft.processor.FollowerProcessListener;
 import com.alipay.sofa.registry.jraft.processor.LeaderProcessListener;
+import com.alipay.sofa.registry.jraft.processor.LeaderTaskBatcher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.metrics.ReporterUtils;
@@ -84,6 +85,8 @@ public class RaftServer {
 
     private BoltServer              boltServer;
 
+    private LeaderTaskBatcher       taskBatcher;
+
     /**
      *
      * @param dataPath    Example: /tmp/server1
@@ -137,6 +140,13 @@ public class RaftServer {
         //start
         this.node = this.raftGroupService.start();
 
+        //proposals are applied one by one as before unless batching is enabled
+        if (raftServerConfig.getProposalBatchSize() > 1) {
+            this.taskBatcher = new LeaderTaskBatcher(this, raftServerConfig.getProposalBatchSize(),
+                raftServerConfig.getProposalInflightBatches());
+            this.taskBatcher.start();
+        }
+
         if (raftServerConfig.isEnableMetrics()) {
             ReporterUtils.startSlf4jReporter(raftServerConfig.getEnableMetricsReporterPeriod(),
                 node.getNodeMetrics().getMetricRegistry(), raftServerConfig.getMetricsLogger());
@@ -154,6 +164,9 @@ public class RaftServer {
      * shutdown raftGroupService
      */
     public void shutdown() {
+        if (taskBatcher != null) {
+            taskBatcher.shutdown();
+        }
         if (raftGroupService != null) {
             this.raftGroupService.shutdown();
         }
@@ -266,6 +279,15 @@ public class RaftServer {
         return this.node;
     }
 
+    /**
+     * Getter method for property <tt>taskBatcher</tt>, null if proposals are not batched.
+     *
+     * @return property value of taskBatcher
+     */
+    public LeaderTaskBatcher getTaskBatcher() {
+        return taskBatcher;
+    }
+
     /**
      * Setter method for property <tt>leaderProcessListener</tt>.
      *
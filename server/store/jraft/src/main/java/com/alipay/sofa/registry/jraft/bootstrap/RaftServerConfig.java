@@ -52,6 +52,18 @@ public class RaftServerConfig {
 
     private int     RockDBCacheSize             = 64;   //64M
 
+    /**
+     * Max proposals leader puts in one raft task, 1 keeps one ProcessRequest per log entry. Members
+     * of an older version can not apply a BatchProcessRequest entry, so raise it only after every
+     * member of the raft group is upgraded, then restart the members with it one by one
+     */
+    private int     proposalBatchSize           = 1;
+
+    /**
+     * Max raft tasks proposed by leader and not yet applied, proposals wait and batch beyond it
+     */
+    private int     proposalInflightBatches     = 2;
+
     private Logger  metricsLogger;
 
     /**
@@ -161,4 +173,40 @@ public class RaftServerConfig {
     public void setRockDBCacheSize(int rockDBCacheSize) {
         RockDBCacheSize = rockDBCacheSize;
     }
+
+    /**
+     * Getter method for property <tt>proposalBatchSize</tt>.
+     *
+     * @return property value of proposalBatchSize
+     */
+    public int getProposalBatchSize() {
+        return proposalBatchSize;
+    }
+
+    /**
+     * Setter method for property <tt>proposalBatchSize</tt>.
+     *
+     * @param proposalBatchSize  value to be assigned to property proposalBatchSize
+     */
+    public void setProposalBatchSize(int proposalBatchSize) {
+        this.proposalBatchSize = proposalBatchSize;
+    }
+
+    /**
+     * Getter method for property <tt>proposalInflightBatches</tt>.
+     *
+     * @return property value of proposalInflightBatches
+     */
+    public int getProposalInflightBatches() {
+        return proposalInflightBatches;
+    }
+
+    /**
+     * Setter method for property <tt>proposalInflightBatches</tt>.
+     *
+     * @param proposalInflightBatches  value to be assigned to property proposalInflightBatches
+     */
+    public void setProposalInflightBatches(int proposalInflightBatches) {
+        this.proposalInflightBatches = proposalInflightBatches;
+    }
 }
\ No newline at end of file
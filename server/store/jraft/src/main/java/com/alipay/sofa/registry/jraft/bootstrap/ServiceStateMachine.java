@@ -25,8 +25,11 @@ import com.alipay.sofa.jraft.error.RaftError;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotWriter;
 import com.alipay.sofa.jraft.util.Utils;
+import com.alipay.sofa.registry.jraft.command.BatchProcessRequest;
+import com.alipay.sofa.registry.jraft.command.CommandCodec;
 import com.alipay.sofa.registry.jraft.command.ProcessRequest;
 import com.alipay.sofa.registry.jraft.command.ProcessResponse;
+import com.alipay.sofa.registry.jraft.processor.BatchLeaderTaskClosure;
 import com.alipay.sofa.registry.jraft.processor.FollowerProcessListener;
 import com.alipay.sofa.registry.jraft.processor.LeaderProcessListener;
 import com.alipay.sofa.registry.jraft.processor.LeaderTaskClosure;
@@ -34,13 +37,8 @@ import com.alipay.sofa.registry.jraft.processor.Processor;
 import com.alipay.sofa.registry.jraft.processor.SnapshotProcess;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
-import com.caucho.hessian.io.Hessian2Input;
-import com.caucho.hessian.io.SerializerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -109,32 +107,28 @@ public class ServiceStateMachine extends StateMachineAdapter {
     public void onApply(Iterator iter) {
         while (iter.hasNext()) {
             Closure done = iter.done();
-            ByteBuffer data = iter.getData();
-            ProcessRequest request;
-            LeaderTaskClosure closure = null;
 
-            if (done != null) {
-                closure = (LeaderTaskClosure) done;
-                request = closure.getRequest();
-            } else {
-
-                Hessian2Input input = new Hessian2Input(new ByteArrayInputStream(data.array()));
-                SerializerFactory serializerFactory = new SerializerFactory();
-                input.setSerializerFactory(serializerFactory);
-                try {
-                    request = (ProcessRequest) input.readObject();
-                    input.close();
-                } catch (IOException e) {
-                    throw new RuntimeException(
-                        "IOException occurred when Hessian serializer decode!", e);
+            if (done instanceof BatchLeaderTaskClosure) {
+                // proposed by this leader, requests are still in memory
+                BatchLeaderTaskClosure batchClosure = (BatchLeaderTaskClosure) done;
+                for (LeaderTaskClosure closure : batchClosure.getClosures()) {
+                    closure.setResponse(Processor.getInstance().process(closure.getRequest()));
                 }
-            }
-
-            ProcessResponse response = Processor.getInstance().process(request);
-
-            if (closure != null) {
+                batchClosure.run(Status.OK());
+            } else if (done != null) {
+                LeaderTaskClosure closure = (LeaderTaskClosure) done;
+                ProcessResponse response = Processor.getInstance().process(closure.getRequest());
                 closure.setResponse(response);
                 closure.run(Status.OK());
+            } else {
+                Object command = CommandCodec.decodeCommand(iter.getData().array(), Object.class);
+                if (command instanceof BatchProcessRequest) {
+                    for (ProcessRequest request : ((BatchProcessRequest) command).getRequests()) {
+                        Processor.getInstance().process(request);
+                    }
+                } else {
+                    Processor.getInstance().process((ProcessRequest) command);
+                }
             }
             iter.next();
         }
@@ -19,8 +19,10 @@ package com.alipay.sofa.registry.jraft.handler;
 import com.alipay.remoting.AsyncContext;
 import com.alipay.sofa.jraft.entity.Task;
 import com.alipay.sofa.registry.jraft.bootstrap.RaftServer;
+import com.alipay.sofa.registry.jraft.command.CommandCodec;
 import com.alipay.sofa.registry.jraft.command.ProcessRequest;
 import com.alipay.sofa.registry.jraft.command.ProcessResponse;
+import com.alipay.sofa.registry.jraft.processor.LeaderTaskBatcher;
 import com.alipay.sofa.registry.jraft.processor.LeaderTaskClosure;
 import com.alipay.sofa.registry.jraft.processor.Processor;
 import com.alipay.sofa.registry.log.Logger;
@@ -29,11 +31,7 @@ import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.remoting.RemotingException;
 import com.alipay.sofa.registry.remoting.bolt.BoltChannel;
-import com.caucho.hessian.io.Hessian2Output;
-import com.caucho.hessian.io.SerializerFactory;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 
@@ -123,31 +121,18 @@ public class RaftServerHandler implements ChannelHandler {
                 }
             });
 
-            Task task = createTask(closure, processRequest);
-
-            raftServer.getNode().apply(task);
+            LeaderTaskBatcher taskBatcher = raftServer.getTaskBatcher();
+            if (taskBatcher != null) {
+                //concurrent proposals are applied together in one raft task
+                taskBatcher.submit(closure);
+            } else {
+                raftServer.getNode().apply(createTask(closure, processRequest));
+            }
         }
     }
 
     protected Task createTask(LeaderTaskClosure closure, ProcessRequest request) {
-
-        final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-        Hessian2Output hessianOutput = new Hessian2Output(byteStream);
-        SerializerFactory serializerFactory = new SerializerFactory();
-        hessianOutput.setSerializerFactory(serializerFactory);
-        try {
-            hessianOutput.writeObject(request);
-            hessianOutput.close();
-        } catch (IOException e) {
-            LOGGER.error("Raft receive message serialize error!", e);
-        }
-
-        byte[] cmdBytes = byteStream.toByteArray();
-
-        ByteBuffer data = ByteBuffer.allocate(cmdBytes.length);
-        data.put(cmdBytes);
-        data.flip();
-        return new Task(data, closure);
+        return new Task(ByteBuffer.wrap(CommandCodec.encodeCommand(request)), closure);
     }
 
     @Override
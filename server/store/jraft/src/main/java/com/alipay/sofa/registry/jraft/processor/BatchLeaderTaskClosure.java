@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.processor;
+
+import java.util.List;
+
+import com.alipay.sofa.jraft.Closure;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.core.NodeMetrics;
+
+/**
+ * closure of one raft task carrying several proposals, each proposal is completed with its own
+ * response after the task is applied
+ *
+ * @author agent
+ * @version $Id: BatchLeaderTaskClosure.java, v 0.1 2026-10-18 20:35 agent Exp $
+ */
+public class BatchLeaderTaskClosure implements Closure {
+
+    private final List<LeaderTaskClosure> closures;
+
+    private final NodeMetrics             nodeMetrics;
+
+    private final Runnable                completeCallback;
+
+    private final long                    startTime = System.currentTimeMillis();
+
+    /**
+     * constructor
+     * @param closures
+     * @param nodeMetrics
+     * @param completeCallback
+     */
+    public BatchLeaderTaskClosure(List<LeaderTaskClosure> closures, NodeMetrics nodeMetrics,
+                                  Runnable completeCallback) {
+        this.closures = closures;
+        this.nodeMetrics = nodeMetrics;
+        this.completeCallback = completeCallback;
+    }
+
+    @Override
+    public void run(Status status) {
+        if (completeCallback != null) {
+            completeCallback.run();
+        }
+        if (nodeMetrics != null) {
+            nodeMetrics.recordLatency("registry-proposal-apply", System.currentTimeMillis()
+                                                                 - startTime);
+        }
+        for (LeaderTaskClosure closure : closures) {
+            closure.run(status);
+        }
+    }
+
+    /**
+     * Getter method for property <tt>closures</tt>.
+     *
+     * @return property value of closures
+     */
+    public List<LeaderTaskClosure> getClosures() {
+        return closures;
+    }
+}
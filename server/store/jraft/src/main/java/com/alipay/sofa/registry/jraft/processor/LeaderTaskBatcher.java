@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jraft.processor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.core.NodeMetrics;
+import com.alipay.sofa.jraft.entity.Task;
+import com.alipay.sofa.jraft.error.RaftError;
+import com.alipay.sofa.registry.jraft.bootstrap.RaftServer;
+import com.alipay.sofa.registry.jraft.command.BatchProcessRequest;
+import com.alipay.sofa.registry.jraft.command.CommandCodec;
+import com.alipay.sofa.registry.jraft.command.ProcessRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+
+/**
+ * Coalesce write proposals received by leader into raft tasks. At most maxInflight tasks are
+ * proposed and not yet applied, proposals arriving in the meantime are queued and proposed as
+ * one log entry when a task completes, so concurrent mutations share one disk append and
+ * replication round trip instead of waiting for their own.
+ *
+ * @author agent
+ * @version $Id: LeaderTaskBatcher.java, v 0.1 2026-10-18 20:35 agent Exp $
+ */
+public class LeaderTaskBatcher {
+
+    private static final Logger                    LOGGER = LoggerFactory
+                                                              .getLogger(LeaderTaskBatcher.class);
+
+    private final RaftServer                       raftServer;
+
+    private final int                              maxBatchSize;
+
+    private final Semaphore                        inflight;
+
+    private final BlockingQueue<LeaderTaskClosure> queue  = new LinkedBlockingQueue<>();
+
+    private volatile boolean                       running;
+
+    private Thread                                 worker;
+
+    /**
+     * constructor
+     * @param raftServer
+     * @param maxBatchSize
+     * @param maxInflight
+     */
+    public LeaderTaskBatcher(RaftServer raftServer, int maxBatchSize, int maxInflight) {
+        this.raftServer = raftServer;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.inflight = new Semaphore(Math.max(1, maxInflight));
+    }
+
+    /**
+     * start batch thread
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::loop, "Raft-LeaderTaskBatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * stop batch thread, queued proposals fail
+     */
+    public synchronized void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+        List<LeaderTaskClosure> remains = new ArrayList<>();
+        queue.drainTo(remains);
+        fail(remains, new Status(RaftError.ESHUTDOWN, "Raft server is shutting down"));
+    }
+
+    /**
+     * propose request, closure will be run after it is applied
+     * @param closure
+     */
+    public void submit(LeaderTaskClosure closure) {
+        if (!running) {
+            closure.run(new Status(RaftError.ESHUTDOWN, "Raft task batcher not running"));
+            return;
+        }
+        queue.add(closure);
+    }
+
+    private void loop() {
+        while (running) {
+            List<LeaderTaskClosure> closures = new ArrayList<>();
+            boolean acquired = false;
+            try {
+                closures.add(queue.take());
+                inflight.acquire();
+                acquired = true;
+                queue.drainTo(closures, maxBatchSize - 1);
+                apply(closures);
+            } catch (InterruptedException e) {
+                fail(closures, new Status(RaftError.ESHUTDOWN, "Raft task batcher interrupted"));
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                if (acquired) {
+                    inflight.release();
+                }
+                LOGGER.error("Raft task batcher propose error!", e);
+                fail(closures, new Status(RaftError.EINTERNAL, "Propose error:" + e.getMessage()));
+            }
+        }
+    }
+
+    private void apply(List<LeaderTaskClosure> closures) {
+        Node node = raftServer.getNode();
+        NodeMetrics nodeMetrics = node.getNodeMetrics();
+        if (nodeMetrics != null) {
+            nodeMetrics.recordSize("registry-proposal-batch-size", closures.size());
+        }
+
+        // a single proposal keeps the plain request format in raft log
+        Object command;
+        if (closures.size() == 1) {
+            command = closures.get(0).getRequest();
+        } else {
+            List<ProcessRequest> requests = new ArrayList<>(closures.size());
+            for (LeaderTaskClosure closure : closures) {
+                requests.add(closure.getRequest());
+            }
+            command = new BatchProcessRequest(requests);
+        }
+
+        node.apply(new Task(ByteBuffer.wrap(CommandCodec.encodeCommand(command)),
+            new BatchLeaderTaskClosure(closures, nodeMetrics, inflight::release)));
+    }
+
+    private void fail(List<LeaderTaskClosure> closures, Status status) {
+        for (LeaderTaskClosure closure : closures) {
+            try {
+                closure.run(status);
+            } catch (Throwable e) {
+                LOGGER.error("Run raft task closure error!", e);
+            }
+        }
+    }
+}
@@ -23,8 +23,11 @@ import com.alipay.sofa.jraft.entity.RaftOutter.SnapshotMeta;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
 import com.alipay.sofa.jraft.storage.snapshot.SnapshotWriter;
 import com.alipay.sofa.registry.jraft.bootstrap.ServiceStateMachine;
+import com.alipay.sofa.registry.jraft.command.BatchProcessRequest;
+import com.alipay.sofa.registry.jraft.command.CommandCodec;
 import com.alipay.sofa.registry.jraft.command.ProcessRequest;
 import com.alipay.sofa.registry.jraft.command.ProcessResponse;
+import com.alipay.sofa.registry.jraft.processor.BatchLeaderTaskClosure;
 import com.alipay.sofa.registry.jraft.processor.FollowerProcessListener;
 import com.alipay.sofa.registry.jraft.processor.LeaderProcessListener;
 import com.alipay.sofa.registry.jraft.processor.LeaderTaskClosure;
@@ -47,6 +50,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -206,6 +210,83 @@ public class TestServiceStateMachine {
 
     }
 
+    @Test
+    public void testApplyBatch() {
+        ServiceStateMachine serviceStateMachine = ServiceStateMachine.getInstance();
+
+        Processor processor = Processor.getInstance();
+
+        processor.addWorker(TestServiceStateMachine.class.getSimpleName(),
+            TestServiceStateMachine.class, new TestServiceStateMachine());
+
+        List<LeaderTaskClosure> closures = new ArrayList<>();
+        List<ProcessRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ProcessRequest processRequest = new ProcessRequest();
+            processRequest.setMethodArgs(new Object[] { "batch" + i });
+            processRequest.setMethodArgSigs(new String[] { "java.lang.String" });
+            processRequest.setMethodName("testMethod");
+            processRequest.setServiceName(TestServiceStateMachine.class.getSimpleName());
+            LeaderTaskClosure leaderTaskClosure = new LeaderTaskClosure();
+            leaderTaskClosure.setRequest(processRequest);
+            closures.add(leaderTaskClosure);
+            requests.add(processRequest);
+        }
+        AtomicInteger completed = new AtomicInteger();
+        BatchLeaderTaskClosure batchClosure = new BatchLeaderTaskClosure(closures, null,
+            completed::incrementAndGet);
+
+        byte[] batchBytes = CommandCodec.encodeCommand(new BatchProcessRequest(requests));
+
+        AtomicInteger count = new AtomicInteger();
+        serviceStateMachine.onApply(new Iterator() {
+
+            @Override
+            public boolean hasNext() {
+                return count.get() < 2;
+            }
+
+            @Override
+            public ByteBuffer next() {
+                count.getAndIncrement();
+                return null;
+            }
+
+            @Override
+            public ByteBuffer getData() {
+                return ByteBuffer.wrap(batchBytes);
+            }
+
+            @Override
+            public long getIndex() {
+                return 0;
+            }
+
+            @Override
+            public long getTerm() {
+                return 0;
+            }
+
+            @Override
+            public Closure done() {
+                // leader applies own proposal, follower decodes batch from log
+                return count.get() == 0 ? batchClosure : null;
+            }
+
+            @Override
+            public void setErrorAndRollback(long ntail, Status st) {
+
+            }
+        });
+
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals(1, completed.get());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("batch" + i,
+                ((ProcessResponse) closures.get(i).getResponse()).getEntity());
+        }
+    }
+
     @Test
     public void testOnSnapshotSave() throws InterruptedException {
         ServiceStateMachine serviceStateMachine = ServiceStateMachine.getInstance();
@@ -33,6 +33,7 @@ import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.jersey.JerseyClient;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.test.TestRegistryMain;
 import org.junit.Before;
@@ -189,10 +190,14 @@ public class BaseIntegrationTest {
         List<String> connectIds = new ArrayList<>(Arrays.asList(
             NetUtil.genHost(LOCAL_ADDRESS, getSourcePort(registryClient1)),
             NetUtil.genHost(LOCAL_ADDRESS, getSourcePort(registryClient2))));
+        int queueCount = dataApplicationContext.getBean(DataServerConfig.class).getQueueCount();
         for (String connectId : connectIds) {
-            Map<String, Publisher> publisherMap = datumCache.getByConnectId(connectId);
-            if (publisherMap != null) {
-                publisherMap.clear();
+            for (int queueIdx = 0; queueIdx < queueCount; queueIdx++) {
+                Map<String, Publisher> publisherMap = datumCache
+                    .getByConnectId(connectId, queueIdx);
+                if (publisherMap != null) {
+                    publisherMap.clear();
+                }
             }
         }
     }
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.test.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.alipay.sofa.registry.common.model.PublishType;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.BaseInfo;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+
+/**
+ * Heap held by publishers a data node receives from session nodes. Publishers are decoded by
+ * hessian one by one as in PublishDataHandler, so each comes with its own URL copy. Compares the
+ * previous interning, strings only with an empty attribute map per publisher, against the current
+ * one sharing the source address of a connection and allocating attributes lazily.
+ *
+ * run with main method, not by surefire, with a small young generation so the numbers are stable,
+ * e.g. -Xmx2g -Xmn64m.
+ *
+ * @author agent
+ * @version $Id: PublisherFootprintBenchmark.java, v 0.1 2026-10-18 23:08 agent Exp $
+ */
+public class PublisherFootprintBenchmark {
+
+    private static final int               CONNECTIONS               = 200;
+
+    private static final int               PUBLISHERS_PER_CONNECTION = 500;
+
+    private static final SerializerFactory SERIALIZER_FACTORY        = new SerializerFactory();
+
+    public static void main(String[] args) throws Exception {
+        List<byte[]> encoded = encodePublishers();
+
+        // run both twice, the first round warms up the word cache and class loading
+        for (int round = 0; round < 2; round++) {
+            long legacy = measure(encoded, true);
+            long current = measure(encoded, false);
+            System.out.println(String.format(
+                "round %d, %d publishers: legacy %d bytes/publisher, current %d bytes/publisher",
+                round, encoded.size(), legacy, current));
+        }
+    }
+
+    private static long measure(List<byte[]> encoded, boolean legacy) throws Exception {
+        List<Publisher> publishers = new ArrayList<>(encoded.size());
+        long before = usedMemory();
+        for (byte[] bytes : encoded) {
+            Publisher publisher = decode(bytes);
+            publishers.add(legacy ? legacyIntern(publisher) : Publisher.internPublisher(publisher));
+        }
+        long after = usedMemory();
+        long perPublisher = (after - before) / publishers.size();
+        publishers.clear();
+        return perPublisher;
+    }
+
+    private static List<byte[]> encodePublishers() throws IOException {
+        List<byte[]> encoded = new ArrayList<>(CONNECTIONS * PUBLISHERS_PER_CONNECTION);
+        for (int c = 0; c < CONNECTIONS; c++) {
+            URL url = new URL("10.0." + (c / 250) + "." + (c % 250), 12200 + c);
+            for (int p = 0; p < PUBLISHERS_PER_CONNECTION; p++) {
+                encoded.add(encode(newPublisher("dataId-" + ((c * 31 + p) % 20000), c + "-" + p,
+                    url)));
+            }
+        }
+        return encoded;
+    }
+
+    private static Publisher newPublisher(String dataId, String registerId, URL url) {
+        Publisher publisher = new Publisher();
+        publisher.setAppName("app");
+        publisher.setCell("zone");
+        publisher.setProcessId("1234");
+        publisher.setDataId(dataId);
+        publisher.setGroup("rpc");
+        publisher.setInstanceId("instance");
+        publisher.setClientId("clientId-" + registerId);
+        publisher.setRegisterId(registerId);
+        publisher.setVersion(1L);
+        publisher.setRegisterTimestamp(System.currentTimeMillis());
+        publisher.setClientVersion(BaseInfo.ClientVersion.StoreData);
+        publisher.setPublishType(PublishType.NORMAL);
+        publisher.setDataInfoId(DataInfo.toDataInfoId(dataId, "instance", "rpc"));
+        publisher.setSourceAddress(url);
+        List<ServerDataBox> dataList = new ArrayList<>();
+        dataList.add(new ServerDataBox(new byte[] { 1 }));
+        publisher.setDataList(dataList);
+        return publisher;
+    }
+
+    /**
+     * what Publisher.internPublisher did before source address sharing and lazy attributes
+     */
+    private static Publisher legacyIntern(Publisher publisher) throws Exception {
+        publisher.setRegisterId(publisher.getRegisterId());
+        publisher.setDataInfoId(publisher.getDataInfoId());
+        publisher.setInstanceId(publisher.getInstanceId());
+        publisher.setGroup(publisher.getGroup());
+        publisher.setDataId(publisher.getDataId());
+        publisher.setClientId(publisher.getClientId());
+        publisher.setCell(publisher.getCell());
+        publisher.setProcessId(publisher.getProcessId());
+        publisher.setAppName(publisher.getAppName());
+        Field attributes = BaseInfo.class.getDeclaredField("attributes");
+        attributes.setAccessible(true);
+        attributes.set(publisher, new HashMap<String, String>());
+        return publisher;
+    }
+
+    private static byte[] encode(Publisher publisher) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        Hessian2Output output = new Hessian2Output(byteStream);
+        output.setSerializerFactory(SERIALIZER_FACTORY);
+        output.writeObject(publisher);
+        output.close();
+        return byteStream.toByteArray();
+    }
+
+    private static Publisher decode(byte[] bytes) throws IOException {
+        Hessian2Input input = new Hessian2Input(new ByteArrayInputStream(bytes));
+        input.setSerializerFactory(SERIALIZER_FACTORY);
+        Publisher publisher = (Publisher) input.readObject();
+        input.close();
+        return publisher;
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -41,6 +41,7 @@ import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
 import com.alipay.sofa.registry.server.data.remoting.DataNodeExchanger;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.DataSyncServerConnectionHandler;
+import com.alipay.sofa.registry.server.data.renew.DatumLeaseManager;
 import com.alipay.sofa.registry.test.BaseIntegrationTest;
 
 /**
@@ -79,6 +80,10 @@ public class DataSyncTest extends BaseIntegrationTest {
 
     @Test
     public void doTest() throws Exception {
+        // keep the mock publisher's connectId alive, otherwise EvictTaskForHeartbeatLess may evict it
+        dataApplicationContext.getBean(DatumLeaseManager.class).renew(
+            NetUtil.genHost(LOCAL_ADDRESS, 65343));
+
         // post sync data request
         NotifyDataSyncRequest request = new NotifyDataSyncRequest(DataInfo.toDataInfoId(
             MockSyncDataHandler.dataId, DEFAULT_INSTANCE_ID, DEFAULT_GROUP), LOCAL_DATACENTER,
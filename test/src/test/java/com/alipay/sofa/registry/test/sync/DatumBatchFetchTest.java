@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.test.sync;
+
+import static com.alipay.sofa.registry.client.constants.ValueConstants.DEFAULT_GROUP;
+import static com.alipay.sofa.registry.common.model.constants.ValueConstants.DEFAULT_INSTANCE_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.alipay.sofa.registry.client.api.model.RegistryType;
+import com.alipay.sofa.registry.client.api.registration.PublisherRegistration;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.net.NetUtil;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.remoting.ChannelHandler;
+import com.alipay.sofa.registry.remoting.Client;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.bolt.BoltChannel;
+import com.alipay.sofa.registry.remoting.bolt.exchange.BoltExchange;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.remoting.DataNodeExchanger;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DatumBatchFetcher;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.DataSyncServerConnectionHandler;
+import com.alipay.sofa.registry.test.BaseIntegrationTest;
+
+/**
+ * Fetch datums moved to a new data node. The test opens the sync port of the new node, the running
+ * data node connects to it as it connects to other data nodes, and answers the fetch requests by
+ * the processors registered for that connection.
+ *
+ * @author agent
+ * @version $Id: DatumBatchFetchTest.java, v 0.1 2026-10-18 23:21 agent Exp $
+ */
+@RunWith(SpringRunner.class)
+public class DatumBatchFetchTest extends BaseIntegrationTest {
+    private static final int          TEST_SYNC_PORT     = 9678;
+    private static final String       OLD_DATA_NODE_TYPE = "batchFetchTestOldDataNode";
+    private static BoltExchange       boltExchange;
+    private static Server             fetchServer;
+    private static BoltChannel        dataNodeChannel;
+    private static String             dataInfoId;
+    private static final List<String> dataIds            = new ArrayList<>();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        startServerIfNecessary();
+        boltExchange = (BoltExchange) dataApplicationContext.getBean("boltExchange");
+        fetchServer = boltExchange.open(new URL(NetUtil.getLocalAddress().getHostAddress(),
+            TEST_SYNC_PORT), new ChannelHandler[] { dataApplicationContext
+            .getBean(DataSyncServerConnectionHandler.class) });
+        dataNodeChannel = (BoltChannel) ((DataNodeExchanger) dataApplicationContext
+            .getBean("dataNodeExchanger")).connect(new URL(LOCAL_ADDRESS, TEST_SYNC_PORT));
+
+        for (int i = 0; i < 3; i++) {
+            String dataId = "test-batch-fetch-" + i + "-" + System.currentTimeMillis();
+            registryClient1.register(new PublisherRegistration(dataId), "value" + i);
+            dataIds.add(dataId);
+        }
+        dataInfoId = DataInfo.toDataInfoId(dataIds.get(0), DEFAULT_INSTANCE_ID, DEFAULT_GROUP);
+        DatumCache datumCache = dataApplicationContext.getBean(DatumCache.class);
+        for (int i = 0; i < 50 && !allPublished(datumCache); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(allPublished(datumCache));
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        dataIds.forEach(dataId -> registryClient1.unregister(dataId, DEFAULT_GROUP,
+            RegistryType.PUBLISHER));
+    }
+
+    @Test
+    public void testBatchFetch() throws Exception {
+        RecordingEventCenter eventCenter = new RecordingEventCenter();
+        DatumBatchFetcher fetcher = newFetcher(dataNodeChannel, eventCenter);
+
+        List<String> dataInfoIds = new ArrayList<>(toDataInfoIds());
+        dataInfoIds.add(DataInfo.toDataInfoId("test-batch-fetch-absent", DEFAULT_INSTANCE_ID,
+            DEFAULT_GROUP));
+        fetcher.fetch(LOCAL_ADDRESS, Collections.singletonMap(LOCAL_DATACENTER, dataInfoIds));
+
+        assertEquals(3, eventCenter.datums.size());
+        assertNotNull(eventCenter.datums.get(dataInfoId));
+        Map<String, Long> progress = fetcher.getProgress().get(LOCAL_ADDRESS);
+        assertEquals(4L, progress.get("fetched").longValue());
+        assertEquals(0L, progress.get("batchUnsupported").longValue());
+        // one publisher answered per request, the rest of the chunk is asked again
+        assertTrue(progress.get("requests") > 1);
+    }
+
+    @Test
+    public void testFallbackToGetData() throws Exception {
+        // a data node of the version before BatchGetDataRequest only processes GetDataRequest
+        Client client = boltExchange.connect(OLD_DATA_NODE_TYPE, new URL(LOCAL_ADDRESS,
+            TEST_SYNC_PORT), new ChannelHandler[] { (ChannelHandler) dataApplicationContext
+            .getBean("fetchDataHandler") });
+        try {
+            BoltChannel channel = (BoltChannel) client.getChannel(new URL(LOCAL_ADDRESS,
+                TEST_SYNC_PORT));
+            RecordingEventCenter eventCenter = new RecordingEventCenter();
+            DatumBatchFetcher fetcher = newFetcher(channel, eventCenter);
+            fetcher.fetch(LOCAL_ADDRESS,
+                Collections.singletonMap(LOCAL_DATACENTER, toDataInfoIds()));
+
+            assertEquals(3, eventCenter.datums.size());
+            Map<String, Long> progress = fetcher.getProgress().get(LOCAL_ADDRESS);
+            assertEquals(3L, progress.get("fetched").longValue());
+            assertEquals(1L, progress.get("batchUnsupported").longValue());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testConnectionUnavailable() throws Exception {
+        RecordingEventCenter eventCenter = new RecordingEventCenter();
+        DatumBatchFetcher fetcher = newFetcher(null, eventCenter);
+        assertFalse(fetcher.fetch(LOCAL_ADDRESS,
+            Collections.singletonMap(LOCAL_DATACENTER, toDataInfoIds())));
+        assertEquals(3L, fetcher.getProgress().get(LOCAL_ADDRESS).get("abandoned").longValue());
+    }
+
+    @Test
+    public void testRetryUntilFetched() throws Exception {
+        RecordingEventCenter eventCenter = new RecordingEventCenter();
+        eventCenter.failures.set(5);
+        DatumBatchFetcher fetcher = newFetcher(dataNodeChannel, eventCenter);
+        // failures in a row are retried while the connection exists
+        assertTrue(fetcher.fetch(LOCAL_ADDRESS,
+            Collections.singletonMap(LOCAL_DATACENTER, toDataInfoIds())));
+
+        assertEquals(3, eventCenter.datums.size());
+        Map<String, Long> progress = fetcher.getProgress().get(LOCAL_ADDRESS);
+        assertEquals(3L, progress.get("fetched").longValue());
+        assertEquals(5L, progress.get("failures").longValue());
+        assertEquals(0L, progress.get("abandoned").longValue());
+    }
+
+    private static boolean allPublished(DatumCache datumCache) {
+        for (String id : toDataInfoIds()) {
+            Datum datum = datumCache.get(LOCAL_DATACENTER, id);
+            if (datum == null || datum.getPubMap().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> toDataInfoIds() {
+        List<String> dataInfoIds = new ArrayList<>();
+        dataIds.forEach(dataId -> dataInfoIds.add(DataInfo.toDataInfoId(dataId,
+            DEFAULT_INSTANCE_ID, DEFAULT_GROUP)));
+        return dataInfoIds;
+    }
+
+    /**
+     * fetcher of the new data node, sending by the test sync port through the connection of the
+     * given client channel
+     */
+    private DatumBatchFetcher newFetcher(BoltChannel clientChannel,
+                                         DataChangeEventCenter eventCenter)
+                                                                           throws InterruptedException {
+        DataServerConfig dataServerConfig = new DataServerConfig(
+            dataApplicationContext.getBean(CommonConfig.class));
+        dataServerConfig.setSyncDataPort(TEST_SYNC_PORT);
+        dataServerConfig.setRpcTimeout(3000);
+        dataServerConfig.setDatumMigrationMaxPublishers(1);
+        dataServerConfig.setDatumMigrationRetryMaxDelayMillis(100);
+
+        DataServerConnectionFactory connectionFactory = new DataServerConnectionFactory();
+        if (clientChannel != null) {
+            int clientPort = clientChannel.getConnection().getLocalPort();
+            // the server side channel is added by the connect event, a moment after connecting
+            for (int i = 0; i < 50 && connectionFactory.getConnection(LOCAL_ADDRESS) == null; i++) {
+                for (Channel channel : fetchServer.getChannels()) {
+                    if (channel.getRemoteAddress().getPort() == clientPort) {
+                        connectionFactory.register(((BoltChannel) channel).getConnection());
+                    }
+                }
+                Thread.sleep(100);
+            }
+        }
+
+        DatumBatchFetcher fetcher = new DatumBatchFetcher();
+        fetcher.setDataServerConfig(dataServerConfig);
+        fetcher.setDataServerConnectionFactory(connectionFactory);
+        fetcher.setDataChangeEventCenter(eventCenter);
+        fetcher.setBoltExchange(boltExchange);
+        fetcher.init();
+        return fetcher;
+    }
+
+    private static final class RecordingEventCenter extends DataChangeEventCenter {
+        private final Map<String, Datum> datums   = new ConcurrentHashMap<>();
+
+        private final AtomicInteger      failures = new AtomicInteger();
+
+        @Override
+        public void sync(DataChangeTypeEnum changeType, DataSourceTypeEnum sourceType, Datum datum) {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("sync error");
+            }
+            datums.put(datum.getDataInfoId(), datum);
+        }
+    }
+}